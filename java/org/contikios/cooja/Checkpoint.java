@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.contikios.cooja.contikimote.ContikiMote;
+import org.contikios.cooja.mote.memory.MemoryInterface;
+import org.contikios.cooja.mote.memory.SectionMoteMemory;
+import org.contikios.cooja.motes.AbstractWakeupMote;
+import org.contikios.cooja.mspmote.MspMote;
+
+/**
+ * Checkpoint of a running simulation, so later runs can continue from it
+ * instead of starting over.
+ * <p>
+ * A checkpoint holds the simulation time, the state of the random generator
+ * and, for every mote, the clock drift, the position, the state of the mote
+ * and its next wakeup. Cooja motes keep their whole state in their memory
+ * sections. MSP430 motes save their emulated CPU, with its peripherals, chips
+ * and MSPSim events, and their radio with {@link MspMote#save}, which only
+ * supports the chips of Sky motes. Everything else is loaded from the
+ * simulation configuration, which must have the same motes and mote types.
+ * Restoring a checkpoint moves the events queued while loading the
+ * configuration to the time of the checkpoint, so scripts and plugins start
+ * from there.
+ * <p>
+ * A checkpoint is only saved while no radio is transmitting or receiving and
+ * no mote interface, such as a serial port or a button, has pending events,
+ * since radio connections and these events are not saved. The events of
+ * plugins and the statistics of the MSPSim profiler are not saved either.
+ */
+final class Checkpoint {
+  private static final int MAGIC = 0x436b5074; // "CkPt"
+  private static final int VERSION = 5;
+
+  private Checkpoint() {
+  }
+
+  /**
+   * Returns true if a checkpoint can be saved now, false while a radio is busy
+   * or a mote interface has pending events.
+   */
+  static boolean isQuiescent(Simulation sim) {
+    for (var mote : sim.getMotes()) {
+      var radio = mote.getInterfaces().getRadio();
+      if (radio != null && (radio.isTransmitting() || radio.isReceiving() || radio.isInterfered())) {
+        return false;
+      }
+    }
+    return !sim.hasScheduledEvent(Checkpoint::isInterfaceEvent);
+  }
+
+  /** Returns true for the events of motes other than their wakeups, which are not saved. */
+  private static boolean isInterfaceEvent(TimeEvent event) {
+    return event instanceof MoteTimeEvent e
+        && !(e.getMote() instanceof AbstractWakeupMote<?, ?> mote && event == mote.getWakeupEvent());
+  }
+
+  /**
+   * Saves a checkpoint of the simulation. Should only be called from the simulation
+   * thread, between events.
+   *
+   * @param sim Simulation
+   * @param random Random generator of the simulation
+   * @param file Checkpoint file
+   * @throws IOException if the simulation can not be saved or the file not written
+   */
+  static void save(Simulation sim, SafeRandom random, Path file) throws IOException {
+    var motes = sim.getMotes();
+    for (var mote : motes) {
+      if (!(mote instanceof ContikiMote) && !(mote instanceof MspMote)) {
+        throw new IOException("Mote " + mote.getID() + " can not be saved, only Cooja and MSP430 motes can");
+      }
+    }
+    if (sim.hasScheduledEvent(Checkpoint::isInterfaceEvent)) {
+      throw new IOException("Mote interfaces have pending events");
+    }
+    // Only replace the file when the whole simulation was saved.
+    var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sim.getSimulationTime());
+        var state = random.getState();
+        out.writeInt(state.length);
+        out.write(state);
+        out.writeInt(motes.length);
+        for (var mote : motes) {
+          out.writeInt(mote.getID());
+          out.writeUTF(describeType(sim, mote));
+          out.writeLong(mote.getInterfaces().getClock().getDrift());
+          var position = mote.getInterfaces().getPosition();
+          out.writeDouble(position.getXCoordinate());
+          out.writeDouble(position.getYCoordinate());
+          out.writeDouble(position.getZCoordinate());
+          if (mote instanceof MspMote mspMote) {
+            mspMote.save(out);
+          } else {
+            var sections = new TreeMap<>(((SectionMoteMemory) mote.getMemory()).getSections());
+            out.writeInt(sections.size());
+            for (var entry : sections.entrySet()) {
+              var section = entry.getValue();
+              out.writeUTF(entry.getKey());
+              out.writeLong(section.getStartAddr());
+              out.writeInt(section.getTotalSize());
+              out.write(section.getMemorySegment(section.getStartAddr(), section.getTotalSize()));
+            }
+          }
+          var wakeup = ((AbstractWakeupMote<?, ?>) mote).getWakeupEvent();
+          out.writeBoolean(wakeup != null);
+          if (wakeup != null) {
+            out.writeLong(wakeup.queueTime);
+            out.writeLong(wakeup.queueOrder);
+          }
+        }
+      } catch (MemoryInterface.MoteMemoryException e) {
+        throw new IOException("Could not read mote memory: " + e.getMessage(), e);
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Restores a checkpoint into a simulation that was just loaded from its configuration.
+   * Should only be called from the simulation thread, before the simulation is started.
+   *
+   * @param sim Simulation
+   * @param random Random generator of the simulation, or null to keep its seed
+   * @param file Checkpoint file
+   * @throws IOException if the file can not be read or does not match the simulation
+   */
+  static void restore(Simulation sim, SafeRandom random, Path file) throws IOException {
+    try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Not a checkpoint of this Cooja version");
+      }
+      long time = in.readLong();
+      var state = in.readNBytes(in.readInt());
+      int count = in.readInt();
+      if (count != sim.getMotesCount()) {
+        throw new IOException("Checkpoint has " + count + " motes, simulation has " + sim.getMotesCount());
+      }
+      var restored = new ArrayList<Mote>();
+      var wakeups = new ArrayList<SavedWakeup>();
+      for (int i = 0; i < count; i++) {
+        int id = in.readInt();
+        var mote = sim.getMoteWithID(id);
+        if (!(mote instanceof ContikiMote || mote instanceof MspMote) || restored.contains(mote)) {
+          throw new IOException("No Cooja or MSP430 mote with ID " + id + " in simulation");
+        }
+        restored.add(mote);
+        var type = in.readUTF();
+        if (!type.equals(describeType(sim, mote))) {
+          throw new IOException("Mote " + id + " has type " + describeType(sim, mote) + ", expected " + type);
+        }
+        mote.getInterfaces().getClock().setDrift(in.readLong());
+        mote.getInterfaces().getPosition().setCoordinates(in.readDouble(), in.readDouble(), in.readDouble());
+        if (mote instanceof MspMote mspMote) {
+          mspMote.restore(in);
+        } else {
+          restoreMemory(in, (SectionMoteMemory) mote.getMemory(), id);
+        }
+        if (in.readBoolean()) {
+          wakeups.add(new SavedWakeup((AbstractWakeupMote<?, ?>) mote, in.readLong(), in.readLong()));
+        }
+      }
+      if (random != null) {
+        random.setState(state);
+      }
+      // Drop the wakeups the motes scheduled when they were created.
+      var dropped = new ArrayList<TimeEvent>();
+      for (var mote : restored) {
+        var wakeup = ((AbstractWakeupMote<?, ?>) mote).getWakeupEvent();
+        if (wakeup != null) {
+          dropped.add(wakeup);
+        }
+      }
+      sim.continueFrom(time, dropped::contains);
+      for (var mote : restored) {
+        if (mote instanceof ContikiMote contikiMote) {
+          contikiMote.restored();
+        }
+      }
+      // Schedule the wakeups in their saved order, which orders wakeups at the same time.
+      wakeups.sort(Comparator.comparingLong(SavedWakeup::order));
+      for (var wakeup : wakeups) {
+        wakeup.mote.scheduleNextWakeup(wakeup.time);
+      }
+    }
+  }
+
+  /** Wakeup of a mote in a checkpoint. */
+  private record SavedWakeup(AbstractWakeupMote<?, ?> mote, long time, long order) {
+  }
+
+  private static void restoreMemory(DataInputStream in, SectionMoteMemory memory, int id) throws IOException {
+    int sections = in.readInt();
+    if (sections != memory.getNumberOfSections()) {
+      throw new IOException("Mote " + id + " has a different memory layout");
+    }
+    try {
+      for (int j = 0; j < sections; j++) {
+        var section = memory.getSection(in.readUTF());
+        long start = in.readLong();
+        int size = in.readInt();
+        if (section == null || section.getStartAddr() != start || section.getTotalSize() != size) {
+          throw new IOException("Mote " + id + " has a different memory layout");
+        }
+        memory.setMemorySegment(start, in.readNBytes(size));
+      }
+    } catch (MemoryInterface.MoteMemoryException e) {
+      throw new IOException("Could not write mote memory: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns the class and the position of the mote type of a mote. Mote types
+   * get a new identifier every time they are loaded.
+   */
+  private static String describeType(Simulation sim, Mote mote) {
+    return mote.getType().getClass().getName() + " #" + Arrays.asList(sim.getMoteTypes()).indexOf(mote.getType());
+  }
+}
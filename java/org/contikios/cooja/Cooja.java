@@ -41,6 +41,7 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -50,6 +51,10 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
@@ -132,7 +137,10 @@ public class Cooja {
   public static Config configuration;
 
   /** Used mote type IDs. Used by mote types to ensure uniqueness during Cooja lifetime. */
-  public static final Set<String> usedMoteTypeIDs = new HashSet<>();
+  public static final Set<String> usedMoteTypeIDs = Collections.synchronizedSet(new HashSet<>());
+
+  /** Serializes the creation of simulations that run concurrently, since mote types are compiled in their source directories. */
+  private static final Object simulationCreationLock = new Object();
 
   private Simulation mySimulation;
 
@@ -241,6 +249,13 @@ public class Cooja {
     return configuration.vis;
   }
 
+  /**
+   * @return True if several headless simulations may run at the same time
+   */
+  public static boolean isBatch() {
+    return !configuration.vis && configuration.batch > 1;
+  }
+
   public static JFrame getTopParentContainer() {
     // Touching GUI when headless pollutes performance profile with ClassLoader.loadClass()-chain.
     return gui == null ? null : GUI.frame;
@@ -1139,6 +1154,9 @@ public class Cooja {
       logger.error(e.getMessage());
       System.exit(1);
     }
+    if (isBatch() && !simConfigs.isEmpty()) {
+      gui.doQuit(runBatch(gui, simConfigs, config.batch));
+    }
     // Check if simulator should be quick-started.
     int rv = 0;
     boolean autoQuit = !simConfigs.isEmpty() && !config.vis;
@@ -1168,7 +1186,12 @@ public class Cooja {
         if (!config.vis) {
           sim.setSpeedLimit(null);
         }
+        long startTime = System.nanoTime();
         var ret = sim.startSimulation(true);
+        if (!config.vis) {
+          logThroughput(simConfig, sim.getSimulationTimeMillis(), System.nanoTime() - startTime);
+          writeProfile(simConfig, sim);
+        }
         if (ret == null) {
           logger.info("TEST OK\n");
         } else {
@@ -1179,14 +1202,138 @@ public class Cooja {
       }
     }
     if (autoQuit) {
-      if (!failedTests.isEmpty()) {
-        logger.error("Failed tests:\n{}", failedTests.stream().map(cfg ->
-                cfg.file() + " seed: " + cfg.randomSeed()).collect(Collectors.joining("\n")));
-      }
+      logFailedTests(failedTests);
       gui.doQuit(rv);
     }
   }
 
+  /**
+   * Runs simulations without GUI, with up to the given number of simulations
+   * running at the same time. Each running simulation belongs to its own Cooja.
+   *
+   * @param first Cooja to run the first simulation in
+   * @param simConfigs Simulation configurations
+   * @param concurrency Maximum number of simulations to run at the same time
+   * @return Highest return value of the simulations
+   */
+  private static int runBatch(Cooja first, List<Simulation.SimConfig> simConfigs, int concurrency) {
+    int instances = Math.min(concurrency, simConfigs.size());
+    var coojas = new LinkedBlockingQueue<Cooja>();
+    coojas.add(first);
+    for (int i = 1; i < instances; i++) {
+      try {
+        coojas.add(makeCooja());
+      } catch (ParseProjectsException e) {
+        logger.error(e.getMessage());
+        return 1;
+      }
+    }
+    long startTime = System.nanoTime();
+    var executor = Executors.newFixedThreadPool(instances);
+    var futures = new ArrayList<Future<BatchResult>>();
+    for (var simConfig : simConfigs) {
+      futures.add(executor.submit(() -> {
+        var cooja = coojas.take();
+        try {
+          return cooja.runBatchSimulation(simConfig);
+        } finally {
+          coojas.add(cooja);
+        }
+      }));
+    }
+    executor.shutdown();
+    int rv = 0;
+    long simulationTime = 0;
+    var failedTests = new ArrayList<Simulation.SimConfig>();
+    for (int i = 0; i < futures.size(); i++) {
+      var simConfig = simConfigs.get(i);
+      BatchResult result;
+      try {
+        result = futures.get(i).get();
+      } catch (ExecutionException e) {
+        logger.error("Exception when running simulation: ", e.getCause());
+        result = new BatchResult(1, 0);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        executor.shutdownNow();
+        return 1;
+      }
+      simulationTime += result.simulationTimeMillis;
+      if (result.rv != null) {
+        failedTests.add(simConfig);
+        rv = Math.max(rv, result.rv);
+      }
+    }
+    long wallTime = System.nanoTime() - startTime;
+    logger.info("Ran {} simulations: {} passed, {} failed, {} ms simulated in {} ms",
+            simConfigs.size(), simConfigs.size() - failedTests.size(), failedTests.size(),
+            simulationTime, wallTime / 1_000_000);
+    logFailedTests(failedTests);
+    return rv;
+  }
+
+  /** Loads and runs a simulation in this Cooja, called by the batch runner. */
+  private BatchResult runBatchSimulation(Simulation.SimConfig simConfig) {
+    logger.info("Loading " + simConfig.file() + " random seed: " + simConfig.randomSeed());
+    Simulation sim = null;
+    try {
+      synchronized (simulationCreationLock) {
+        sim = createSimulation(simConfig, readSimulationConfig(simConfig), true, simConfig.randomSeed());
+      }
+    } catch (MoteTypeCreationException | SimulationCreationException e) {
+      logger.error("Failed to load simulation: {}", e.getMessage());
+    } catch (Exception e) {
+      logger.error("Exception when loading simulation: ", e);
+    }
+    if (sim == null) {
+      logger.error("TEST {} FAILED\n", simConfig.file());
+      return new BatchResult(1, 0);
+    }
+    if (simConfig.updateSim()) {
+      saveSimulationConfig(new File(simConfig.file()));
+      return new BatchResult(null, 0);
+    }
+    if (!simConfig.autoStart()) {
+      return new BatchResult(null, 0);
+    }
+    sim.setSpeedLimit(null);
+    long startTime = System.nanoTime();
+    var ret = sim.startSimulation(true);
+    var result = new BatchResult(ret, sim.getSimulationTimeMillis());
+    logThroughput(simConfig, result.simulationTimeMillis, System.nanoTime() - startTime);
+    writeProfile(simConfig, sim);
+    if (ret == null) {
+      logger.info("TEST {} OK\n", simConfig.file());
+    } else {
+      logger.error("TEST {} FAILED\n", simConfig.file());
+    }
+    return result;
+  }
+
+  private static void logThroughput(Simulation.SimConfig simConfig, long simulationTimeMillis, long wallTimeNanos) {
+    long wallTimeMillis = Math.max(wallTimeNanos / 1_000_000, 1);
+    logger.info("{} seed {}: {} ms simulated in {} ms ({}x real time)", simConfig.file(), simConfig.randomSeed(),
+            simulationTimeMillis, wallTimeMillis,
+            String.format(Locale.ROOT, "%.1f", (double) simulationTimeMillis / wallTimeMillis));
+  }
+
+  /** Writes the profile of a simulation run with the "profile" option to its log directory. */
+  private static void writeProfile(Simulation.SimConfig simConfig, Simulation sim) {
+    var profiler = sim.getProfiler();
+    if (profiler == null) {
+      return;
+    }
+    var name = Path.of(simConfig.file()).getFileName().toString().replaceFirst("\\.csc(\\.gz)?$", "");
+    profiler.write(Path.of(simConfig.logDir()), name + "-profile");
+  }
+
+  private static void logFailedTests(List<Simulation.SimConfig> failedTests) {
+    if (!failedTests.isEmpty()) {
+      logger.error("Failed tests:\n{}", failedTests.stream().map(cfg ->
+              cfg.file() + " seed: " + cfg.randomSeed()).collect(Collectors.joining("\n")));
+    }
+  }
+
   Element readSimulationConfig(Simulation.SimConfig cfg) throws SimulationCreationException {
     var file = new File(cfg.file());
     try {
@@ -1655,8 +1802,11 @@ public class Cooja {
    */
   public record Config(LogbackColors logColors, boolean vis, GUI.LookAndFeel lookAndFeel,
                        String externalToolsConfig, String nashornArgs, String logDir,
-                       String contikiPath, String coojaPath) {}
+                       String contikiPath, String coojaPath, int batch) {}
 
   public record LogbackColors(String error, String warn, String info, String fallback) {}
   private record PathIdentifier(String id, String path) {}
+
+  /** Return value of a simulation in a batch, null if it passed, and its simulated time. */
+  private record BatchResult(Integer rv, long simulationTimeMillis) {}
 }
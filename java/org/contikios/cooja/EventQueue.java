@@ -28,148 +28,392 @@
  *
  */
 
+
 package org.contikios.cooja;
 
+import java.util.Arrays;
 import java.util.PriorityQueue;
 import java.util.function.Predicate;
 
 /**
+ * Queue of scheduled simulation events, ordered by time and then by insertion order.
+ * <p>
+ * Removed events stay in the queue until they reach the head of the queue or are
+ * scheduled again.
+ *
  * @author Joakim Eriksson (ported to COOJA by Fredrik Osterlind)
  */
-final class EventQueue {
+abstract class EventQueue {
+
+  /** Each event is given a monotonically increasing unique id when it is queued. */
+  protected long count;
+
+  /**
+   * Creates an event queue.
+   *
+   * @param type "heap" for the indexed heap, "priority" for the priority queue of pairs
+   * @return Event queue
+   * @throws IllegalArgumentException if the type is unknown
+   */
+  static EventQueue create(String type) {
+    return switch (type) {
+      case "heap" -> new HeapQueue();
+      case "priority" -> new PairQueue();
+      default -> throw new IllegalArgumentException("Unknown event queue: " + type);
+    };
+  }
+
+  /**
+   * Orders queued events by time, and events inserted earlier first.
+   */
+  static int compare(TimeEvent a, TimeEvent b) {
+    if (a.queueTime != b.queueTime) {
+      return Long.compare(a.queueTime, b.queueTime);
+    }
+    return Long.compare(a.queueOrder, b.queueOrder);
+  }
+
+  /**
+   * Should only be called from simulation thread!
+   *
+   * @param event Event
+   * @param time Time
+   */
+  public abstract void addEvent(TimeEvent event, long time);
+
+  public abstract void clear();
 
-  private long count;
+  /**
+   * Should only be called from simulation thread!
+   *
+   * @return Event, its time is {@link TimeEvent#queueTime}
+   */
+  public abstract TimeEvent popFirst();
 
-  public static final class Pair implements Comparable<Pair> {
-    public final TimeEvent event;
-    public final long time;
+  /**
+   * Should only be called from simulation thread!
+   *
+   * @return First scheduled event without removing it, or null if there is none
+   */
+  public abstract TimeEvent peekFirst();
 
-    private final long uuid;
+  public abstract boolean isEmpty();
+
+  public abstract boolean removeIf(Predicate<TimeEvent> pred);
+
+  /**
+   * Should only be called from simulation thread!
+   *
+   * @param pred Predicate
+   * @return True if a scheduled event matches the predicate
+   */
+  public abstract boolean anyMatch(Predicate<TimeEvent> pred);
+
+  /**
+   * Binary heap where each event knows its slot, so rescheduling a removed event
+   * moves it within the heap instead of searching for it.
+   */
+  static final class HeapQueue extends EventQueue {
+    private TimeEvent[] heap = new TimeEvent[64];
+    private int size;
 
-    Pair(TimeEvent event, long time, long uuid) {
-      this.event = event;
-      this.time = time;
-      this.uuid = uuid;
+    @Override
+    public void addEvent(TimeEvent event, long time) {
+      if (event.isScheduled()) {
+        throw new IllegalStateException("Event is already scheduled: " + event);
+      }
+      event.queueTime = time;
+      event.queueOrder = count++;
+      int index = event.queueIndex;
+      if (index >= 0) {
+        // Removed but still queued, move it to its new position.
+        siftUp(index, event);
+        if (event.queueIndex == index) {
+          siftDown(index, event);
+        }
+      } else {
+        if (size == heap.length) {
+          heap = Arrays.copyOf(heap, size * 2);
+        }
+        siftUp(size++, event);
+      }
+      event.setScheduled(true);
     }
 
     @Override
-    public int compareTo(Pair other) {
-      if (time < other.time)
-      {
-        return -1;
+    public void clear() {
+      for (int i = 0; i < size; i++) {
+        heap[i].queueIndex = -1;
+        heap[i] = null;
       }
-      else if (time > other.time)
-      {
-        return +1;
+      size = 0;
+    }
+
+    @Override
+    public TimeEvent popFirst() {
+      while (size > 0) {
+        var event = heap[0];
+        removeAt(0);
+        boolean scheduled = event.isScheduled();
+        // No longer scheduled or queued
+        event.setScheduled(false);
+        if (scheduled) {
+          return event;
+        }
       }
-      else
-      {
-        // Tiebreaker, to prioritise events based on insertion order
-        if (uuid < other.uuid)
+      return null;
+    }
+
+    @Override
+    public TimeEvent peekFirst() {
+      while (size > 0 && !heap[0].isScheduled()) {
+        heap[0].setScheduled(false);
+        removeAt(0);
+      }
+      return size > 0 ? heap[0] : null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<TimeEvent> pred) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        var event = heap[i];
+        if (pred.test(event)) {
+          event.queueIndex = -1;
+        } else {
+          heap[kept++] = event;
+        }
+      }
+      if (kept == size) {
+        return false;
+      }
+      Arrays.fill(heap, kept, size, null);
+      size = kept;
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i, heap[i]);
+      }
+      for (int i = 0; i < size; i++) {
+        heap[i].queueIndex = i;
+      }
+      return true;
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<TimeEvent> pred) {
+      for (int i = 0; i < size; i++) {
+        if (heap[i].isScheduled() && pred.test(heap[i])) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void removeAt(int index) {
+      heap[index].queueIndex = -1;
+      var last = heap[--size];
+      heap[size] = null;
+      if (index < size) {
+        siftUp(index, last);
+        if (last.queueIndex == index) {
+          siftDown(index, last);
+        }
+      }
+    }
+
+    private void siftUp(int index, TimeEvent event) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        var other = heap[parent];
+        if (compare(event, other) >= 0) {
+          break;
+        }
+        heap[index] = other;
+        other.queueIndex = index;
+        index = parent;
+      }
+      heap[index] = event;
+      event.queueIndex = index;
+    }
+
+    private void siftDown(int index, TimeEvent event) {
+      int half = size >>> 1;
+      while (index < half) {
+        int child = 2 * index + 1;
+        var other = heap[child];
+        int right = child + 1;
+        if (right < size && compare(heap[right], other) < 0) {
+          child = right;
+          other = heap[child];
+        }
+        if (compare(event, other) <= 0) {
+          break;
+        }
+        heap[index] = other;
+        other.queueIndex = index;
+        index = child;
+      }
+      heap[index] = event;
+      event.queueIndex = index;
+    }
+
+    @Override
+    public String toString() {
+      return "EventQueue with " + size + " events";
+    }
+  }
+
+  /**
+   * Priority queue of (event, time) pairs, where rescheduling a removed event
+   * searches the queue for its previous pair.
+   */
+  static final class PairQueue extends EventQueue {
+    private static final class Pair implements Comparable<Pair> {
+      final TimeEvent event;
+      final long time;
+
+      private final long uuid;
+
+      Pair(TimeEvent event, long time, long uuid) {
+        this.event = event;
+        this.time = time;
+        this.uuid = uuid;
+      }
+
+      @Override
+      public int compareTo(Pair other) {
+        if (time < other.time)
         {
           return -1;
         }
-        else if (uuid > other.uuid)
+        else if (time > other.time)
         {
           return +1;
         }
         else
         {
-          throw new RuntimeException("Bad compare");
+          // Tiebreaker, to prioritise events based on insertion order
+          if (uuid < other.uuid)
+          {
+            return -1;
+          }
+          else if (uuid > other.uuid)
+          {
+            return +1;
+          }
+          else
+          {
+            throw new RuntimeException("Bad compare");
+          }
         }
       }
     }
-  }
 
-  private final PriorityQueue<Pair> queue = new PriorityQueue<>();
+    private final PriorityQueue<Pair> queue = new PriorityQueue<>();
 
-  /**
-   * Should only be called from simulation thread!
-   *
-   * @param event Event
-   * @param time Time
-   */
-  public void addEvent(TimeEvent event, long time) {
-    if (event.isQueued()) {
-      if (event.isScheduled()) {
-        throw new IllegalStateException("Event is already scheduled: " + event);
+    @Override
+    public void addEvent(TimeEvent event, long time) {
+      if (event.isQueued()) {
+        if (event.isScheduled()) {
+          throw new IllegalStateException("Event is already scheduled: " + event);
+        }
+        removeFromQueue(event);
       }
-      removeFromQueue(event);
-    }
 
-    // Each event is given a monotonically increasing unique id.
-    // This is used in a tiebreaker in the queue, so events that are
-    // inserted earlier are executed first.
-    queue.add(new Pair(event, time, count++));
+      // The id is used in a tiebreaker in the queue, so events that are
+      // inserted earlier are executed first.
+      event.queueTime = time;
+      event.queueOrder = count;
+      queue.add(new Pair(event, time, count++));
 
-    event.setScheduled(true);
-  }
+      event.setScheduled(true);
+    }
 
-  /**
-   * Should only be called from simulation thread!
-   *
-   * @param event Event
-   * @return True if event was removed
-   */
-  private boolean removeFromQueue(TimeEvent event) {
-    boolean removed = queue.removeIf((Pair p) -> p.event == event);
+    /**
+     * Should only be called from simulation thread!
+     *
+     * @param event Event
+     * @return True if event was removed
+     */
+    private boolean removeFromQueue(TimeEvent event) {
+      boolean removed = queue.removeIf((Pair p) -> p.event == event);
+
+      assert removed == event.isQueued();
 
-    assert removed == event.isQueued();
+      if (removed)
+      {
+        event.setScheduled(false);
+      }
 
-    if (removed)
-    {
-      event.setScheduled(false);
+      return removed;
     }
 
-    return removed;
-  }
+    @Override
+    public void clear() {
+      queue.clear();
+    }
 
-  public void clear() {
-    queue.clear();
-  }
+    @Override
+    public TimeEvent popFirst() {
+      Pair tmp;
 
-  /**
-   * Should only be called from simulation thread!
-   *
-   * @return Event
-   */
-  public Pair popFirst() {
-    Pair tmp;
+      while (true)
+      {
+        tmp = queue.poll();
 
-    while (true)
-    {
-      tmp = queue.poll();
+        if (tmp == null) {
+          return null;
+        }
 
-      if (tmp == null) {
-        return null;
-      }
+        boolean scheduled = tmp.event.isScheduled();
 
-      boolean scheduled = tmp.event.isScheduled();
+        // No longer scheduled or queued
+        tmp.event.setScheduled(false);
 
-      // No longer scheduled or queued
-      tmp.event.setScheduled(false);
+        if (scheduled)
+        {
+          break;
+        }
 
-      if (scheduled)
-      {
-        break;
+        // If not scheduled, then find the next scheduled event
       }
 
-      // If not scheduled, then find the next scheduled event
+      return tmp.event;
     }
 
-    return tmp;
-  }
+    @Override
+    public TimeEvent peekFirst() {
+      Pair tmp;
+      while ((tmp = queue.peek()) != null && !tmp.event.isScheduled()) {
+        // Drop events that are no longer scheduled, as popFirst does.
+        queue.poll();
+        tmp.event.setScheduled(false);
+      }
+      return tmp == null ? null : tmp.event;
+    }
 
-  public boolean isEmpty() {
-    return queue.isEmpty();
-  }
+    @Override
+    public boolean isEmpty() {
+      return queue.isEmpty();
+    }
 
-  public boolean removeIf(final Predicate<TimeEvent> pred) {
-    return queue.removeIf((Pair p) -> pred.test(p.event));
-  }
+    @Override
+    public boolean removeIf(final Predicate<TimeEvent> pred) {
+      return queue.removeIf((Pair p) -> pred.test(p.event));
+    }
 
-  @Override
-  public String toString() {
-    return "EventQueue with " + queue.size() + " events";
+    @Override
+    public boolean anyMatch(final Predicate<TimeEvent> pred) {
+      return queue.stream().anyMatch((Pair p) -> p.event.isScheduled() && pred.test(p.event));
+    }
+
+    @Override
+    public String toString() {
+      return "EventQueue with " + queue.size() + " events";
+    }
   }
 }
@@ -42,12 +42,14 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
 import javax.swing.JTextArea;
 import org.contikios.cooja.SimEventCentral.LogOutputEvent;
 import org.contikios.cooja.SimEventCentral.LogOutputListener;
 import org.contikios.cooja.plugins.ScriptRunner;
+import org.contikios.cooja.script.LogFilter;
 import org.contikios.cooja.script.ScriptLog;
 import org.contikios.cooja.script.ScriptMote;
 import org.contikios.cooja.script.ScriptParser;
@@ -72,15 +74,21 @@ public class LogScriptEngine {
 
   private final BufferedWriter logWriter; // For non-GUI tests.
 
+  /** Log output that resumes the script, set by the script as logFilter. */
+  private LogFilter logFilter = new LogFilter();
+
   private final LogOutputListener logOutputListener = new LogOutputListener() {
     @Override
     public void newLogOutput(LogOutputEvent ev) {
-      if (scriptThread == null || !scriptThread.isAlive()) {
+      if (!isScriptActive()) {
         return;
       }
 
       // Only called from the simulation loop.
       final var mote = ev.getMote();
+      if (!logFilter.matches(mote.getID(), ev.msg)) {
+        return;
+      }
       try {
         // Update script variables.
         engine.put("mote", mote);
@@ -88,7 +96,7 @@ public class LogScriptEngine {
         engine.put("time", ev.getTime());
         engine.put("msg", ev.msg);
 
-        stepScript();
+        stepScript(mote, ev.msg);
       } catch (UndeclaredThrowableException e) {
         logger.error("Exception: " + e.getMessage(), e);
         if (Cooja.isVisualized()) {
@@ -103,6 +111,11 @@ public class LogScriptEngine {
   private Semaphore semaphoreScript; /* Semaphores blocking script/simulation */
   private Semaphore semaphoreSim;
   private Thread scriptThread; /* Script thread */
+  private ScriptMote node; /* Mote and message of the last log output, for the script */
+  /** The condition of WAIT_UNTIL while the script waits, evaluated by the simulation thread. */
+  private BooleanSupplier waitCondition;
+  /** Thrown by the condition of WAIT_UNTIL in the simulation thread, for the script thread. */
+  private RuntimeException waitConditionError;
   private final Simulation simulation;
 
   private long timeout;
@@ -131,8 +144,33 @@ public class LogScriptEngine {
     logWriter = null;
   }
 
+  private boolean isScriptActive() {
+    return scriptThread != null && scriptThread.isAlive();
+  }
+
+  /**
+   * Steps the script for log output. While the script waits in WAIT_UNTIL, the
+   * simulation thread evaluates the condition in place of the script, as the
+   * script does after YIELD, and only hands over when the condition holds.
+   * Only called from the simulation loop.
+   */
+  private void stepScript(Mote mote, String msg) {
+    var condition = waitCondition;
+    if (condition != null) {
+      try {
+        node.setMoteMsg(mote, msg);
+        if (!condition.getAsBoolean()) {
+          return;
+        }
+      } catch (RuntimeException e) {
+        waitConditionError = e;
+      }
+    }
+    resumeScript();
+  }
+
   /* Only called from the simulation loop */
-  private void stepScript() {
+  private void resumeScript() {
     /* Release script - halt simulation */
     Semaphore semScript = semaphoreScript;
     Semaphore semSim = semaphoreSim;
@@ -153,6 +191,37 @@ public class LogScriptEngine {
     /* ... script is now again waiting for script semaphore ... */
   }
 
+  /* Only called from the script thread */
+  private void yieldScriptThread() {
+    Semaphore semScript = semaphoreScript;
+    Semaphore semSim = semaphoreSim;
+    if (semScript == null || semSim == null) {
+      return;
+    }
+    semSim.release();
+    semScript.acquireUninterruptibly(); // Wait for simulation here.
+  }
+
+  /* Only called from the script thread, by WAIT_UNTIL when the condition does not hold */
+  private void waitScriptThread(BooleanSupplier condition) {
+    waitCondition = condition;
+    try {
+      yieldScriptThread();
+    } finally {
+      waitCondition = null;
+    }
+    var e = waitConditionError;
+    if (e != null) {
+      waitConditionError = null;
+      throw e;
+    }
+  }
+
+  /** Waits in the script thread until the simulation thread finds that a condition holds. */
+  public interface ScriptWait {
+    void waitUntil(BooleanSupplier condition);
+  }
+
   public void scriptLog(String msg) {
     if (Cooja.isVisualized()) {
       java.awt.EventQueue.invokeLater(() -> {
@@ -232,29 +301,27 @@ public class LogScriptEngine {
     return engine.compile(parser.getJSCode());
   }
 
-  /** Allocate semaphores, set up the internal state of the engine, and start the script thread. */
+  /**
+   * Set up the internal state of the engine, and run the script until it waits for
+   * the first log output. The script runs in a virtual thread, which the simulation
+   * thread hands over to and waits for until the script yields. The conditions of
+   * WAIT_UNTIL are evaluated by the simulation thread.
+   */
   public boolean activateScript(final CompiledScript script) {
-    semaphoreScript = new Semaphore(1);
-    semaphoreSim = new Semaphore(0);
-    try {
-      semaphoreScript.acquire();
-    } catch (InterruptedException e) {
-      logger.error("Error when creating engine: " + e.getMessage(), e);
-      return false;
-    }
     // Setup script variables.
     engine.put("TIMEOUT", false);
     engine.put("SHUTDOWN", false);
-    engine.put("SEMAPHORE_SCRIPT", semaphoreScript);
-    engine.put("SEMAPHORE_SIM", semaphoreSim);
     engine.put("log", scriptLog);
     engine.put("global", new HashMap<>());
     engine.put("sim", simulation);
     engine.put("gui", simulation.getCooja());
     engine.put("mote", null);
     engine.put("msg", "");
-    engine.put("node", new ScriptMote());
-    scriptThread = new Thread(() -> {
+    node = new ScriptMote();
+    engine.put("node", node);
+    logFilter = new LogFilter();
+    engine.put("logFilter", logFilter);
+    Runnable body = () -> {
       int rv = 1;
       try {
         rv = (int) Objects.requireNonNullElse(script.eval(), 1);
@@ -270,8 +337,18 @@ public class LogScriptEngine {
       }
       deactivateScript();
       simulation.stopSimulation(rv > 0 ? rv : null);
-    }, "script");
-    scriptThread.start();
+    };
+    semaphoreScript = new Semaphore(1);
+    semaphoreSim = new Semaphore(0);
+    try {
+      semaphoreScript.acquire();
+    } catch (InterruptedException e) {
+      logger.error("Error when creating engine: " + e.getMessage(), e);
+      return false;
+    }
+    engine.put("SCRIPT_YIELD", (Runnable) this::yieldScriptThread);
+    engine.put("SCRIPT_WAIT", (ScriptWait) this::waitScriptThread);
+    scriptThread = Thread.ofVirtual().name("script").start(body);
     try {
       semaphoreSim.acquire();
     } catch (InterruptedException e) {
@@ -293,9 +370,9 @@ public class LogScriptEngine {
     public void execute(long t) {
       logger.info("Timeout event @ " + t);
       engine.put("TIMEOUT", true);
-      stepScript();
+      resumeScript();
       deactivateScript();
-      simulation.stopSimulation(); // stepScript will set return value.
+      simulation.stopSimulation(); // resumeScript will set return value.
     }
   };
   private final TimeEvent timeoutProgressEvent = new TimeEvent() {
@@ -349,8 +426,8 @@ public class LogScriptEngine {
       final TimeEvent generateEvent = new TimeEvent() {
         @Override
         public void execute(long t) {
-          if (scriptThread == null || !scriptThread.isAlive()) {
-            logger.info("script thread not alive. try deactivating script.");
+          if (!isScriptActive()) {
+            logger.info("script not active. try deactivating script.");
             return;
           }
 
@@ -360,7 +437,7 @@ public class LogScriptEngine {
           engine.put("time", t);
           engine.put("msg", msg);
 
-          stepScript();
+          stepScript(currentMote, msg);
         }
       };
       simulation.invokeSimulationThread(() ->
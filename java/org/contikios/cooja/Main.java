@@ -114,6 +114,18 @@ class Main {
   @Option(names = "--random-seed", paramLabel = "SEED", description = "the random seed")
   Long randomSeed;
 
+  /**
+   * Option for specifying the number of threads that execute motes.
+   */
+  @Option(names = "--parallel", paramLabel = "THREADS", description = "the number of threads executing motes")
+  int parallel = 1;
+
+  /**
+   * Option for specifying the number of simulations that run at the same time.
+   */
+  @Option(names = "--batch", paramLabel = "SIMULATIONS", description = "the number of simulations running at the same time")
+  int batch = 1;
+
   /**
    * Automatically start simulations.
    */
@@ -200,6 +212,16 @@ class Main {
       System.exit(1);
     }
 
+    if (options.batch < 1) {
+      System.err.println("Faulty number of simulations: " + options.batch);
+      System.exit(1);
+    }
+
+    if (options.batch > 1 && options.gui) {
+      System.err.println("Can only run simulations at the same time without --gui");
+      System.exit(1);
+    }
+
     if (!options.logColor) {
       if (System.getProperty("logback.layoutPattern") != null
               || !"logback.xml".equals(System.getProperty("logback.configurationFile", "logback.xml"))) {
@@ -264,7 +286,27 @@ class Main {
       var randomSeed = map.get("random-seed");
       var autoStart = map.getOrDefault("autostart", Boolean.toString(options.autoStart || !options.gui));
       var updateSim = map.getOrDefault("update-simulation", Boolean.toString(options.updateSimulation));
-      var logDir = map.getOrDefault("logdir", options.logDir);
+      var logDir = map.get("logdir");
+      if (logDir == null && options.batch > 1) {
+        // Simulations that run at the same time write their test logs to separate directories.
+        var name = Path.of(file).getFileName().toString().replaceFirst("\\.csc(\\.gz)?$", "");
+        var logDirPath = Path.of(options.logDir, String.format("%03d-%s", simConfigs.size() + 1, name));
+        try {
+          Files.createDirectories(logDirPath);
+        } catch (IOException e) {
+          System.err.println("Could not create log directory '" + logDirPath + "'");
+          System.exit(1);
+        }
+        logDir = logDirPath.toString();
+      } else if (logDir == null) {
+        logDir = options.logDir;
+      }
+      var parallel = map.getOrDefault("parallel", Integer.toString(options.parallel));
+      if (!parallel.matches("[1-9][0-9]*")) {
+        System.err.println("Faulty number of threads: " + parallel);
+        System.exit(1);
+      }
+      map.put("parallel", parallel);
       simConfigs.add(new Simulation.SimConfig(file, randomSeed == null ? options.randomSeed : Long.decode(randomSeed),
               Boolean.parseBoolean(autoStart), Boolean.parseBoolean(updateSim), logDir, map));
     }
@@ -308,7 +350,7 @@ class Main {
               ANSIConstants.GREEN_FG, ANSIConstants.DEFAULT_FG);
       var cfg = new Config(colors, options.gui, options.lookAndFeel, options.externalUserConfig,
                 options.nashornArgs,
-                options.logDir, options.contikiPath, options.coojaPath);
+                options.logDir, options.contikiPath, options.coojaPath, options.batch);
       Cooja.go(cfg, simConfigs);
     } else { // Start MSPSim.
       var config = new ArgumentManager(options.simulationFiles.toArray(new String[0]));
@@ -120,6 +120,17 @@ public interface Mote {
     getInterfaces().removed();
   }
 
+  /**
+   * Returns true if executing the events of this mote only changes the mote itself,
+   * and the rest of the simulation is only reached through the simulation and
+   * interface triggers. Such motes can be executed in parallel with other motes.
+   *
+   * @see ParallelExecutor
+   */
+  default boolean supportsParallelExecution() {
+    return false;
+  }
+
   void setProperty(String key, Object obj);
   Object getProperty(String key);
 }
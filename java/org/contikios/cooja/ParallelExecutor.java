@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conservative parallel execution of mote events.
+ * <p>
+ * Motes that support parallel execution are logical processes. The queued events of
+ * such motes that precede both the next event of any other kind and the lookahead of
+ * the radio medium form a window. Every logical process executes its share of the
+ * window on a worker thread, while the simulation thread waits for all of them.
+ * <p>
+ * Everything a mote does to the rest of the simulation during a window (scheduling
+ * events it does not own, firing interface triggers, requesting simulation thread
+ * actions) is recorded and replayed on the simulation thread once the window is done.
+ * The replay follows the order of the sequential engine and restores the simulation
+ * time of each interaction, so the event queue ends up with the same events in the
+ * same order as after a sequential run. Trigger observers get the same values with
+ * the same time stamps, but only at the end of the window. Observers that read the
+ * state of the mote instead of the value they are given must implement
+ * {@link org.contikios.cooja.util.EventTriggers.Capturing}, as other observers see the
+ * state of the mote at the end of the window.
+ * An observer that schedules an event before the end of the executed window stops
+ * the simulation with an error.
+ *
+ * @see Mote#supportsParallelExecution()
+ * @see RadioMedium#getLookahead()
+ */
+public final class ParallelExecutor {
+  /** Longest window, bounds how late observers see the output of a window. */
+  private static final long MAX_WINDOW = 10 * Simulation.MILLISECOND;
+
+  private final Simulation simulation;
+  private final EventQueue eventQueue;
+  private final ExecutorService workers;
+
+  /** End of the current window, events created at or after this time are not executed in the window. */
+  private long windowEnd;
+  /** Time of the last event executed in parallel. */
+  private long horizon;
+  /** Number of windows executed in parallel. */
+  private long windows;
+
+  ParallelExecutor(Simulation simulation, EventQueue eventQueue, int threads) {
+    this.simulation = simulation;
+    this.eventQueue = eventQueue;
+    var count = new AtomicInteger();
+    workers = Executors.newFixedThreadPool(threads, r -> new Worker(this, r, "sim-" + count.incrementAndGet()));
+  }
+
+  /**
+   * Defers an action to the end of the current window when called from a worker thread.
+   *
+   * @param action Action that affects the rest of the simulation
+   * @return True if the action was deferred, false if the caller should perform it
+   */
+  public static boolean defer(Runnable action) {
+    if (Thread.currentThread() instanceof Worker worker && worker.process != null) {
+      worker.process.defer(action);
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns true if {@link #defer} defers actions on the current thread. */
+  public static boolean isDeferring() {
+    return Thread.currentThread() instanceof Worker worker && worker.process != null;
+  }
+
+  /** Returns true if the current thread executes motes in parallel. */
+  static boolean isWorkerThread() {
+    return Thread.currentThread() instanceof Worker;
+  }
+
+  boolean isWorker(Thread thread) {
+    return thread instanceof Worker worker && worker.executor == this;
+  }
+
+  /** Returns the time of the current event of a worker thread, or the given simulation time. */
+  long getTime(long simulationTime) {
+    if (Thread.currentThread() instanceof Worker worker && worker.process != null) {
+      return worker.process.current.time;
+    }
+    return simulationTime;
+  }
+
+  void scheduleEvent(TimeEvent event, long time) {
+    if (Thread.currentThread() instanceof Worker worker && worker.process != null) {
+      worker.process.schedule(event, time);
+      return;
+    }
+    if (time < horizon) {
+      // Only observers that act on mote output at the end of a window get here. The
+      // motes have executed past the event, so the results would differ from sequential
+      // execution.
+      throw new IllegalStateException("Event " + event + " scheduled at " + time
+          + " inside a window executed in parallel until " + horizon + ", run the simulation on one thread");
+    }
+    eventQueue.addEvent(event, time);
+  }
+
+  long getWindows() {
+    return windows;
+  }
+
+  void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private static boolean isParallel(TimeEvent event) {
+    return event instanceof MoteTimeEvent e && e.getMote().supportsParallelExecution();
+  }
+
+  /**
+   * Executes the next window in parallel.
+   * Should only be called from simulation thread!
+   *
+   * @return False if the next event has to be executed sequentially
+   */
+  boolean executeWindow() throws InterruptedException {
+    var first = eventQueue.peekFirst();
+    if (first == null || !isParallel(first)) {
+      return false;
+    }
+    long lookahead = Math.min(simulation.getRadioMedium().getLookahead(), MAX_WINDOW);
+    if (lookahead <= 0) {
+      return false;
+    }
+
+    // Move the events of the window from the event queue to their logical processes.
+    long end = first.queueTime + lookahead;
+    var window = new IdentityHashMap<Mote, LogicalProcess>();
+    var processes = new ArrayList<LogicalProcess>();
+    TimeEvent next;
+    while ((next = eventQueue.peekFirst()) != null && next.queueTime < end) {
+      if (!isParallel(next)) {
+        // Events created in the window must not pass this event.
+        end = next.queueTime;
+        break;
+      }
+      eventQueue.popFirst();
+      var mote = ((MoteTimeEvent) next).getMote();
+      var process = window.get(mote);
+      if (process == null) {
+        process = new LogicalProcess(mote);
+        window.put(mote, process);
+        processes.add(process);
+      }
+      process.load(next);
+    }
+    windowEnd = end;
+
+    workers.invokeAll(processes);
+    commit(processes);
+    windows++;
+
+    // Report the first error in sequential order.
+    Entry failed = null;
+    RuntimeException error = null;
+    for (var process : processes) {
+      if (process.error != null && (failed == null || process.current.rank < failed.rank)) {
+        failed = process.current;
+        error = process.error;
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+    return true;
+  }
+
+  /** Replays the interactions of the window on the simulation thread. */
+  private void commit(ArrayList<LogicalProcess> processes) {
+    // Rank executed events in the order of the sequential engine. Events created in the
+    // window are ordered after their creator, which is ranked before them.
+    var heads = new PriorityQueue<LogicalProcess>((a, b) -> a.head().compareTo(b.head(), true));
+    for (var process : processes) {
+      if (!process.executed.isEmpty()) {
+        heads.add(process);
+      }
+    }
+    int rank = 0;
+    Entry last = null;
+    while (!heads.isEmpty()) {
+      var process = heads.poll();
+      last = process.executed.get(process.merged++);
+      last.rank = rank++;
+      if (process.merged < process.executed.size()) {
+        heads.add(process);
+      }
+    }
+    horizon = last.time;
+
+    var actions = new ArrayList<Entry>();
+    for (var process : processes) {
+      for (var entry : process.actions) {
+        entry.live = entry.action == null && !entry.superseded && entry.event.isScheduled();
+      }
+      // Leave the events as removed, and still queued if they are in the event queue.
+      for (var event : process.latest.keySet()) {
+        if (process.queued.contains(event)) {
+          event.setScheduled(true);
+          event.remove();
+        } else {
+          event.setScheduled(false);
+        }
+      }
+      actions.addAll(process.actions);
+    }
+    actions.sort(Comparator.comparingInt((Entry a) -> a.creator.rank).thenComparingInt(a -> a.seq));
+    for (var action : actions) {
+      simulation.setSimulationTime(action.creator.time);
+      if (action.action != null) {
+        action.action.run();
+      } else if (action.live) {
+        eventQueue.addEvent(action.event, action.time);
+      }
+    }
+    simulation.setSimulationTime(horizon);
+  }
+
+  /** Event execution, scheduled event or deferred interaction of a logical process. */
+  private static final class Entry implements Comparable<Entry> {
+    final TimeEvent event;
+    final long time;
+    /** Insertion order in the event queue for events queued before the window, otherwise -1. */
+    final long order;
+    /** The executed event that created this entry, null for queued events. */
+    final Entry creator;
+    final int seq;
+    final Runnable action;
+    /** Position among the executed events of the logical process. */
+    int index = -1;
+    /** Position among all executed events of the window. */
+    int rank = -1;
+    boolean superseded;
+    /** Scheduled event that is still scheduled at the end of the window. */
+    boolean live;
+
+    Entry(TimeEvent event, long time, long order, Entry creator, int seq, Runnable action) {
+      this.event = event;
+      this.time = time;
+      this.order = order;
+      this.creator = creator;
+      this.seq = seq;
+      this.action = action;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      return compareTo(other, false);
+    }
+
+    /**
+     * Compares in the order of the sequential engine: by time, then queued events in
+     * queue order before created events in creation order.
+     */
+    int compareTo(Entry other, boolean ranked) {
+      if (time != other.time) {
+        return Long.compare(time, other.time);
+      }
+      if (order >= 0 || other.order >= 0) {
+        if (order < 0) {
+          return 1;
+        }
+        return other.order < 0 ? -1 : Long.compare(order, other.order);
+      }
+      if (creator != other.creator) {
+        return ranked ? Integer.compare(creator.rank, other.creator.rank)
+                : Integer.compare(creator.index, other.creator.index);
+      }
+      return Integer.compare(seq, other.seq);
+    }
+  }
+
+  /** The events of one mote in a window. */
+  private final class LogicalProcess implements Callable<Void> {
+    private final Mote mote;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    /** Executed events in execution order. */
+    private final ArrayList<Entry> executed = new ArrayList<>();
+    /** Scheduled events and deferred interactions in the order they were made. */
+    private final ArrayList<Entry> actions = new ArrayList<>();
+    /** Latest entry of every event loaded or scheduled in the window. */
+    private final IdentityHashMap<TimeEvent, Entry> latest = new IdentityHashMap<>();
+    /** Events that were scheduled while removed, but still in the event queue. */
+    private final Set<TimeEvent> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Entry current;
+    private int seq;
+    private int merged;
+    private RuntimeException error;
+
+    LogicalProcess(Mote mote) {
+      this.mote = mote;
+    }
+
+    void load(TimeEvent event) {
+      var entry = new Entry(event, event.queueTime, event.queueOrder, null, 0, null);
+      event.setScheduled(true);
+      latest.put(event, entry);
+      queue.add(entry);
+    }
+
+    Entry head() {
+      return executed.get(merged);
+    }
+
+    @Override
+    public Void call() {
+      var worker = (Worker) Thread.currentThread();
+      worker.process = this;
+      try {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+          if (entry.superseded || !entry.event.isScheduled()) {
+            continue;
+          }
+          entry.event.setScheduled(false);
+          entry.index = executed.size();
+          executed.add(entry);
+          current = entry;
+          seq = 0;
+          entry.event.execute(entry.time);
+        }
+      } catch (RuntimeException e) {
+        error = e;
+      } finally {
+        worker.process = null;
+      }
+      return null;
+    }
+
+    void schedule(TimeEvent event, long time) {
+      if (!(event instanceof MoteTimeEvent e && e.getMote() == mote)) {
+        defer(() -> simulation.scheduleEvent(event, time));
+        return;
+      }
+      if (event.isScheduled()) {
+        throw new IllegalStateException("Event is already scheduled: " + event);
+      }
+      if (event.isQueued() && !latest.containsKey(event)) {
+        queued.add(event);
+      }
+      var entry = new Entry(event, time, -1, current, seq++, null);
+      var previous = latest.put(event, entry);
+      if (previous != null) {
+        previous.superseded = true;
+      }
+      event.setScheduled(true);
+      actions.add(entry);
+      if (time < windowEnd) {
+        queue.add(entry);
+      }
+    }
+
+    void defer(Runnable action) {
+      actions.add(new Entry(null, current.time, -1, current, seq++, action));
+    }
+  }
+
+  private static final class Worker extends Thread {
+    final ParallelExecutor executor;
+    LogicalProcess process;
+
+    Worker(ParallelExecutor executor, Runnable r, String name) {
+      super(r, name);
+      this.executor = executor;
+      setDaemon(true);
+    }
+  }
+}
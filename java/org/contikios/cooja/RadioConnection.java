@@ -31,6 +31,7 @@
 package org.contikios.cooja;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.contikios.cooja.interfaces.Radio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,7 +56,7 @@ import org.slf4j.LoggerFactory;
 public class RadioConnection {
   private static final Logger logger = LoggerFactory.getLogger(RadioConnection.class);
 
-  private static int ID; /* Unique radio connection ID. For internal use */
+  private static final AtomicInteger ID = new AtomicInteger(); /* Unique radio connection ID. For internal use */
   private final int id;
 
   private final Radio source;
@@ -78,7 +79,7 @@ public class RadioConnection {
     this.source = sourceRadio;
     startTime = sourceRadio.getMote().getSimulation().getSimulationTime();
 
-    this.id = ID++;
+    this.id = ID.getAndIncrement();
   }
 
   /**
@@ -79,6 +79,18 @@ public interface RadioMedium {
     return Collections.emptyList();
   }
 
+  /**
+   * Returns the shortest simulated time from the next mote event before a radio
+   * operation can affect another mote. Motes are executed in parallel for at most this long, see
+   * {@link ParallelExecutor}. The default of zero means that radio operations
+   * affect other motes immediately, and disables parallel execution.
+   *
+   * @return Lookahead in microseconds
+   */
+  default long getLookahead() {
+    return 0;
+  }
+
   /**
    * Triggers that are notified of radio events.
    *
@@ -30,6 +30,12 @@
 
 package org.contikios.cooja;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Random;
 
 /**
@@ -39,17 +45,26 @@ import java.util.Random;
  * Rationale: By allowing another thread to use the random number
  * generator concurrency is introduced, thus it can not be guaranteed
  * that simulations are reproducible.
- *
+ * <p>
+ * The numbers are drawn from an inner generator, so its state can be saved
+ * in a checkpoint of the simulation and restored.
  */
 class SafeRandom extends Random {
   
   private final Simulation sim;
   private Thread initThread;
   private Boolean simStarted = false;
+  /** Generator that all numbers are drawn from, null during the super-constructor. */
+  private Random state;
   
   private void assertSimThread() {
     // sim can be null, because setSeed is called by the super-constructor.
     if(sim == null) return;
+
+    // Motes executed in parallel must not draw numbers in a nondeterministic order.
+    if(ParallelExecutor.isWorkerThread()) {
+      throw new RuntimeException("A random-function was called from a parallel mote thread. This breaks reproducibility!");
+    }
     
     // If we are in the simulation thread, everything is fine (the default)
     if(sim.isSimulationThread()) {
@@ -75,13 +90,16 @@ class SafeRandom extends Random {
     // assertSimThread is called by the super-constructor.
     super();
     this.sim = sim;
+    state = new Random();
     setSeed(seed);
   }
 
   @Override
   synchronized public void setSeed(long seed) {
     assertSimThread();
-    super.setSeed(seed);
+    if (state != null) {
+      state.setSeed(seed);
+    }
   }
   
   /**
@@ -91,7 +109,47 @@ class SafeRandom extends Random {
   @Override
   protected int next(int bits) {
     assertSimThread();
-    return super.next(bits);
+    // Same bits as Random.next(bits) of the inner generator.
+    return state.nextInt() >>> (32 - bits);
+  }
+
+  @Override
+  public double nextGaussian() {
+    assertSimThread();
+    return state.nextGaussian();
+  }
+
+  /**
+   * Returns the state of the generator, including a pending Gaussian number.
+   *
+   * @return Serialized state
+   * @throws IOException if the state could not be serialized
+   */
+  byte[] getState() throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new ObjectOutputStream(bytes)) {
+      out.writeObject(state);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Continues from a state returned by {@link #getState()}.
+   *
+   * @param data Serialized state
+   * @throws IOException if the state could not be deserialized
+   */
+  void setState(byte[] data) throws IOException {
+    assertSimThread();
+    try (var in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      in.setObjectInputFilter(ObjectInputFilter.Config.createFilter("java.util.Random;!*"));
+      if (!(in.readObject() instanceof Random random) || random.getClass() != Random.class) {
+        throw new IOException("Not a random generator state");
+      }
+      state = random;
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Not a random generator state", e);
+    }
   }
   
 }
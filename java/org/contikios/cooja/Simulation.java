@@ -30,13 +30,19 @@ package org.contikios.cooja;
 import java.awt.Color;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 import javax.swing.JTextArea;
 import org.contikios.cooja.Cooja.PluginConstructionException;
 import org.contikios.cooja.Cooja.SimulationCreationException;
@@ -116,7 +122,19 @@ public final class Simulation {
   private final SafeRandom randomGenerator;
 
   /* Event queue */
-  private final EventQueue eventQueue = new EventQueue();
+  private final EventQueue eventQueue;
+
+  /** Longest time a mote may execute ahead of the simulation time in one event. */
+  private final int moteQuantum;
+
+  /** Clock of a mote executing ahead of the simulation time, see setQuantumClock. */
+  private LongSupplier quantumClock;
+
+  /** Parallel execution of motes, null when motes are executed sequentially. */
+  private final ParallelExecutor parallelExecutor;
+
+  /** Profiler of the events, null unless the "profile" option is set. */
+  private final SimulationProfiler profiler;
 
   /** Simulation state change triggers */
   private final EventTriggers<EventTriggers.Operation, Simulation> simulationStateTriggers = new EventTriggers<>();
@@ -197,11 +215,35 @@ public final class Simulation {
     randomGenerator = new SafeRandom(seed, this);
     currentRadioMedium = ExtensionManager.createRadioMedium(cooja, this, radioMediumClass);
     maxMoteStartupDelay = Math.max(0, moteStartDelay);
+    int threads;
+    try {
+      eventQueue = EventQueue.create(cfg.opts().getOrDefault("event-queue", "heap"));
+      threads = Integer.parseInt(cfg.opts().getOrDefault("parallel", "1"));
+      moteQuantum = Math.max(1, Integer.parseInt(cfg.opts().getOrDefault("mote-quantum", "1")));
+    } catch (IllegalArgumentException e) {
+      throw new SimulationCreationException(e.getMessage(), e);
+    }
+    if (threads > 1 && moteQuantum > 1) {
+      // Quanta end at the next event of any mote, which workers do not know.
+      throw new SimulationCreationException("Parallel execution does not support mote quanta", null);
+    }
+    boolean profile = Boolean.parseBoolean(cfg.opts().getOrDefault("profile", "false"));
+    if (threads > 1 && profile) {
+      // Workers execute mote events outside of the profiled event loop.
+      throw new SimulationCreationException("Parallel execution does not support the profiler", null);
+    }
+    parallelExecutor = threads > 1 ? new ParallelExecutor(this, eventQueue, threads) : null;
+    if (profile) {
+      profiler = new SimulationProfiler();
+      profiler.register(title);
+    } else {
+      profiler = null;
+    }
     simulationThread = new Thread(() -> {
       boolean isAlive = true;
       do {
         boolean isSimulationRunning = false;
-        EventQueue.Pair nextEvent = null;
+        TimeEvent nextEvent = null;
         try {
           while (isAlive) {
             Object cmd;
@@ -217,13 +259,17 @@ public final class Simulation {
               }
             } while (cmd != null && isAlive);
 
-            if (isSimulationRunning) {
+            if (isSimulationRunning && (parallelExecutor == null || !parallelExecutor.executeWindow())) {
               // Handle one simulation event, and update simulation time.
               nextEvent = eventQueue.popFirst();
               assert nextEvent != null : "Ran out of events in eventQueue";
-              assert nextEvent.time >= currentSimulationTime : "Event from the past";
-              currentSimulationTime = nextEvent.time;
-              nextEvent.event.execute(currentSimulationTime);
+              assert nextEvent.queueTime >= currentSimulationTime : "Event from the past";
+              currentSimulationTime = nextEvent.queueTime;
+              if (profiler == null) {
+                nextEvent.execute(currentSimulationTime);
+              } else {
+                profiler.execute(nextEvent, currentSimulationTime);
+              }
             }
           }
         } catch (SimulationStop e) {
@@ -232,7 +278,7 @@ public final class Simulation {
           logger.error("Simulation stopped due to error: " + e.getMessage(), e);
           if (Cooja.isVisualized()) {
             String errorTitle = "Simulation error";
-            if (nextEvent != null && nextEvent.event instanceof MoteTimeEvent moteTimeEvent) {
+            if (nextEvent instanceof MoteTimeEvent moteTimeEvent) {
               errorTitle += ": " + moteTimeEvent.getMote();
             }
             Cooja.showErrorDialog(errorTitle, e, false);
@@ -253,6 +299,9 @@ public final class Simulation {
       isShutdown = true;
       commandQueue.clear();
       eventQueue.clear();
+      if (parallelExecutor != null) {
+        parallelExecutor.shutdown();
+      }
 
       // Deactivate all script engines
       for (var engine : scriptEngines) {
@@ -275,6 +324,9 @@ public final class Simulation {
 
       // Remove the radio medium
       currentRadioMedium.removed();
+      if (profiler != null) {
+        profiler.unregister();
+      }
 
       simulationStateTriggers.trigger(EventTriggers.Operation.REMOVE, this);
     }, "sim");
@@ -343,8 +395,13 @@ public final class Simulation {
       } catch (InterruptedException e) {
         throw new SimulationCreationException("Simulation creation interrupted", e);
       }
+      var checkpoint = cfg.opts().get("checkpoint");
+      if (checkpoint != null) {
+        ret = restoreCheckpoint(Path.of(checkpoint));
+      }
       boolean hasController = Cooja.isVisualized();
       for (var pluginElement : root.getChildren("plugin")) {
+        if (ret != null) break;
         var pluginClassName = pluginElement.getText().trim();
         if (pluginClassName.startsWith("se.sics")) {
           pluginClassName = pluginClassName.replaceFirst("^se\\.sics", "org.contikios");
@@ -469,6 +526,9 @@ public final class Simulation {
    * @param r Simulation thread action
    */
   public void invokeSimulationThread(Runnable r) {
+    if (ParallelExecutor.defer(() -> invokeSimulationThread(r))) {
+      return;
+    }
     if (!isShutdown) {
       commandQueue.add(r);
     }
@@ -478,7 +538,8 @@ public final class Simulation {
    * @return True iff current thread is the simulation thread
    */
   public boolean isSimulationThread() {
-    return simulationThread == Thread.currentThread();
+    var thread = Thread.currentThread();
+    return simulationThread == thread || parallelExecutor != null && parallelExecutor.isWorker(thread);
   }
 
   /**
@@ -494,6 +555,11 @@ public final class Simulation {
    */
   public void scheduleEvent(final TimeEvent e, final long time) {
     assert isSimulationThread() : "Scheduling event from non-simulation thread: " + e;
+    syncQuantum();
+    if (parallelExecutor != null) {
+      parallelExecutor.scheduleEvent(e, time);
+      return;
+    }
     eventQueue.addEvent(e, time);
   }
 
@@ -991,7 +1057,163 @@ public final class Simulation {
    * @return Simulation time (microseconds)
    */
   public long getSimulationTime() {
-    return currentSimulationTime;
+    return parallelExecutor == null ? currentSimulationTime : parallelExecutor.getTime(currentSimulationTime);
+  }
+
+  /**
+   * Returns the time of the next queued event, the current event excluded.
+   * Should only be called from simulation thread!
+   *
+   * @return Simulation time (microseconds), or Long.MAX_VALUE if there is no event
+   */
+  public long getNextEventTime() {
+    var event = eventQueue.peekFirst();
+    return event == null ? Long.MAX_VALUE : event.queueTime;
+  }
+
+  /**
+   * Returns the profiler of the simulation thread, enabled with the "profile"
+   * simulation option.
+   *
+   * @return Profiler, or null if the simulation is not profiled
+   */
+  public SimulationProfiler getProfiler() {
+    return profiler;
+  }
+
+  /**
+   * Returns the longest time a mote may execute ahead of the simulation time
+   * in one event, set with the "mote-quantum" simulation option.
+   *
+   * @return Time (microseconds)
+   */
+  public int getMoteQuantum() {
+    return moteQuantum;
+  }
+
+  /**
+   * Sets the clock of a mote that executes ahead of the simulation time, until
+   * the next event at the latest. The clock is read by the next syncQuantum
+   * call on the simulation thread, which should stop the mote where it is.
+   *
+   * @param clock Clock of the mote, or null when the mote is done
+   */
+  public void setQuantumClock(LongSupplier clock) {
+    quantumClock = clock;
+  }
+
+  /**
+   * Continues the simulation from the time of a mote executing ahead of the
+   * simulation time, if any, see setQuantumClock. Mote interfaces call this
+   * before they pass anything from the mote to the rest of the simulation,
+   * and scheduleEvent calls it for every scheduled event.
+   */
+  public void syncQuantum() {
+    if (quantumClock != null && simulationThread == Thread.currentThread()) {
+      var clock = quantumClock;
+      quantumClock = null;
+      currentSimulationTime = clock.getAsLong();
+    }
+  }
+
+  /**
+   * Saves a checkpoint of the simulation, which later runs can start from with the
+   * simulation option "checkpoint=FILE". The checkpoint is saved after the current
+   * event, as soon as no radio is transmitting or receiving and no mote interface
+   * has pending events.
+   *
+   * @param file Checkpoint file
+   */
+  public void saveCheckpoint(String file) {
+    if (parallelExecutor != null) {
+      logger.error("Checkpoints do not support parallel execution");
+      return;
+    }
+    invokeSimulationThread(() -> scheduleEvent(new TimeEvent() {
+      @Override
+      public void execute(long t) {
+        if (!Checkpoint.isQuiescent(Simulation.this)) {
+          scheduleEvent(this, t + MILLISECOND);
+          return;
+        }
+        try {
+          Checkpoint.save(Simulation.this, randomGenerator, Path.of(file));
+          logger.info("Saved checkpoint {} at {} ms", file, t / MILLISECOND);
+        } catch (IOException e) {
+          logger.error("Failed to save checkpoint " + file + ": " + e.getMessage(), e);
+        }
+      }
+      @Override
+      public String toString() {
+        return "CHECKPOINT " + file;
+      }
+    }, getSimulationTime()));
+  }
+
+  /**
+   * Restores a checkpoint on the simulation thread. The random generator continues
+   * from the checkpoint unless the run was given a random seed of its own.
+   */
+  private SimulationCreationException restoreCheckpoint(Path file) {
+    if (parallelExecutor != null) {
+      return new SimulationCreationException("Checkpoints do not support parallel execution", null);
+    }
+    var random = cfg.randomSeed() == null && !randomSeedGenerated ? randomGenerator : null;
+    var result = new CompletableFuture<Void>();
+    invokeSimulationThread(() -> {
+      try {
+        Checkpoint.restore(this, random, file);
+        result.complete(null);
+      } catch (IOException | RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    try {
+      result.get();
+    } catch (ExecutionException e) {
+      return new SimulationCreationException("Failed to restore checkpoint " + file + ": " + e.getCause().getMessage(),
+              e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new SimulationCreationException("Simulation creation interrupted", e);
+    }
+    logger.info("Restored checkpoint {} at {} ms", file, getSimulationTimeMillis());
+    return null;
+  }
+
+  /**
+   * Continues the simulation from the time of a checkpoint. Events queued while the
+   * simulation was loaded are moved to that time, except the dropped events.
+   *
+   * @param time Simulation time of the checkpoint
+   * @param drop Events to drop
+   */
+  void continueFrom(long time, Predicate<TimeEvent> drop) {
+    var events = new ArrayList<TimeEvent>();
+    for (TimeEvent event; (event = eventQueue.popFirst()) != null; ) {
+      if (!drop.test(event)) {
+        events.add(event);
+      }
+    }
+    currentSimulationTime = time;
+    for (var event : events) {
+      scheduleEvent(event, Math.max(time, event.queueTime));
+    }
+  }
+
+  /** Returns true if a scheduled event matches the predicate. */
+  boolean hasScheduledEvent(Predicate<TimeEvent> pred) {
+    return eventQueue.anyMatch(pred);
+  }
+
+  /** Returns the parallel execution of motes, or null when motes are executed sequentially. */
+  ParallelExecutor getParallelExecutor() {
+    return parallelExecutor;
+  }
+
+  /** Sets the simulation time while the results of parallel execution are replayed. */
+  void setSimulationTime(long time) {
+    currentSimulationTime = time;
   }
 
   /**
@@ -1001,7 +1223,7 @@ public final class Simulation {
    * @return Time rounded to milliseconds
    */
   public long getSimulationTimeMillis() {
-    return currentSimulationTime / MILLISECOND;
+    return getSimulationTime() / MILLISECOND;
   }
 
   /**
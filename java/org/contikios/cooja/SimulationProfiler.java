@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import com.github.cliftonlabs.json_simple.JsonArray;
+import com.github.cliftonlabs.json_simple.JsonObject;
+import com.github.cliftonlabs.json_simple.Jsoner;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates the wall time the simulation thread spends on events, per event
+ * class, per mote, per mote type and per interface poll of Cooja motes.
+ * Enabled with the simulation option "profile=true".
+ * <p>
+ * The categories overlap: the time of a mote event is counted for its event class,
+ * its mote and its mote type, and the interface polls are part of that time.
+ * Motes executed by parallel worker threads are not profiled.
+ */
+public final class SimulationProfiler implements SimulationProfilerMBean {
+  private static final Logger logger = LoggerFactory.getLogger(SimulationProfiler.class);
+
+  /** Number of profilers registered, to give each one a unique name. */
+  private static final AtomicInteger registered = new AtomicInteger();
+
+  /** Event count and wall time of one event class, mote, mote type or interface. */
+  private static final class Entry {
+    long count;
+    long wallNanos;
+  }
+
+  private final HashMap<Class<?>, Entry> events = new HashMap<>();
+  private final HashMap<Mote, Entry> motes = new HashMap<>();
+  private final HashMap<MoteType, Entry> moteTypes = new HashMap<>();
+  private final HashMap<Class<?>, Entry> interfaces = new HashMap<>();
+
+  private long eventCount;
+  private long wallNanos;
+  private long firstTime = -1;
+  private long lastTime;
+
+  private ObjectName objectName;
+
+  /**
+   * Executes an event and adds its wall time. Called by the simulation thread.
+   *
+   * @param event Event
+   * @param time Simulation time
+   */
+  void execute(TimeEvent event, long time) {
+    long start = System.nanoTime();
+    event.execute(time);
+    long nanos = System.nanoTime() - start;
+    synchronized (this) {
+      if (firstTime < 0) {
+        firstTime = time;
+      }
+      lastTime = time;
+      eventCount++;
+      wallNanos += nanos;
+      add(events, event.getClass(), nanos);
+      if (event instanceof MoteTimeEvent moteEvent) {
+        var mote = moteEvent.getMote();
+        add(motes, mote, nanos);
+        add(moteTypes, mote.getType(), nanos);
+      }
+    }
+  }
+
+  /**
+   * Adds the wall time of an interface poll.
+   *
+   * @param moteInterface Polled interface
+   * @param start Value of {@link System#nanoTime()} when the poll started
+   */
+  public synchronized void interfacePolled(Object moteInterface, long start) {
+    add(interfaces, moteInterface.getClass(), System.nanoTime() - start);
+  }
+
+  private static <K> void add(HashMap<K, Entry> entries, K key, long nanos) {
+    var entry = entries.computeIfAbsent(key, k -> new Entry());
+    entry.count++;
+    entry.wallNanos += nanos;
+  }
+
+  @Override
+  public synchronized long getEventCount() {
+    return eventCount;
+  }
+
+  @Override
+  public synchronized long getWallTimeNanos() {
+    return wallNanos;
+  }
+
+  @Override
+  public synchronized long getSimulatedTime() {
+    return firstTime < 0 ? 0 : lastTime - firstTime;
+  }
+
+  @Override
+  public synchronized double getSimulatedTimeRatio() {
+    return ratio(wallNanos);
+  }
+
+  /** Returns the simulated time divided by a wall time. */
+  private double ratio(long nanos) {
+    return nanos == 0 ? 0 : getSimulatedTime() * 1000.0 / nanos;
+  }
+
+  @Override
+  public synchronized void reset() {
+    events.clear();
+    motes.clear();
+    moteTypes.clear();
+    interfaces.clear();
+    eventCount = 0;
+    wallNanos = 0;
+    firstTime = -1;
+  }
+
+  /** Row of the statistics, in order of decreasing wall time within each category. */
+  private record Row(String category, String name, long count, long wallNanos, double ratio) {}
+
+  private synchronized ArrayList<Row> rows() {
+    var rows = new ArrayList<Row>();
+    rows.add(new Row("simulation", "all", eventCount, wallNanos, ratio(wallNanos)));
+    addRows(rows, "event", events, Class::getName);
+    addRows(rows, "mote", motes, mote -> String.valueOf(mote.getID()));
+    addRows(rows, "motetype", moteTypes, MoteType::getIdentifier);
+    addRows(rows, "interface", interfaces, Class::getSimpleName);
+    return rows;
+  }
+
+  private <K> void addRows(ArrayList<Row> rows, String category, Map<K, Entry> entries,
+                           Function<K, String> name) {
+    entries.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<K, Entry> e) -> e.getValue().wallNanos).reversed())
+            .forEachOrdered(e -> rows.add(new Row(category, name.apply(e.getKey()), e.getValue().count,
+                    e.getValue().wallNanos, ratio(e.getValue().wallNanos))));
+  }
+
+  @Override
+  public String toCsv() {
+    var sb = new StringBuilder("category,name,count,wall_ns,sim_time_ratio\n");
+    for (var row : rows()) {
+      sb.append(row.category).append(',').append(row.name).append(',').append(row.count).append(',')
+              .append(row.wallNanos).append(',').append(String.format(Locale.ROOT, "%.3f", row.ratio)).append('\n');
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toJson() {
+    var json = new JsonObject();
+    json.put("simulated_time_us", getSimulatedTime());
+    var categories = new HashMap<String, JsonArray>();
+    for (var row : rows()) {
+      var item = new JsonObject();
+      item.put("name", row.name);
+      item.put("count", row.count);
+      item.put("wall_ns", row.wallNanos);
+      item.put("sim_time_ratio", row.ratio);
+      categories.computeIfAbsent(row.category, c -> new JsonArray()).add(item);
+    }
+    json.putAll(categories);
+    return Jsoner.prettyPrint(Jsoner.serialize(json));
+  }
+
+  /**
+   * Writes the statistics to name.csv and name.json in a directory.
+   *
+   * @param dir Directory
+   * @param name Base name of the files
+   */
+  public void write(Path dir, String name) {
+    try {
+      Files.writeString(dir.resolve(name + ".csv"), toCsv());
+      Files.writeString(dir.resolve(name + ".json"), toJson());
+    } catch (IOException e) {
+      logger.error("Failed to write profile {}: {}", name, e.getMessage());
+    }
+  }
+
+  /** Registers the profiler with the platform MBean server. */
+  void register(String title) {
+    try {
+      objectName = new ObjectName("org.contikios.cooja:type=SimulationProfiler,name="
+              + ObjectName.quote(title) + ",id=" + registered.incrementAndGet());
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    } catch (JMException e) {
+      logger.warn("Failed to register simulation profiler: {}", e.getMessage());
+      objectName = null;
+    }
+  }
+
+  /** Unregisters the profiler from the platform MBean server. */
+  void unregister() {
+    if (objectName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      logger.warn("Failed to unregister simulation profiler: {}", e.getMessage());
+    }
+    objectName = null;
+  }
+}
@@ -38,6 +38,11 @@ public abstract class TimeEvent {
   private boolean isQueued;
   private boolean isScheduled;
 
+  /* Position in the event queue, maintained by EventQueue. */
+  long queueTime;
+  long queueOrder;
+  int queueIndex = -1;
+
   public TimeEvent() {
   }
 
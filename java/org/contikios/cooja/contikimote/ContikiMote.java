@@ -61,16 +61,23 @@ public class ContikiMote extends AbstractWakeupMote<ContikiMoteType, SectionMote
   private final ArrayList<PolledBeforeAllTicks> polledBeforePassive = new ArrayList<>();
   private final ArrayList<PolledAfterAllTicks> polledAfterPassive = new ArrayList<>();
 
+  /** Library instance of this mote, or null when the library of the mote type is used. */
+  private final ContikiMoteType.Instance instance;
+
   /**
    * Creates a new mote of given type.
    * Both the initial mote memory and the interface handler
    * are supplied from the mote type.
    *
    * @param moteType Mote type
+   * @param memory Initial memory, or the memory of the library instance
+   * @param instance Library instance of the mote, or null to use the library of the mote type
    * @param sim Mote's simulation
    */
-  ContikiMote(ContikiMoteType moteType, Simulation sim) throws MoteType.MoteTypeCreationException {
-    super(moteType, moteType.createInitialMemory(), sim);
+  ContikiMote(ContikiMoteType moteType, SectionMoteMemory memory, ContikiMoteType.Instance instance,
+              Simulation sim) throws MoteType.MoteTypeCreationException {
+    super(moteType, memory, sim);
+    this.instance = instance;
     moteInterfaces.init(this);
     for (var intf : moteInterfaces.getInterfaces()) {
       if (intf instanceof PolledBeforeActiveTicks intf2) {
@@ -103,11 +110,20 @@ public class ContikiMote extends AbstractWakeupMote<ContikiMoteType, SectionMote
   protected void execute(long simTime) {
     // (Jan 2023, Java 17/IntelliJ): Keep the interface actions in explicit for-loops,
     // so costs are clearly attributed in performance profiles.
+    var profiler = simulation.getProfiler();
     for (var moteInterface : polledBeforeActive) {
+      long start = profiler == null ? 0 : System.nanoTime();
       moteInterface.doActionsBeforeTick();
+      if (profiler != null) {
+        profiler.interfacePolled(moteInterface, start);
+      }
     }
     for (var moteInterface : polledBeforePassive) {
+      long start = profiler == null ? 0 : System.nanoTime();
       moteInterface.doActionsBeforeTick();
+      if (profiler != null) {
+        profiler.interfacePolled(moteInterface, start);
+      }
     }
 
     /* Check if pre-boot time */
@@ -117,21 +133,59 @@ public class ContikiMote extends AbstractWakeupMote<ContikiMoteType, SectionMote
       return;
     }
 
-    /* Copy mote memory to Contiki */
-    ContikiMoteType.setCoreMemory(moteMemory);
+    if (instance != null) {
+      /* Handle a single Contiki event directly in the mote memory */
+      instance.coreComm().tick();
+      moteMemory.allPagesChanged();
+    } else {
+      /* Copy mote memory to Contiki */
+      moteType.setCoreMemory(moteMemory);
 
-    /* Handle a single Contiki events */
-    moteType.tick();
+      /* Handle a single Contiki events */
+      moteType.tick();
 
-    /* Copy mote memory from Contiki */
-    ContikiMoteType.getCoreMemory(moteMemory);
+      /* Copy mote memory from Contiki */
+      moteType.getCoreMemory(moteMemory);
+    }
 
     moteMemory.pollForMemoryChanges();
     for (var moteInterface : polledAfterActive) {
+      long start = profiler == null ? 0 : System.nanoTime();
       moteInterface.doActionsAfterTick();
+      if (profiler != null) {
+        profiler.interfacePolled(moteInterface, start);
+      }
     }
     for (var moteInterface : polledAfterPassive) {
+      long start = profiler == null ? 0 : System.nanoTime();
       moteInterface.doActionsAfterTick();
+      if (profiler != null) {
+        profiler.interfacePolled(moteInterface, start);
+      }
+    }
+  }
+
+  /**
+   * Continues from mote memory restored from a checkpoint. The interfaces act on
+   * the memory as after a tick.
+   */
+  public void restored() {
+    var clock = moteInterfaces.getClock();
+    clock.setTime(simulation.getSimulationTime() + clock.getDrift());
+    moteMemory.pollForMemoryChanges();
+    for (var moteInterface : polledAfterActive) {
+      moteInterface.doActionsAfterTick();
+    }
+    for (var moteInterface : polledAfterPassive) {
+      moteInterface.doActionsAfterTick();
+    }
+  }
+
+  @Override
+  public void removed() {
+    super.removed();
+    if (instance != null) {
+      instance.close();
     }
   }
 
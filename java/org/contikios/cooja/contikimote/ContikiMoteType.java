@@ -35,6 +35,8 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -77,6 +79,7 @@ import org.contikios.cooja.mote.memory.MemoryInterface;
 import org.contikios.cooja.mote.memory.MemoryInterface.Symbol;
 import org.contikios.cooja.mote.memory.MemoryLayout;
 import org.contikios.cooja.mote.memory.SectionMoteMemory;
+import org.contikios.cooja.mote.memory.SegmentMemory;
 import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,6 +100,10 @@ import org.slf4j.LoggerFactory;
  * Contiki system in order to create the initial memory. When a new mote is
  * created the createInitialMemory() method should be called to get this initial
  * memory for the mote.
+ * <p>
+ * With the simulation option contiki-instances=true, every mote instead loads
+ * its own copy of the library. Contiki then runs directly in the memory of
+ * that mote, so no memory is copied when the mote is ticked.
  *
  * @author Fredrik Osterlind
  */
@@ -170,9 +177,18 @@ public class ContikiMoteType extends BaseContikiMoteType {
 
   private CoreComm myCoreComm;
 
+  /** Parse the section addresses with a command instead of readelf. */
+  private boolean useCommand;
+
+  /** Symbols at their addresses in the library file. */
+  private Map<String, Symbol> fileVariables;
+
   // Initial memory for all motes of this type
   private SectionMoteMemory initialMemory;
 
+  /** The memory currently held by the Contiki system. */
+  private SectionMoteMemory coreMemoryOwner;
+
   /**
    * Creates a new uninitialized Cooja mote type. This mote type needs to load
    * a library file and parse a map file before it can be used.
@@ -204,7 +220,16 @@ public class ContikiMoteType extends BaseContikiMoteType {
 
   @Override
   public Mote generateMote(Simulation simulation) throws MoteTypeCreationException {
-    return new ContikiMote(this, simulation);
+    if (!Boolean.parseBoolean(simulation.getCfg().opts().getOrDefault("contiki-instances", "false"))) {
+      return new ContikiMote(this, createInitialMemory(), null, simulation);
+    }
+    var instance = loadInstance();
+    try {
+      return new ContikiMote(this, instance.memory(), instance, simulation);
+    } catch (MoteTypeCreationException | RuntimeException e) {
+      instance.close();
+      throw e;
+    }
   }
 
   @Override
@@ -253,6 +278,38 @@ public class ContikiMoteType extends BaseContikiMoteType {
     return new ArrayMemory(addr, MemoryLayout.getNative(), new byte[size], variables);
   }
 
+  private static MemoryInterface getMemory(Arena arena, long addr, int size, Map<String, Symbol> variables) {
+    // Bound to the arena so accesses after the library is unloaded fail instead of crashing.
+    var segment = MemorySegment.ofAddress(addr).reinterpret(size, arena, null);
+    return new SegmentMemory(addr, MemoryLayout.getNative(), segment, variables);
+  }
+
+  /**
+   * Returns the symbols at their addresses in a loaded copy of the library file.
+   */
+  private Map<String, Symbol> getOffsetVariables(CoreComm coreComm) throws MoteTypeCreationException {
+    /* We first need the value of Contiki's referenceVar, which tells us the
+     * memory offset between Contiki's variable and the relative addresses that
+     * were calculated directly from the library file.
+     *
+     * This offset will be used in Cooja in the memory abstraction to match
+     * Contiki's and Cooja's address spaces */
+    long offset;
+    try {
+      offset = coreComm.getReferenceAddress() - fileVariables.get("referenceVar").addr;
+    } catch (Exception e) {
+      throw new MoteTypeCreationException("Error setting reference variable: " + e.getMessage(), e);
+    }
+    logger.debug(getContikiFirmwareFile().getName() + ": offsetting Cooja mote address space: 0x" + Long.toHexString(offset));
+
+    var offsetVariables = new HashMap<String, Symbol>();
+    for (var entry : fileVariables.entrySet()) {
+      var old = entry.getValue();
+      offsetVariables.put(entry.getKey(), new Symbol(old.type, old.name, old.addr + offset, old.size));
+    }
+    return offsetVariables;
+  }
+
   /** Load LibN.java and the corresponding .cooja file into memory. */
   @Override
   public boolean loadMoteFirmware(boolean vis) throws MoteTypeCreationException {
@@ -262,10 +319,15 @@ public class ContikiMoteType extends BaseContikiMoteType {
     /* Parse addresses using map file
      * or output of command specified in external tools settings (e.g. nm -a )
      */
-    boolean useCommand = Boolean.parseBoolean(Cooja.getExternalToolsSetting("PARSE_WITH_COMMAND", "false"));
+    useCommand = Boolean.parseBoolean(Cooja.getExternalToolsSetting("PARSE_WITH_COMMAND", "false"));
     // Allocate core communicator class
     final var firmwareFile = getContikiFirmwareFile();
-    myCoreComm = new CoreComm(arena, firmwareFile, useCommand);
+    try {
+      // Simulations in a batch may load and recompile the same firmware at the same time.
+      myCoreComm = Cooja.isBatch() ? loadCopy(arena) : new CoreComm(arena, firmwareFile, useCommand);
+    } catch (IOException e) {
+      throw new MoteTypeCreationException("Error loading library: " + e.getMessage(), e);
+    }
 
     var command = Cooja.getExternalToolsSetting(useCommand ? "PARSE_COMMAND" : "READELF_COMMAND");
     if (command != null) {
@@ -276,10 +338,9 @@ public class ContikiMoteType extends BaseContikiMoteType {
     }
     command = command.replace("$(LIBFILE)", firmwareFile.getName().replace(File.separatorChar, '/'));
 
-    Map<String, Symbol> variables;
     if (useCommand) {
       var output = loadCommandData(command, firmwareFile, vis);
-      variables = CommandSectionParser.parseSymbols(output);
+      fileVariables = CommandSectionParser.parseSymbols(output);
     } else {
       var sb = new StringBuilder();
       for (var s : loadCommandData(command, firmwareFile, vis)) {
@@ -287,29 +348,11 @@ public class ContikiMoteType extends BaseContikiMoteType {
           sb.append(s).append("\n");
         }
       }
-      variables = MapSectionParser.parseSymbols(sb.toString());
-    }
-
-    /* We first need the value of Contiki's referenceVar, which tells us the
-     * memory offset between Contiki's variable and the relative addresses that
-     * were calculated directly from the library file.
-     *
-     * This offset will be used in Cooja in the memory abstraction to match
-     * Contiki's and Cooja's address spaces */
-    long offset;
-    try {
-      offset = myCoreComm.getReferenceAddress() - variables.get("referenceVar").addr;
-    } catch (Exception e) {
-      throw new MoteTypeCreationException("Error setting reference variable: " + e.getMessage(), e);
+      fileVariables = MapSectionParser.parseSymbols(sb.toString());
     }
-    logger.debug(firmwareFile.getName() + ": offsetting Cooja mote address space: 0x" + Long.toHexString(offset));
 
     // Create initial memory: data+bss+optional common.
-    var offsetVariables = new HashMap<String, Symbol>();
-    for (var entry : variables.entrySet()) {
-      var old = entry.getValue();
-      offsetVariables.put(entry.getKey(), new Symbol(old.type, old.name, old.addr + offset, old.size));
-    }
+    var offsetVariables = getOffsetVariables(myCoreComm);
     initialMemory = new SectionMoteMemory(offsetVariables);
     initialMemory.addMemorySection("data",
             getMemory(myCoreComm.getDataStartAddress(), myCoreComm.getDataSize(), offsetVariables));
@@ -421,6 +464,73 @@ public class ContikiMoteType extends BaseContikiMoteType {
     myCoreComm.tick();
   }
 
+  /**
+   * Loads a copy of the library file. The copy has a different path, so the dynamic
+   * linker maps a separate instance with its own data and bss sections, initialized
+   * by cooja_init(). This also keeps the library of a running simulation intact when
+   * another simulation in the same process recompiles the mote type.
+   * <p>
+   * The copy is created next to the library, as the temporary directory may not
+   * allow executable mappings.
+   *
+   * @param arena Arena to load the library in
+   * @return Core communicator of the copy
+   */
+  private CoreComm loadCopy(Arena arena) throws IOException {
+    var file = getContikiFirmwareFile().toPath().toAbsolutePath();
+    var copy = Files.createTempFile(file.getParent(), getIdentifier() + "-", "." + getMoteType());
+    try {
+      Files.copy(getContikiFirmwareFile().toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+      return new CoreComm(arena, copy.toFile(), useCommand);
+    } finally {
+      // The library stays mapped after the file is removed.
+      Files.deleteIfExists(copy);
+    }
+  }
+
+  /**
+   * Loads a copy of the library file that is only used by one mote.
+   *
+   * @return Library instance, with memory sections that are the sections of the instance
+   */
+  Instance loadInstance() throws MoteTypeCreationException {
+    var instanceArena = Arena.ofShared();
+    try {
+      var coreComm = loadCopy(instanceArena);
+      var offsetVariables = getOffsetVariables(coreComm);
+      var memory = new SectionMoteMemory(offsetVariables);
+      memory.addMemorySection("data", getMemory(instanceArena,
+              coreComm.getDataStartAddress(), coreComm.getDataSize(), offsetVariables));
+      memory.addMemorySection("bss", getMemory(instanceArena,
+              coreComm.getBssStartAddress(), coreComm.getBssSize(), offsetVariables));
+      if (useCommand) {
+        memory.addMemorySection("common", getMemory(instanceArena,
+                coreComm.getCommonStartAddress(), coreComm.getCommonSize(), offsetVariables));
+      }
+      return new Instance(instanceArena, coreComm, memory);
+    } catch (MoteTypeCreationException e) {
+      instanceArena.close();
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      instanceArena.close();
+      throw new MoteTypeCreationException("Error loading library instance: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Library file loaded for a single mote.
+   *
+   * @param arena Arena the library is loaded in
+   * @param coreComm Core communicator of the library
+   * @param memory Memory of the mote, backed by the sections of the library
+   */
+  record Instance(Arena arena, CoreComm coreComm, SectionMoteMemory memory) {
+    /** Unloads the library. */
+    void close() {
+      arena.close();
+    }
+  }
+
   /**
    * Creates and returns a copy of this mote type's initial memory (just after
    * the init function has been run). When a new mote is created it should get
@@ -435,28 +545,60 @@ public class ContikiMoteType extends BaseContikiMoteType {
   /**
    * Copy core memory to given memory. This should not be used directly, but
    * instead via ContikiMote.getMemory().
+   * <p>
+   * Only pages that differ are copied, and reported as changed to the memory.
    *
    * @param mem
    *          Memory to set
    */
-  static void getCoreMemory(SectionMoteMemory mem) {
+  void getCoreMemory(SectionMoteMemory mem) {
+    final int pageSize = SectionMoteMemory.PAGE_SIZE;
     for (var sec : mem.getSections().values()) {
-      MemorySegment.ofArray(sec.getMemory())
-              .copyFrom(MemorySegment.ofAddress(sec.getStartAddr()).reinterpret(sec.getTotalSize()));
+      var core = MemorySegment.ofAddress(sec.getStartAddr()).reinterpret(sec.getTotalSize());
+      var copy = MemorySegment.ofArray(sec.getMemory());
+      long size = sec.getTotalSize();
+      long offset = 0;
+      long mismatch;
+      while (offset < size && (mismatch = MemorySegment.mismatch(core, offset, size, copy, offset, size)) >= 0) {
+        int page = (int) ((offset + mismatch) / pageSize);
+        long start = (long) page * pageSize;
+        offset = Math.min(size, start + pageSize);
+        MemorySegment.copy(core, start, copy, start, offset - start);
+        mem.pageChanged(sec, page);
+      }
     }
+    coreMemoryOwner = mem;
   }
 
   /**
    * Copy given memory to the Contiki system.
+   * <p>
+   * When the Contiki system already holds the memory, only pages written
+   * since then are copied. This is the case when a mote type has a single
+   * mote. With several motes the Contiki system holds the memory of the last
+   * ticked mote, and all sections are copied; getCoreMemory compares all
+   * sections in either case. Use contiki-instances=true to avoid the copies.
    *
    * @param mem
    * New memory
    */
-  static void setCoreMemory(SectionMoteMemory mem) {
+  void setCoreMemory(SectionMoteMemory mem) {
+    final int pageSize = SectionMoteMemory.PAGE_SIZE;
     for (var sec : mem.getSections().values()) {
-      MemorySegment.ofAddress(sec.getStartAddr()).reinterpret(sec.getTotalSize())
-              .copyFrom(MemorySegment.ofArray(sec.getMemory()));
-   }
+      var core = MemorySegment.ofAddress(sec.getStartAddr()).reinterpret(sec.getTotalSize());
+      var copy = MemorySegment.ofArray(sec.getMemory());
+      var written = mem.getWrittenPages(sec);
+      if (coreMemoryOwner != mem) {
+        core.copyFrom(copy);
+      } else {
+        for (int page = written.nextSetBit(0); page >= 0; page = written.nextSetBit(page + 1)) {
+          long start = (long) page * pageSize;
+          MemorySegment.copy(copy, start, core, start, Math.min(pageSize, sec.getTotalSize() - start));
+        }
+      }
+      written.clear();
+    }
+    coreMemoryOwner = mem;
   }
 
   /**
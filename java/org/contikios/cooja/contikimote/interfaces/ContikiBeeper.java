@@ -40,6 +40,7 @@ import org.contikios.cooja.Cooja;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.interfaces.Beeper;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 
 /**
@@ -57,7 +58,7 @@ import org.contikios.cooja.mote.memory.VarMemory;
  */
 public class ContikiBeeper implements Beeper, PolledAfterActiveTicks {
   private final Mote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simBeeped;
   /** Ordered map of labels that are updated when mote beeps. */
   private final LinkedHashMap<JPanel, JLabel> labels = new LinkedHashMap<>();
   /** The time of the last beep */
@@ -73,17 +74,18 @@ public class ContikiBeeper implements Beeper, PolledAfterActiveTicks {
    */
   public ContikiBeeper(Mote mote) {
     this.mote = mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simBeeped = moteMem.getHandle("simBeeped");
   }
 
   @Override
   public boolean isBeeping() {
-    return moteMem.getByteValueOf("simBeeped") == 1;
+    return simBeeped.getByte() == 1;
   }
 
   @Override
   public void doActionsAfterTick() {
-    if (moteMem.getByteValueOf("simBeeped") == 1) {
+    if (simBeeped.getByte() == 1) {
       lastBeepTime = mote.getSimulation().getSimulationTime();
       if (Cooja.isVisualized()) {
         java.awt.EventQueue.invokeLater(() -> {
@@ -97,7 +99,7 @@ public class ContikiBeeper implements Beeper, PolledAfterActiveTicks {
           Toolkit.getDefaultToolkit().beep();
         });
       }
-      moteMem.setByteValueOf("simBeeped", (byte) 0);
+      simBeeped.setByte((byte) 0);
     }
   }
 
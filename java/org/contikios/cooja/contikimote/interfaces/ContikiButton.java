@@ -33,6 +33,7 @@ package org.contikios.cooja.contikimote.interfaces;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.interfaces.Button;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 
 /**
@@ -50,7 +51,9 @@ import org.contikios.cooja.mote.memory.VarMemory;
  * @author Fredrik Osterlind
  */
 public class ContikiButton extends Button.AbstractButton {
-  private final VarMemory moteMem;
+  private final SymbolHandle simButtonIsDown;
+  private final SymbolHandle simButtonIsActive;
+  private final SymbolHandle simButtonChanged;
   private final ContikiMote mote;
 
   /**
@@ -63,15 +66,18 @@ public class ContikiButton extends Button.AbstractButton {
   public ContikiButton(Mote mote) {
     super(mote);
     this.mote = (ContikiMote) mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simButtonIsDown = moteMem.getHandle("simButtonIsDown");
+    simButtonIsActive = moteMem.getHandle("simButtonIsActive");
+    simButtonChanged = moteMem.getHandle("simButtonChanged");
   }
 
   @Override
   protected void doReleaseButton() {
-    moteMem.setByteValueOf("simButtonIsDown", (byte) 0);
+    simButtonIsDown.setByte((byte) 0);
 
-    if (moteMem.getByteValueOf("simButtonIsActive") == 1) {
-      moteMem.setByteValueOf("simButtonChanged", (byte) 1);
+    if (simButtonIsActive.getByte() == 1) {
+      simButtonChanged.setByte((byte) 1);
 
       /* If mote is inactive, wake it up */
       mote.requestImmediateWakeup();
@@ -80,10 +86,10 @@ public class ContikiButton extends Button.AbstractButton {
 
   @Override
   protected void doPressButton() {
-    moteMem.setByteValueOf("simButtonIsDown", (byte) 1);
+    simButtonIsDown.setByte((byte) 1);
 
-    if (moteMem.getByteValueOf("simButtonIsActive") == 1) {
-      moteMem.setByteValueOf("simButtonChanged", (byte) 1);
+    if (simButtonIsActive.getByte() == 1) {
+      simButtonChanged.setByte((byte) 1);
 
       /* If mote is inactive, wake it up */
       mote.requestImmediateWakeup();
@@ -92,7 +98,7 @@ public class ContikiButton extends Button.AbstractButton {
 
   @Override
   public boolean isPressed() {
-    return moteMem.getByteValueOf("simButtonIsDown") == 1;
+    return simButtonIsDown.getByte() == 1;
   }
 
 }
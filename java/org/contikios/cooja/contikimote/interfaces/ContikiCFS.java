@@ -47,6 +47,7 @@ import org.contikios.cooja.Cooja;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.MoteInterface;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,7 +73,11 @@ public class ContikiCFS implements MoteInterface, PolledAfterActiveTicks {
 
   public static final int FILESYSTEM_SIZE = 4000; /* Configure CFS size here and in cfs-cooja.c */
   private final Mote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simCFSChanged;
+  private final SymbolHandle simCFSRead;
+  private final SymbolHandle simCFSWritten;
+  private final SymbolHandle simCFSData;
+  private final SymbolHandle simCFSSize;
 
   private int lastRead;
   private int lastWritten;
@@ -87,18 +92,23 @@ public class ContikiCFS implements MoteInterface, PolledAfterActiveTicks {
    */
   public ContikiCFS(Mote mote) {
     this.mote = mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simCFSChanged = moteMem.getHandle("simCFSChanged");
+    simCFSRead = moteMem.getHandle("simCFSRead");
+    simCFSWritten = moteMem.getHandle("simCFSWritten");
+    simCFSData = moteMem.getHandle("simCFSData");
+    simCFSSize = moteMem.getHandle("simCFSSize");
   }
 
   @Override
   public void doActionsAfterTick() {
-    if (moteMem.getByteValueOf("simCFSChanged") == 1) {
-      lastRead = moteMem.getIntValueOf("simCFSRead");
-      lastWritten = moteMem.getIntValueOf("simCFSWritten");
+    if (simCFSChanged.getByte() == 1) {
+      lastRead = simCFSRead.getInt();
+      lastWritten = simCFSWritten.getInt();
 
-      moteMem.setIntValueOf("simCFSRead", 0);
-      moteMem.setIntValueOf("simCFSWritten", 0);
-      moteMem.setByteValueOf("simCFSChanged", (byte) 0);
+      simCFSRead.setInt(0);
+      simCFSWritten.setInt(0);
+      simCFSChanged.setByte((byte) 0);
       if (Cooja.isVisualized()) {
         final var now = mote.getSimulation().getSimulationTime();
         EventQueue.invokeLater(() -> {
@@ -124,8 +134,8 @@ public class ContikiCFS implements MoteInterface, PolledAfterActiveTicks {
       return false;
     }
 
-    moteMem.setByteArray("simCFSData", data);
-    moteMem.setIntValueOf("simCFSSize", data.length);
+    simCFSData.setBytes(data);
+    simCFSSize.setInt(data.length);
     return true;
   }
 
@@ -135,8 +145,8 @@ public class ContikiCFS implements MoteInterface, PolledAfterActiveTicks {
    * @return Filesystem data
    */
   public byte[] getFilesystemData() {
-    int size = moteMem.getIntValueOf("simCFSSize");
-    return moteMem.getByteArray("simCFSData", size);
+    int size = simCFSSize.getInt();
+    return simCFSData.getBytes(size);
   }
 
   /**
@@ -36,6 +36,7 @@ import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.interfaces.Clock;
 import org.contikios.cooja.interfaces.PolledAfterAllTicks;
 import org.contikios.cooja.interfaces.PolledBeforeActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,7 +63,13 @@ public class ContikiClock extends Clock implements PolledBeforeActiveTicks, Poll
   private static final Logger logger = LoggerFactory.getLogger(ContikiClock.class);
 
   private final ContikiMote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simCurrentTime;
+  private final SymbolHandle simRtimerCurrentTicks;
+  private final SymbolHandle simRtimerPending;
+  private final SymbolHandle simRtimerNextExpirationTime;
+  private final SymbolHandle simProcessRunValue;
+  private final SymbolHandle simEtimerPending;
+  private final SymbolHandle simEtimerNextExpirationTime;
 
   private long moteTime; /* Microseconds */
   private long timeDrift; /* Microseconds */
@@ -76,7 +83,14 @@ public class ContikiClock extends Clock implements PolledBeforeActiveTicks, Poll
   public ContikiClock(Mote mote) {
     super(mote);
     this.mote = (ContikiMote) mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simCurrentTime = moteMem.getHandle("simCurrentTime");
+    simRtimerCurrentTicks = moteMem.getHandle("simRtimerCurrentTicks");
+    simRtimerPending = moteMem.getHandle("simRtimerPending");
+    simRtimerNextExpirationTime = moteMem.getHandle("simRtimerNextExpirationTime");
+    simProcessRunValue = moteMem.getHandle("simProcessRunValue");
+    simEtimerPending = moteMem.getHandle("simEtimerPending");
+    simEtimerNextExpirationTime = moteMem.getHandle("simEtimerNextExpirationTime");
     timeDrift = 0;
     moteTime = 0;
   }
@@ -85,7 +99,7 @@ public class ContikiClock extends Clock implements PolledBeforeActiveTicks, Poll
   public void setTime(long newTime) {
     moteTime = newTime;
     if (moteTime > 0) {
-      moteMem.setInt64ValueOf("simCurrentTime", newTime / 1000);
+      simCurrentTime.setLong(newTime / 1000);
     }
   }
 
@@ -120,7 +134,7 @@ public class ContikiClock extends Clock implements PolledBeforeActiveTicks, Poll
     /* Update time */
     long currentSimulationTime = simulation.getSimulationTime();
     setTime(currentSimulationTime + timeDrift);
-    moteMem.setInt64ValueOf("simRtimerCurrentTicks", currentSimulationTime);
+    simRtimerCurrentTicks.setLong(currentSimulationTime);
   }
 
   @Override
@@ -128,26 +142,26 @@ public class ContikiClock extends Clock implements PolledBeforeActiveTicks, Poll
     long currentSimulationTime = mote.getSimulation().getSimulationTime();
 
     /* Always schedule for Rtimer if anything pending */
-    if (moteMem.getIntValueOf("simRtimerPending") != 0) {
-      mote.scheduleNextWakeup(moteMem.getInt64ValueOf("simRtimerNextExpirationTime"));
+    if (simRtimerPending.getInt() != 0) {
+      mote.scheduleNextWakeup(simRtimerNextExpirationTime.getLong());
     }
 
     /* Request next tick for remaining events / timers */
-    int processRunValue = moteMem.getIntValueOf("simProcessRunValue");
+    int processRunValue = simProcessRunValue.getInt();
     if (processRunValue != 0) {
       /* Handle next Contiki event in one millisecond */
       mote.scheduleNextWakeup(currentSimulationTime + Simulation.MILLISECOND);
       return;
     }
 
-    int etimersPending = moteMem.getIntValueOf("simEtimerPending");
+    int etimersPending = simEtimerPending.getInt();
     if (etimersPending == 0) {
       /* No timers */
       return;
     }
 
     /* Request tick next wakeup time for Etimer */
-    long etimerNextExpirationTime = moteMem.getInt64ValueOf("simEtimerNextExpirationTime") * Simulation.MILLISECOND;
+    long etimerNextExpirationTime = simEtimerNextExpirationTime.getLong() * Simulation.MILLISECOND;
     long etimerTimeToNextExpiration = etimerNextExpirationTime - moteTime;
     if (etimerTimeToNextExpiration <= 0) {
       /* logger.warn(mote.getID() + ": Event timer already expired, but has been delayed: " + etimerTimeToNextExpiration); */
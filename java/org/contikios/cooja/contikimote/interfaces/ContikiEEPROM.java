@@ -56,6 +56,7 @@ import org.contikios.cooja.Cooja;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.MoteInterface;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.jdom2.Element;
 import org.slf4j.Logger;
@@ -83,7 +84,10 @@ public class ContikiEEPROM implements MoteInterface, PolledAfterActiveTicks {
 
   public static final int EEPROM_SIZE = 1024; /* Configure EEPROM size here and in eeprom.c. Should really be multiple of 16 */
   private final Mote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simEEPROMChanged;
+  private final SymbolHandle simEEPROMRead;
+  private final SymbolHandle simEEPROMWritten;
+  private final SymbolHandle simEEPROMData;
   private int lastRead;
   private int lastWritten;
   private final LinkedHashMap<JPanel, Updates> labels = new LinkedHashMap<>();
@@ -97,17 +101,21 @@ public class ContikiEEPROM implements MoteInterface, PolledAfterActiveTicks {
    */
   public ContikiEEPROM(Mote mote) {
     this.mote = mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simEEPROMChanged = moteMem.getHandle("simEEPROMChanged");
+    simEEPROMRead = moteMem.getHandle("simEEPROMRead");
+    simEEPROMWritten = moteMem.getHandle("simEEPROMWritten");
+    simEEPROMData = moteMem.getHandle("simEEPROMData");
   }
 
   @Override
   public void doActionsAfterTick() {
-    if (moteMem.getByteValueOf("simEEPROMChanged") == 1) {
-      lastRead = moteMem.getIntValueOf("simEEPROMRead");
-      lastWritten = moteMem.getIntValueOf("simEEPROMWritten");
-      moteMem.setIntValueOf("simEEPROMRead", 0);
-      moteMem.setIntValueOf("simEEPROMWritten", 0);
-      moteMem.setByteValueOf("simEEPROMChanged", (byte) 0);
+    if (simEEPROMChanged.getByte() == 1) {
+      lastRead = simEEPROMRead.getInt();
+      lastWritten = simEEPROMWritten.getInt();
+      simEEPROMRead.setInt(0);
+      simEEPROMWritten.setInt(0);
+      simEEPROMChanged.setByte((byte) 0);
       if (Cooja.isVisualized()) {
         final var currentTime = mote.getSimulation().getSimulationTime();
         EventQueue.invokeLater(() -> {
@@ -134,7 +142,7 @@ public class ContikiEEPROM implements MoteInterface, PolledAfterActiveTicks {
       return false;
     }
 
-    moteMem.setByteArray("simEEPROMData", data);
+    simEEPROMData.setBytes(data);
     return true;
   }
 
@@ -144,7 +152,7 @@ public class ContikiEEPROM implements MoteInterface, PolledAfterActiveTicks {
    * @return Filesystem data
    */
   public byte[] getEEPROMData() {
-    return moteMem.getByteArray("simEEPROMData", EEPROM_SIZE);
+    return simEEPROMData.getBytes(EEPROM_SIZE);
   }
 
   /**
@@ -38,6 +38,7 @@ import javax.swing.JPanel;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.interfaces.LED;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.contikios.cooja.util.EventTriggers;
 
@@ -57,7 +58,7 @@ import org.contikios.cooja.util.EventTriggers;
 public class ContikiLED extends LED implements PolledAfterActiveTicks {
 
   private final Mote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simLedsValue;
   private byte currentLedValue;
 
   private static final byte LEDS_GREEN = 1;
@@ -81,7 +82,8 @@ public class ContikiLED extends LED implements PolledAfterActiveTicks {
    */
   public ContikiLED(Mote mote) {
     this.mote = mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simLedsValue = moteMem.getHandle("simLedsValue");
   }
 
   @Override
@@ -108,7 +110,7 @@ public class ContikiLED extends LED implements PolledAfterActiveTicks {
   public void doActionsAfterTick() {
     boolean ledChanged;
 
-    byte newLedsValue = moteMem.getByteValueOf("simLedsValue");
+    byte newLedsValue = simLedsValue.getByte();
     ledChanged = newLedsValue != currentLedValue;
 
     currentLedValue = newLedsValue;
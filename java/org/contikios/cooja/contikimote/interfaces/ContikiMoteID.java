@@ -33,6 +33,7 @@ package org.contikios.cooja.contikimote.interfaces;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.interfaces.MoteID;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 
 /**
@@ -52,7 +53,9 @@ import org.contikios.cooja.mote.memory.VarMemory;
  * @author Fredrik Osterlind
  */
 public class ContikiMoteID extends MoteID<ContikiMote> {
-  private final VarMemory moteMem;
+  private final SymbolHandle simMoteID;
+  private final SymbolHandle simMoteIDChanged;
+  private final SymbolHandle simRandomSeed;
 
   /**
    * Creates an interface to the mote ID at mote.
@@ -64,14 +67,17 @@ public class ContikiMoteID extends MoteID<ContikiMote> {
    */
   public ContikiMoteID(Mote mote) {
     super((ContikiMote) mote);
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simMoteID = moteMem.getHandle("simMoteID");
+    simMoteIDChanged = moteMem.getHandle("simMoteIDChanged");
+    simRandomSeed = moteMem.getHandle("simRandomSeed");
   }
 
   @Override
   public void setMoteID(int newID) {
     super.setMoteID(newID);
-    moteMem.setIntValueOf("simMoteID", newID);
-    moteMem.setByteValueOf("simMoteIDChanged", (byte) 1);
-    moteMem.setIntValueOf("simRandomSeed", (int) (mote.getSimulation().getRandomSeed() + newID));
+    simMoteID.setInt(newID);
+    simMoteIDChanged.setByte((byte) 1);
+    simRandomSeed.setInt((int) (mote.getSimulation().getRandomSeed() + newID));
   }
 }
@@ -35,6 +35,7 @@ import javax.swing.JPanel;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.interfaces.PIR;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 
 /**
@@ -54,7 +55,8 @@ import org.contikios.cooja.mote.memory.VarMemory;
 public class ContikiPIR extends PIR {
 
   private final ContikiMote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simPirIsActive;
+  private final SymbolHandle simPirChanged;
 
   /**
    * Creates an interface to the PIR at mote.
@@ -66,7 +68,9 @@ public class ContikiPIR extends PIR {
    */
   public ContikiPIR(Mote mote) {
     this.mote = (ContikiMote) mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simPirIsActive = moteMem.getHandle("simPirIsActive");
+    simPirChanged = moteMem.getHandle("simPirChanged");
   }
 
   /**
@@ -78,8 +82,8 @@ public class ContikiPIR extends PIR {
   }
 
   public void doTriggerChange() { 
-    if (moteMem.getByteValueOf("simPirIsActive") == 1) {
-      moteMem.setByteValueOf("simPirChanged", (byte) 1);
+    if (simPirIsActive.getByte() == 1) {
+      simPirChanged.setByte((byte) 1);
 
       mote.requestImmediateWakeup();
     }
@@ -40,6 +40,7 @@ import org.contikios.cooja.TimeEvent;
 import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.dialogs.SerialUI;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,7 +67,12 @@ public class ContikiRS232 extends SerialUI implements PolledAfterActiveTicks {
   private static final Logger logger = LoggerFactory.getLogger(ContikiRS232.class);
 
   private final ContikiMote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simLoggedFlag;
+  private final SymbolHandle simLoggedLength;
+  private final SymbolHandle simLoggedData;
+  private final SymbolHandle simSerialReceivingLength;
+  private final SymbolHandle simSerialReceivingData;
+  private final SymbolHandle simSerialReceivingFlag;
 
   static final int SERIAL_BUF_SIZE = 16 * 1024; /* rs232.c:40 */
 
@@ -80,17 +86,23 @@ public class ContikiRS232 extends SerialUI implements PolledAfterActiveTicks {
    */
   public ContikiRS232(Mote mote) {
     this.mote = (ContikiMote) mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simLoggedFlag = moteMem.getHandle("simLoggedFlag");
+    simLoggedLength = moteMem.getHandle("simLoggedLength");
+    simLoggedData = moteMem.getHandle("simLoggedData");
+    simSerialReceivingLength = moteMem.getHandle("simSerialReceivingLength");
+    simSerialReceivingData = moteMem.getHandle("simSerialReceivingData");
+    simSerialReceivingFlag = moteMem.getHandle("simSerialReceivingFlag");
   }
 
   @Override
   public void doActionsAfterTick() {
-    if (moteMem.getByteValueOf("simLoggedFlag") == 1) {
-      int len = moteMem.getIntValueOf("simLoggedLength");
-      byte[] bytes = moteMem.getByteArray("simLoggedData", len);
+    if (simLoggedFlag.getByte() == 1) {
+      int len = simLoggedLength.getInt();
+      byte[] bytes = simLoggedData.getBytes(len);
 
-      moteMem.setByteValueOf("simLoggedFlag", (byte) 0);
-      moteMem.setIntValueOf("simLoggedLength", 0);
+      simLoggedFlag.setByte((byte) 0);
+      simLoggedLength.setInt(0);
 
       for (byte b: bytes) {
         dataReceived(b);
@@ -104,24 +116,24 @@ public class ContikiRS232 extends SerialUI implements PolledAfterActiveTicks {
 
     mote.getSimulation().invokeSimulationThread(() -> {
       /* Append to existing buffer */
-      int oldSize = moteMem.getIntValueOf("simSerialReceivingLength");
+      int oldSize = simSerialReceivingLength.getInt();
       int newSize = oldSize + dataToAppend.length;
       if (newSize > SERIAL_BUF_SIZE) {
         logger.error("ContikiRS232: dropping rs232 data #1, buffer full: " + oldSize + " -> " + newSize);
         mote.requestImmediateWakeup();
         return;
       }
-      moteMem.setIntValueOf("simSerialReceivingLength", newSize);
+      simSerialReceivingLength.setInt(newSize);
 
-      byte[] oldData = moteMem.getByteArray("simSerialReceivingData", oldSize);
+      byte[] oldData = simSerialReceivingData.getBytes(oldSize);
       byte[] newData = new byte[newSize];
 
       System.arraycopy(oldData, 0, newData, 0, oldData.length);
       System.arraycopy(dataToAppend, 0, newData, oldSize, dataToAppend.length);
 
-      moteMem.setByteArray("simSerialReceivingData", newData);
+      simSerialReceivingData.setBytes(newData);
 
-      moteMem.setByteValueOf("simSerialReceivingFlag", (byte) 1);
+      simSerialReceivingFlag.setByte((byte) 1);
       mote.requestImmediateWakeup();
     });
   }
@@ -160,24 +172,24 @@ public class ContikiRS232 extends SerialUI implements PolledAfterActiveTicks {
         }
 
         /* Append to existing buffer */
-        int oldSize = moteMem.getIntValueOf("simSerialReceivingLength");
+        int oldSize = simSerialReceivingLength.getInt();
         int newSize = oldSize + dataToAppend.length;
         if (newSize > SERIAL_BUF_SIZE) {
         	logger.error("ContikiRS232: dropping rs232 data #2, buffer full: " + oldSize + " -> " + newSize);
         	mote.requestImmediateWakeup();
         	return;
         }
-        moteMem.setIntValueOf("simSerialReceivingLength", newSize);
+        simSerialReceivingLength.setInt(newSize);
 
-        byte[] oldData = moteMem.getByteArray("simSerialReceivingData", oldSize);
+        byte[] oldData = simSerialReceivingData.getBytes(oldSize);
         byte[] newData = new byte[newSize];
 
         System.arraycopy(oldData, 0, newData, 0, oldData.length);
         System.arraycopy(dataToAppend, 0, newData, oldSize, dataToAppend.length);
 
-        moteMem.setByteArray("simSerialReceivingData", newData);
+        simSerialReceivingData.setBytes(newData);
 
-        moteMem.setByteValueOf("simSerialReceivingFlag", (byte) 1);
+        simSerialReceivingFlag.setByte((byte) 1);
 
         /* Reschedule us if more bytes are available */
         mote.getSimulation().scheduleEvent(this, t);
@@ -213,24 +225,24 @@ public class ContikiRS232 extends SerialUI implements PolledAfterActiveTicks {
         }
 
         /* Append to existing buffer */
-        int oldSize = moteMem.getIntValueOf("simSerialReceivingLength");
+        int oldSize = simSerialReceivingLength.getInt();
         int newSize = oldSize + dataToAppend.length;
         if (newSize > SERIAL_BUF_SIZE) {
         	logger.error("ContikiRS232: dropping rs232 data #3, buffer full: " + oldSize + " -> " + newSize);
         	mote.requestImmediateWakeup();
         	return;
         }
-        moteMem.setIntValueOf("simSerialReceivingLength", newSize);
+        simSerialReceivingLength.setInt(newSize);
 
-        byte[] oldData = moteMem.getByteArray("simSerialReceivingData", oldSize);
+        byte[] oldData = simSerialReceivingData.getBytes(oldSize);
         byte[] newData = new byte[newSize];
 
         System.arraycopy(oldData, 0, newData, 0, oldData.length);
         System.arraycopy(dataToAppend, 0, newData, oldSize, dataToAppend.length);
 
-        moteMem.setByteArray("simSerialReceivingData", newData);
+        simSerialReceivingData.setBytes(newData);
 
-        moteMem.setByteValueOf("simSerialReceivingFlag", (byte) 1);
+        simSerialReceivingFlag.setByte((byte) 1);
 
         /* Reschedule us if more bytes are available */
         mote.getSimulation().scheduleEvent(this, t);
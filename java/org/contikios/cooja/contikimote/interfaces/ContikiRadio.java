@@ -40,6 +40,7 @@ import org.contikios.cooja.contikimote.ContikiMote;
 import org.contikios.cooja.interfaces.PolledAfterActiveTicks;
 import org.contikios.cooja.interfaces.Position;
 import org.contikios.cooja.interfaces.Radio;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 import org.contikios.cooja.radiomediums.UDGM;
 import org.contikios.cooja.util.CCITT_CRC;
@@ -83,7 +84,17 @@ import org.slf4j.LoggerFactory;
 public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
   private final ContikiMote mote;
 
-  private final VarMemory myMoteMemory;
+  private final SymbolHandle simRadioHWOn;
+  private final SymbolHandle simReceiving;
+  private final SymbolHandle simRadioChannel;
+  private final SymbolHandle simLastPacketTimestamp;
+  private final SymbolHandle simInSize;
+  private final SymbolHandle simInDataBuffer;
+  private final SymbolHandle simPower;
+  private final SymbolHandle simSignalStrength;
+  private final SymbolHandle simLQI;
+  private final SymbolHandle simOutSize;
+  private final SymbolHandle simOutDataBuffer;
 
   private static final Logger logger = LoggerFactory.getLogger(ContikiRadio.class);
 
@@ -133,9 +144,20 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
     this.radioTransmissionRateKBPS = this.RADIO_TRANSMISSION_RATE_KBPS;
 
     this.mote = (ContikiMote) mote;
-    this.myMoteMemory = new VarMemory(mote.getMemory());
-
-    radioOn = myMoteMemory.getByteValueOf("simRadioHWOn") == 1;
+    var moteMem = new VarMemory(mote.getMemory());
+    simRadioHWOn = moteMem.getHandle("simRadioHWOn");
+    simReceiving = moteMem.getHandle("simReceiving");
+    simRadioChannel = moteMem.getHandle("simRadioChannel");
+    simLastPacketTimestamp = moteMem.getHandle("simLastPacketTimestamp");
+    simInSize = moteMem.getHandle("simInSize");
+    simInDataBuffer = moteMem.getHandle("simInDataBuffer");
+    simPower = moteMem.getHandle("simPower");
+    simSignalStrength = moteMem.getHandle("simSignalStrength");
+    simLQI = moteMem.getHandle("simLQI");
+    simOutSize = moteMem.getHandle("simOutSize");
+    simOutDataBuffer = moteMem.getHandle("simOutDataBuffer");
+
+    radioOn = simRadioHWOn.getByte() == 1;
   }
 
   /* Packet radio support */
@@ -167,7 +189,7 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
 
   @Override
   public boolean isReceiving() {
-    return myMoteMemory.getByteValueOf("simReceiving") == 1;
+    return simReceiving.getByte() == 1;
   }
 
   @Override
@@ -177,7 +199,7 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
 
   @Override
   public int getChannel() {
-    return myMoteMemory.getIntValueOf("simRadioChannel");
+    return simRadioChannel.getInt();
   }
 
   @Override
@@ -188,13 +210,13 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
       return;
     }
 
-    myMoteMemory.setByteValueOf("simReceiving", (byte) 1);
+    simReceiving.setByte((byte) 1);
     mote.requestImmediateWakeup();
 
     lastEventTime = mote.getSimulation().getSimulationTime();
     lastEvent = RadioEvent.RECEPTION_STARTED;
 
-    myMoteMemory.setInt64ValueOf("simLastPacketTimestamp", lastEventTime);
+    simLastPacketTimestamp.setLong(lastEventTime);
     radioEventTriggers.trigger(RadioEvent.RECEPTION_STARTED, this);
   }
 
@@ -203,13 +225,13 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
     if (isInterfered || packetToMote == null) {
       isInterfered = false;
       packetToMote = null;
-      myMoteMemory.setIntValueOf("simInSize", 0);
+      simInSize.setInt(0);
     } else {
-      myMoteMemory.setIntValueOf("simInSize", packetToMote.getPacketData().length - 2);
-      myMoteMemory.setByteArray("simInDataBuffer", packetToMote.getPacketData());
+      simInSize.setInt(packetToMote.getPacketData().length - 2);
+      simInDataBuffer.setBytes(packetToMote.getPacketData());
     }
 
-    myMoteMemory.setByteValueOf("simReceiving", (byte) 0);
+    simReceiving.setByte((byte) 0);
     mote.requestImmediateWakeup();
     lastEventTime = mote.getSimulation().getSimulationTime();
     lastEvent = RadioEvent.RECEPTION_FINISHED;
@@ -248,17 +270,17 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
 
   @Override
   public int getCurrentOutputPowerIndicator() {
-    return myMoteMemory.getByteValueOf("simPower");
+    return simPower.getByte();
   }
 
   @Override
   public double getCurrentSignalStrength() {
-    return myMoteMemory.getIntValueOf("simSignalStrength");
+    return simSignalStrength.getInt();
   }
 
   @Override
   public void setCurrentSignalStrength(double signalStrength) {
-    myMoteMemory.setIntValueOf("simSignalStrength", (int) signalStrength);
+    simSignalStrength.setInt((int) signalStrength);
   }
 
   /** Set LQI to a value between 0 and 255.
@@ -273,12 +295,12 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
     else if(lqi>0xff) {
       lqi=0xff;
     }
-    myMoteMemory.setIntValueOf("simLQI", lqi);
+    simLQI.setInt(lqi);
   }
 
   @Override
   public int getLQI(){
-    return myMoteMemory.getIntValueOf("simLQI");
+    return simLQI.getInt();
   }
 
   @Override
@@ -291,13 +313,13 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
     long now = mote.getSimulation().getSimulationTime();
 
     /* Check if radio hardware status changed */
-    if (radioOn != (myMoteMemory.getByteValueOf("simRadioHWOn") == 1)) {
+    if (radioOn != (simRadioHWOn.getByte() == 1)) {
       radioOn = !radioOn;
 
       if (!radioOn) {
-        myMoteMemory.setByteValueOf("simReceiving", (byte) 0);
-        myMoteMemory.setIntValueOf("simInSize", 0);
-        myMoteMemory.setIntValueOf("simOutSize", 0);
+        simReceiving.setByte((byte) 0);
+        simInSize.setInt(0);
+        simOutSize.setInt(0);
         isTransmitting = false;
         lastEvent = RadioEvent.HW_OFF;
       } else {
@@ -312,7 +334,7 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
     }
 
     /* Check if radio output power changed */
-    var currPower = myMoteMemory.getByteValueOf("simPower");
+    var currPower = simPower.getByte();
     if (currPower != oldOutputPowerIndicator) {
       oldOutputPowerIndicator = currPower;
       lastEvent = RadioEvent.UNKNOWN;
@@ -330,7 +352,7 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
 
     /* Ongoing transmission */
     if (isTransmitting && now >= transmissionEndTime) {
-      myMoteMemory.setIntValueOf("simOutSize", 0);
+      simOutSize.setInt(0);
       isTransmitting = false;
       mote.requestImmediateWakeup();
 
@@ -341,12 +363,12 @@ public class ContikiRadio extends Radio implements PolledAfterActiveTicks {
 
     /* New transmission */
     int size;
-    if (!isTransmitting && (size = myMoteMemory.getIntValueOf("simOutSize")) > 0) {
-      packetFromMote = new COOJARadioPacket(myMoteMemory.getByteArray("simOutDataBuffer", size + 2));
+    if (!isTransmitting && (size = simOutSize.getInt()) > 0) {
+      packetFromMote = new COOJARadioPacket(simOutDataBuffer.getBytes(size + 2));
 
       if (packetFromMote.getPacketData() == null || packetFromMote.getPacketData().length == 0) {
         logger.warn("Skipping zero sized Contiki packet (no buffer)");
-        myMoteMemory.setIntValueOf("simOutSize", 0);
+        simOutSize.setInt(0);
         mote.requestImmediateWakeup();
         return;
       }
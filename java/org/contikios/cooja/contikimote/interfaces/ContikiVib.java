@@ -36,6 +36,7 @@ import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.MoteInterface;
 import org.contikios.cooja.contikimote.ContikiMote;
+import org.contikios.cooja.mote.memory.SymbolHandle;
 import org.contikios.cooja.mote.memory.VarMemory;
 
 /**
@@ -56,7 +57,8 @@ import org.contikios.cooja.mote.memory.VarMemory;
 public class ContikiVib implements MoteInterface {
 
   private final ContikiMote mote;
-  private final VarMemory moteMem;
+  private final SymbolHandle simVibIsActive;
+  private final SymbolHandle simVibChanged;
 
   /**
    * Creates an interface to the vibration sensor at mote.
@@ -68,7 +70,9 @@ public class ContikiVib implements MoteInterface {
    */
   public ContikiVib(Mote mote) {
     this.mote = (ContikiMote) mote;
-    this.moteMem = new VarMemory(mote.getMemory());
+    var moteMem = new VarMemory(mote.getMemory());
+    simVibIsActive = moteMem.getHandle("simVibIsActive");
+    simVibChanged = moteMem.getHandle("simVibChanged");
   }
 
   /**
@@ -79,8 +83,8 @@ public class ContikiVib implements MoteInterface {
   }
   
   public void doTriggerChange() { 
-    if (moteMem.getByteValueOf("simVibIsActive") == 1) {
-      moteMem.setByteValueOf("simVibChanged", (byte) 1);
+    if (simVibIsActive.getByte() == 1) {
+      simVibChanged.setByte((byte) 1);
 
       mote.requestImmediateWakeup();
     }
@@ -208,7 +208,7 @@ public abstract class SerialUI extends Log implements SerialPort {
     });
 
     getLogDataTriggers().addTrigger(panel, (obs, obj) -> {
-      final String logMessage = getLastLogMessage();
+      final String logMessage = obj.msg();
       EventQueue.invokeLater(() -> appendToTextArea(logTextPane, logMessage));
     });
     JScrollPane scrollPane = new JScrollPane(logTextPane);
@@ -123,6 +123,19 @@ public abstract class Radio implements MoteInterface {
    */
   public abstract boolean isReceiving();
 
+  /**
+   * Returns the shortest simulated time from when the mote of this radio acts
+   * until the radio can start a transmission, for example the time the transceiver
+   * needs to turn around to transmit. The default of zero means that the radio
+   * may start transmitting at any time.
+   *
+   * @return Time (microseconds), zero if the radio is transmitting or about to
+   * @see org.contikios.cooja.RadioMedium#getLookahead()
+   */
+  public long getTransmissionDelay() {
+    return 0;
+  }
+
   /**
    * Returns true if this radio had a connection that was dropped due to
    * interference.
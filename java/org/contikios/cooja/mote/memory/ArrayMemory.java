@@ -29,6 +29,7 @@
 
 package org.contikios.cooja.mote.memory;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -100,6 +101,11 @@ public class ArrayMemory implements MemoryInterface {
     return layout;
   }
 
+  @Override
+  public SymbolHandle getSymbolHandle(Symbol symbol) {
+    return new SymbolHandle.Buffered(symbol, layout, ByteBuffer.wrap(memory).order(layout.order), (int) (symbol.addr - startAddress));
+  }
+
   @Override
   public boolean addSegmentMonitor(SegmentMonitor.EventType flag, long address, int size, SegmentMonitor monitor) {
     throw new UnsupportedOperationException("Not supported yet.");
@@ -138,6 +138,18 @@ public interface MemoryInterface {
    */
   MemoryLayout getLayout();
 
+  /**
+   * Returns a handle for reading and writing the value of a symbol.
+   * Memories that can access their contents directly return handles
+   * that do not copy values through byte arrays.
+   *
+   * @param symbol Symbol in this memory
+   * @return Handle for the symbol
+   */
+  default SymbolHandle getSymbolHandle(Symbol symbol) {
+    return new SymbolHandle.Copying(this, symbol);
+  }
+
   /**
    * Monitor to listen for memory updates.
    */
@@ -30,7 +30,9 @@ package org.contikios.cooja.mote.memory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +46,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Implements MemoryInterface by forwarding calls to available sections or returning
  * an error if no section is available.
+ * <p>
+ * Changes are tracked in pages of {@link #PAGE_SIZE} bytes, so that copies of the
+ * memory can be kept up to date and segment monitors only check changed pages.
  *
  * @author Fredrik Osterlind
  * @author Enrico Jorns
@@ -52,7 +57,11 @@ public class SectionMoteMemory implements MemoryInterface {
   private static final Logger logger = LoggerFactory.getLogger(SectionMoteMemory.class);
   private static final boolean DEBUG = logger.isDebugEnabled();
 
+  /** Size of the pages that changes are tracked in. */
+  public static final int PAGE_SIZE = 256;
+
   private final Map<String, MemoryInterface> sections = new HashMap<>();
+  private final Map<MemoryInterface, Pages> pages = new IdentityHashMap<>();
 
   private final Map<String, Symbol> symbols;
   private MemoryLayout memLayout;
@@ -99,6 +108,7 @@ public class SectionMoteMemory implements MemoryInterface {
     }
 
     sections.put(name, section);
+    pages.put(section, new Pages());
     if (DEBUG) {
       logger.debug(String.format(
               "Added section '%s' of size %d @0x%x",
@@ -138,6 +148,40 @@ public class SectionMoteMemory implements MemoryInterface {
   @Override
   public void clearMemory() {
     sections.clear();
+    pages.clear();
+  }
+
+  /**
+   * Returns the pages of a section that were written through this memory since
+   * they were last cleared. Callers that copy the written pages elsewhere clear them.
+   *
+   * @param section Section of this memory
+   * @return Page numbers relative to the start of the section
+   */
+  public BitSet getWrittenPages(MemoryInterface section) {
+    return pages.get(section).written;
+  }
+
+  /**
+   * Records that a page of a section was changed other than through this memory,
+   * for example by the native code of a mote.
+   *
+   * @param section Section of this memory
+   * @param page Page number relative to the start of the section
+   */
+  public void pageChanged(MemoryInterface section, int page) {
+    pages.get(section).changed.set(page);
+  }
+
+  /**
+   * Records that any page of any section may have changed other than through
+   * this memory, for example when the sections are the memory of native code.
+   */
+  public void allPagesChanged() {
+    for (var entry : pages.entrySet()) {
+      int size = entry.getKey().getTotalSize();
+      entry.getValue().changed.set(0, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
   }
 
   @Override
@@ -191,6 +235,13 @@ public class SectionMoteMemory implements MemoryInterface {
       final var secStart = section.getStartAddr();
       if (address >= secStart && address + data.length <= secStart + section.getTotalSize()) {
         section.setMemorySegment(address, data);
+        if (data.length > 0) {
+          var sectionPages = pages.get(section);
+          int first = (int) ((address - secStart) / PAGE_SIZE);
+          int last = (int) ((address + data.length - 1 - secStart) / PAGE_SIZE);
+          sectionPages.written.set(first, last + 1);
+          sectionPages.changed.set(first, last + 1);
+        }
         if (DEBUG) {
           logger.debug(String.format(
                   "Wrote memory segment [0x%x,0x%x]",
@@ -219,6 +270,21 @@ public class SectionMoteMemory implements MemoryInterface {
     return memLayout;
   }
 
+  /**
+   * Returns a handle that accesses the section containing the symbol directly,
+   * and tracks the pages written through it like writes through this memory.
+   */
+  @Override
+  public SymbolHandle getSymbolHandle(Symbol symbol) {
+    for (var section : sections.values()) {
+      final var secStart = section.getStartAddr();
+      if (symbol.addr >= secStart && symbol.addr + Math.max(symbol.size, 1) <= secStart + section.getTotalSize()) {
+        return new TrackedHandle(section.getSymbolHandle(symbol), pages.get(section), (int) (symbol.addr - secStart));
+      }
+    }
+    return MemoryInterface.super.getSymbolHandle(symbol);
+  }
+
   @Override
   public boolean addSegmentMonitor(SegmentMonitor.EventType flag, long address, int size, SegmentMonitor monitor) {
     PolledMemorySegments t = new PolledMemorySegments(monitor, address, size);
@@ -256,17 +322,116 @@ public class SectionMoteMemory implements MemoryInterface {
     return clone;
   }
 
+  private static class Pages {
+    /** Pages written through this memory, since cleared by a copy. */
+    final BitSet written = new BitSet();
+    /** Pages changed since the last poll for memory changes. */
+    BitSet changed = new BitSet();
+    /** Pages changed before the current poll for memory changes. */
+    BitSet polled = new BitSet();
+  }
+
+  /** Handle that records the pages it writes. */
+  private static final class TrackedHandle extends SymbolHandle {
+    private final SymbolHandle handle;
+    private final Pages sectionPages;
+    private final int offset;
+
+    TrackedHandle(SymbolHandle handle, Pages sectionPages, int offset) {
+      super(handle.symbol, handle.layout);
+      this.handle = handle;
+      this.sectionPages = sectionPages;
+      this.offset = offset;
+    }
+
+    private void written(int size) {
+      if (size > 0) {
+        int first = offset / PAGE_SIZE;
+        int last = (offset + size - 1) / PAGE_SIZE;
+        sectionPages.written.set(first, last + 1);
+        sectionPages.changed.set(first, last + 1);
+      }
+    }
+
+    @Override
+    public byte getByte() {
+      return handle.getByte();
+    }
+
+    @Override
+    public void setByte(byte value) {
+      handle.setByte(value);
+      written(1);
+    }
+
+    @Override
+    public short getShort() {
+      return handle.getShort();
+    }
+
+    @Override
+    public void setShort(short value) {
+      handle.setShort(value);
+      written(2);
+    }
+
+    @Override
+    public int getInt32() {
+      return handle.getInt32();
+    }
+
+    @Override
+    public void setInt32(int value) {
+      handle.setInt32(value);
+      written(4);
+    }
+
+    @Override
+    public long getLong() {
+      return handle.getLong();
+    }
+
+    @Override
+    public void setLong(long value) {
+      handle.setLong(value);
+      written(8);
+    }
+
+    @Override
+    public byte[] getBytes(int length) {
+      return handle.getBytes(length);
+    }
+
+    @Override
+    public void setBytes(byte[] data) {
+      handle.setBytes(data);
+      written(data.length);
+    }
+  }
+
   private final ArrayList<PolledMemorySegments> polledMemories = new ArrayList<>();
   public void pollForMemoryChanges() {
+    // Monitors may write memory, those changes are reported by the next poll.
+    for (var sectionPages : pages.values()) {
+      var changed = sectionPages.changed;
+      sectionPages.changed = sectionPages.polled;
+      sectionPages.polled = changed;
+    }
     for (PolledMemorySegments mem: polledMemories.toArray(new PolledMemorySegments[0])) {
       mem.notifyIfChanged();
     }
+    for (var sectionPages : pages.values()) {
+      sectionPages.polled.clear();
+    }
   }
 
   private class PolledMemorySegments {
     final SegmentMonitor mm;
     final long address;
     final int size;
+    private final Pages sectionPages;
+    private final int firstPage;
+    private final int lastPage;
     private byte[] oldMem;
 
     PolledMemorySegments(SegmentMonitor mm, long address, int size) {
@@ -275,9 +440,22 @@ public class SectionMoteMemory implements MemoryInterface {
       this.size = size;
       
       oldMem = getMemorySegment(address, size);
+      MemoryInterface section = null;
+      for (var sec : sections.values()) {
+        if (address >= sec.getStartAddr() && address + size <= sec.getStartAddr() + sec.getTotalSize()) {
+          section = sec;
+        }
+      }
+      sectionPages = pages.get(section);
+      firstPage = (int) ((address - section.getStartAddr()) / PAGE_SIZE);
+      lastPage = (int) ((address + Math.max(size, 1) - 1 - section.getStartAddr()) / PAGE_SIZE);
     }
 
     private void notifyIfChanged() {
+      int page = sectionPages.polled.nextSetBit(firstPage);
+      if (page < 0 || page > lastPage) {
+        return;
+      }
       byte[] newMem = getMemorySegment(address, size);
       if (Arrays.equals(oldMem, newMem)) {
         return;
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.mote.memory;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Map;
+
+/**
+ * Memory section backed by a memory segment, for example the data section of
+ * a native library that is loaded for a single mote.
+ */
+public class SegmentMemory implements MemoryInterface {
+  private final MemorySegment memory;
+  private final long startAddress;
+  private final MemoryLayout layout;
+  private final Map<String, Symbol> symbols;
+
+  public SegmentMemory(long address, MemoryLayout layout, MemorySegment memory, Map<String, Symbol> symbols) {
+    this.startAddress = address;
+    this.layout = layout;
+    this.memory = memory;
+    this.symbols = symbols;
+  }
+
+  /**
+   * Returns a copy of the memory, changes to the returned array are not
+   * written back to the segment.
+   */
+  @Override
+  public byte[] getMemory() {
+    return memory.toArray(ValueLayout.JAVA_BYTE);
+  }
+
+  @Override
+  public byte[] getMemorySegment(long addr, int size) throws MoteMemoryException {
+    byte[] ret = new byte[size];
+    MemorySegment.copy(memory, ValueLayout.JAVA_BYTE, addr - startAddress, ret, 0, size);
+    return ret;
+  }
+
+  @Override
+  public void setMemorySegment(long addr, byte[] data) throws MoteMemoryException {
+    MemorySegment.copy(data, 0, memory, ValueLayout.JAVA_BYTE, addr - startAddress, data.length);
+  }
+
+  @Override
+  public void clearMemory() {
+    memory.fill((byte) 0x00);
+  }
+
+  @Override
+  public long getStartAddr() {
+    return startAddress;
+  }
+
+  @Override
+  public int getTotalSize() {
+    return (int) memory.byteSize();
+  }
+
+  @Override
+  public Map<String, Symbol> getSymbolMap() {
+    return symbols;
+  }
+
+  @Override
+  public MemoryLayout getLayout() {
+    return layout;
+  }
+
+  @Override
+  public SymbolHandle getSymbolHandle(Symbol symbol) {
+    return new SymbolHandle.Buffered(symbol, layout, memory.asByteBuffer().order(layout.order), (int) (symbol.addr - startAddress));
+  }
+
+  /**
+   * Segment monitors are not supported, as the native code writes the segment
+   * directly. Sections of a {@link SectionMoteMemory} are monitored through that
+   * memory instead, which polls them for changes.
+   *
+   * @return False
+   */
+  @Override
+  public boolean addSegmentMonitor(SegmentMonitor.EventType flag, long address, int size, SegmentMonitor monitor) {
+    return false;
+  }
+
+  @Override
+  public boolean removeSegmentMonitor(long address, int size, SegmentMonitor monitor) {
+    return false;
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.mote.memory;
+
+import java.nio.ByteBuffer;
+import org.contikios.cooja.mote.memory.MemoryInterface.Symbol;
+
+/**
+ * Reads and writes the value of a symbol in a memory. The symbol and the memory
+ * section containing it are looked up when the handle is created, so mote
+ * interfaces that access the same variables on every tick create handles once
+ * and then access values without name lookups or allocation.
+ * <p>
+ * Sizes follow the layout of the memory: int is the size of an int in the
+ * layout, long is 64 bits.
+ *
+ * @see VarMemory#getHandle(String)
+ * @see MemoryInterface#getSymbolHandle(Symbol)
+ */
+public abstract class SymbolHandle {
+  /** Symbol accessed through this handle. */
+  public final Symbol symbol;
+  protected final MemoryLayout layout;
+
+  protected SymbolHandle(Symbol symbol, MemoryLayout layout) {
+    this.symbol = symbol;
+    this.layout = layout;
+  }
+
+  public abstract byte getByte();
+
+  public abstract void setByte(byte value);
+
+  public abstract short getShort();
+
+  public abstract void setShort(short value);
+
+  public abstract int getInt32();
+
+  public abstract void setInt32(int value);
+
+  public abstract long getLong();
+
+  public abstract void setLong(long value);
+
+  /**
+   * Reads bytes starting at the symbol.
+   *
+   * @param length Number of bytes
+   * @return Bytes read
+   */
+  public abstract byte[] getBytes(int length);
+
+  /**
+   * Writes bytes starting at the symbol.
+   *
+   * @param data Bytes to write
+   */
+  public abstract void setBytes(byte[] data);
+
+  public int getInt() {
+    return layout.intSize == 2 ? getShort() : getInt32();
+  }
+
+  public void setInt(int value) {
+    if (layout.intSize == 2) {
+      setShort((short) value);
+    } else {
+      setInt32(value);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SymbolHandle(" + symbol + ")";
+  }
+
+  /**
+   * Handle that accesses a byte buffer view of the memory section directly.
+   */
+  static final class Buffered extends SymbolHandle {
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    /**
+     * @param symbol Symbol
+     * @param layout Memory layout
+     * @param buffer Memory section, with the byte order of the layout
+     * @param offset Offset of the symbol in the section
+     */
+    Buffered(Symbol symbol, MemoryLayout layout, ByteBuffer buffer, int offset) {
+      super(symbol, layout);
+      this.buffer = buffer;
+      this.offset = offset;
+    }
+
+    @Override
+    public byte getByte() {
+      return buffer.get(offset);
+    }
+
+    @Override
+    public void setByte(byte value) {
+      buffer.put(offset, value);
+    }
+
+    @Override
+    public short getShort() {
+      return buffer.getShort(offset);
+    }
+
+    @Override
+    public void setShort(short value) {
+      buffer.putShort(offset, value);
+    }
+
+    @Override
+    public int getInt32() {
+      return buffer.getInt(offset);
+    }
+
+    @Override
+    public void setInt32(int value) {
+      buffer.putInt(offset, value);
+    }
+
+    @Override
+    public long getLong() {
+      return buffer.getLong(offset);
+    }
+
+    @Override
+    public void setLong(long value) {
+      buffer.putLong(offset, value);
+    }
+
+    @Override
+    public byte[] getBytes(int length) {
+      var data = new byte[length];
+      buffer.get(offset, data);
+      return data;
+    }
+
+    @Override
+    public void setBytes(byte[] data) {
+      buffer.put(offset, data);
+    }
+  }
+
+  /**
+   * Handle that copies values through the segment accessors of the memory,
+   * for memories without direct access to their contents.
+   */
+  static final class Copying extends SymbolHandle {
+    private final MemoryInterface memory;
+
+    Copying(MemoryInterface memory, Symbol symbol) {
+      super(symbol, memory.getLayout());
+      this.memory = memory;
+    }
+
+    private MemoryBuffer read(int size) {
+      return MemoryBuffer.wrap(layout, memory.getMemorySegment(symbol.addr, size));
+    }
+
+    private MemoryBuffer buffer(int size) {
+      return MemoryBuffer.wrap(layout, new byte[size]);
+    }
+
+    @Override
+    public byte getByte() {
+      return memory.getMemorySegment(symbol.addr, 1)[0];
+    }
+
+    @Override
+    public void setByte(byte value) {
+      memory.setMemorySegment(symbol.addr, new byte[]{value});
+    }
+
+    @Override
+    public short getShort() {
+      return read(2).getShort();
+    }
+
+    @Override
+    public void setShort(short value) {
+      memory.setMemorySegment(symbol.addr, buffer(2).putShort(value).getBytes());
+    }
+
+    @Override
+    public int getInt32() {
+      return read(4).getInt32();
+    }
+
+    @Override
+    public void setInt32(int value) {
+      memory.setMemorySegment(symbol.addr, buffer(4).putInt32(value).getBytes());
+    }
+
+    @Override
+    public long getLong() {
+      return read(8).getLong();
+    }
+
+    @Override
+    public void setLong(long value) {
+      memory.setMemorySegment(symbol.addr, buffer(8).putLong(value).getBytes());
+    }
+
+    @Override
+    public byte[] getBytes(int length) {
+      return memory.getMemorySegment(symbol.addr, length);
+    }
+
+    @Override
+    public void setBytes(byte[] data) {
+      memory.setMemorySegment(symbol.addr, data);
+    }
+  }
+}
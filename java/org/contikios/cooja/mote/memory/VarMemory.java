@@ -127,6 +127,18 @@ public class VarMemory extends Memory {
     return getVariable(varName).size;
   }
 
+  /**
+   * Returns a handle for the variable with given name. The handle keeps
+   * accessing the memory it was created for, also after associateMemory.
+   *
+   * @param varName Variable name
+   * @return Handle for the variable
+   * @throws UnknownVariableException If variable not found
+   */
+  public SymbolHandle getHandle(String varName) throws UnknownVariableException {
+    return memIntf.getSymbolHandle(getVariable(varName));
+  }
+
   /**
    * Read 8-bit integer from location associated with this variable name.
    *
@@ -268,6 +268,15 @@ public abstract class AbstractWakeupMote<T extends MoteType, M extends MemoryInt
     return true;
   }
 
+  /**
+   * Returns the scheduled wakeup event.
+   *
+   * @return Wakeup event, or null if no wakeup is scheduled
+   */
+  public TimeEvent getWakeupEvent() {
+    return executeMoteEvent.isScheduled() ? executeMoteEvent : null;
+  }
+
   private HashMap<String, Object> properties;
   @Override
   public void setProperty(String key, Object obj) {
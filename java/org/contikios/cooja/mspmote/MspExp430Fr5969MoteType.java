@@ -76,8 +76,7 @@ public class MspExp430Fr5969MoteType extends MspMoteType {
     public MspMote generateMote(Simulation simulation) throws MoteTypeCreationException {
         MSP430 cpu;
         try {
-            cpu = FR5969Node.makeCPU(FR5969Node.makeChipConfig(),
-                    fileFirmware.getAbsolutePath());
+            cpu = makeCPU(FR5969Node.makeChipConfig());
         } catch (IOException e) {
             throw new MoteTypeCreationException("Failed to create FR5969 CPU", e);
         }
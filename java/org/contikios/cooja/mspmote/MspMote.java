@@ -31,7 +31,10 @@
 package org.contikios.cooja.mspmote;
 
 import java.awt.Component;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import org.contikios.cooja.ContikiError;
 import org.contikios.cooja.Cooja;
@@ -41,6 +44,7 @@ import org.contikios.cooja.Simulation.SimulationStop;
 import org.contikios.cooja.Watchpoint;
 import org.contikios.cooja.WatchpointMote;
 import org.contikios.cooja.motes.AbstractEmulatedMote;
+import org.contikios.cooja.mspmote.interfaces.Msp802154Radio;
 import org.contikios.cooja.mspmote.plugins.CodeVisualizerSkin;
 import org.contikios.cooja.mspmote.plugins.MspBreakpoint;
 import org.contikios.cooja.plugins.Visualizer;
@@ -71,7 +75,7 @@ import se.sics.mspsim.util.MapEntry;
 public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430, MspMoteMemory> implements WatchpointMote {
   private static final Logger logger = LoggerFactory.getLogger(MspMote.class);
 
-  private final static int EXECUTE_DURATION_US = 1; /* We always execute in 1 us steps */
+  private final static int EXECUTE_DURATION_US = 1; /* Shortest step, longer with the mote-quantum option */
 
   static {
     if (Cooja.isVisualized()) {
@@ -86,12 +90,12 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
   private boolean stopNextInstruction;
 
   public MspMote(MspMoteType moteType, Simulation sim, GenericNode node) throws MoteType.MoteTypeCreationException {
-    super(moteType, node.getCPU(), new MspMoteMemory(moteType.getEntries(node), node.getCPU()), sim);
+    super(moteType, node.getCPU(), new MspMoteMemory(moteType.getEntries(node), node.getCPU(), sim), sim);
     registry = node.getRegistry();
     node.setCommandHandler(commandHandler);
     node.setup(new ConfigManager());
-    myCpu.setMonitorExec(true);
-    myCpu.setTrace(0); /* TODO Enable */
+    myCpu.setDecodeCache(Boolean.parseBoolean(sim.getCfg().opts().getOrDefault("msp-decode-cache", "false")));
+    myCpu.setSkipIdleLoops(Boolean.parseBoolean(sim.getCfg().opts().getOrDefault("msp-skip-idle", "false")));
     myCpu.getLogger().addLogListener(new LogListener() {
       private static final Logger mlogger = LoggerFactory.getLogger("MSPSim");
       @Override
@@ -173,7 +177,12 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
   @Override
   public void stopNextInstruction() {
     stopNextInstruction = true;
-    getCPU().stop();
+    if (inQuantum) {
+      // Stop where the CPU is, and continue from there.
+      myCpu.syncMicros();
+    } else {
+      getCPU().stop();
+    }
   }
 
   public CommandHandler getCLICommandHandler() {
@@ -190,9 +199,17 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
 
   private double jumpError;
 
+  private boolean inQuantum;
+
   @Override
   protected void execute(long time) {
-    execute(time, EXECUTE_DURATION_US);
+    int duration = EXECUTE_DURATION_US;
+    if (simulation.getMoteQuantum() > EXECUTE_DURATION_US) {
+      // Execute until the next event, which may interact with this mote.
+      duration = (int) Math.max(EXECUTE_DURATION_US,
+              Math.min(simulation.getMoteQuantum(), simulation.getNextEventTime() - time));
+    }
+    execute(time, duration);
   }
 
   void execute(long t, int duration) {
@@ -229,6 +246,19 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
     // TODO: Reimplement stack monitoring using MSPSim internals.
   }
 
+  /**
+   * Executes the mote until the current time if its CPU sleeps in an idle loop.
+   * Called before an input from the simulation changes, so that the iterations
+   * until now see the old value and the next one sees the new value, as when
+   * the loop executes every microsecond.
+   */
+  public void executeIdleLoop() {
+    long t = simulation.getSimulationTime();
+    if (lastExecute >= 0 && lastExecute < t && myCpu.isIdleLoopSleep()) {
+      execute(t, EXECUTE_DURATION_US);
+    }
+  }
+
   private long driftExecute(double deviation, long t, int duration) {
     long jump = Math.max(0, t - lastExecute);
     if (deviation != 1.0) {
@@ -245,17 +275,69 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
     /* TODO Try-catch overhead */
     long executeDelta;
     try {
+      if (duration > EXECUTE_DURATION_US) {
+        // Interactions with the simulation end the quantum where the CPU is.
+        inQuantum = true;
+        simulation.setQuantumClock(() -> t + toSimulationTime(myCpu.syncMicros(), deviation));
+      }
       executeDelta = myCpu.stepMicros(jump, duration) + duration;
+      if (myCpu.getSyncedMicros() >= 0) {
+        executeDelta = myCpu.getSyncedMicros();
+      }
     } catch (EmulationException e) {
       throw new ContikiError(e.getMessage(), getStackTrace(), e);
+    } finally {
+      inQuantum = false;
+      simulation.setQuantumClock(null);
     }
+    return toSimulationTime(executeDelta, deviation) + t;
+  }
 
+  private static long toSimulationTime(long micros, double deviation) {
     if (deviation != 1.0) {
       double invDeviation = 1.0 / deviation;
-      double exactExecuteDelta = executeDelta * invDeviation;
-      executeDelta = (int) Math.floor(exactExecuteDelta);
+      double exactExecuteDelta = micros * invDeviation;
+      micros = (int) Math.floor(exactExecuteDelta);
+    }
+    return micros;
+  }
+
+  /**
+   * Saves the state of the mote for a checkpoint: the emulated CPU with its
+   * peripherals and chips, and the radio. The other mote interfaces keep their
+   * state in the CPU or must not have pending events.
+   *
+   * @param out Output
+   * @throws IOException if the mote can not be saved
+   */
+  public void save(DataOutput out) throws IOException {
+    var radio = moteInterfaces.getRadio();
+    if (radio != null && !(radio instanceof Msp802154Radio)) {
+      throw new IOException("Radio " + radio.getClass().getName() + " can not be saved");
+    }
+    out.writeBoolean(booted);
+    out.writeLong(lastExecute);
+    out.writeDouble(jumpError);
+    myCpu.save(out);
+    if (radio != null) {
+      ((Msp802154Radio) radio).save(out);
+    }
+  }
+
+  /**
+   * Restores the state of the mote saved by {@link #save}.
+   *
+   * @param in Input
+   * @throws IOException if the state can not be read or does not match the mote
+   */
+  public void restore(DataInput in) throws IOException {
+    booted = in.readBoolean();
+    lastExecute = in.readLong();
+    jumpError = in.readDouble();
+    myCpu.restore(in);
+    if (moteInterfaces.getRadio() instanceof Msp802154Radio radio) {
+      radio.restore(in);
     }
-    return executeDelta + t;
   }
 
   @Override
@@ -282,6 +364,12 @@ public abstract class MspMote extends AbstractEmulatedMote<MspMoteType, MSP430,
     return sb.toString();
   }
 
+  @Override
+  public boolean supportsParallelExecution() {
+    // Breakpoints stop the simulation and notify the GUI from the mote thread.
+    return watchpoints.isEmpty();
+  }
+
   @Override
   public int getCPUFrequency() {
     return myCpu.getDCOFrequency();
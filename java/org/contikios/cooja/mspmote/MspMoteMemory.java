@@ -31,8 +31,8 @@ package org.contikios.cooja.mspmote;
 
 import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Map;
+import org.contikios.cooja.Simulation;
 import org.contikios.cooja.mote.memory.MemoryInterface;
 import org.contikios.cooja.mote.memory.MemoryInterface.SegmentMonitor.EventType;
 import org.contikios.cooja.mote.memory.MemoryLayout;
@@ -45,15 +45,17 @@ public class MspMoteMemory implements MemoryInterface {
   private final MemoryLayout memLayout = new MemoryLayout(ByteOrder.LITTLE_ENDIAN, MemoryLayout.ARCH_16BIT, 2);
 
   private final MSP430 cpu;
+  private final Simulation simulation;
 
-  public MspMoteMemory(Map<String, Symbol> symbols, MSP430 cpu) {
+  public MspMoteMemory(Map<String, Symbol> symbols, MSP430 cpu, Simulation simulation) {
     this.symbols = symbols;
     this.cpu = cpu;
+    this.simulation = simulation;
   }
 
   @Override
   public int getTotalSize() {
-    return cpu.memory.length;
+    return cpu.MAX_MEM;
   }
 
   @Override
@@ -63,33 +65,25 @@ public class MspMoteMemory implements MemoryInterface {
 
   @Override
   public byte[] getMemorySegment(long address, int size) {
-    int[] memInts = new int[size];
-
-    System.arraycopy(cpu.memory, (int) address, memInts, 0, size);
-
-    /* Convert to byte array */
     byte[] memBytes = new byte[size];
     for (int i = 0; i < size; i++) {
-      memBytes[i] = (byte) memInts[i];
+      memBytes[i] = (byte) cpu.getMemoryByte((int) address + i);
     }
-
     return memBytes;
   }
 
   @Override
   public void setMemorySegment(long address, byte[] data) {
-    /* Convert to int array */
-    int[] memInts = new int[data.length];
     for (int i = 0; i < data.length; i++) {
-      memInts[i] = data[i];
+      cpu.setMemoryByte((int) address + i, data[i]);
     }
-
-    System.arraycopy(memInts, 0, cpu.memory, (int) address, data.length);
   }
 
   @Override
   public void clearMemory() {
-    Arrays.fill(cpu.memory, 0);
+    for (int i = 0; i < cpu.MAX_MEM; i++) {
+      cpu.setMemoryByte(i, 0);
+    }
   }
 
   @Override
@@ -123,11 +117,13 @@ public class MspMoteMemory implements MemoryInterface {
 
     @Override
     public void notifyReadAfter(int address, AccessMode mode, AccessType type) {
+      simulation.syncQuantum();
       mm.memoryChanged(MspMoteMemory.this, EventType.READ, address);
     }
 
     @Override
     public void notifyWriteAfter(int dstAddress, int data, AccessMode mode) {
+      simulation.syncQuantum();
       mm.memoryChanged(MspMoteMemory.this, EventType.WRITE, dstAddress);
     }
   }
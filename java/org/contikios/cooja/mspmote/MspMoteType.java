@@ -33,6 +33,7 @@ import java.awt.EventQueue;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.contikios.cooja.ClassDescription;
@@ -44,6 +45,9 @@ import org.contikios.cooja.mote.memory.MemoryInterface.Symbol;
 import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import se.sics.mspsim.core.MSP430;
+import se.sics.mspsim.core.MSP430Config;
+import se.sics.mspsim.core.PageMemory;
 import se.sics.mspsim.platform.GenericNode;
 import se.sics.mspsim.util.DebugInfo;
 import se.sics.mspsim.util.ELF;
@@ -63,6 +67,8 @@ public abstract class MspMoteType extends BaseContikiMoteType {
   private boolean loadedDebugInfo;
   private HashMap<File, HashMap<Integer, Integer>> debuggingInfo; /* cached */
   private ELF elf; /* cached */
+  private PageMemory programMemory; /* cached */
+  private Map<String, Symbol> entries; /* cached */
 
   @Override
   protected AbstractCompileDialog createCompilationDialog(Cooja gui, MoteTypeConfig cfg) {
@@ -142,7 +148,31 @@ public abstract class MspMoteType extends BaseContikiMoteType {
     return -1;
   }
 
+  /**
+   * Creates a CPU that runs the firmware of this mote type. The firmware is
+   * only read once, and the CPUs share its symbol table and the pages of
+   * the program image that they do not write.
+   *
+   * @param config Chip configuration
+   * @return CPU with a copy of the program image in its memory
+   */
+  protected MSP430 makeCPU(MSP430Config config) throws IOException {
+    var firmwareFile = getContikiFirmwareFile().getAbsolutePath();
+    if (firmwareFile.endsWith("ihex")) {
+      return GenericNode.makeCPU(config, firmwareFile);
+    }
+    var elf = getELF();
+    if (programMemory == null) {
+      programMemory = new PageMemory(elf.loadPrograms(config.maxMem));
+    }
+    return new MSP430(config, programMemory.copy(), elf);
+  }
+
+  /** Returns the variables of the firmware, shared by all motes of this type. */
   Map<String, Symbol> getEntries(GenericNode node) {
+    if (entries != null) {
+      return entries;
+    }
     if (Cooja.isVisualized()) {
       EventQueue.invokeLater(() -> Cooja.setProgressMessage("Loading " + getContikiFirmwareFile().getName()));
     }
@@ -154,7 +184,8 @@ public abstract class MspMoteType extends BaseContikiMoteType {
       }
       vars.put(entry.getName(),new Symbol(Symbol.Type.VARIABLE, entry.getName(), entry.getAddress(), entry.getSize()));
     }
-    return vars;
+    entries = Collections.unmodifiableMap(vars);
+    return entries;
   }
 
   public ELF getELF() throws IOException {
@@ -90,6 +90,7 @@ public class CC1101Radio extends Radio implements CustomDataRadio {
 			private boolean gotSynchbyte;
 			@Override
 			public void receivedByte(byte data) {
+				mote.getSimulation().syncQuantum();
 				if (!isTransmitting()) {
 					/* Start transmission */
 					lastEvent = RadioEvent.TRANSMISSION_STARTED;
@@ -140,6 +141,7 @@ public class CC1101Radio extends Radio implements CustomDataRadio {
 		});
 
     this.cc1101.setReceiverListener(on -> {
+      mote.getSimulation().syncQuantum();
       if (this.cc1101.isReadyToReceive()) {
         lastEvent = RadioEvent.HW_ON;
         radioEventTriggers.trigger(RadioEvent.HW_ON, this);
@@ -149,6 +151,7 @@ public class CC1101Radio extends Radio implements CustomDataRadio {
     });
 
     this.cc1101.addChannelListener(channel -> {
+      mote.getSimulation().syncQuantum();
       /* XXX Currently assumes zero channel switch time */
       isInterfered = false;
       lastEvent = RadioEvent.CHANNEL_HOP;
@@ -91,6 +91,7 @@ public class CC1120Radio extends Radio implements CustomDataRadio {
 			private boolean gotSynchbyte;
 			@Override
 			public void receivedByte(byte data) {
+				mote.getSimulation().syncQuantum();
 				if (!isTransmitting()) {
 					/* Start transmission */
 					lastEvent = RadioEvent.TRANSMISSION_STARTED;
@@ -142,6 +143,7 @@ public class CC1120Radio extends Radio implements CustomDataRadio {
 		});
 
     cc1120.setReceiverListener(on -> {
+      mote.getSimulation().syncQuantum();
       if (cc1120.isReadyToReceive()) {
         lastEvent = RadioEvent.HW_ON;
         radioEventTriggers.trigger(RadioEvent.HW_ON, this);
@@ -151,6 +153,7 @@ public class CC1120Radio extends Radio implements CustomDataRadio {
     });
 
     cc1120.addChannelListener(channel -> {
+      mote.getSimulation().syncQuantum();
       /* XXX Currently assumes zero channel switch time */
       isInterfered = false;
       lastEvent = RadioEvent.CHANNEL_HOP;
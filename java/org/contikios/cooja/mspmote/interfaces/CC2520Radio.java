@@ -60,6 +60,7 @@ public class CC2520Radio extends Radio implements CustomDataRadio {
       final byte[] buffer = new byte[127 + 15];
       @Override
       public void receivedByte(byte data) {
+        mote.getSimulation().syncQuantum();
         if (!isTransmitting()) {
           lastEvent = RadioEvent.TRANSMISSION_STARTED;
           isTransmitting = true;
@@ -104,6 +105,7 @@ public class CC2520Radio extends Radio implements CustomDataRadio {
     });
 
     radio.addOperatingModeListener((source, mode) -> {
+      mote.getSimulation().syncQuantum();
       if (radio.isReadyToReceive()) {
         lastEvent = RadioEvent.HW_ON;
         radioEventTriggers.trigger(RadioEvent.HW_ON, this);
@@ -113,6 +115,7 @@ public class CC2520Radio extends Radio implements CustomDataRadio {
     });
 
     radio.addChannelListener(channel -> {
+      mote.getSimulation().syncQuantum();
       /* XXX Currently assumes zero channel switch time */
       isInterfered = false;
       lastEvent = RadioEvent.CHANNEL_HOP;
@@ -66,6 +66,7 @@ public class Exp5438LED extends LED {
         redOn = (data & Exp5438Node.LEDS_CONF_RED) != 0;
         yellowOn = (data & Exp5438Node.LEDS_CONF_YELLOW) != 0;
         if (oldRedOn != redOn || oldYellowOn != yellowOn) {
+          mote.getSimulation().syncQuantum();
           triggers.trigger(EventTriggers.Update.UPDATE, mote);
         }
       });
@@ -30,7 +30,10 @@
 
 package org.contikios.cooja.mspmote.interfaces;
 
-
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.RadioPacket;
@@ -67,6 +70,9 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
   final MspMote mote;
   final Radio802154 radio;
 
+  /** Hand over cross-level packets as whole frames instead of byte by byte. */
+  private final boolean deliverFrames;
+
   private boolean isInterfered;
   private boolean isTransmitting;
   private boolean isReceiving;
@@ -84,6 +90,7 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
     if (radio == null) {
       throw new IllegalStateException("Mote is not equipped with an IEEE 802.15.4 radio");
     }
+    deliverFrames = Boolean.parseBoolean(mote.getSimulation().getCfg().opts().getOrDefault("msp-rx-frames", "false"));
 
     radio.addRFListener(new RFListener() {
       int len;
@@ -93,6 +100,7 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
       
       @Override
       public void receivedByte(byte data) {
+        mote.getSimulation().syncQuantum();
         if (!isTransmitting()) {
           lastEvent = RadioEvent.TRANSMISSION_STARTED;
           lastOutgoingPacket = null;
@@ -142,6 +150,7 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
     }); /* addRFListener */
 
     radio.addOperatingModeListener((source, mode) -> {
+      mote.getSimulation().syncQuantum();
       if (radio.isReadyToReceive()) {
         lastEvent = RadioEvent.HW_ON;
         radioEventTriggers.trigger(RadioEvent.HW_ON, this);
@@ -151,6 +160,7 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
     });
 
     radio.addChannelListener(channel -> {
+      mote.getSimulation().syncQuantum();
       /* XXX Currently assumes zero channel switch time */
       isInterfered = false;
       lastEvent = RadioEvent.CHANNEL_HOP;
@@ -201,8 +211,24 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
       return;
     }
 
-    /* Delivering packet bytes with delays */
     byte[] packetData = CC2420RadioPacketConverter.fromCoojaToCC2420(packet);
+    if (deliverFrames) {
+      /* The radio receives the frame bytes with delays, but only wakes up the mote when needed */
+      if (isInterfered()) {
+        Arrays.fill(packetData, (byte) 0xFF);
+      }
+      getMote().getSimulation().scheduleEvent(new MspMoteTimeEvent(mote) {
+        @Override
+        public void execute(long t) {
+          super.execute(t);
+          radio.receivedFrame(packetData);
+          mote.requestImmediateWakeup();
+        }
+      }, getMote().getSimulation().getSimulationTime());
+      return;
+    }
+
+    /* Delivering packet bytes with delays */
     long deliveryTime = getMote().getSimulation().getSimulationTime();
     for (byte b: packetData) {
       if (isInterfered()) {
@@ -268,6 +294,11 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
     return isReceiving;
   }
 
+  @Override
+  public long getTransmissionDelay() {
+    return isTransmitting ? 0 : (long) (radio.getTransmitDelay() * Simulation.MILLISECOND);
+  }
+
   @Override
   public boolean isInterfered() {
     return isInterfered;
@@ -422,4 +453,41 @@ public class Msp802154Radio extends Radio implements CustomDataRadio {
   public boolean canReceiveFrom(CustomDataRadio radio) {
     return radio instanceof Msp802154Radio;
   }
+
+  /**
+   * Saves the state of the radio for a checkpoint, while it is neither
+   * transmitting nor receiving.
+   *
+   * @param out Output
+   * @throws IOException if the state can not be written
+   */
+  public void save(DataOutput out) throws IOException {
+    out.writeInt(lastEvent.ordinal());
+    out.writeBoolean(isSynchronized);
+    out.writeByte(lastOutgoingByte);
+    out.writeByte(lastIncomingByte);
+    out.writeDouble(currentSignalStrength);
+    for (double rssi : rssiLast) {
+      out.writeDouble(rssi);
+    }
+    out.writeInt(rssiLastCounter);
+  }
+
+  /**
+   * Restores the state of the radio saved by {@link #save}.
+   *
+   * @param in Input
+   * @throws IOException if the state can not be read
+   */
+  public void restore(DataInput in) throws IOException {
+    lastEvent = RadioEvent.values()[in.readInt()];
+    isSynchronized = in.readBoolean();
+    lastOutgoingByte = in.readByte();
+    lastIncomingByte = in.readByte();
+    currentSignalStrength = in.readDouble();
+    for (int i = 0; i < rssiLast.length; i++) {
+      rssiLast[i] = in.readDouble();
+    }
+    rssiLastCounter = in.readInt();
+  }
 }
@@ -38,11 +38,12 @@ import org.contikios.cooja.mspmote.MspMote;
  */
 @ClassDescription("Button")
 public class MspButton extends Button.AbstractButton {
+    private final MspMote mspMote;
     private final se.sics.mspsim.chip.Button button;
 
     public MspButton(Mote mote) {
         super(mote);
-        final MspMote mspMote = (MspMote) mote;
+        mspMote = (MspMote) mote;
         button = mspMote.getCPU().getChip(se.sics.mspsim.chip.Button.class);
         if (button == null) {
             throw new IllegalStateException("Mote is not equipped with a button");
@@ -51,12 +52,16 @@ public class MspButton extends Button.AbstractButton {
 
     @Override
     protected void doPressButton() {
+        mspMote.executeIdleLoop();
         button.setPressed(true);
+        mspMote.requestImmediateWakeup();
     }
 
     @Override
     protected void doReleaseButton() {
+        mspMote.executeIdleLoop();
         button.setPressed(false);
+        mspMote.requestImmediateWakeup();
     }
 
     @Override
@@ -76,6 +76,7 @@ public class MspDebugOutput extends Log {
       public void notifyWriteAfter(int adr, int data, Memory.AccessMode mode) {
         String msg = extractString(MspDebugOutput.this.mote.getMemory(), data);
         if (!msg.isEmpty()) {
+          MspDebugOutput.this.mote.getSimulation().syncQuantum();
           lastLog = "DEBUG: " + msg;
           getLogDataTriggers().trigger(EventTriggers.Update.UPDATE, new LogDataInfo(mote, lastLog));
         }
@@ -71,6 +71,7 @@ public class MspExp430Fr5969LED extends LED {
         if (port1 != null) {
             port1.addPortListener((source, data) -> {
                 redOn = (data & FR5969Node.LED1_RED) != 0;
+                mote.getSimulation().syncQuantum();
                 triggers.trigger(EventTriggers.Update.UPDATE, mote);
             });
         }
@@ -80,6 +81,7 @@ public class MspExp430Fr5969LED extends LED {
         if (port4 != null) {
             port4.addPortListener((source, data) -> {
                 greenOn = (data & FR5969Node.LED2_GREEN) != 0;
+                mote.getSimulation().syncQuantum();
                 triggers.trigger(EventTriggers.Update.UPDATE, mote);
             });
         }
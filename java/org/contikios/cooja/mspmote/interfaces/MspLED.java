@@ -58,8 +58,10 @@ public class MspLED extends LED {
         if (leds == null) {
             throw new IllegalStateException("Mote is not equipped with leds");
         }
-        leds.addStateChangeListener((source, oldState, newState) ->
-                                            triggers.trigger(EventTriggers.Update.UPDATE, mote));
+        leds.addStateChangeListener((source, oldState, newState) -> {
+            mote.getSimulation().syncQuantum();
+            triggers.trigger(EventTriggers.Update.UPDATE, mote);
+        });
     }
 
     private void checkColors() {
@@ -63,7 +63,10 @@ public class MspSerial extends SerialUI {
     /* Listen to port writes */
     usart = getUSARTSource(this.mote);
     if (usart != null) {
-      usart.addUSARTListener((source, data) -> MspSerial.this.dataReceived(data));
+      usart.addUSARTListener((source, data) -> {
+        simulation.syncQuantum();
+        MspSerial.this.dataReceived(data);
+      });
       writeDataEvent = new MspMoteTimeEvent(this.mote) {
         @Override
         public void execute(long t) {
@@ -46,12 +46,16 @@ public class SkyButton extends Button.AbstractButton {
 
   @Override
   protected void doPressButton() {
+    skyMote.executeIdleLoop();
     skyMote.skyNode.getButton().setPressed(true);
+    skyMote.requestImmediateWakeup();
   }
 
   @Override
   protected void doReleaseButton() {
+    skyMote.executeIdleLoop();
     skyMote.skyNode.getButton().setPressed(false);
+    skyMote.requestImmediateWakeup();
   }
 
   @Override
@@ -66,6 +66,7 @@ public class MspBreakpoint extends Breakpoint {
           return;
         }
 
+        mspMote.getSimulation().syncQuantum();
         mspMote.signalBreakpointTrigger(MspBreakpoint.this);
       }
     };
@@ -304,6 +304,8 @@ public class PowerTracker implements Plugin {
     private final Simulation simulation;
     private Mote mote;
     private Radio radio;
+    /** Reads the radio state when the event happens, also for motes executed in parallel. */
+    private final EventTriggers.Capturing<Radio.RadioEvent, Radio> radioEventsObserver = this::capture;
 
     MoteTracker(Mote mote) {
       this.simulation = mote.getSimulation();
@@ -321,14 +323,33 @@ public class PowerTracker implements Plugin {
         lastRadioState = RadioState.IDLE;
       }
       lastUpdateTime = simulation.getSimulationTime();
-      radio.getRadioEventTriggers().addTrigger(this, this::trigger);
+      radio.getRadioEventTriggers().addTrigger(this, radioEventsObserver);
     }
 
-    private void trigger(Radio.RadioEvent event, Radio radio) {
-      update();
+    private Runnable capture(Radio.RadioEvent event, Radio radio) {
+      var radioState = getRadioState();
+      boolean radioOn = radio.isRadioOn();
+      return () -> update(radioState, radioOn);
+    }
+
+    private RadioState getRadioState() {
+      if (radio.isTransmitting()) {
+        return RadioState.TRANSMITTING;
+      } else if (!radio.isRadioOn()) {
+        return RadioState.IDLE;
+      } else if (radio.isInterfered()) {
+        return RadioState.INTERFERED;
+      } else if (radio.isReceiving()) {
+        return RadioState.RECEIVING;
+      }
+      return RadioState.IDLE;
     }
 
     void update() {
+      update(getRadioState(), radio.isRadioOn());
+    }
+
+    private void update(RadioState radioState, boolean radioOn) {
       long now = simulation.getSimulationTime();
 
       accumulateDuration(now - lastUpdateTime);
@@ -348,18 +369,8 @@ public class PowerTracker implements Plugin {
       }
 
       /* Await next radio event */
-      if (radio.isTransmitting()) {
-        lastRadioState = RadioState.TRANSMITTING;
-      } else if (!radio.isRadioOn()) {
-        lastRadioState = RadioState.IDLE;
-      } else if (radio.isInterfered()) {
-        lastRadioState = RadioState.INTERFERED;
-      } else if (radio.isReceiving()) {
-        lastRadioState = RadioState.RECEIVING;
-      } else {
-        lastRadioState = RadioState.IDLE;
-      }
-      radioWasOn = radio.isRadioOn();
+      lastRadioState = radioState;
+      radioWasOn = radioOn;
       lastUpdateTime = now;
     }
 
@@ -400,7 +411,7 @@ public class PowerTracker implements Plugin {
     }
 
     void dispose() {
-      radio.getRadioEventTriggers().removeTrigger(this, this::trigger);
+      radio.getRadioEventTriggers().removeTrigger(this, radioEventsObserver);
       radio = null;
       mote = null;
     }
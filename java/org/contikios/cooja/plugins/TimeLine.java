@@ -50,7 +50,6 @@ import java.io.File;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.function.BiConsumer;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.ButtonGroup;
@@ -844,9 +843,11 @@ public class TimeLine extends VisPlugin implements HasQuickHelp {
       );
       moteEvents.addLED(startupEv);
       var moteObserver = new MoteObservation(mote, moteLEDs.getTriggers());
-      moteLEDs.getTriggers().addTrigger(moteObserver, (o, m) ->
-              moteEvents.addLED(new LEDEvent(simulation.getSimulationTime(),
-                                             moteLEDs.isRedOn(), moteLEDs.isGreenOn(), moteLEDs.isYellowOn())));
+      moteLEDs.getTriggers().addTrigger(moteObserver, (EventTriggers.Capturing<EventTriggers.Update, Mote>) (o, m) -> {
+        var ev = new LEDEvent(simulation.getSimulationTime(),
+                              moteLEDs.isRedOn(), moteLEDs.isGreenOn(), moteLEDs.isYellowOn());
+        return () -> moteEvents.addLED(ev);
+      });
       activeMoteObservers.add(moteObserver);
     }
 
@@ -862,10 +863,10 @@ public class TimeLine extends VisPlugin implements HasQuickHelp {
       RadioRXTXEvent startupRXTX = new RadioRXTXEvent(
           simulation.getSimulationTime(), RXTXRadioEvent.IDLE);
       moteEvents.addRadioRXTX(startupRXTX);
-      var observer = new BiConsumer<RadioEvent, Radio>() {
+      var observer = new EventTriggers.Capturing<RadioEvent, Radio>() {
         int lastChannel = -1;
         @Override
-        public void accept(RadioEvent radioEv, Radio radio) {
+        public Runnable capture(RadioEvent radioEv, Radio radio) {
           String details = null;
           if (executionDetails && mote instanceof AbstractEmulatedMote<?, ?, ?> emulatedMote) {
             details = emulatedMote.getExecutionDetails();
@@ -873,13 +874,33 @@ public class TimeLine extends VisPlugin implements HasQuickHelp {
               details = "<br>" + details.replace("\n", "<br>");
             }
           }
+          long time = simulation.getSimulationTime();
+          int nowChannel = moteRadio.getChannel();
+          boolean radioOn = moteRadio.isRadioOn();
+
+          /* Override events, instead show state */
+          RXTXRadioEvent rxtx;
+          if (moteRadio.isTransmitting()) {
+            rxtx = RXTXRadioEvent.TRANSMITTING;
+          } else if (!radioOn) {
+            rxtx = RXTXRadioEvent.IDLE;
+          } else if (moteRadio.isInterfered()) {
+            rxtx = RXTXRadioEvent.INTERFERED;
+          } else if (moteRadio.isReceiving()) {
+            rxtx = RXTXRadioEvent.RECEIVING;
+          } else {
+            rxtx = RXTXRadioEvent.IDLE;
+          }
+          var eventDetails = details;
+          return () -> addEvents(radioEv, time, nowChannel, radioOn, rxtx, eventDetails);
+        }
 
+        private void addEvents(RadioEvent radioEv, long time, int nowChannel, boolean radioOn,
+                               RXTXRadioEvent rxtx, String details) {
           /* Radio channel */
-          int nowChannel = moteRadio.getChannel();
           if (nowChannel != lastChannel) {
             lastChannel = nowChannel;
-            RadioChannelEvent ev = new RadioChannelEvent(
-                simulation.getSimulationTime(), nowChannel, moteRadio.isRadioOn());
+            RadioChannelEvent ev = new RadioChannelEvent(time, nowChannel, radioOn);
             moteEvents.addRadioChannel(ev);
 
             ev.details = details;
@@ -887,16 +908,14 @@ public class TimeLine extends VisPlugin implements HasQuickHelp {
           
           if (radioEv == RadioEvent.HW_ON ||
               radioEv == RadioEvent.HW_OFF) {
-            RadioHWEvent ev = new RadioHWEvent(
-                simulation.getSimulationTime(), moteRadio.isRadioOn());
+            RadioHWEvent ev = new RadioHWEvent(time, radioOn);
             moteEvents.addRadioHW(ev);
 
             ev.details = details;
 
             /* Also create another channel event here */
             lastChannel = nowChannel;
-            RadioChannelEvent ev2 = new RadioChannelEvent(
-                simulation.getSimulationTime(), nowChannel, moteRadio.isRadioOn());
+            RadioChannelEvent ev2 = new RadioChannelEvent(time, nowChannel, radioOn);
             ev2.details = details;
             moteEvents.addRadioChannel(ev2);
           }
@@ -907,26 +926,7 @@ public class TimeLine extends VisPlugin implements HasQuickHelp {
               radioEv == RadioEvent.RECEPTION_STARTED ||
               radioEv == RadioEvent.RECEPTION_INTERFERED ||
               radioEv == RadioEvent.RECEPTION_FINISHED) {
-
-            RadioRXTXEvent ev;
-            /* Override events, instead show state */
-            if (moteRadio.isTransmitting()) {
-              ev = new RadioRXTXEvent(
-                  simulation.getSimulationTime(), RXTXRadioEvent.TRANSMITTING);
-            } else if (!moteRadio.isRadioOn()) {
-              ev = new RadioRXTXEvent(
-                  simulation.getSimulationTime(), RXTXRadioEvent.IDLE);
-            } else if (moteRadio.isInterfered()) {
-              ev = new RadioRXTXEvent(
-                  simulation.getSimulationTime(), RXTXRadioEvent.INTERFERED);
-            } else if (moteRadio.isReceiving()) {
-              ev = new RadioRXTXEvent(
-                  simulation.getSimulationTime(), RXTXRadioEvent.RECEIVING);
-            } else {
-              ev = new RadioRXTXEvent(
-                  simulation.getSimulationTime(), RXTXRadioEvent.IDLE);
-            }
-
+            RadioRXTXEvent ev = new RadioRXTXEvent(time, rxtx);
             moteEvents.addRadioRXTX(ev);
 
             ev.details = details;
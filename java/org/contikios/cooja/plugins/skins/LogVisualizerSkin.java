@@ -34,6 +34,8 @@ import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.MoteInterface;
@@ -43,6 +45,7 @@ import org.contikios.cooja.interfaces.Log;
 import org.contikios.cooja.interfaces.Position;
 import org.contikios.cooja.plugins.Visualizer;
 import org.contikios.cooja.plugins.VisualizerSkin;
+import org.contikios.cooja.util.EventTriggers;
 
 /**
  * Visualizer skin for Log output.
@@ -56,20 +59,39 @@ public class LogVisualizerSkin implements VisualizerSkin {
   private Simulation simulation;
   private Visualizer visualizer;
 
-  private final LogOutputListener logOutputListener = ev -> visualizer.repaint();
+  /** Last log message of each mote, from the log output events. */
+  private final Map<Mote, String> lastMessages = new ConcurrentHashMap<>();
+
+  private final LogOutputListener logOutputListener = ev -> {
+    lastMessages.put(ev.getMote(), ev.getMessage());
+    visualizer.repaint();
+  };
 
   @Override
   public void setActive(Simulation simulation, Visualizer vis) {
     this.simulation = simulation;
     this.visualizer = vis;
+    for (Mote mote : simulation.getMotes()) {
+      for (MoteInterface mi : mote.getInterfaces().getInterfaces()) {
+        if (mi instanceof Log log && log.getLastLogMessage() != null) {
+          lastMessages.put(mote, log.getLastLogMessage());
+        }
+      }
+    }
     simulation.getEventCentral().addLogOutputListener(logOutputListener);
-    simulation.getMoteTriggers().addTrigger(this, (event, m) -> visualizer.repaint());
+    simulation.getMoteTriggers().addTrigger(this, (event, m) -> {
+      if (event == EventTriggers.AddRemove.REMOVE) {
+        lastMessages.remove(m);
+      }
+      visualizer.repaint();
+    });
   }
 
   @Override
   public void setInactive() {
     simulation.getMoteTriggers().deleteTriggers(this);
     simulation.getEventCentral().removeLogOutputListener(logOutputListener);
+    lastMessages.clear();
   }
 
   @Override
@@ -89,16 +111,7 @@ public class LogVisualizerSkin implements VisualizerSkin {
     /* Paint last output below motes */
     Mote[] allMotes = simulation.getMotes();
     for (Mote mote: allMotes) {
-      String msg = null;
-      for (MoteInterface mi: mote.getInterfaces().getInterfaces()) {
-        if (!(mi instanceof Log log)) {
-          continue;
-        }
-        if (log.getLastLogMessage() == null) {
-          continue;
-        }
-        msg = log.getLastLogMessage();
-      }
+      String msg = lastMessages.get(mote);
       if (msg == null) {
         continue;
       }
@@ -31,13 +31,18 @@
 package org.contikios.cooja.radiomediums;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.function.BiConsumer;
+import java.util.Set;
 import org.contikios.cooja.RadioConnection;
 import org.contikios.cooja.RadioMedium;
+import org.contikios.cooja.RadioPacket;
 import org.contikios.cooja.Simulation;
 import org.contikios.cooja.TimeEvent;
 import org.contikios.cooja.interfaces.CustomDataRadio;
@@ -56,7 +61,8 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The registered radios' signal strengths are updated whenever the radio medium
  * changes. There are three fixed levels: no surrounding traffic heard, noise
- * heard and data heard.
+ * heard and data heard. Radio events only update the radios that the radio and
+ * the connection it is the source of affect, see {@link #getSignalRadios}.
  * <p>
  * It handles radio registrations, radio loggers, active connections and
  * observes all registered radio interfaces.
@@ -79,6 +85,14 @@ public abstract class AbstractRadioMedium implements RadioMedium {
 	private final ArrayList<RadioConnection> activeConnections = new ArrayList<>();
 	
 	private RadioConnection lastConnection;
+
+  /** Radios that each active connection affects the signal strengths of. */
+  private final HashMap<RadioConnection, Radio[]> connectionRadios = new HashMap<>();
+  /** Active connections that affect the signal strength of each radio. */
+  private final HashMap<Radio, ArrayList<RadioConnection>> radioConnections = new HashMap<>();
+  private boolean signalRadiosChanged;
+  /** False for radio mediums that override updateSignalStrengths(). */
+  private final boolean incrementalSignalUpdates;
 	
 	protected final Simulation simulation;
 	
@@ -86,6 +100,9 @@ public abstract class AbstractRadioMedium implements RadioMedium {
 	public int COUNTER_TX;
 	public int COUNTER_RX;
 	public int COUNTER_INTERFERED;
+  /** Signal strength updates, and the radios updated by them. */
+  public long COUNTER_SIGNAL_UPDATES;
+  public long COUNTER_SIGNAL_RADIOS;
 
   protected final EventTriggers<EventTriggers.AddRemove, Radio> radioMediumTriggers = new EventTriggers<>();
 
@@ -95,7 +112,7 @@ public abstract class AbstractRadioMedium implements RadioMedium {
    * This observer is responsible for detecting radio interface events, for example
    * new transmissions.
    */
-  private final BiConsumer<Radio.RadioEvent, Radio> radioEventsObserver;
+  private final EventTriggers.Capturing<Radio.RadioEvent, Radio> radioEventsObserver;
 
 	/**
 	 * This constructor should always be called from implemented radio mediums.
@@ -104,201 +121,217 @@ public abstract class AbstractRadioMedium implements RadioMedium {
 	 */
 	public AbstractRadioMedium(Simulation simulation) {
 		this.simulation = simulation;
+    incrementalSignalUpdates = hasIncrementalSignalUpdates();
     radioEventsObserver = (event, radio) -> {
-      switch (event) {
-        case RECEPTION_STARTED:
-        case RECEPTION_INTERFERED:
-          break;
-        case RECEPTION_FINISHED: {
-          /* The radio reverted to "not interfered": continue interfering
-           * if another active transmission still reaches this radio. */
-          reassertInterference(radio);
-        }
+      // The transmitted data, before the radio transmits more.
+      var data = switch (event) {
+        case CUSTOM_DATA_TRANSMITTED -> radio instanceof CustomDataRadio customRadio
+                ? customRadio.getLastCustomDataTransmitted() : null;
+        case PACKET_TRANSMITTED -> radio.getLastPacketTransmitted();
+        default -> null;
+      };
+      return () -> radioEvent(event, radio, data);
+    };
+	}
+
+  /** Acts on a radio event, with the data transmitted by the event. */
+  private void radioEvent(Radio.RadioEvent event, Radio radio, Object data) {
+    switch (event) {
+      case RECEPTION_STARTED:
+      case RECEPTION_INTERFERED:
         break;
-        case CHANNEL_HOP: {
-          /* The radio switched channel and reverted to "not interfered". */
-          for (RadioConnection conn : getActiveConnections()) {
-            if (conn.getSource() != radio && conn.isAnyDestination(radio)) {
-              /* The radio switched channel during an ongoing reception:
-               * the partly received packet must not be delivered. */
-              if (!conn.isInterfered(radio)) {
-                conn.addInterfered(radio);
-              }
-              if (!radio.isInterfered()) {
-                radio.interfereAnyReception();
-              }
+      case RECEPTION_FINISHED: {
+        /* The radio reverted to "not interfered": continue interfering
+         * if another active transmission still reaches this radio. */
+        reassertInterference(radio);
+      }
+      break;
+      case CHANNEL_HOP: {
+        /* The radio switched channel and reverted to "not interfered". */
+        for (RadioConnection conn : getActiveConnections()) {
+          if (conn.getSource() != radio && conn.isAnyDestination(radio)) {
+            /* The radio switched channel during an ongoing reception:
+             * the partly received packet must not be delivered. */
+            if (!conn.isInterfered(radio)) {
+              conn.addInterfered(radio);
+            }
+            if (!radio.isInterfered()) {
+              radio.interfereAnyReception();
             }
           }
-          /* Continue interfering if an active transmission on the new
-           * channel marks this radio as interfered. */
-          reassertInterference(radio);
-          updateSignalStrengths();
-        }
-        break;
-        case UNKNOWN:
-        case HW_ON: {
-          updateSignalStrengths();
         }
-        break;
-        case HW_OFF: {
-          // This radio must not be a connection source.
-          if (getActiveConnectionFrom(radio) != null) {
-            logger.error("Connection source turned off radio: " + radio);
-          }
-          removeFromActiveConnections(radio);
-          updateSignalStrengths();
+        /* Continue interfering if an active transmission on the new
+         * channel marks this radio as interfered. */
+        reassertInterference(radio);
+        updateSignalStrengths(getAffectedRadios(radio));
+      }
+      break;
+      case UNKNOWN:
+      case HW_ON: {
+        updateSignalStrengths(getAffectedRadios(radio));
+      }
+      break;
+      case HW_OFF: {
+        // This radio must not be a connection source.
+        if (getActiveConnectionFrom(radio) != null) {
+          logger.error("Connection source turned off radio: " + radio);
         }
-        break;
-        case TRANSMISSION_STARTED: {
-          if (radio.isReceiving()) {
-            // Radio starts transmitting when it should be receiving! Ok, but it won't receive the packet.
-            radio.interfereAnyReception();
-            for (var conn : activeConnections) {
-              if (conn.isDestination(radio)) {
-                conn.addInterfered(radio);
-              }
-            }
-          }
-
-          var newConnection = createConnections(radio);
-          if (newConnection != null) {
-            activeConnections.add(newConnection);
-            for (var r : newConnection.getAllDestinations()) {
-              if (newConnection.getDestinationDelay(r) == 0) {
-                r.signalReceptionStart();
-              } else {
-                /* EXPERIMENTAL: Simulating propagation delay */
-                simulation.scheduleEvent(new TimeEvent() {
-                  @Override
-                  public void execute(long t) {
-                    r.signalReceptionStart();
-                  }
-                }, simulation.getSimulationTime() + newConnection.getDestinationDelay(r));
-              }
+        removeFromActiveConnections(radio);
+        updateSignalStrengths(getAffectedRadios(radio));
+      }
+      break;
+      case TRANSMISSION_STARTED: {
+        if (radio.isReceiving()) {
+          // Radio starts transmitting when it should be receiving! Ok, but it won't receive the packet.
+          radio.interfereAnyReception();
+          for (var conn : activeConnections) {
+            if (conn.isDestination(radio)) {
+              conn.addInterfered(radio);
             }
           }
-          updateSignalStrengths();
-          lastConnection = null;
-          radioTransmissionTriggers.trigger(Radio.RadioEvent.TRANSMISSION_STARTED, null);
         }
-        break;
-        case TRANSMISSION_FINISHED: { // Remove radio connection.
-          var connection = getActiveConnectionFrom(radio);
-          if (connection == null) {
-            return; // SilentRadioMedium will return here.
-          }
 
-          activeConnections.remove(connection);
-          lastConnection = connection;
-          COUNTER_TX++;
-          for (var dstRadio : connection.getAllDestinations()) {
-            if (connection.getDestinationDelay(dstRadio) == 0) {
-              dstRadio.signalReceptionEnd();
+        var newConnection = createConnections(radio);
+        var affected = new LinkedHashSet<Radio>();
+        affected.add(radio);
+        if (newConnection != null) {
+          activeConnections.add(newConnection);
+          affected.addAll(Arrays.asList(addSignalRadios(newConnection)));
+          for (var r : newConnection.getAllDestinations()) {
+            if (newConnection.getDestinationDelay(r) == 0) {
+              r.signalReceptionStart();
             } else {
               /* EXPERIMENTAL: Simulating propagation delay */
-              final var delayedRadio = dstRadio;
-              var delayedEvent = new TimeEvent() {
+              simulation.scheduleEvent(new TimeEvent() {
                 @Override
                 public void execute(long t) {
-                  delayedRadio.signalReceptionEnd();
+                  r.signalReceptionStart();
                 }
-              };
-              simulation.scheduleEvent(delayedEvent,
-                      simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
+              }, simulation.getSimulationTime() + newConnection.getDestinationDelay(r));
             }
           }
-          COUNTER_RX += connection.getDestinations().length;
-          COUNTER_INTERFERED += connection.getInterfered().length;
-          for (var intRadio : connection.getInterferedNonDestinations()) {
-            if (intRadio.isInterfered()) {
-              intRadio.signalReceptionEnd();
-            }
+        }
+        updateSignalStrengths(affected);
+        lastConnection = null;
+        radioTransmissionTriggers.trigger(Radio.RadioEvent.TRANSMISSION_STARTED, null);
+      }
+      break;
+      case TRANSMISSION_FINISHED: { // Remove radio connection.
+        var connection = getActiveConnectionFrom(radio);
+        if (connection == null) {
+          return; // SilentRadioMedium will return here.
+        }
+
+        activeConnections.remove(connection);
+        var affected = removeSignalRadios(connection);
+        lastConnection = connection;
+        COUNTER_TX++;
+        for (var dstRadio : connection.getAllDestinations()) {
+          if (connection.getDestinationDelay(dstRadio) == 0) {
+            dstRadio.signalReceptionEnd();
+          } else {
+            /* EXPERIMENTAL: Simulating propagation delay */
+            final var delayedRadio = dstRadio;
+            var delayedEvent = new TimeEvent() {
+              @Override
+              public void execute(long t) {
+                delayedRadio.signalReceptionEnd();
+              }
+            };
+            simulation.scheduleEvent(delayedEvent,
+                    simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
           }
-          updateSignalStrengths();
-          radioTransmissionTriggers.trigger(Radio.RadioEvent.TRANSMISSION_FINISHED, null);
         }
-        break;
-        case CUSTOM_DATA_TRANSMITTED: {
-          var connection = getActiveConnectionFrom(radio);
-          if (connection == null) {
-            logger.error("No radio connection found");
-            return;
+        COUNTER_RX += connection.getDestinations().length;
+        COUNTER_INTERFERED += connection.getInterfered().length;
+        for (var intRadio : connection.getInterferedNonDestinations()) {
+          if (intRadio.isInterfered()) {
+            intRadio.signalReceptionEnd();
           }
+        }
+        updateSignalStrengths(new LinkedHashSet<>(Arrays.asList(affected)));
+        radioTransmissionTriggers.trigger(Radio.RadioEvent.TRANSMISSION_FINISHED, null);
+      }
+      break;
+      case CUSTOM_DATA_TRANSMITTED: {
+        var connection = getActiveConnectionFrom(radio);
+        if (connection == null) {
+          logger.error("No radio connection found");
+          return;
+        }
 
-          var customRadio = (CustomDataRadio) radio;
-          var data = customRadio.getLastCustomDataTransmitted();
-          if (data == null) {
-            logger.error("No custom data objectTransmission to forward");
-            return;
-          }
+        var customRadio = (CustomDataRadio) radio;
+        if (data == null) {
+          logger.error("No custom data objectTransmission to forward");
+          return;
+        }
 
-          for (var dstRadio : connection.getAllDestinations()) {
-            if (!(dstRadio instanceof CustomDataRadio customDstRadio) ||
-                    !customDstRadio.canReceiveFrom(customRadio)) {
-              continue; // Radios communicate via radio packets.
-            }
+        for (var dstRadio : connection.getAllDestinations()) {
+          if (!(dstRadio instanceof CustomDataRadio customDstRadio) ||
+                  !customDstRadio.canReceiveFrom(customRadio)) {
+            continue; // Radios communicate via radio packets.
+          }
 
-            if (connection.getDestinationDelay(dstRadio) == 0) {
-              customDstRadio.receiveCustomData(data);
-            } else {
-              /* EXPERIMENTAL: Simulating propagation delay */
-              final var delayedRadio = (CustomDataRadio) dstRadio;
-              final var delayedData = data;
-              var delayedEvent = new TimeEvent() {
-                @Override
-                public void execute(long t) {
-                  delayedRadio.receiveCustomData(delayedData);
-                }
-              };
-              simulation.scheduleEvent(delayedEvent,
-                      simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
+          if (connection.getDestinationDelay(dstRadio) == 0) {
+            customDstRadio.receiveCustomData(data);
+          } else {
+            /* EXPERIMENTAL: Simulating propagation delay */
+            final var delayedRadio = (CustomDataRadio) dstRadio;
+            final var delayedData = data;
+            var delayedEvent = new TimeEvent() {
+              @Override
+              public void execute(long t) {
+                delayedRadio.receiveCustomData(delayedData);
+              }
+            };
+            simulation.scheduleEvent(delayedEvent,
+                    simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
 
-            }
           }
+        }
 
+      }
+      break;
+      case PACKET_TRANSMITTED: {
+        var connection = getActiveConnectionFrom(radio);
+        if (connection == null) {
+          return; // SilentRadioMedium will return here.
+        }
+        var packet = (RadioPacket) data;
+        if (packet == null) {
+          logger.error("No radio packet to forward");
+          return;
         }
-        break;
-        case PACKET_TRANSMITTED: {
-          var connection = getActiveConnectionFrom(radio);
-          if (connection == null) {
-            return; // SilentRadioMedium will return here.
-          }
-          var packet = radio.getLastPacketTransmitted();
-          if (packet == null) {
-            logger.error("No radio packet to forward");
-            return;
-          }
 
-          for (var dstRadio : connection.getAllDestinations()) {
-            if (radio instanceof CustomDataRadio customDataRadio && dstRadio instanceof CustomDataRadio customDstRadio &&
-                    customDstRadio.canReceiveFrom(customDataRadio)) {
-              continue; // Radios instead communicate via custom data objects.
-            }
-            // Forward radio packet.
-            if (connection.getDestinationDelay(dstRadio) == 0) {
-              dstRadio.setReceivedPacket(packet);
-            } else {
-              /* EXPERIMENTAL: Simulating propagation delay */
-              final var delayedRadio = dstRadio;
-              final var delayedPacket = packet;
-              var delayedEvent = new TimeEvent() {
-                @Override
-                public void execute(long t) {
-                  delayedRadio.setReceivedPacket(delayedPacket);
-                }
-              };
-              simulation.scheduleEvent(delayedEvent,
-                      simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
-            }
+        for (var dstRadio : connection.getAllDestinations()) {
+          if (radio instanceof CustomDataRadio customDataRadio && dstRadio instanceof CustomDataRadio customDstRadio &&
+                  customDstRadio.canReceiveFrom(customDataRadio)) {
+            continue; // Radios instead communicate via custom data objects.
+          }
+          // Forward radio packet.
+          if (connection.getDestinationDelay(dstRadio) == 0) {
+            dstRadio.setReceivedPacket(packet);
+          } else {
+            /* EXPERIMENTAL: Simulating propagation delay */
+            final var delayedRadio = dstRadio;
+            final var delayedPacket = packet;
+            var delayedEvent = new TimeEvent() {
+              @Override
+              public void execute(long t) {
+                delayedRadio.setReceivedPacket(delayedPacket);
+              }
+            };
+            simulation.scheduleEvent(delayedEvent,
+                    simulation.getSimulationTime() + connection.getDestinationDelay(dstRadio));
           }
         }
-        break;
-        default:
-          logger.error("Unsupported radio event: " + event);
-          break;
       }
-    };
-	}
+      break;
+      default:
+        logger.error("Unsupported radio event: " + event);
+        break;
+    }
+  }
 	
 	/**
 	 * @return All registered radios
@@ -325,54 +358,204 @@ public abstract class AbstractRadioMedium implements RadioMedium {
 	 */
   protected abstract RadioConnection createConnections(Radio radio);
 	
-	/**
-	 * Updates all radio interfaces' signal strengths according to
-	 * the current active connections.
-	 */
+  /**
+   * Updates all radio interfaces' signal strengths according to
+   * the current active connections.
+   * <p>
+   * Radio events only update the radios they affect through
+   * {@link #updateSignalStrengths(Set, RadioConnection[])}. Radio mediums that
+   * override this method instead are updated here on every radio event.
+   */
   protected void updateSignalStrengths() {
-		/* Reset signal strengths */
-		for (Radio radio : getRegisteredRadios()) {
-			radio.setCurrentSignalStrength(getBaseRssi(radio));
-		}
-		
-		/* Set signal strength to strong on destinations */
-		RadioConnection[] conns = getActiveConnections();
-		for (RadioConnection conn : conns) {
-			if (conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
-				conn.getSource().setCurrentSignalStrength(SS_STRONG);
-			}
+    if (signalRadiosChanged) {
+      updateSignalRadios();
+    }
+    var radios = new LinkedHashSet<>(registeredRadios);
+    COUNTER_SIGNAL_UPDATES++;
+    COUNTER_SIGNAL_RADIOS += radios.size();
+    updateSignalStrengths(radios, getActiveConnections());
+  }
+
+  /**
+   * Updates the signal strengths of some radios according to the active
+   * connections that affect them.
+   *
+   * @param radios Radios
+   */
+  private void updateSignalStrengths(Set<Radio> radios) {
+    if (signalRadiosChanged || !incrementalSignalUpdates) {
+      updateSignalStrengths();
+      return;
+    }
+    var affecting = Collections.newSetFromMap(new IdentityHashMap<RadioConnection, Boolean>());
+    for (var radio : radios) {
+      var conns = radioConnections.get(radio);
+      if (conns != null) {
+        affecting.addAll(conns);
+      }
+    }
+    var conns = new ArrayList<RadioConnection>(affecting.size());
+    if (!affecting.isEmpty()) {
+      // In the order the connections started, like updates of all radios.
+      for (var conn : activeConnections) {
+        if (affecting.contains(conn)) {
+          conns.add(conn);
+        }
+      }
+    }
+    COUNTER_SIGNAL_UPDATES++;
+    COUNTER_SIGNAL_RADIOS += radios.size();
+    updateSignalStrengths(radios, conns.toArray(new RadioConnection[0]));
+  }
+
+  /** Returns true if the radio medium does not override updateSignalStrengths(). */
+  private boolean hasIncrementalSignalUpdates() {
+    for (Class<?> c = getClass(); c != AbstractRadioMedium.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod("updateSignalStrengths");
+        return false;
+      } catch (NoSuchMethodException e) {
+        // Not overridden by this class.
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Updates the signal strengths of radios according to active connections.
+   * Only the signal strengths of the given radios may be changed, the other
+   * radios keep the signal strengths that the connections give them.
+   *
+   * @param radios Radios to update
+   * @param conns Active connections that affect any of the radios, in the
+   *              order they started
+   */
+  protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
+    /* Reset signal strengths */
+    for (Radio radio : radios) {
+      radio.setCurrentSignalStrength(getBaseRssi(radio));
+    }
+
+    /* Set signal strength to strong on destinations */
+    for (RadioConnection conn : conns) {
+      if (radios.contains(conn.getSource()) && conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
+        conn.getSource().setCurrentSignalStrength(SS_STRONG);
+      }
       var sourceChannel = conn.getSource().getChannel();
-			for (Radio dstRadio : conn.getDestinations()) {
+      for (Radio dstRadio : conn.getDestinations()) {
+        if (!radios.contains(dstRadio)) {
+          continue;
+        }
         var dstChannel = dstRadio.getChannel();
         if (channelsDiffer(sourceChannel, dstChannel)) {
-					continue;
-				}
-				if (dstRadio.getCurrentSignalStrength() < SS_STRONG) {
-					dstRadio.setCurrentSignalStrength(SS_STRONG);
-				}
-			}
-		}
-		
-		/* Set signal strength to weak on interfered */
-		for (RadioConnection conn : conns) {
+          continue;
+        }
+        if (dstRadio.getCurrentSignalStrength() < SS_STRONG) {
+          dstRadio.setCurrentSignalStrength(SS_STRONG);
+        }
+      }
+    }
+
+    /* Set signal strength to weak on interfered */
+    for (RadioConnection conn : conns) {
       var srcChannel = conn.getSource().getChannel();
-			for (Radio intfRadio : conn.getInterfered()) {
-				if (intfRadio.getCurrentSignalStrength() < SS_STRONG) {
-					intfRadio.setCurrentSignalStrength(SS_STRONG);
-				}
+      for (Radio intfRadio : conn.getInterfered()) {
+        if (!radios.contains(intfRadio)) {
+          continue;
+        }
+        if (intfRadio.getCurrentSignalStrength() < SS_STRONG) {
+          intfRadio.setCurrentSignalStrength(SS_STRONG);
+        }
         var intfChannel = intfRadio.getChannel();
         if (channelsDiffer(srcChannel, intfChannel)) {
-					continue;
-				}
-				if (!intfRadio.isInterfered()) {
-					/*logger.warn("Radio was not interfered");*/
-					intfRadio.interfereAnyReception();
-				}
-			}
-		}
-	}
-	
-	
+          continue;
+        }
+        if (!intfRadio.isInterfered()) {
+          /*logger.warn("Radio was not interfered");*/
+          intfRadio.interfereAnyReception();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the radios whose signal strengths an active connection affects,
+   * including the source. The radios are recorded when the connection starts.
+   * The default is the source, the destinations and the interfered radios
+   * of the connection.
+   *
+   * @param conn Connection
+   * @return Radios
+   */
+  protected Collection<Radio> getSignalRadios(RadioConnection conn) {
+    var radios = new ArrayList<Radio>();
+    radios.add(conn.getSource());
+    radios.addAll(Arrays.asList(conn.getAllDestinations()));
+    radios.addAll(Arrays.asList(conn.getInterferedNonDestinations()));
+    return radios;
+  }
+
+  /**
+   * Signals that {@link #getSignalRadios} may return other radios for the
+   * active connections, so they are recorded again before the next update.
+   */
+  protected void requestSignalRadiosUpdate() {
+    signalRadiosChanged = true;
+  }
+
+  private Radio[] addSignalRadios(RadioConnection conn) {
+    var radios = new LinkedHashSet<>(getSignalRadios(conn)).toArray(new Radio[0]);
+    connectionRadios.put(conn, radios);
+    for (var radio : radios) {
+      radioConnections.computeIfAbsent(radio, r -> new ArrayList<>(2)).add(conn);
+    }
+    return radios;
+  }
+
+  private Radio[] removeSignalRadios(RadioConnection conn) {
+    var radios = connectionRadios.remove(conn);
+    if (radios == null) {
+      return new Radio[0];
+    }
+    for (var radio : radios) {
+      var conns = radioConnections.get(radio);
+      conns.remove(conn);
+      if (conns.isEmpty()) {
+        radioConnections.remove(radio);
+      }
+    }
+    return radios;
+  }
+
+  private void updateSignalRadios() {
+    signalRadiosChanged = false;
+    connectionRadios.clear();
+    radioConnections.clear();
+    for (var conn : activeConnections) {
+      addSignalRadios(conn);
+    }
+  }
+
+  /**
+   * Returns the radio and the radios affected by the connection from the radio,
+   * whose signal strengths may change when the radio changes.
+   *
+   * @param radio Radio
+   * @return Radios
+   */
+  private Set<Radio> getAffectedRadios(Radio radio) {
+    var radios = new LinkedHashSet<Radio>();
+    radios.add(radio);
+    var conn = getActiveConnectionFrom(radio);
+    if (conn != null) {
+      var connRadios = connectionRadios.get(conn);
+      if (connRadios != null) {
+        radios.addAll(Arrays.asList(connRadios));
+      }
+    }
+    return radios;
+  }
+
 	/**
 	 * Remove given radio from any active connections.
 	 * This method can be called if a radio node falls asleep or is removed.
@@ -442,7 +625,7 @@ public abstract class AbstractRadioMedium implements RadioMedium {
     radioMediumTriggers.trigger(EventTriggers.AddRemove.ADD, radio);
 		
 		/* Update signal strengths */
-		updateSignalStrengths();
+		updateSignalStrengths(getAffectedRadios(radio));
 	}
 	
 	@Override
@@ -458,7 +641,7 @@ public abstract class AbstractRadioMedium implements RadioMedium {
     radioMediumTriggers.trigger(EventTriggers.AddRemove.REMOVE, radio);
 		
 		/* Update signal strengths */
-		updateSignalStrengths();
+		updateSignalStrengths(getAffectedRadios(radio));
 	}
 	
 	/**
@@ -487,7 +670,7 @@ public abstract class AbstractRadioMedium implements RadioMedium {
 	public void setBaseRssi(Radio radio, double rssi) {
     simulation.invokeSimulationThread(() -> {
       baseRssi.put(radio, rssi);
-      updateSignalStrengths();
+      updateSignalStrengths(getAffectedRadios(radio));
     });
 	}
 
@@ -543,6 +726,28 @@ public abstract class AbstractRadioMedium implements RadioMedium {
     return radioMediumTriggers;
   }
 
+  /**
+   * Radios affect each other from the start of a transmission, so the lookahead
+   * is zero while any transmission is active. Otherwise it is the shortest time
+   * any radio of a mote that is executed in parallel needs to start transmitting.
+   * Without active transmissions, the other radio events of a window only reset
+   * the signal strength of their own radio, which keeps its base level.
+   */
+  @Override
+  public long getLookahead() {
+    if (!activeConnections.isEmpty()) {
+      return 0;
+    }
+    long lookahead = Long.MAX_VALUE;
+    for (var radio : registeredRadios) {
+      // Other motes only transmit from events that end the parallel windows.
+      if (radio.getMote().supportsParallelExecution()) {
+        lookahead = Math.min(lookahead, radio.getTransmissionDelay());
+      }
+    }
+    return lookahead;
+  }
+
 	@Override
 	public RadioConnection getLastConnection() {
 		return lastConnection;
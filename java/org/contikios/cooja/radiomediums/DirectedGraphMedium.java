@@ -37,6 +37,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.Mote;
 import org.contikios.cooja.RadioConnection;
@@ -119,6 +120,7 @@ public class DirectedGraphMedium extends AbstractRadioMedium {
    */
   public void requestEdgeAnalysis() {
     edgesDirty = true;
+    requestSignalRadiosUpdate();
   }
 
   public boolean needsEdgeAnalysis() {
@@ -140,20 +142,19 @@ public class DirectedGraphMedium extends AbstractRadioMedium {
 
   
   @Override
-  protected void updateSignalStrengths() {
+  protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
 
     /* Reset signal strengths (Default: SS_NOTHING) */
-    for (Radio radio : getRegisteredRadios()) {
+    for (Radio radio : radios) {
       radio.setCurrentSignalStrength(getBaseRssi(radio));
     }
 
     /* Set signal strengths */
-    RadioConnection[] conns = getActiveConnections();
     for (RadioConnection conn : conns) {
       /*
        * Set sending RSSI. (Default: SS_STRONG)
        */
-      if (conn.getSource().getCurrentSignalStrength() < getSendRssi(conn.getSource())) {
+      if (radios.contains(conn.getSource()) && conn.getSource().getCurrentSignalStrength() < getSendRssi(conn.getSource())) {
         conn.getSource().setCurrentSignalStrength(getSendRssi(conn.getSource()));
       }
       //Maximum reception signal of all possible radios received
@@ -161,6 +162,9 @@ public class DirectedGraphMedium extends AbstractRadioMedium {
       if (dstRadios == null) continue;
       var activeSourceChannel = conn.getSource().getChannel();
       for (DGRMDestinationRadio dstRadio : dstRadios) {
+        if (!radios.contains(dstRadio.radio)) {
+          continue;
+        }
         int edgeChannel = dstRadio.channel;
         int activeDstChannel = dstRadio.radio.getChannel();
         if (activeSourceChannel != -1) {
@@ -185,6 +189,21 @@ public class DirectedGraphMedium extends AbstractRadioMedium {
     } 
   }
 
+  /**
+   * The signal strengths of all potential destinations of the source
+   * depend on the connection.
+   */
+  @Override
+  protected Collection<Radio> getSignalRadios(RadioConnection conn) {
+    var radios = super.getSignalRadios(conn);
+    var destinations = getPotentialDestinations(conn.getSource());
+    if (destinations != null) {
+      for (var dest : destinations) {
+        radios.add(dest.radio);
+      }
+    }
+    return radios;
+  }
 
   /**
    * Generates hash table using current edges for efficient lookup.
@@ -32,13 +32,14 @@ package org.contikios.cooja.radiomediums;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.RadioConnection;
 import org.contikios.cooja.Simulation;
-import org.contikios.cooja.interfaces.Position;
 import org.contikios.cooja.interfaces.Radio;
 import org.jdom2.Element;
 import org.slf4j.Logger;
@@ -145,67 +146,68 @@ public class LogisticLoss extends AbstractRadioMedium {
 
     private long lastTimeVariationUpdatePeriod;
 
-    private final DirectedGraphMedium dgrm; /* Used only for efficient destination lookup */
+    private final SpatialIndex index; /* Used only for efficient destination lookup */
 
     private final Random random;
 
-    private final HashMap<Index, TimeVaryingEdge> edgesTable = new HashMap<>();
+    /* Evolved in insertion order, so the random draws do not depend on how the keys collide */
+    private final LinkedHashMap<Index, TimeVaryingEdge> edgesTable = new LinkedHashMap<>();
+
+    /* Mean RSSI and PRR of the links from each source to its potential destinations */
+    private final HashMap<Radio, Links> linksTable = new HashMap<>();
+
+    /* Parameters the cached links were computed with */
+    private double linksRange = Double.NaN;
+    private double linksRxSensitivity;
+    private double linksInflectionPoint;
+    private double linksPathLossExponent;
+    private boolean linksTimeVariation;
 
     public LogisticLoss(Simulation simulation) {
         super(simulation);
         random = simulation.getRandomGenerator();
-        dgrm = new DirectedGraphMedium(simulation) {
-                @Override
-                protected void analyzeEdges() {
-                    /* Create edges according to distances.
-                     * XXX May be slow for mobile networks */
-                    clearEdges();
-                    /* XXX: do not remove the time-varying edges to preserve their evolution */
-
-                    for (Radio source: LogisticLoss.this.getRegisteredRadios()) {
-                        Position sourcePos = source.getPosition();
-                        int sourceID = source.getMote().getID();
-                        for (Radio dest: LogisticLoss.this.getRegisteredRadios()) {
-                            Position destPos = dest.getPosition();
-                            /* Ignore ourselves */
-                            if (source == dest) {
-                                continue;
-                            }
-                            double distance = sourcePos.getDistanceTo(destPos);
-                            if (distance < TRANSMITTING_RANGE) {
-                                /* Add potential destination */
-                                addEdge(
-                                        new DirectedGraphMedium.Edge(source, 
-                                                new DGRMDestinationRadio(dest)));
-
-                                if (ENABLE_TIME_VARIATION) {
-                                    int destID = dest.getMote().getID();
-                                    if (sourceID < destID) {
-                                        Index key = new Index(sourceID, destID);
-                                        if (!edgesTable.containsKey(key)) {
-                                            edgesTable.put(key, new TimeVaryingEdge());
-                                        }
-                                    }
-                                }
-                            }
-                        }
+        index = new SpatialIndex(this::getRegisteredRadios, () -> TRANSMITTING_RANGE, (source, dest) -> {
+            /* XXX: do not remove the time-varying edges to preserve their evolution */
+            if (ENABLE_TIME_VARIATION) {
+                int sourceID = source.getMote().getID();
+                int destID = dest.getMote().getID();
+                if (sourceID < destID) {
+                    Index key = new Index(sourceID, destID);
+                    if (!edgesTable.containsKey(key)) {
+                        edgesTable.put(key, new TimeVaryingEdge());
                     }
-                    super.analyzeEdges();
                 }
-            };
+            }
+        });
 
         /* Register as position observer.
-         * If any positions change, re-analyze potential receivers. */
-        simulation.getEventCentral().getPositionTriggers().addTrigger(this, (o, m) -> dgrm.requestEdgeAnalysis());
+         * If any positions change, re-analyze the potential receivers of the moved radio. */
+        simulation.getEventCentral().getPositionTriggers().addTrigger(this, (o, m) -> {
+            var radio = m.getInterfaces().getRadio();
+            if (radio != null) {
+                index.radioMoved(radio);
+            }
+        });
         /* Re-analyze potential receivers if radios are added/removed. */
-        simulation.getMoteTriggers().addTrigger(this, (o, m) -> dgrm.requestEdgeAnalysis());
+        simulation.getMoteTriggers().addTrigger(this, (o, m) -> index.requestRebuild());
+    }
 
-        dgrm.requestEdgeAnalysis();
+    @Override
+    public void registerRadioInterface(Radio radio, Simulation sim) {
+        index.requestRebuild();
+        super.registerRadioInterface(radio, sim);
+    }
+
+    @Override
+    public void unregisterRadioInterface(Radio radio, Simulation sim) {
+        index.requestRebuild();
+        linksTable.remove(radio);
+        super.unregisterRadioInterface(radio, sim);
     }
 
     @Override
     public List<Radio> getNeighbors(Radio radio) {
-        return dgrm.getNeighbors(radio);
+        return index.getNeighbors(radio);
     }
 
     @Override
@@ -218,15 +220,15 @@ public class LogisticLoss extends AbstractRadioMedium {
         }
 
         /* Get all potential destination radios */
-        DestinationRadio[] potentialDestinations = dgrm.getPotentialDestinations(sender);
-        if (potentialDestinations == null) {
+        Links links = getLinks(sender);
+        if (links == null) {
             return newConnection;
         }
 
         /* Loop through all potential destinations */
-        Position senderPos = sender.getPosition();
-        for (DestinationRadio dest: potentialDestinations) {
-            Radio recv = dest.radio;
+        DestinationRadio[] potentialDestinations = links.destinations;
+        for (int i = 0; i < potentialDestinations.length; i++) {
+            Radio recv = potentialDestinations[i].radio;
 
             /* Fail if radios are on different (but configured) channels */
             var srcChannel = sender.getChannel();
@@ -240,79 +242,76 @@ public class LogisticLoss extends AbstractRadioMedium {
 
                 continue;
             }
-            Position recvPos = recv.getPosition();
 
-            double distance = senderPos.getDistanceTo(recvPos);
-            if (distance <= TRANSMITTING_RANGE) {
-                /* Within transmission range */
+            /* All potential destinations are within transmission range */
+            if (!recv.isRadioOn()) {
+                newConnection.addInterfered(recv);
+                recv.interfereAnyReception();
+            } else if (recv.isInterfered()) {
+                /* Was interfered: keep interfering */
+                newConnection.addInterfered(recv);
+            } else if (recv.isTransmitting()) {
+                newConnection.addInterfered(recv);
+                recv.interfereAnyReception();
+            } else {
+                double draw = random.nextDouble();
+                double noise = getAWGN();
+                boolean receiveNewOk = draw < (noise == 0 ? links.prr[i] : getRxSuccessProbability(links.rssi[i] + noise));
+
+                if (recv.isReceiving()) {
+                    /*
+                     * Compare new and old and decide whether to interfere.
+                     * XXX: this is a simplified check. Rather than looking at all N potential senders,
+                     * it looks at just this and the strongest one of the previous transmissions
+                     * (since updateSignalStrengths() updates the signal strength iff the previous one is weaker)
+                    */
+
+                    double oldSignal = recv.getCurrentSignalStrength();
+                    double newSignal = links.rssi[i] + getAWGN();
+
+                    boolean doInterfereOld;
+
+                    if(oldSignal + CO_CHANNEL_REJECTION > newSignal) {
+                        /* keep the old transmission */
+                        doInterfereOld = false;
+                        receiveNewOk = false;
+                        /* logger.info(sender + ": keep old " + recv); */
+                    } else if (newSignal + CO_CHANNEL_REJECTION > oldSignal) {
+                        /* keep the new transmission */
+                        doInterfereOld = true;
+                        /* logger.info(sender + ": keep new " + recv); */
+                    } else {
+                        /* too equal strengths; none gets through */
+                        doInterfereOld = true;
+                        receiveNewOk = false;
+
+                        /* logger.info(sender + ": interfere both " + recv); */
 
-                if (!recv.isRadioOn()) {
-                    newConnection.addInterfered(recv);
-                    recv.interfereAnyReception();
-                } else if (recv.isInterfered()) {
-                    /* Was interfered: keep interfering */
-                    newConnection.addInterfered(recv);
-                } else if (recv.isTransmitting()) {
-                    newConnection.addInterfered(recv);
-                    recv.interfereAnyReception();
-                } else {
-                    boolean receiveNewOk = random.nextDouble() < getRxSuccessProbability(sender, recv);
-
-                    if (recv.isReceiving()) {
-                        /*
-                         * Compare new and old and decide whether to interfere.
-                         * XXX: this is a simplified check. Rather than looking at all N potential senders,
-                         * it looks at just this and the strongest one of the previous transmissions
-                         * (since updateSignalStrengths() updates the signal strength iff the previous one is weaker)
-                        */
-
-                        double oldSignal = recv.getCurrentSignalStrength();
-                        double newSignal = getRSSI(sender, recv);
-
-                        boolean doInterfereOld;
-
-                        if(oldSignal + CO_CHANNEL_REJECTION > newSignal) {
-                            /* keep the old transmission */
-                            doInterfereOld = false;
-                            receiveNewOk = false;
-                            /* logger.info(sender + ": keep old " + recv); */
-                        } else if (newSignal + CO_CHANNEL_REJECTION > oldSignal) {
-                            /* keep the new transmission */
-                            doInterfereOld = true;
-                            /* logger.info(sender + ": keep new " + recv); */
-                        } else {
-                            /* too equal strengths; none gets through */
-                            doInterfereOld = true;
-                            receiveNewOk = false;
-
-                            /* logger.info(sender + ": interfere both " + recv); */
-
-                            /* XXX: this will interfere even if later a stronger connections
-                             * comes ahead that could override all existing weaker connections! */
-                            recv.interfereAnyReception();
-                        }
+                        /* XXX: this will interfere even if later a stronger connections
+                         * comes ahead that could override all existing weaker connections! */
+                        recv.interfereAnyReception();
+                    }
 
-                        if(doInterfereOld) {
-                            /* Find all existing connections and interfere them */
-                            for (RadioConnection conn : getActiveConnections()) {
-                                if (conn.isDestination(recv)) {
-                                    conn.addInterfered(recv);
-                                }
+                    if(doInterfereOld) {
+                        /* Find all existing connections and interfere them */
+                        for (RadioConnection conn : getActiveConnections()) {
+                            if (conn.isDestination(recv)) {
+                                conn.addInterfered(recv);
                             }
-
-                            recv.interfereAnyReception();
                         }
-                    }
 
-                    if(receiveNewOk) {
-                        /* Success: radio starts receiving */
-                        newConnection.addDestination(recv);
-                        /* logger.info(sender + ": tx to " + recv); */
-                    } else {
-                        newConnection.addInterfered(recv);
-                        /* logger.info(sender + ": interfere to " + recv); */
+                        recv.interfereAnyReception();
                     }
                 }
+
+                if(receiveNewOk) {
+                    /* Success: radio starts receiving */
+                    newConnection.addDestination(recv);
+                    /* logger.info(sender + ": tx to " + recv); */
+                } else {
+                    newConnection.addInterfered(recv);
+                    /* logger.info(sender + ": interfere to " + recv); */
+                }
             }
         }
 
@@ -327,7 +326,10 @@ public class LogisticLoss extends AbstractRadioMedium {
     }
 
     public double getRxSuccessProbability(Radio source, Radio dest) {
-        double rssi = getRSSI(source, dest);
+        return getRxSuccessProbability(getRSSI(source, dest));
+    }
+
+    private double getRxSuccessProbability(double rssi) {
         double x = rssi - RSSI_INFLECTION_POINT_DBM;
         return 1.0 / (1.0 + Math.exp(-x));
     }
@@ -338,6 +340,11 @@ public class LogisticLoss extends AbstractRadioMedium {
     }
 
     private double getRSSI(Radio source, Radio dst) {
+        return getMeanRSSI(source, dst) + getAWGN();
+    }
+
+    /* The RSSI without noise */
+    private double getMeanRSSI(Radio source, Radio dst) {
         double d = source.getPosition().getDistanceTo(dst.getPosition());
         if (d <= 0) {
             /* Do not allow the distance to be zero */
@@ -361,14 +368,68 @@ public class LogisticLoss extends AbstractRadioMedium {
             }
         }
 
-        return DEFAULT_TX_POWER_DBM - path_loss_dbm + getAWGN();
+        return DEFAULT_TX_POWER_DBM - path_loss_dbm;
+    }
+
+    /*
+     * Returns the cached links of a source radio, or null if it has no potential destinations.
+     * The links are recomputed when the potential destinations of the source change, i.e. when
+     * it or a radio within its range moved, when its output power changes, and when the
+     * time-varying path loss evolves.
+     */
+    private Links getLinks(Radio source) {
+        if (Double.compare(linksRange, TRANSMITTING_RANGE) != 0
+            || linksRxSensitivity != RX_SENSITIVITY_DBM
+            || linksInflectionPoint != RSSI_INFLECTION_POINT_DBM
+            || linksPathLossExponent != PATH_LOSS_EXPONENT
+            || linksTimeVariation != ENABLE_TIME_VARIATION) {
+            linksTable.clear();
+            linksRange = TRANSMITTING_RANGE;
+            linksRxSensitivity = RX_SENSITIVITY_DBM;
+            linksInflectionPoint = RSSI_INFLECTION_POINT_DBM;
+            linksPathLossExponent = PATH_LOSS_EXPONENT;
+            linksTimeVariation = ENABLE_TIME_VARIATION;
+        }
+
+        DestinationRadio[] destinations = index.getPotentialDestinations(source);
+        if (destinations == null) {
+            linksTable.remove(source);
+            return null;
+        }
+        int power = source.getCurrentOutputPowerIndicator();
+        Links links = linksTable.get(source);
+        if (links == null || links.destinations != destinations) {
+            links = new Links(destinations);
+            linksTable.put(source, links);
+        } else if (links.power == power && links.period == lastTimeVariationUpdatePeriod) {
+            return links;
+        }
+        links.power = power;
+        links.period = lastTimeVariationUpdatePeriod;
+        for (int i = 0; i < destinations.length; i++) {
+            links.rssi[i] = getMeanRSSI(source, destinations[i].radio);
+            links.prr[i] = getRxSuccessProbability(links.rssi[i]);
+        }
+        return links;
+    }
+
+    /* The RSSI without noise, from the cached links if the destination is a potential one */
+    private double getCachedMeanRSSI(Radio source, Radio dst) {
+        Links links = getLinks(source);
+        if (links != null) {
+            Integer i = links.indexOf.get(dst);
+            if (i != null) {
+                return links.rssi[i];
+            }
+        }
+        return getMeanRSSI(source, dst);
     }
 
     private void updateTimeVariationComponent() {
         long period = (long)(simulation.getSimulationTimeMillis() / (1000.0 * TIME_VARIATION_STEP_SEC));
 
-        if (dgrm.needsEdgeAnalysis()) {
-            dgrm.analyzeEdges();
+        if (index.needsUpdate()) {
+            index.update();
         }
 
         while (period > lastTimeVariationUpdatePeriod) {
@@ -381,7 +442,7 @@ public class LogisticLoss extends AbstractRadioMedium {
     }
 
     @Override
-    protected void updateSignalStrengths() {
+    protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
         /* Override: uses distance as signal strength factor */
 
         if(ENABLE_TIME_VARIATION) {
@@ -389,24 +450,26 @@ public class LogisticLoss extends AbstractRadioMedium {
         }
     
         /* Reset signal strengths */
-        for (Radio radio : getRegisteredRadios()) {
+        for (Radio radio : radios) {
             radio.setCurrentSignalStrength(getBaseRssi(radio));
         }
 
         /* Set signal strength to below strong on destinations */
-        RadioConnection[] conns = getActiveConnections();
         for (RadioConnection conn : conns) {
-            if (conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
+            if (radios.contains(conn.getSource()) && conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
                 conn.getSource().setCurrentSignalStrength(SS_STRONG);
             }
             var srcChannel = conn.getSource().getChannel();
             for (Radio dstRadio : conn.getDestinations()) {
+                if (!radios.contains(dstRadio)) {
+                    continue;
+                }
                 var dstChannel = dstRadio.getChannel();
                 if (channelsDiffer(srcChannel, dstChannel)) {
                     continue;
                 }
 
-                double rssi = getRSSI(conn.getSource(), dstRadio);
+                double rssi = getCachedMeanRSSI(conn.getSource(), dstRadio) + getAWGN();
                 if (dstRadio.getCurrentSignalStrength() < rssi) {
                     dstRadio.setCurrentSignalStrength(rssi);
                 }
@@ -417,12 +480,15 @@ public class LogisticLoss extends AbstractRadioMedium {
         for (RadioConnection conn : conns) {
             var srcChannel = conn.getSource().getChannel();
             for (Radio intfRadio : conn.getInterfered()) {
+                if (!radios.contains(intfRadio)) {
+                    continue;
+                }
                 var intfChannel = intfRadio.getChannel();
                 if (channelsDiffer(srcChannel, intfChannel)) {
                     continue;
                 }
 
-                double rssi = getRSSI(conn.getSource(), intfRadio);
+                double rssi = getCachedMeanRSSI(conn.getSource(), intfRadio) + getAWGN();
                 if (intfRadio.getCurrentSignalStrength() < rssi) {
                     intfRadio.setCurrentSignalStrength(rssi);
                 }
@@ -540,6 +606,30 @@ public class LogisticLoss extends AbstractRadioMedium {
         return true;
     }
 
+    /* Links from a source radio, indexed as its potential destinations */
+    private static class Links {
+        final DestinationRadio[] destinations;
+        /* Index of each destination radio in the arrays */
+        final HashMap<Radio, Integer> indexOf;
+        /* Mean RSSI, i.e. without noise */
+        final double[] rssi;
+        /* Rx success probability at the mean RSSI */
+        final double[] prr;
+        /* Output power indicator and time variation period the links were computed for */
+        int power;
+        long period;
+
+        Links(DestinationRadio[] destinations) {
+            this.destinations = destinations;
+            indexOf = new HashMap<>(destinations.length * 2);
+            for (int i = 0; i < destinations.length; i++) {
+                indexOf.put(destinations[i].radio, i);
+            }
+            rssi = new double[destinations.length];
+            prr = new double[destinations.length];
+        }
+    }
+
     // Invariant: x <= y
     private static class Index {
         private final int x;
@@ -31,6 +31,7 @@
 package org.contikios.cooja.radiomediums;
 
 import java.util.Collection;
+import java.util.Set;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.RadioConnection;
 import org.contikios.cooja.Simulation;
@@ -55,7 +56,13 @@ public class SilentRadioMedium extends AbstractRadioMedium {
   }
   
   @Override
-  protected void updateSignalStrengths() {
+  protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
+  }
+
+  @Override
+  public long getLookahead() {
+    // Radios never affect each other.
+    return Long.MAX_VALUE;
   }
   
 
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.radiomediums;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import org.contikios.cooja.interfaces.Radio;
+
+/**
+ * Uniform grid of radio positions, used by distance based radio mediums to find
+ * the potential destinations of a radio without comparing it to every other radio.
+ * <p>
+ * The grid cells are as large as the range, so all radios within range of a radio
+ * are in the same or an adjacent cell. When a radio moves, only the destinations of
+ * that radio and of the radios that were or are within its range are recomputed.
+ * <p>
+ * Destinations are ordered as the registered radios, as in a full analysis of all pairs.
+ */
+public class SpatialIndex {
+  private static final Comparator<Entry> ORDER = Comparator.comparingInt(e -> e.order);
+
+  private final Supplier<Radio[]> radios;
+  private final DoubleSupplier range;
+  private final BiConsumer<Radio, Radio> edgeListener;
+
+  private final HashMap<Radio, Entry> entries = new HashMap<>();
+  private final HashMap<Long, ArrayList<Entry>> cells = new HashMap<>();
+  private final LinkedHashSet<Entry> moved = new LinkedHashSet<>();
+  private double cellSize;
+  private boolean rebuild = true;
+
+  /**
+   * @param radios Registered radios, in registration order
+   * @param range Radios closer than the range are potential destinations of each other
+   * @param edgeListener Called with the source and destination pairs that involve a
+   *                     moved radio, or with all pairs after a rebuild, or null
+   */
+  public SpatialIndex(Supplier<Radio[]> radios, DoubleSupplier range, BiConsumer<Radio, Radio> edgeListener) {
+    this.radios = radios;
+    this.range = range;
+    this.edgeListener = edgeListener;
+  }
+
+  /** Signal that radios were added or removed, or that the range changed. */
+  public void requestRebuild() {
+    rebuild = true;
+    moved.clear();
+  }
+
+  /**
+   * Signal that a radio changed position.
+   *
+   * @param radio Radio, ignored if not known by the index
+   */
+  public void radioMoved(Radio radio) {
+    if (rebuild) {
+      return;
+    }
+    var entry = entries.get(radio);
+    if (entry != null) {
+      moved.add(entry);
+    }
+  }
+
+  public boolean needsUpdate() {
+    return rebuild || !moved.isEmpty() || Double.compare(range.getAsDouble(), cellSize) != 0;
+  }
+
+  /**
+   * Brings the destinations up to date with the positions of the radios. Called by
+   * the lookup methods when needed.
+   */
+  public void update() {
+    if (rebuild || Double.compare(range.getAsDouble(), cellSize) != 0) {
+      rebuildAll();
+    } else if (!moved.isEmpty()) {
+      updateMoved();
+    }
+  }
+
+  /**
+   * Returns all potential destination radios, i.e. all radios within range.
+   *
+   * @param source Source radio
+   * @return Potential destinations, or null if there are none
+   */
+  public DGRMDestinationRadio[] getPotentialDestinations(Radio source) {
+    if (needsUpdate()) {
+      update();
+    }
+    var entry = entries.get(source);
+    return entry == null ? null : entry.destinations;
+  }
+
+  public List<Radio> getNeighbors(Radio radio) {
+    var destinations = getPotentialDestinations(radio);
+    if (destinations != null) {
+      return Arrays.stream(destinations).map(d -> d.radio).toList();
+    }
+    return Collections.emptyList();
+  }
+
+  private void rebuildAll() {
+    rebuild = false;
+    moved.clear();
+    entries.clear();
+    cells.clear();
+    cellSize = range.getAsDouble();
+    var all = radios.get();
+    var ordered = new Entry[all.length];
+    for (int i = 0; i < all.length; i++) {
+      var entry = new Entry(all[i], i);
+      entry.cell = cellOf(all[i]);
+      cells.computeIfAbsent(entry.cell, k -> new ArrayList<>()).add(entry);
+      entries.put(all[i], entry);
+      ordered[i] = entry;
+    }
+    for (var entry : ordered) {
+      computeDestinations(entry);
+      notifyEdges(entry, true);
+    }
+  }
+
+  private void updateMoved() {
+    var affected = new HashSet<Entry>();
+    for (var entry : moved) {
+      affected.add(entry);
+      if (entry.destinations != null) {
+        for (var dest : entry.destinations) {
+          affected.add(entries.get(dest.radio));
+        }
+      }
+      long cell = cellOf(entry.radio);
+      if (cell != entry.cell) {
+        var old = cells.get(entry.cell);
+        old.remove(entry);
+        if (old.isEmpty()) {
+          cells.remove(entry.cell);
+        }
+        entry.cell = cell;
+        cells.computeIfAbsent(cell, k -> new ArrayList<>()).add(entry);
+      }
+    }
+    for (var entry : moved) {
+      affected.addAll(findNeighbors(entry));
+    }
+    var ordered = affected.toArray(new Entry[0]);
+    Arrays.sort(ordered, ORDER);
+    for (var entry : ordered) {
+      computeDestinations(entry);
+    }
+    for (var entry : ordered) {
+      notifyEdges(entry, moved.contains(entry));
+    }
+    moved.clear();
+  }
+
+  /** Reports the edges of a radio involving a moved radio, or all edges. */
+  private void notifyEdges(Entry source, boolean all) {
+    if (edgeListener == null || source.destinations == null) {
+      return;
+    }
+    for (var dest : source.destinations) {
+      if (all || moved.contains(entries.get(dest.radio))) {
+        edgeListener.accept(source.radio, dest.radio);
+      }
+    }
+  }
+
+  private void computeDestinations(Entry entry) {
+    var neighbors = findNeighbors(entry);
+    if (neighbors.isEmpty()) {
+      entry.destinations = null;
+      return;
+    }
+    neighbors.sort(ORDER);
+    var destinations = new DGRMDestinationRadio[neighbors.size()];
+    for (int i = 0; i < destinations.length; i++) {
+      destinations[i] = new DGRMDestinationRadio(neighbors.get(i).radio);
+    }
+    entry.destinations = destinations;
+  }
+
+  private ArrayList<Entry> findNeighbors(Entry entry) {
+    var neighbors = new ArrayList<Entry>();
+    var position = entry.radio.getPosition();
+    int x = (int) (entry.cell >> 32);
+    int y = (int) entry.cell;
+    for (int dx = -1; dx <= 1; dx++) {
+      for (int dy = -1; dy <= 1; dy++) {
+        var cell = cells.get(cellKey(x + dx, y + dy));
+        if (cell == null) {
+          continue;
+        }
+        for (var other : cell) {
+          if (other != entry && position.getDistanceTo(other.radio.getPosition()) < cellSize) {
+            neighbors.add(other);
+          }
+        }
+      }
+    }
+    return neighbors;
+  }
+
+  private long cellOf(Radio radio) {
+    var position = radio.getPosition();
+    return cellKey((int) Math.floor(position.getXCoordinate() / cellSize),
+                   (int) Math.floor(position.getYCoordinate() / cellSize));
+  }
+
+  private static long cellKey(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  private static class Entry {
+    final Radio radio;
+    /** Position in the registered radios. */
+    final int order;
+    long cell;
+    DGRMDestinationRadio[] destinations;
+
+    Entry(Radio radio, int order) {
+      this.radio = radio;
+      this.order = order;
+    }
+  }
+}
@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.RadioConnection;
 import org.contikios.cooja.Simulation;
@@ -82,47 +83,26 @@ public class UDGM extends AbstractRadioMedium {
   public double TRANSMITTING_RANGE = 50; /* Transmission range. */
   public double INTERFERENCE_RANGE = 100; /* Interference range. Ignored if below transmission range. */
 
-  private final DirectedGraphMedium dgrm; /* Used only for efficient destination lookup */
+  private final SpatialIndex index; /* Used only for efficient destination lookup */
 
   private final Random random;
 
   public UDGM(Simulation simulation) {
     super(simulation);
     random = simulation.getRandomGenerator();
-    dgrm = new DirectedGraphMedium(simulation) {
-      @Override
-      protected void analyzeEdges() {
-        /* Create edges according to distances.
-         * XXX May be slow for mobile networks */
-        clearEdges();
-        for (Radio source: UDGM.this.getRegisteredRadios()) {
-          Position sourcePos = source.getPosition();
-          for (Radio dest: UDGM.this.getRegisteredRadios()) {
-            Position destPos = dest.getPosition();
-            /* Ignore ourselves */
-            if (source == dest) {
-              continue;
-            }
-            double distance = sourcePos.getDistanceTo(destPos);
-            if (distance < Math.max(TRANSMITTING_RANGE, INTERFERENCE_RANGE)) {
-              /* Add potential destination */
-              addEdge(
-                  new DirectedGraphMedium.Edge(source, 
-                      new DGRMDestinationRadio(dest)));
-            }
-          }
-        }
-        super.analyzeEdges();
-      }
-    };
+    index = new SpatialIndex(this::getRegisteredRadios,
+        () -> Math.max(TRANSMITTING_RANGE, INTERFERENCE_RANGE), null);
 
     /* Register as position observer.
-     * If any positions change, re-analyze potential receivers. */
-    simulation.getEventCentral().getPositionTriggers().addTrigger(this, (o, m) -> dgrm.requestEdgeAnalysis());
+     * If any positions change, re-analyze the potential receivers of the moved radio. */
+    simulation.getEventCentral().getPositionTriggers().addTrigger(this, (o, m) -> {
+      var radio = m.getInterfaces().getRadio();
+      if (radio != null) {
+        index.radioMoved(radio);
+      }
+    });
     /* Re-analyze potential receivers if radios are added/removed. */
-    simulation.getMoteTriggers().addTrigger(this, (o, m) -> dgrm.requestEdgeAnalysis());
-
-    dgrm.requestEdgeAnalysis();
+    simulation.getMoteTriggers().addTrigger(this, (o, m) -> index.requestRebuild());
   }
 
   @Override
@@ -131,7 +111,11 @@ public class UDGM extends AbstractRadioMedium {
     var sourceRadioPosition = sourceRadio.getPosition();
     double moteTransmissionRange = TRANSMITTING_RANGE
             * ((double) sourceRadio.getCurrentOutputPowerIndicator() / (double) sourceRadio.getOutputPowerIndicatorMax());
-    for (var radio : dgrm.getPotentialDestinations(sourceRadio)) {
+    var potentialDestinations = index.getPotentialDestinations(sourceRadio);
+    if (potentialDestinations == null) {
+      return list;
+    }
+    for (var radio : potentialDestinations) {
       if (radio.radio == sourceRadio) {
         continue;
       }
@@ -143,14 +127,26 @@ public class UDGM extends AbstractRadioMedium {
     return list;
   }
 
+  @Override
+  public void registerRadioInterface(Radio radio, Simulation sim) {
+    index.requestRebuild();
+    super.registerRadioInterface(radio, sim);
+  }
+
+  @Override
+  public void unregisterRadioInterface(Radio radio, Simulation sim) {
+    index.requestRebuild();
+    super.unregisterRadioInterface(radio, sim);
+  }
+
   public void setTxRange(double r) {
     TRANSMITTING_RANGE = r;
-    dgrm.requestEdgeAnalysis();
+    index.requestRebuild();
   }
 
   public void setInterferenceRange(double r) {
     INTERFERENCE_RANGE = r;
-    dgrm.requestEdgeAnalysis();
+    index.requestRebuild();
   }
 
   @Override
@@ -169,7 +165,7 @@ public class UDGM extends AbstractRadioMedium {
     * ((double) sender.getCurrentOutputPowerIndicator() / (double) sender.getOutputPowerIndicatorMax());
 
     /* Get all potential destination radios */
-    DestinationRadio[] potentialDestinations = dgrm.getPotentialDestinations(sender);
+    DestinationRadio[] potentialDestinations = index.getPotentialDestinations(sender);
     if (potentialDestinations == null) {
       return newConnection;
     }
@@ -270,22 +266,24 @@ public class UDGM extends AbstractRadioMedium {
   }
 
   @Override
-  protected void updateSignalStrengths() {
+  protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
     /* Override: uses distance as signal strength factor */
     
     /* Reset signal strengths */
-    for (Radio radio : getRegisteredRadios()) {
+    for (Radio radio : radios) {
       radio.setCurrentSignalStrength(getBaseRssi(radio));
     }
 
     /* Set signal strength to below strong on destinations */
-    RadioConnection[] conns = getActiveConnections();
     for (RadioConnection conn : conns) {
-      if (conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
+      if (radios.contains(conn.getSource()) && conn.getSource().getCurrentSignalStrength() < SS_STRONG) {
         conn.getSource().setCurrentSignalStrength(SS_STRONG);
       }
       var srcChannel = conn.getSource().getChannel();
       for (Radio dstRadio : conn.getDestinations()) {
+        if (!radios.contains(dstRadio)) {
+          continue;
+        }
         var dstChannel = dstRadio.getChannel();
         if (channelsDiffer(srcChannel, dstChannel)) {
           continue;
@@ -308,6 +306,9 @@ public class UDGM extends AbstractRadioMedium {
     for (RadioConnection conn : conns) {
       var srcChannel = conn.getSource().getChannel();
       for (Radio intfRadio : conn.getInterfered()) {
+        if (!radios.contains(intfRadio)) {
+          continue;
+        }
         var intfChannel = intfRadio.getChannel();
         if (channelsDiffer(srcChannel, intfChannel)) {
           continue;
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.script;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the mote log output that resumes a test script. The filter is checked
+ * in the simulation thread, so the script is not resumed for other log output.
+ * <p>
+ * A message matches if it matches any of the prefixes, substrings or regular
+ * expressions, and comes from one of the motes. Without message conditions any
+ * message matches, and without motes any mote matches. Scripts use the filter
+ * through the variable logFilter, for example:
+ * <pre>
+ * logFilter.prefix("Received").motes(1, 2);
+ * </pre>
+ */
+public class LogFilter {
+  private final ArrayList<String> prefixes = new ArrayList<>();
+  private final ArrayList<String> substrings = new ArrayList<>();
+  private final ArrayList<Pattern> patterns = new ArrayList<>();
+  private final BitSet motes = new BitSet();
+
+  /**
+   * Matches messages that start with any of the prefixes.
+   *
+   * @param prefixes Message prefixes
+   * @return This filter
+   */
+  public LogFilter prefix(String... prefixes) {
+    this.prefixes.addAll(List.of(prefixes));
+    return this;
+  }
+
+  /**
+   * Matches messages that contain any of the strings.
+   *
+   * @param substrings Strings
+   * @return This filter
+   */
+  public LogFilter contains(String... substrings) {
+    this.substrings.addAll(List.of(substrings));
+    return this;
+  }
+
+  /**
+   * Matches messages where any of the regular expressions is found.
+   *
+   * @param regexes Regular expressions
+   * @return This filter
+   */
+  public LogFilter regex(String... regexes) {
+    for (var regex : regexes) {
+      patterns.add(Pattern.compile(regex));
+    }
+    return this;
+  }
+
+  /**
+   * Matches messages from any of the motes.
+   *
+   * @param ids Mote IDs
+   * @return This filter
+   * @throws IllegalArgumentException if a mote ID is negative
+   */
+  public LogFilter motes(int... ids) {
+    for (var id : ids) {
+      if (id < 0) {
+        throw new IllegalArgumentException("Invalid mote ID in log filter: " + id);
+      }
+    }
+    for (var id : ids) {
+      motes.set(id);
+    }
+    return this;
+  }
+
+  /** Removes all conditions, so all log output resumes the script. */
+  public void clear() {
+    prefixes.clear();
+    substrings.clear();
+    patterns.clear();
+    motes.clear();
+  }
+
+  /**
+   * @param id Mote ID
+   * @param msg Log message
+   * @return True if the log output should resume the script
+   */
+  public boolean matches(int id, String msg) {
+    if (!motes.isEmpty() && (id < 0 || !motes.get(id))) {
+      return false;
+    }
+    if (prefixes.isEmpty() && substrings.isEmpty() && patterns.isEmpty()) {
+      return true;
+    }
+    for (var prefix : prefixes) {
+      if (msg.startsWith(prefix)) {
+        return true;
+      }
+    }
+    for (var substring : substrings) {
+      if (msg.contains(substring)) {
+        return true;
+      }
+    }
+    for (var pattern : patterns) {
+      if (pattern.matcher(msg).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
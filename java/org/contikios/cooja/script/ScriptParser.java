@@ -89,7 +89,7 @@ public class ScriptParser {
 
     Matcher matcher5 = Pattern.compile("WAIT_UNTIL\\(" + "(.*)" + "\\)").matcher(code);
     while (matcher5.find()) {
-      code = matcher5.replaceFirst("while (!(" + matcher5.group(1) + ")) { " + " YIELD(); " + "}");
+      code = matcher5.replaceFirst("WAIT_UNTIL_CONDITION(function() { return " + matcher5.group(1) + "; })");
       matcher5.reset(code);
     }
     code = Pattern.compile("log\\.testOK\\(\\)").matcher(code).replaceAll("throw new TestOK()");
@@ -135,8 +135,18 @@ public class ScriptParser {
      };
 
      function YIELD() {
-       SEMAPHORE_SIM.release();
-       SEMAPHORE_SCRIPT.acquire(); // Wait for simulation here.
+       SCRIPT_YIELD.run(); // Wait for simulation here.
+       CHECK_RESUMED();
+     };
+
+     function WAIT_UNTIL_CONDITION(condition) {
+       if (!condition()) {
+         SCRIPT_WAIT.waitUntil(condition); // Wait for simulation here, until it finds that the condition holds.
+         CHECK_RESUMED();
+       }
+     };
+
+     function CHECK_RESUMED() {
        if (TIMEOUT) {
      """ + timeoutCode + ";\n" +
      """
@@ -162,7 +172,6 @@ public class ScriptParser {
          // User script end.
          while (true) { YIELD(); }
        } catch (error) {
-         SEMAPHORE_SCRIPT.release();
          if (error instanceof TestOK) return 0;
          if (error instanceof TestFailed) return 1;
          if (error instanceof Shutdown) return -1;
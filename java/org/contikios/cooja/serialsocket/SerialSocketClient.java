@@ -250,13 +250,12 @@ public class SerialSocketClient implements Plugin, MotePlugin {
 
 
     // Observe serial port for outgoing data and write to socket.
-    // FIXME: update code to use data directly.
     serialPort.getSerialDataTriggers().addTrigger(this, (event, data) -> {
       if (out == null) {
         return;
       }
       try {
-        out.write(serialPort.getLastSerialData());
+        out.write(data);
         out.flush();
         outBytes++;
         if (Cooja.isVisualized()) {
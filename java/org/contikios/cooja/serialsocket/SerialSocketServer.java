@@ -314,7 +314,7 @@ public class SerialSocketServer implements Plugin, MotePlugin {
     void onServerError(String msg);
   }
   
-  private void addServerListener(ServerListener listener) {
+  public void addServerListener(ServerListener listener) {
     listeners.add(listener);
   }
   
@@ -394,13 +394,12 @@ public class SerialSocketServer implements Plugin, MotePlugin {
             outStream = null;
           }
           final var out = outStream;
-          // FIXME: update code to use data directly.
           serialDataObserver = (event, data) -> {
             if (out == null) {
               return;
             }
             try {
-              out.write(serialPort.getLastSerialData());
+              out.write(data);
               out.flush();
               outBytes++;
             } catch (IOException ex) {
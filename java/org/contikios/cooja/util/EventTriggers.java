@@ -33,6 +33,7 @@ package org.contikios.cooja.util;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.function.BiConsumer;
+import org.contikios.cooja.ParallelExecutor;
 
 /**
  * Helper class that holds triggers. Triggers are called with a key for the kind
@@ -52,6 +53,26 @@ public class EventTriggers<K, T> {
   @SuppressWarnings("unchecked")
   private final BiConsumer<K, T>[] EMPTY_CONSUMER = new BiConsumer[0];
 
+  /**
+   * Observer that reads the state of the value when triggered, but acts on it
+   * with the other observers. Motes executed in parallel capture the state on
+   * their own thread, and the observers act at the end of the window.
+   *
+   * @see ParallelExecutor
+   */
+  public interface Capturing<K, T> extends BiConsumer<K, T> {
+    /**
+     * Reads the state of the value and returns the action of the observer.
+     * Must only read the value, since it may run on the thread of a mote.
+     */
+    Runnable capture(K key, T value);
+
+    @Override
+    default void accept(K key, T value) {
+      capture(key, value).run();
+    }
+  }
+
   private final LinkedHashMap<Object, ArrayList<BiConsumer<K, T>>> triggers = new LinkedHashMap<>();
   private BiConsumer<K, T>[] listeners = EMPTY_CONSUMER;
   private boolean hasChanged;
@@ -107,6 +128,20 @@ public class EventTriggers<K, T> {
 
     // Remember original list in case it is changed
     var observers = listeners;
+    if (ParallelExecutor.isDeferring()) {
+      // Observers run on the simulation thread, also for motes executed in parallel.
+      var actions = new Runnable[observers.length];
+      for (int i = 0; i < observers.length; i++) {
+        var o = observers[i];
+        actions[i] = o instanceof Capturing<K, T> c ? c.capture(key, value) : () -> o.accept(key, value);
+      }
+      ParallelExecutor.defer(() -> {
+        for (var action : actions) {
+          action.run();
+        }
+      });
+      return;
+    }
     for (var o : observers) {
       o.accept(key, value);
     }
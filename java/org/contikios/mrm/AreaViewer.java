@@ -62,6 +62,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.AbstractAction;
 import javax.swing.AbstractButton;
 import javax.swing.Action;
@@ -194,6 +197,12 @@ public class AreaViewer extends VisPlugin {
 
   private Thread attenuatorThread;
 
+  /* Calculates tiles of the channel image. Kept between images, so its threads reuse their ray-tracing trees. */
+  private final ForkJoinPool channelImagePool = new ForkJoinPool();
+  private static final int CHANNEL_TILE_SIZE = 16;
+  /* Incremented to cancel the channel image being calculated */
+  private final AtomicInteger channelImageVersion = new AtomicInteger();
+
   private final JCheckBox showSettingsBox;
   private final JCheckBox backgroundCheckBox;
   private final JCheckBox obstaclesCheckBox;
@@ -230,11 +239,13 @@ public class AreaViewer extends VisPlugin {
 
     // We want to listen to changes both in the channel model and the radio medium
     currentChannelModel.getSettingsTriggers().addTrigger(this, (event, param) -> {
+      channelImageVersion.incrementAndGet();
       needToRepaintObstacleImage = true;
       canvas.repaint();
     });
     currentRadioMedium.getRadioMediumTriggers().addTrigger(this, (event, radio) -> {
       // Clear selected radio (if any selected) and radio medium coverage.
+      channelImageVersion.incrementAndGet();
       selectedRadio = null;
       channelImage = null;
       trackModeButton.setEnabled(false);
@@ -1424,234 +1435,236 @@ public class AreaViewer extends VisPlugin {
   }
 
   private void repaintRadioEnvironment() {
-        // Get resolution of new image
-        final Dimension resolution = new Dimension(
-            resolutionSlider.getValue(),
-            resolutionSlider.getValue()
-        );
-
-        // Abort if no radio selected
-        if (selectedRadio == null) {
-          channelImage = null;
-          canvas.repaint();
-          return;
-        }
-
-        // Get new location/size of area to attenuate
-        final double startX = -currentPanX;
-        final double startY = -currentPanY;
-        final double width = canvas.getWidth() / currentZoomX;
-        final double height = canvas.getHeight() / currentZoomY;
-
-        // Get sending radio position
-        Position radioPosition = selectedRadio.getPosition();
-        final double radioX = radioPosition.getXCoordinate();
-        final double radioY = radioPosition.getYCoordinate();
-
-        // Create temporary image
-        final BufferedImage tempChannelImage = new BufferedImage(resolution.width, resolution.height, BufferedImage.TYPE_INT_ARGB);
-
-        // Save time for later analysis
-        final long timeBeforeCalculating = System.currentTimeMillis();
-
-        // Create progress monitor
-        final ProgressMonitor pm = new ProgressMonitor(
-            Cooja.getTopParentContainer(),
-            "Calculating channel attenuation",
-            null,
-            0,
-            resolution.width - 1
-        );
-
-        // Thread that will perform the work
+    // Cancel any image being calculated
+    final int version = channelImageVersion.incrementAndGet();
+
+    // Get resolution of new image
+    final Dimension resolution = new Dimension(
+        resolutionSlider.getValue(),
+        resolutionSlider.getValue()
+    );
+
+    // Abort if no radio selected
+    final Radio radio = selectedRadio;
+    if (radio == null) {
+      channelImage = null;
+      canvas.repaint();
+      return;
+    }
 
-    // Start thread
+    // Get new location/size of area to attenuate
+    final double startX = -currentPanX;
+    final double startY = -currentPanY;
+    final double width = canvas.getWidth() / currentZoomX;
+    final double height = canvas.getHeight() / currentZoomY;
+
+    // Get sending radio position
+    Position radioPosition = radio.getPosition();
+    final double radioX = radioPosition.getXCoordinate();
+    final double radioY = radioPosition.getYCoordinate();
+    final ChannelModel.TransmissionData dataType = dataTypeToVisualize;
+    final boolean fixedColoring = coloringIsFixed;
+
+    // Create temporary image
+    final BufferedImage tempChannelImage = new BufferedImage(resolution.width, resolution.height, BufferedImage.TYPE_INT_ARGB);
+
+    // Save time for later analysis
+    final long timeBeforeCalculating = System.currentTimeMillis();
+
+    // Split the image in tiles
+    final int tilesX = (resolution.width + CHANNEL_TILE_SIZE - 1) / CHANNEL_TILE_SIZE;
+    final int tilesY = (resolution.height + CHANNEL_TILE_SIZE - 1) / CHANNEL_TILE_SIZE;
+
+    // Create progress monitor
+    final ProgressMonitor pm = new ProgressMonitor(
+        Cooja.getTopParentContainer(),
+        "Calculating channel attenuation",
+        null,
+        0,
+        tilesX * tilesY
+    );
+
+    // Show the tiles as they are calculated, colored with the fixed interval
+    final double[] fixedInterval = getFixedColoringInterval(dataType);
+    channelStartX = startX;
+    channelStartY = startY;
+    channelWidth = width;
+    channelHeight = height;
+    channelImage = tempChannelImage;
+
+    // Thread that waits for the tiles, which are calculated on the channel image pool
     attenuatorThread = new Thread(() -> {
-      // Available signal strength intervals.
-      double lowestImageValue = Double.MAX_VALUE;
-      double highestImageValue = -Double.MAX_VALUE;
       // Create image values (calculate each pixel).
       double[][] imageValues = new double[resolution.width][resolution.height];
       try {
-        for (int x = 0; x < resolution.width; x++) {
-          for (int y = 0; y < resolution.height; y++) {
-            final double xx = x;
-            final double yy = y;
-            var txPair = new TxPair() {
-              @Override
-              public double getDistance() {
-                double w = getFromX() - getToX();
-                double h = getFromY() - getToY();
-                return Math.sqrt(w * w + h * h);
-              }
-
-              @Override
-              public double getFromX() {
-                return radioX;
-              }
-
-              @Override
-              public double getFromY() {
-                return radioY;
-              }
-
-              @Override
-              public double getToX() {
-                return startX + width * xx / resolution.width;
-              }
-
-              @Override
-              public double getToY() {
-                return startY + height * yy / resolution.height;
-              }
-
-              @Override
-              public double getTxPower() {
-                return selectedRadio.getCurrentOutputPower();
-              }
-
-              @Override
-              public double getTxGain() {
-                if (!(selectedRadio instanceof DirectionalAntennaRadio r)) {
-                  return 0;
+        var tiles = new ArrayList<ForkJoinTask<double[]>>();
+        for (int tileX = 0; tileX < tilesX; tileX++) {
+          for (int tileY = 0; tileY < tilesY; tileY++) {
+            final int fromX = tileX * CHANNEL_TILE_SIZE;
+            final int fromY = tileY * CHANNEL_TILE_SIZE;
+            final int toX = Math.min(fromX + CHANNEL_TILE_SIZE, resolution.width);
+            final int toY = Math.min(fromY + CHANNEL_TILE_SIZE, resolution.height);
+            tiles.add(channelImagePool.submit(() -> {
+              // Available signal strength intervals.
+              double lowestTileValue = Double.MAX_VALUE;
+              double highestTileValue = -Double.MAX_VALUE;
+              for (int x = fromX; x < toX; x++) {
+                for (int y = fromY; y < toY; y++) {
+                  if (channelImageVersion.get() != version) {
+                    return null;
+                  }
+                  final double toXCoordinate = startX + width * x / resolution.width;
+                  final double toYCoordinate = startY + height * y / resolution.height;
+                  var txPair = new TxPair() {
+                    @Override
+                    public double getDistance() {
+                      double w = getFromX() - getToX();
+                      double h = getFromY() - getToY();
+                      return Math.sqrt(w * w + h * h);
+                    }
+
+                    @Override
+                    public double getFromX() {
+                      return radioX;
+                    }
+
+                    @Override
+                    public double getFromY() {
+                      return radioY;
+                    }
+
+                    @Override
+                    public double getToX() {
+                      return toXCoordinate;
+                    }
+
+                    @Override
+                    public double getToY() {
+                      return toYCoordinate;
+                    }
+
+                    @Override
+                    public double getTxPower() {
+                      return radio.getCurrentOutputPower();
+                    }
+
+                    @Override
+                    public double getTxGain() {
+                      if (!(radio instanceof DirectionalAntennaRadio r)) {
+                        return 0;
+                      }
+                      return r.getRelativeGain(r.getDirection() + getAngle(), getDistance());
+                    }
+
+                    @Override
+                    public double getRxGain() {
+                      return 0;
+                    }
+                  };
+                  double value = getChannelValue(dataType, txPair);
+                  if (value < lowestTileValue) {
+                    lowestTileValue = value;
+                  }
+                  if (value > highestTileValue) {
+                    highestTileValue = value;
+                  }
+                  imageValues[x][y] = value;
+                  tempChannelImage.setRGB(x, y, getColorOfSignalStrength(value, fixedInterval[0], fixedInterval[1]));
                 }
-                return r.getRelativeGain(r.getDirection() + getAngle(), getDistance());
-              }
-
-              @Override
-              public double getRxGain() {
-                return 0;
-              }
-            };
-            if (dataTypeToVisualize == ChannelModel.TransmissionData.SIGNAL_STRENGTH) {
-              // Attenuate
-              double[] signalStrength = currentChannelModel.getReceivedSignalStrength(txPair);
-              // Collecting signal strengths
-              if (signalStrength[0] < lowestImageValue) {
-                lowestImageValue = signalStrength[0];
-              }
-              if (signalStrength[0] > highestImageValue) {
-                highestImageValue = signalStrength[0];
-              }
-              imageValues[x][y] = signalStrength[0];
-            } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SIGNAL_STRENGTH_VAR) {
-              // Attenuate
-              double[] signalStrength = currentChannelModel.getReceivedSignalStrength(txPair);
-              // Collecting variances
-              if (signalStrength[1] < lowestImageValue) {
-                lowestImageValue = signalStrength[1];
-              }
-              if (signalStrength[1] > highestImageValue) {
-                highestImageValue = signalStrength[1];
               }
-              imageValues[x][y] = signalStrength[1];
-            } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SNR) {
-              // Get signal-to-noise ratio
-              double[] snr = currentChannelModel.getSINR(txPair, -Double.MAX_VALUE);
-              // Collecting signal-to-noise ratio
-              if (snr[0] < lowestImageValue) {
-                lowestImageValue = snr[0];
-              }
-              if (snr[0] > highestImageValue) {
-                highestImageValue = snr[0];
-              }
-              imageValues[x][y] = snr[0];
-            } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SNR_VAR) {
-              // Get signal-to-noise ratio
-              double[] snr = currentChannelModel.getSINR(txPair, -Double.MAX_VALUE);
-              // Collecting variances
-              if (snr[1] < lowestImageValue) {
-                lowestImageValue = snr[1];
-              }
-              if (snr[1] > highestImageValue) {
-                highestImageValue = snr[1];
-              }
-              imageValues[x][y] = snr[1];
-            } else if (dataTypeToVisualize == ChannelModel.TransmissionData.PROB_OF_RECEPTION) {
-              // Get probability of receiving a packet TODO What size? Does it matter?
-              double probability = currentChannelModel.getProbability(txPair, -Double.MAX_VALUE)[0];
-              // Collecting variances
-              if (probability < lowestImageValue) {
-                lowestImageValue = probability;
-              }
-              if (probability > highestImageValue) {
-                highestImageValue = probability;
-              }
-              imageValues[x][y] = probability;
-            } else if (dataTypeToVisualize == ChannelModel.TransmissionData.DELAY_SPREAD_RMS) {
-              // Get RMS delay spread of receiving a packet
-              double rmsDelaySpread = currentChannelModel.getRMSDelaySpread(txPair);
-              // Collecting variances
-              if (rmsDelaySpread < lowestImageValue) {
-                lowestImageValue = rmsDelaySpread;
-              }
-              if (rmsDelaySpread > highestImageValue) {
-                highestImageValue = rmsDelaySpread;
-              }
-              imageValues[x][y] = rmsDelaySpread;
-            }
+              return new double[] { lowestTileValue, highestTileValue };
+            }));
+          }
+        }
 
-            // Check if the dialog has been canceled.
-            if (pm.isCanceled()) {
-              return;
-            }
-            // Update progress.
-            pm.setProgress(x);
+        // Available signal strength intervals.
+        double lowestImageValue = Double.MAX_VALUE;
+        double highestImageValue = -Double.MAX_VALUE;
+        for (int i = 0; i < tiles.size(); i++) {
+          var interval = tiles.get(i).join();
+          // Check if the dialog has been canceled, or a new image requested.
+          if (pm.isCanceled()) {
+            channelImageVersion.compareAndSet(version, version + 1);
           }
+          if (interval == null || channelImageVersion.get() != version) {
+            pm.close();
+            return;
+          }
+          lowestImageValue = Math.min(lowestImageValue, interval[0]);
+          highestImageValue = Math.max(highestImageValue, interval[1]);
+          // Update progress.
+          pm.setProgress(i + 1);
+          canvas.repaint();
         }
 
         // Adjust coloring signal strength limit
-        if (coloringIsFixed) {
-          if (dataTypeToVisualize == ChannelModel.TransmissionData.SIGNAL_STRENGTH) {
-            lowestImageValue = -100;
-            highestImageValue = 0;
-          } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SIGNAL_STRENGTH_VAR) {
-            lowestImageValue = 0;
-            highestImageValue = 20;
-          } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SNR) {
-            lowestImageValue = -10;
-            highestImageValue = 30;
-          } else if (dataTypeToVisualize == ChannelModel.TransmissionData.SNR_VAR) {
-            lowestImageValue = 0;
-            highestImageValue = 20;
-          } else if (dataTypeToVisualize == ChannelModel.TransmissionData.PROB_OF_RECEPTION) {
-            lowestImageValue = 0;
-            highestImageValue = 1;
-          } else if (dataTypeToVisualize == ChannelModel.TransmissionData.DELAY_SPREAD_RMS) {
-            lowestImageValue = 0;
-            highestImageValue = 5;
+        if (fixedColoring) {
+          lowestImageValue = fixedInterval[0];
+          highestImageValue = fixedInterval[1];
+        } else {
+          // Color image with the relative interval
+          for (int x = 0; x < resolution.width; x++) {
+            for (int y = 0; y < resolution.height; y++) {
+              tempChannelImage.setRGB(x, y, getColorOfSignalStrength(imageValues[x][y], lowestImageValue, highestImageValue));
+            }
           }
         }
 
         // Save coloring high-low interval
         coloringHighest = highestImageValue;
         coloringLowest = lowestImageValue;
-
-        // Create image
-        for (int x = 0; x < resolution.width; x++) {
-          for (int y = 0; y < resolution.height; y++) {
-            tempChannelImage.setRGB(x, y, getColorOfSignalStrength(imageValues[x][y], lowestImageValue, highestImageValue));
-          }
-        }
         logger.info("Attenuating area done, time=" + (System.currentTimeMillis() - timeBeforeCalculating));
 
         // Repaint to show the new channel propagation
-        channelStartX = startX;
-        channelStartY = startY;
-        channelWidth = width;
-        channelHeight = height;
-        channelImage = tempChannelImage;
         AreaViewer.this.repaint();
         coloringIntervalPanel.repaint();
       } catch (Exception ex) {
-        if (pm.isCanceled()) {
-          return;
+        channelImageVersion.compareAndSet(version, version + 1);
+        if (!pm.isCanceled()) {
+          logger.error("Attenuation aborted: " + ex, ex);
         }
-        logger.error("Attenuation aborted: " + ex, ex);
       }
       pm.close();
     }, "repaintRadioEnvironment");
-        attenuatorThread.start();
+    attenuatorThread.start();
+  }
+
+  /**
+   * Returns a value of the channel, as visualized.
+   *
+   * @param dataType Type of value
+   * @param txPair Transmitter and receiver
+   * @return Value
+   */
+  private double getChannelValue(ChannelModel.TransmissionData dataType, TxPair txPair) {
+    return switch (dataType) {
+      // Attenuate
+      case SIGNAL_STRENGTH -> currentChannelModel.getReceivedSignalStrength(txPair)[0];
+      case SIGNAL_STRENGTH_VAR -> currentChannelModel.getReceivedSignalStrength(txPair)[1];
+      // Get signal-to-noise ratio
+      case SNR -> currentChannelModel.getSINR(txPair, -Double.MAX_VALUE)[0];
+      case SNR_VAR -> currentChannelModel.getSINR(txPair, -Double.MAX_VALUE)[1];
+      // Get probability of receiving a packet TODO What size? Does it matter?
+      case PROB_OF_RECEPTION -> currentChannelModel.getProbability(txPair, -Double.MAX_VALUE)[0];
+      // Get RMS delay spread of receiving a packet
+      case DELAY_SPREAD_RMS -> currentChannelModel.getRMSDelaySpread(txPair);
+      default -> 0;
+    };
+  }
+
+  /**
+   * @param dataType Type of value
+   * @return Lowest and highest value of the fixed coloring
+   */
+  private static double[] getFixedColoringInterval(ChannelModel.TransmissionData dataType) {
+    return switch (dataType) {
+      case SIGNAL_STRENGTH -> new double[] { -100, 0 };
+      case SIGNAL_STRENGTH_VAR, SNR_VAR -> new double[] { 0, 20 };
+      case SNR -> new double[] { -10, 30 };
+      case PROB_OF_RECEPTION -> new double[] { 0, 1 };
+      case DELAY_SPREAD_RMS -> new double[] { 0, 5 };
+      default -> new double[] { 0, 0 };
+    };
   }
 
   /**
@@ -1989,6 +2002,9 @@ public class AreaViewer extends VisPlugin {
 
   @Override
   public void closePlugin() {
+    channelImageVersion.incrementAndGet();
+    channelImagePool.shutdownNow();
+
     // Remove all our observers
     if (currentChannelModel != null) {
       currentChannelModel.getSettingsTriggers().deleteTriggers(this);
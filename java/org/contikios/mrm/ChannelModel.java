@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.tree.DefaultMutableTreeNode;
 import org.contikios.cooja.Simulation;
 import org.contikios.cooja.interfaces.DirectionalAntennaRadio;
@@ -73,15 +74,21 @@ public class ChannelModel {
   private final HashMap<Parameter,Object> parameters = new HashMap<>();
 
   // Parameters used for speeding up calculations
-  private boolean needToPrecalculateFSPL = true;
-  private double paramFSPL;
+  private volatile boolean needToPrecalculateFSPL = true;
+  private volatile double paramFSPL;
+
+  /* Incremented when parameters or obstacles change */
+  private final AtomicInteger calculationsVersion = new AtomicInteger();
+
+  /* Visible lines tree of the source each thread last calculated rays from */
+  private record SourceTree(Point2D source, int version, DefaultMutableTreeNode tree) {}
+  private final ThreadLocal<SourceTree> lastSourceTree = new ThreadLocal<>();
 
   private ObstacleWorld myObstacleWorld = new ObstacleWorld();
 
-  /* Log mode: visualize signal components */
-  private boolean logMode;
-  private StringBuilder logInfo;
-  private List<Line2D> loggedRays;
+  /* Log mode: visualize signal components, for the thread calculating them */
+  private record RayLog(StringBuilder info, List<Line2D> rays) {}
+  private final ThreadLocal<RayLog> rayLog = new ThreadLocal<>();
 
   // Ray tracing components temporary vector
   private final List<List<Line2D>> calculatedVisibleSides = new ArrayList<>();
@@ -247,6 +254,7 @@ public class ChannelModel {
    */
   public void removeAllObstacles() {
     myObstacleWorld.removeAll();
+    invalidateCalculations();
     settingsTriggers.trigger(EventTriggers.Update.UPDATE, null);
   }
 
@@ -275,6 +283,7 @@ public class ChannelModel {
    */
   public void addRectObstacle(double startX, double startY, double width, double height, boolean notify) {
     myObstacleWorld.addObstacle(startX, startY, width, height);
+    invalidateCalculations();
 
     if (notify) {
       settingsTriggers.trigger(EventTriggers.Update.UPDATE, null);
@@ -356,7 +365,7 @@ public class ChannelModel {
     parameters.put(id, newValue);
 
     // Guessing we need to recalculate input to FSPL+Output power
-    needToPrecalculateFSPL = true;
+    invalidateCalculations();
     settingsTriggers.trigger(EventTriggers.Update.UPDATE, id);
   }
 
@@ -365,9 +374,24 @@ public class ChannelModel {
    * will be notified.
    */
   public void notifySettingsChanged() {
+    invalidateCalculations();
     settingsTriggers.trigger(EventTriggers.Update.UPDATE, null);
   }
   
+  /**
+   * Drops saved calculations that depend on parameters or obstacles.
+   */
+  private void invalidateCalculations() {
+    needToPrecalculateFSPL = true;
+    synchronized (this) {
+      calculatedVisibleSides.clear();
+      calculatedVisibleSidesSources.clear();
+      calculatedVisibleSidesAngleIntervals.clear();
+      calculatedVisibleSidesLines.clear();
+    }
+    calculationsVersion.incrementAndGet();
+  }
+
   /**
    * Path loss component from Friis' transmission equation.
    * Uses frequency and distance only.
@@ -627,6 +651,34 @@ public class ChannelModel {
     return thisTree;
   }
 
+  /**
+   * Returns the tree of all visible lines from a source, reusing the tree of the
+   * previous call from the same thread if it had the same source.
+   *
+   * @param source Source point
+   * @return Tree of all visibles lines
+   */
+  private DefaultMutableTreeNode getVisibleLinesTree(Point2D source) {
+    int version = calculationsVersion.get();
+    var last = lastSourceTree.get();
+    if (last != null && last.version() == version && last.source().equals(source)) {
+      return last.tree();
+    }
+
+    RayData originRayData = new RayData(
+        RayData.RayType.ORIGIN,
+        source,
+        null,
+        getParameterIntegerValue(Parameter.rt_max_rays),
+        getParameterIntegerValue(Parameter.rt_max_refractions),
+        getParameterIntegerValue(Parameter.rt_max_reflections),
+        getParameterIntegerValue(Parameter.rt_max_diffractions)
+    );
+    var tree = buildVisibleLinesTree(originRayData);
+    lastSourceTree.set(new SourceTree(source, version, tree));
+    return tree;
+  }
+
   /**
    * Returns a vector of ray paths from given origin to given destination.
    * Each ray path consists of a vector of points (including source and destination).
@@ -895,10 +947,22 @@ public class ChannelModel {
    * @param lookThrough Line to look through (or null)
    * @return All visible sides
    */
-  synchronized private List<Line2D> getAllVisibleSides(double sourceX, double sourceY, AngleInterval angleInterval, Line2D lookThrough) {
-    // synchronized because a race condition happens in this method when MRMVisualizerSkin accesses this module from another thread
+  private List<Line2D> getAllVisibleSides(double sourceX, double sourceY, AngleInterval angleInterval, Line2D lookThrough) {
     Point2D source = new Point2D.Double(sourceX, sourceY);
+    var visibleLines = getSavedVisibleSides(source, angleInterval, lookThrough);
+    if (visibleLines == null) {
+      visibleLines = calculateVisibleSides(source, angleInterval, lookThrough);
+      saveVisibleSides(source, angleInterval, lookThrough, visibleLines);
+    }
+    return visibleLines;
+  }
 
+  /*
+   * The saved visible sides are shared by the simulation thread, MRMVisualizerSkin and
+   * parallel calculations of radio pairs. Only the lists are locked, so several threads
+   * can calculate visible sides at the same time.
+   */
+  synchronized private List<Line2D> getSavedVisibleSides(Point2D source, AngleInterval angleInterval, Line2D lookThrough) {
     // Check if results were already calculated earlier
     for (int i=0; i < calculatedVisibleSidesSources.size(); i++) {
       if (
@@ -928,7 +992,12 @@ public class ChannelModel {
         return oldVisibleLines;
       }
     }
+    return null;
+  }
 
+  private List<Line2D> calculateVisibleSides(Point2D source, AngleInterval angleInterval, Line2D lookThrough) {
+    double sourceX = source.getX();
+    double sourceY = source.getY();
     List<Line2D> visibleLines = new ArrayList<>();
     List<AngleInterval> unhandledAngles = new ArrayList<>();
 
@@ -1243,6 +1312,10 @@ public class ChannelModel {
 
     } // End of outer loop
 
+    return visibleLines;
+  }
+
+  synchronized private void saveVisibleSides(Point2D source, AngleInterval angleInterval, Line2D lookThrough, List<Line2D> visibleLines) {
     // Save results in order to speed up later calculations
     int size = calculatedVisibleSides.size();
     // Crop saved sides vectors
@@ -1257,8 +1330,6 @@ public class ChannelModel {
     calculatedVisibleSidesSources.add(0, source);
     calculatedVisibleSidesAngleIntervals.add(0, angleInterval);
     calculatedVisibleSidesLines.add(0, lookThrough);
-
-    return visibleLines;
   }
 
   /**
@@ -1279,32 +1350,22 @@ public class ChannelModel {
 
   // TODO Fix better data type support
   private double[] getTransmissionData(TxPair txPair, TransmissionData dataType) {
+    var log = rayLog.get();
     Point2D source = txPair.getFrom();
     Point2D dest = txPair.getTo();
     double accumulatedVariance = 0;
 
     // - Get all ray paths from source to destination -
-    RayData originRayData = new RayData(
-        RayData.RayType.ORIGIN,
-        source,
-        null,
-        getParameterIntegerValue(Parameter.rt_max_rays),
-        getParameterIntegerValue(Parameter.rt_max_refractions),
-        getParameterIntegerValue(Parameter.rt_max_reflections),
-        getParameterIntegerValue(Parameter.rt_max_diffractions)
-    );
-
-    // Check if origin tree is already calculated and saved
-    DefaultMutableTreeNode visibleLinesTree = buildVisibleLinesTree(originRayData);
+    DefaultMutableTreeNode visibleLinesTree = getVisibleLinesTree(source);
 
     // Calculate all paths from source to destination, using above calculated tree
     var allPaths = getConnectingPaths(source, dest, visibleLinesTree);
-    if (logMode) {
-      logInfo.append("Signal components:\n");
+    if (log != null) {
+      log.info().append("Signal components:\n");
       for (var currentPath : allPaths) {
-        logInfo.append("* ").append(currentPath).append("\n");
+        log.info().append("* ").append(currentPath).append("\n");
         for (int i=0; i < currentPath.getSubPathCount(); i++) {
-          loggedRays.add(currentPath.getSubPath(i));
+          log.rays().add(currentPath.getSubPath(i));
         }
       }
     }
@@ -1422,13 +1483,13 @@ public class ChannelModel {
 
         // Using Rician fading approach, TODO Only one best signal considered - combine these? (need two limits)
         totalPathGain += Math.pow(10, pathGain[i]/10.0)*Math.cos(2*Math.PI * pathModdedLengths/wavelength);
-        if (logMode) {
-          logInfo.append("Signal component: ").append(String.format("%2.3f", pathGain[i])).append(" dB, phase ").append(String.format("%2.3f", (2 */*Math.PI* */ pathModdedLengths / wavelength))).append(" pi\n");
+        if (log != null) {
+          log.info().append("Signal component: ").append(String.format("%2.3f", pathGain[i])).append(" dB, phase ").append(String.format("%2.3f", (2 */*Math.PI* */ pathModdedLengths / wavelength))).append(" pi\n");
         }
-      } else if (logMode) {
+      } else if (log != null) {
         /* TODO Log mode affects result? */
         var pathModdedLengths = (pathLengths[i] - pathLengths[bestSignalNr]) % wavelength;
-        logInfo.append("(IGNORED) Signal component: ").append(String.format("%2.3f", pathGain[i])).append(" dB, phase ").append(String.format("%2.3f", (2 */*Math.PI* */ pathModdedLengths / wavelength))).append(" pi\n");
+        log.info().append("(IGNORED) Signal component: ").append(String.format("%2.3f", pathGain[i])).append(" dB, phase ").append(String.format("%2.3f", (2 */*Math.PI* */ pathModdedLengths / wavelength))).append(" pi\n");
       }
 
     }
@@ -1441,10 +1502,10 @@ public class ChannelModel {
     // Convert back to dB
     totalPathGain = 10*Math.log10(Math.abs(totalPathGain));
 
-    if (logMode) {
-        logInfo.append("\nTotal path gain: ").append(String.format("%2.3f", totalPathGain)).append(" dB\n");
-        logInfo.append("Delay spread: ").append(String.format("%2.3f", delaySpread)).append("\n");
-        logInfo.append("RMS delay spread: ").append(String.format("%2.3f", delaySpreadRMS)).append("\n");
+    if (log != null) {
+        log.info().append("\nTotal path gain: ").append(String.format("%2.3f", totalPathGain)).append(" dB\n");
+        log.info().append("Delay spread: ").append(String.format("%2.3f", delaySpread)).append("\n");
+        log.info().append("RMS delay spread: ").append(String.format("%2.3f", delaySpreadRMS)).append("\n");
     }
 
     // - Calculate received power -
@@ -1466,8 +1527,8 @@ public class ChannelModel {
     }
 
     double receivedPower = outputPower + systemGain + transmitterGain + totalPathGain;
-    if (logMode) {
-        logInfo.append("\nReceived signal strength: ").append(String.format("%2.3f", receivedPower)).append(" dB (variance ").append(accumulatedVariance).append(")\n");
+    if (log != null) {
+        log.info().append("\nReceived signal strength: ").append(String.format("%2.3f", receivedPower)).append(" dB (variance ").append(accumulatedVariance).append(")\n");
     }
 
     if (dataType == TransmissionData.DELAY_SPREAD || dataType == TransmissionData.DELAY_SPREAD_RMS) {
@@ -1494,19 +1555,17 @@ public class ChannelModel {
   public TrackedSignalComponents getRaysOfTransmission(TxPair txPair) {
     TrackedSignalComponents tsc = new TrackedSignalComponents();
 
-    logInfo = new StringBuilder();
-    loggedRays = new ArrayList<>();
-
-    /* TODO Include background noise? */
-    logMode = true;
-    getProbability(txPair, -Double.MAX_VALUE);
-    logMode = false;
+    var log = new RayLog(new StringBuilder(), new ArrayList<>());
+    rayLog.set(log);
+    try {
+      /* TODO Include background noise? */
+      getProbability(txPair, -Double.MAX_VALUE);
+    } finally {
+      rayLog.remove();
+    }
 
-    tsc.log = logInfo.toString();
-    tsc.components = loggedRays;
-    
-    logInfo = null;
-    loggedRays = null;
+    tsc.log = log.info().toString();
+    tsc.components = log.rays();
     
     return tsc;
   }
@@ -1525,6 +1584,7 @@ public class ChannelModel {
    * The third value is the received signal strength which may be used in comparison with interference etc.
    */
   public double[] getSINR(TxPair txPair, double interference) {
+    var log = rayLog.get();
     /* TODO Cache values: called repeatedly with noise sources. */
 
     // Calculate received signal strength
@@ -1553,8 +1613,8 @@ public class ChannelModel {
     snrData[0] -= noiseMean;
     snrData[1] += noiseVariance;
 
-    if (logMode) {
-        logInfo.append("\nReceived SNR: ").append(String.format("%2.3f", snrData[0])).append(" dB (variance ").append(snrData[1]).append(")\n");
+    if (log != null) {
+        log.info().append("\nReceived SNR: ").append(String.format("%2.3f", snrData[0])).append(" dB (variance ").append(snrData[1]).append(")\n");
     }
     return snrData;
   }
@@ -1575,6 +1635,7 @@ public class ChannelModel {
    * @return [Probability of reception, signal strength at destination]
    */
   public double[] getProbability(TxPair txPair, double interference) {
+    var log = rayLog.get();
     double[] snrData = getSINR(txPair, interference);
     double snrMean = snrData[0];
     double snrVariance = snrData[1];
@@ -1585,8 +1646,8 @@ public class ChannelModel {
     // Check signal strength against receiver sensitivity and interference
     if (rxSensitivity > signalStrength - snrMean && 
                 threshold < rxSensitivity + snrMean - signalStrength) {
-      if (logMode) {
-        logInfo.append("Weak signal: increasing threshold\n");
+      if (log != null) {
+        log.info().append("Weak signal: increasing threshold\n");
       }
 
       // Keeping snr variance but increasing theshold to sensitivity
@@ -1609,8 +1670,8 @@ public class ChannelModel {
     // (Using error algorithm method, much faster than taylor approximation!)
     double probReception = 1 - GaussianWrapper.cdfErrorAlgo(threshold, snrMean, snrStdDev);
 
-    if (logMode) {
-      logInfo.append("Reception probability: ").append(String.format("%1.1f%%", 100 * probReception)).append("\n");
+    if (log != null) {
+      log.info().append("Reception probability: ").append(String.format("%1.1f%%", 100 * probReception)).append("\n");
     }
 
     // Returns probabilities
@@ -1717,7 +1778,7 @@ public class ChannelModel {
         }
       }
     }
-    needToPrecalculateFSPL = true;
+    invalidateCalculations();
     settingsTriggers.trigger(EventTriggers.Update.UPDATE, null);
     return true;
   }
@@ -30,9 +30,12 @@
 
 package org.contikios.mrm;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
 import org.contikios.cooja.ClassDescription;
 import org.contikios.cooja.Cooja;
 import org.contikios.cooja.RadioConnection;
@@ -80,6 +83,18 @@ public class MRM extends AbstractRadioMedium {
   private final Random random;
   private final ChannelModel currentChannelModel;
 
+  /*
+   * Reception probability and signal strength of each radio pair, indexed by
+   * source * radios + destination. A pair is calculated again when the channel
+   * model settings, the position of either radio or the output power of the
+   * source change. The output power is NaN for pairs that are not calculated.
+   */
+  private final HashMap<Radio, Integer> pairIndices = new HashMap<>();
+  private int pairRadios;
+  private double[] pairTxPower = new double[0];
+  private double[] pairProbability = new double[0];
+  private double[] pairSignalStrength = new double[0];
+
   /**
    * Creates a new Multi-path Ray-tracing Medium (MRM).
    */
@@ -97,10 +112,24 @@ public class MRM extends AbstractRadioMedium {
       WITH_CAPTURE_EFFECT = currentChannelModel.getParameterBooleanValue(Parameter.captureEffect);
       CAPTURE_EFFECT_THRESHOLD = currentChannelModel.getParameterDoubleValue(Parameter.captureEffectSignalTreshold);
       CAPTURE_EFFECT_PREAMBLE_DURATION = currentChannelModel.getParameterDoubleValue(Parameter.captureEffectPreambleDuration);
+      Arrays.fill(pairTxPower, Double.NaN);
       // Radio Medium changed here, so notify.
       radioMediumTriggers.trigger(EventTriggers.AddRemove.ADD, null);
     });
-    
+
+    simulation.getEventCentral().getPositionTriggers().addTrigger(this, (event, mote) -> {
+      var radio = mote.getInterfaces().getRadio();
+      if (radio != null) {
+        invalidatePairs(radio);
+      }
+    });
+    /* Calculate all radio pairs before the first transmissions */
+    simulation.getSimulationStateTriggers().addTrigger(this, (operation, sim) -> {
+      if (operation == EventTriggers.Operation.START) {
+        calculatePairs();
+      }
+    });
+
     if (Cooja.isVisualized()) {
       simulation.getCooja().registerPlugin(AreaViewer.class);
       simulation.getCooja().registerPlugin(FormulaViewer.class);
@@ -116,13 +145,16 @@ public class MRM extends AbstractRadioMedium {
       simulation.getCooja().unregisterPlugin(FormulaViewer.class);
     }
     currentChannelModel.getSettingsTriggers().deleteTriggers(this);
+    simulation.getEventCentral().getPositionTriggers().deleteTriggers(this);
+    simulation.getSimulationStateTriggers().deleteTriggers(this);
   }
   
   private final NoiseLevelListener noiseListener = (radio, signal) -> updateSignalStrengths();
   @Override
   public void registerRadioInterface(Radio radio, Simulation sim) {
         super.registerRadioInterface(radio, sim);
-        
+    resetPairs();
+
         /* Radio Medium changed here so notify Observers */
     radioMediumTriggers.trigger(EventTriggers.AddRemove.ADD, radio);
     if (WITH_NOISE && radio instanceof NoiseSourceRadio noiseRadio) {
@@ -132,6 +164,7 @@ public class MRM extends AbstractRadioMedium {
   @Override
   public void unregisterRadioInterface(Radio radio, Simulation sim) {
         super.unregisterRadioInterface(radio, sim);
+    resetPairs();
 
         /* Radio Medium changed here so notify Observers */
     radioMediumTriggers.trigger(EventTriggers.AddRemove.REMOVE, radio);
@@ -159,20 +192,7 @@ public class MRM extends AbstractRadioMedium {
         continue;
       }
       /* Calculate receive probability */
-      TxPair txPair = new RadioPair() {
-        @Override
-        public Radio getFromRadio() {
-          return sender;
-        }
-        @Override
-        public Radio getToRadio() {
-          return recv;
-        }
-      };
-      double[] probData = currentChannelModel.getProbability(
-          txPair,
-          -Double.MAX_VALUE /* TODO Include interference */
-      );
+      double[] probData = getProbability(sender, recv);
 
       double recvProb = probData[0];
       double recvSignalStrength = probData[1];
@@ -267,20 +287,22 @@ public class MRM extends AbstractRadioMedium {
   }
 
   @Override
-  protected void updateSignalStrengths() {
+  protected void updateSignalStrengths(Set<Radio> radios, RadioConnection[] conns) {
 
     /* Reset: Background noise */
         double background = 
                 currentChannelModel.getParameterDoubleValue(Parameter.bg_noise_mean);
-    for (Radio radio : getRegisteredRadios()) {
+    for (Radio radio : radios) {
       radio.setCurrentSignalStrength(background);
     }
 
     /* Active radio connections */
-    RadioConnection[] conns = getActiveConnections();
     for (RadioConnection conn : conns) {
       var srcChannel = conn.getSource().getChannel();
       for (Radio dstRadio : conn.getDestinations()) {
+        if (!radios.contains(dstRadio)) {
+          continue;
+        }
         double signalStrength = ((MRMRadioConnection) conn).getDestinationSignalStrength(dstRadio);
         var dstChannel = dstRadio.getChannel();
         if (channelsDiffer(srcChannel, dstChannel)) {
@@ -296,6 +318,9 @@ public class MRM extends AbstractRadioMedium {
     for (RadioConnection conn : conns) {
       var srcChannel = conn.getSource().getChannel();
       for (Radio intfRadio : conn.getInterfered()) {
+        if (!radios.contains(intfRadio)) {
+          continue;
+        }
         var intfChannel = intfRadio.getChannel();
         if (channelsDiffer(srcChannel, intfChannel)) {
           continue;
@@ -322,24 +347,13 @@ public class MRM extends AbstractRadioMedium {
       }
 
       /* Calculate how noise source affects surrounding radios */
-      for (final var affectedRadio : getRegisteredRadios()) {
+      for (final var affectedRadio : radios) {
         if (noiseRadio == affectedRadio) {
           continue;
         }
 
         /* Update noise levels */
-        TxPair txPair = new RadioPair() {
-          @Override
-          public Radio getFromRadio() {
-            return noiseRadio;
-          }
-          @Override
-          public Radio getToRadio() {
-            return affectedRadio;
-          }
-        };
-        double[] signalMeanVar = currentChannelModel.getReceivedSignalStrength(txPair);
-        double signal = signalMeanVar[0];
+        double signal = getProbability(noiseRadio, affectedRadio)[1];
         if (signal < background) {
           continue;
         }
@@ -380,6 +394,99 @@ public class MRM extends AbstractRadioMedium {
   }
 
 
+  /**
+   * Returns the reception probability and signal strength of a radio pair from
+   * the channel model, saved until the pair is invalidated.
+   *
+   * @see ChannelModel#getProbability(TxPair, double)
+   * @return [Probability of reception, signal strength at destination]
+   */
+  private double[] getProbability(Radio source, Radio dest) {
+    var sourceIndex = pairIndices.get(source);
+    var destIndex = pairIndices.get(dest);
+    if (sourceIndex == null || destIndex == null || !isPairSaved(source, dest)) {
+      return calculateProbability(source, dest);
+    }
+    int pair = sourceIndex * pairRadios + destIndex;
+    double txPower = source.getCurrentOutputPower();
+    if (pairTxPower[pair] != txPower) {
+      var probData = calculateProbability(source, dest);
+      pairProbability[pair] = probData[0];
+      pairSignalStrength[pair] = probData[1];
+      pairTxPower[pair] = txPower;
+      return probData;
+    }
+    return new double[] { pairProbability[pair], pairSignalStrength[pair] };
+  }
+
+  private double[] calculateProbability(final Radio source, final Radio dest) {
+    TxPair txPair = new RadioPair() {
+      @Override
+      public Radio getFromRadio() {
+        return source;
+      }
+      @Override
+      public Radio getToRadio() {
+        return dest;
+      }
+    };
+    return currentChannelModel.getProbability(
+        txPair,
+        -Double.MAX_VALUE /* TODO Include interference */
+    );
+  }
+
+  /* Random values and antenna directions are not saved */
+  private boolean isPairSaved(Radio source, Radio dest) {
+    return !currentChannelModel.getParameterBooleanValue(Parameter.apply_random)
+        && !(source instanceof DirectionalAntennaRadio)
+        && !(dest instanceof DirectionalAntennaRadio);
+  }
+
+  private void resetPairs() {
+    var radios = getRegisteredRadios();
+    pairIndices.clear();
+    for (int i = 0; i < radios.length; i++) {
+      pairIndices.put(radios[i], i);
+    }
+    pairRadios = radios.length;
+    pairTxPower = new double[pairRadios * pairRadios];
+    pairProbability = new double[pairTxPower.length];
+    pairSignalStrength = new double[pairTxPower.length];
+    Arrays.fill(pairTxPower, Double.NaN);
+  }
+
+  private void invalidatePairs(Radio radio) {
+    var index = pairIndices.get(radio);
+    if (index == null) {
+      return;
+    }
+    for (int i = 0; i < pairRadios; i++) {
+      pairTxPower[index * pairRadios + i] = Double.NaN;
+      pairTxPower[i * pairRadios + index] = Double.NaN;
+    }
+  }
+
+  /**
+   * Calculates the radio pairs that are saved but not calculated yet, one source
+   * radio per task on the common fork-join pool. The simulation thread waits for
+   * the result, so no radio changes during the calculation.
+   */
+  private void calculatePairs() {
+    if (currentChannelModel.getParameterBooleanValue(Parameter.apply_random)) {
+      // No pair is saved, every transmission calculates its own.
+      return;
+    }
+    var radios = getRegisteredRadios();
+    IntStream.range(0, radios.length).parallel().forEach(source -> {
+      for (var dest : radios) {
+        if (dest != radios[source] && isPairSaved(radios[source], dest)) {
+          getProbability(radios[source], dest);
+        }
+      }
+    });
+  }
+
   // -- MRM specific methods --
 
   /**
@@ -179,8 +179,11 @@ class ObstacleWorld {
    * @return All obstacles in given angle interval
    */
   public List<Rectangle2D> getAllObstaclesInAngleInterval(Point2D center, AngleInterval angleInterval) {
-    if (!obstaclesOrganized) {
-      reorganizeSpatialObstacles();
+    // The channel model looks up obstacles from several threads
+    synchronized (this) {
+      if (!obstaclesOrganized) {
+        reorganizeSpatialObstacles();
+      }
     }
     
     double boxWidth = outerBounds.getWidth() / (double) spatialResolution;
@@ -29,6 +29,9 @@
  *
  */
 package se.sics.mspsim.chip;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.Chip;
 import se.sics.mspsim.core.IOPort;
 import se.sics.mspsim.core.MSP430Core;
@@ -69,6 +72,18 @@ public class Button extends Chip {
         }
     }
 
+    @Override
+    public void save(DataOutput out) throws IOException {
+        saveChipState(out);
+        out.writeBoolean(isPressed);
+    }
+
+    @Override
+    public void restore(DataInput in) throws IOException {
+        restoreChipState(in);
+        isPressed = in.readBoolean();
+    }
+
     @Override
     public int getModeMax() {
         return 0;
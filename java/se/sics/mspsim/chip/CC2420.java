@@ -37,6 +37,9 @@
  */
 
 package se.sics.mspsim.chip;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.core.IOPort;
 import se.sics.mspsim.core.MSP430Core;
@@ -439,6 +442,7 @@ public class CC2420 extends Radio802154 implements USARTListener {
 
   private boolean setState(RadioState state) {
     if(logLevel > INFO) log("State transition from " + stateMachine + " to " + state);
+    updateReceivedFrames();
     stateMachine = state;
     /* write to FSM state register */
     registers[REG_FSMSTATE] = state.getFSMState();
@@ -555,6 +559,7 @@ public class CC2420 extends Radio802154 implements USARTListener {
         stateListener.newState(stateMachine);
     }
     stateChanged(stateMachine.state);
+    updateReceivedFrames();
 
     return true;
   }
@@ -571,6 +576,44 @@ public class CC2420 extends Radio802154 implements USARTListener {
   /* variables for the address recognition */
   private int destinationAddressMode;
   private boolean decodeAddress;
+
+  /* follows receivedByte up to the first byte that may change pins or state */
+  @Override
+  protected int getQuietBytes(byte[] data, int offset) {
+      if (stateMachine == RadioState.RX_SFD_SEARCH) {
+          int zeros = zeroSymbols;
+          for (int i = offset; i < data.length; i++) {
+              if (data[i] == 0) {
+                  zeros++;
+              } else if (zeros >= 4 && data[i] == 0x7A) {
+                  return i - offset;
+              } else {
+                  zeros = 0;
+              }
+          }
+      } else if (stateMachine == RadioState.RX_FRAME && !overflow) {
+          int read = rxread;
+          int fifoLength = rxFIFO.length();
+          for (int i = offset; i < data.length; i++, read++) {
+              if (read == 0 || read == 2 || read == rxlen
+                      || (decodeAddress && (read == 2 + 5 || read == 8 + 5))) {
+                  return i - offset;
+              }
+              if (fifoLength == rxFIFO.capacity()) {
+                  return i - offset;
+              }
+              if (!frameRejected) {
+                  fifoLength++;
+                  if (!currentFIFOP && !decodeAddress
+                          && fifoLength > fifopThr && fifoLength <= rxlen + 1) {
+                      return i - offset;
+                  }
+              }
+          }
+      }
+      /* bytes are ignored in other states */
+      return data.length - offset;
+  }
   /** Receive a byte from the radio medium
    * @see se.sics.mspsim.chip.RFListener#receivedByte(byte)
    */
@@ -774,6 +817,13 @@ public class CC2420 extends Radio802154 implements USARTListener {
 
   @Override
   public void dataReceived(USARTSource source, int data) {
+    /* the CPU sees the bytes received from the air until now */
+    updateReceivedFrames();
+    spiDataReceived(source, data);
+    updateReceivedFrames();
+  }
+
+  private void spiDataReceived(USARTSource source, int data) {
     int oldStatus = status;
     if (logLevel > INFO) {
       log("byte received: " + Utils.hex8(data) +
@@ -1282,6 +1332,15 @@ public class CC2420 extends Radio802154 implements USARTListener {
       return getState() == RadioState.RX_SFD_SEARCH;
   }
 
+  @Override
+  public double getTransmitDelay() {
+    return switch (getState()) {
+      case TX_CALIBRATE, TX_PREAMBLE, TX_FRAME, TX_ACK_CALIBRATE, TX_ACK_PREAMBLE, TX_ACK, TX_UNDERFLOW -> 0;
+      /* the transmitter turns around in 12 symbol periods */
+      default -> 12 * SYMBOL_PERIOD;
+    };
+  }
+
   public void updateActiveFrequency() {
     /* INVERTED: f = 5 * (c - 11) + 357 + 0x4000 */
     activeFrequency = registers[REG_FSCTRL] - 357 + 2405 - 0x4000;
@@ -1405,6 +1464,7 @@ public class CC2420 extends Radio802154 implements USARTListener {
   }
 
   public void setChipSelect(boolean select) {
+    updateReceivedFrames();
     chipSelect = select;
     if (!chipSelect) {
       if (state == SpiState.WRITE_REGISTER && usartDataPos == 1) {
@@ -1414,6 +1474,7 @@ public class CC2420 extends Radio802154 implements USARTListener {
               log("wrote 8 MSB to 0x" + Utils.hex8(usartDataAddress) + " = " + usartDataValue);
           }
           setReg(usartDataAddress, usartDataValue);
+          updateReceivedFrames();
       }
       state = SpiState.WAITING;
     }
@@ -1466,6 +1527,142 @@ public class CC2420 extends Radio802154 implements USARTListener {
    * Chip APIs
    *****************************************************************************/
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveChipState(out);
+    saveReceivedFrames(out);
+    out.writeInt(stateMachine.ordinal());
+    out.writeInt(state.ordinal());
+    out.writeInt(usartDataPos);
+    out.writeInt(usartDataAddress);
+    out.writeInt(usartDataValue);
+    out.writeInt(shrPos);
+    out.writeInt(txfifoPos);
+    out.writeBoolean(txfifoFlush);
+    out.writeInt(rxfifoReadLeft);
+    out.writeInt(rxlen);
+    out.writeInt(rxread);
+    out.writeInt(zeroSymbols);
+    out.writeBoolean(ramRead);
+    out.writeInt(rssi);
+    out.writeBoolean(cca);
+    out.writeInt(corrval);
+    out.writeInt(fifopThr);
+    out.writeBoolean(autoAck);
+    out.writeBoolean(shouldAck);
+    out.writeBoolean(addressDecode);
+    out.writeBoolean(ackRequest);
+    out.writeBoolean(autoCRC);
+    out.writeInt(dsn);
+    out.writeInt(fcf0);
+    out.writeInt(fcf1);
+    out.writeInt(frameType);
+    out.writeBoolean(crcOk);
+    out.writeInt(activeFrequency);
+    out.writeInt(activeChannel);
+    out.writeInt(status);
+    for (int value : registers) {
+      out.writeInt(value);
+    }
+    for (int value : memory) {
+      out.writeInt(value);
+    }
+    out.write(SHR);
+    out.writeBoolean(chipSelect);
+    out.writeInt(txCursor);
+    out.writeBoolean(on);
+    out.writeBoolean(currentCCA);
+    out.writeBoolean(currentSFD);
+    out.writeBoolean(currentFIFO);
+    out.writeBoolean(currentFIFOP);
+    out.writeBoolean(overflow);
+    out.writeBoolean(frameRejected);
+    out.writeInt(ackPos);
+    for (int value : ackBuf) {
+      out.writeInt(value);
+    }
+    out.writeBoolean(ackFramePending);
+    out.writeInt(rxCrc.getCRC());
+    out.writeInt(txCrc.getCRC());
+    rxFIFO.save(out);
+    out.writeInt(destinationAddressMode);
+    out.writeBoolean(decodeAddress);
+    cpu.saveEvent(out, oscillatorEvent);
+    cpu.saveEvent(out, vregEvent);
+    cpu.saveEvent(out, sendEvent);
+    cpu.saveEvent(out, ackEvent);
+    cpu.saveEvent(out, shrEvent);
+    cpu.saveEvent(out, symbolEvent);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreChipState(in);
+    restoreReceivedFrames(in);
+    stateMachine = RadioState.values()[in.readInt()];
+    state = SpiState.values()[in.readInt()];
+    usartDataPos = in.readInt();
+    usartDataAddress = in.readInt();
+    usartDataValue = in.readInt();
+    shrPos = in.readInt();
+    txfifoPos = in.readInt();
+    txfifoFlush = in.readBoolean();
+    rxfifoReadLeft = in.readInt();
+    rxlen = in.readInt();
+    rxread = in.readInt();
+    zeroSymbols = in.readInt();
+    ramRead = in.readBoolean();
+    rssi = in.readInt();
+    cca = in.readBoolean();
+    corrval = in.readInt();
+    fifopThr = in.readInt();
+    autoAck = in.readBoolean();
+    shouldAck = in.readBoolean();
+    addressDecode = in.readBoolean();
+    ackRequest = in.readBoolean();
+    autoCRC = in.readBoolean();
+    dsn = in.readInt();
+    fcf0 = in.readInt();
+    fcf1 = in.readInt();
+    frameType = in.readInt();
+    crcOk = in.readBoolean();
+    activeFrequency = in.readInt();
+    activeChannel = in.readInt();
+    status = in.readInt();
+    for (int i = 0; i < registers.length; i++) {
+      registers[i] = in.readInt();
+    }
+    for (int i = 0; i < memory.length; i++) {
+      memory[i] = in.readInt();
+    }
+    in.readFully(SHR);
+    chipSelect = in.readBoolean();
+    txCursor = in.readInt();
+    on = in.readBoolean();
+    currentCCA = in.readBoolean();
+    currentSFD = in.readBoolean();
+    currentFIFO = in.readBoolean();
+    currentFIFOP = in.readBoolean();
+    overflow = in.readBoolean();
+    frameRejected = in.readBoolean();
+    ackPos = in.readInt();
+    for (int i = 0; i < ackBuf.length; i++) {
+      ackBuf[i] = in.readInt();
+    }
+    ackFramePending = in.readBoolean();
+    rxCrc.setCRC(in.readInt());
+    txCrc.setCRC(in.readInt());
+    rxFIFO.restore(in);
+    destinationAddressMode = in.readInt();
+    decodeAddress = in.readBoolean();
+    cpu.restoreEvent(in, oscillatorEvent);
+    cpu.restoreEvent(in, vregEvent);
+    cpu.restoreEvent(in, sendEvent);
+    cpu.restoreEvent(in, ackEvent);
+    cpu.restoreEvent(in, shrEvent);
+    cpu.restoreEvent(in, symbolEvent);
+  }
+
   @Override
   public int getModeMax() {
     return MODE_MAX;
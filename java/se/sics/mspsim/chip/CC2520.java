@@ -561,6 +561,7 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
 
     private boolean setState(RadioState state) {
         if(DEBUG) log("State transition from " + stateMachine + " to " + state);
+        updateReceivedFrames();
         stateMachine = state;
         /* write to FSM state register */
         memory[REG_FSMSTAT0] = (memory[REG_FSMSTAT0] & 0x3f);//state.getFSMState();
@@ -685,6 +686,7 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
 
         /* Notify state listener */
         stateChanged(stateMachine.state);
+        updateReceivedFrames();
 
         return true;
     }
@@ -701,6 +703,44 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
     /* variables for the address recognition */
     private int destinationAddressMode;
     private boolean decodeAddress;
+
+    /* follows receivedByte up to the first byte that may change pins or state */
+    @Override
+    protected int getQuietBytes(byte[] data, int offset) {
+        if (stateMachine == RadioState.RX_SFD_SEARCH) {
+            int zeros = zeroSymbols;
+            for (int i = offset; i < data.length; i++) {
+                if (data[i] == 0) {
+                    zeros++;
+                } else if (zeros >= 4 && data[i] == 0x7A) {
+                    return i - offset;
+                } else {
+                    zeros = 0;
+                }
+            }
+        } else if (stateMachine == RadioState.RX_FRAME && !overflow) {
+            int read = rxread;
+            int fifoLength = rxFIFO.length();
+            for (int i = offset; i < data.length; i++, read++) {
+                if (read == 0 || read == 2 || read == rxlen
+                        || (decodeAddress && (read == 2 + 5 || read == 8 + 5))) {
+                    return i - offset;
+                }
+                if (fifoLength == rxFIFO.capacity()) {
+                    return i - offset;
+                }
+                if (!frameRejected) {
+                    fifoLength++;
+                    if (!currentFIFOP && !decodeAddress
+                            && fifoLength > fifopThr && fifoLength <= rxlen + 1) {
+                        return i - offset;
+                    }
+                }
+            }
+        }
+        /* bytes are ignored in other states */
+        return data.length - offset;
+    }
     /** Receive a byte from the radio medium
      * @see se.sics.mspsim.chip.RFListener#receivedByte(byte)
      */
@@ -952,6 +992,13 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
 
     @Override
     public void dataReceived(USARTSource source, int data) {
+        /* the CPU sees the bytes received from the air until now */
+        updateReceivedFrames();
+        spiDataReceived(source, data);
+        updateReceivedFrames();
+    }
+
+    private void spiDataReceived(USARTSource source, int data) {
         outputSPI = status; /* if nothing replace the outputSPI it will be output */
         if (DEBUG) {
             log("byte received: " + Utils.hex8(data) +
@@ -1316,6 +1363,15 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
         return getState() == RadioState.RX_SFD_SEARCH;
     }
 
+    @Override
+    public double getTransmitDelay() {
+        return switch (getState()) {
+            case TX_CALIBRATE, TX_PREAMBLE, TX_FRAME, TX_ACK_CALIBRATE, TX_ACK_PREAMBLE, TX_ACK, TX_UNDERFLOW -> 0;
+            /* the transmitter turns around in 12 symbol periods */
+            default -> 12 * SYMBOL_PERIOD;
+        };
+    }
+
     private void updateActiveFrequency() {
         /* INVERTED: f = 5 * (c - 11) + 357 + 0x4000 */
         int freg = memory[REG_FREQCTRL] & 0x7f;
@@ -1494,6 +1550,7 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
     }
 
     public void setChipSelect(boolean select) {
+        updateReceivedFrames();
         chipSelect = select;
         if (!chipSelect) {
             spiLen = 0;
@@ -1501,6 +1558,7 @@ public class CC2520 extends Radio802154 implements USARTListener, SPIData {
                 command.executeSPICommand();
             }
             command = null;
+            updateReceivedFrames();
         }
 
         if (DEBUG) {
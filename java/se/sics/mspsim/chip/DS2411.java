@@ -36,6 +36,9 @@
  */
 package se.sics.mspsim.chip;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.Chip;
 import se.sics.mspsim.core.IOPort;
 import se.sics.mspsim.core.MSP430Core;
@@ -159,6 +162,38 @@ public class DS2411 extends Chip {
     }
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveChipState(out);
+    out.writeInt(state.ordinal());
+    out.writeBoolean(lastPin);
+    out.writeInt(pos);
+    out.writeInt(readByte);
+    out.writeInt(writeByte);
+    out.writeInt(writeLen);
+    out.writeInt(writePos);
+    for (int data : writeBuf) {
+      out.writeInt(data);
+    }
+    cpu.saveEvent(out, stateEvent);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreChipState(in);
+    state = STATE.values()[in.readInt()];
+    lastPin = in.readBoolean();
+    pos = in.readInt();
+    readByte = in.readInt();
+    writeByte = in.readInt();
+    writeLen = in.readInt();
+    writePos = in.readInt();
+    for (int i = 0; i < writeBuf.length; i++) {
+      writeBuf[i] = in.readInt();
+    }
+    cpu.restoreEvent(in, stateEvent);
+  }
+
   @Override
   public int getModeMax() {
     return 0;
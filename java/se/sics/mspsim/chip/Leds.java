@@ -42,6 +42,9 @@
 
 package se.sics.mspsim.chip;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.Chip;
 import se.sics.mspsim.core.MSP430Core;
 import se.sics.mspsim.util.Utils;
@@ -93,6 +96,18 @@ public class Leds extends Chip {
         return ledColors.length;
     }
 
+    @Override
+    public void save(DataOutput out) throws IOException {
+        saveChipState(out);
+        out.writeInt(leds);
+    }
+
+    @Override
+    public void restore(DataInput in) throws IOException {
+        restoreChipState(in);
+        leds = in.readInt();
+    }
+
     @Override
     public int getModeMax() {
         return 0;
@@ -40,6 +40,8 @@
  */
 
 package se.sics.mspsim.chip;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Arrays;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
@@ -396,6 +398,68 @@ public class M25P80 extends ExternalFlash implements USARTListener, PortListener
     }
   }
 
+  /**
+   * Saves the state of the chip and the contents of its storage.
+   */
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveChipState(out);
+    out.writeInt(state);
+    out.writeBoolean(chipSelect);
+    out.writeInt(pos);
+    out.writeInt(status);
+    out.writeBoolean(writeEnable);
+    out.writeBoolean(writing);
+    out.writeInt(readAddress);
+    out.writeInt(loadedAddress);
+    out.writeInt(blockWriteAddress);
+    out.write(readMemory);
+    out.write(buffer);
+    cpu.saveEvent(out, writeEvent);
+    /* only the blocks that are not empty */
+    byte[] block = new byte[256];
+    for (int address = 0; address < getSize(); address += block.length) {
+      getStorage().read(address, block);
+      boolean isEmpty = true;
+      for (byte data : block) {
+        if (data != 0) {
+          isEmpty = false;
+          break;
+        }
+      }
+      out.writeBoolean(!isEmpty);
+      if (!isEmpty) {
+        out.write(block);
+      }
+    }
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreChipState(in);
+    state = in.readInt();
+    chipSelect = in.readBoolean();
+    pos = in.readInt();
+    status = in.readInt();
+    writeEnable = in.readBoolean();
+    writing = in.readBoolean();
+    readAddress = in.readInt();
+    loadedAddress = in.readInt();
+    blockWriteAddress = in.readInt();
+    in.readFully(readMemory);
+    in.readFully(buffer);
+    cpu.restoreEvent(in, writeEvent);
+    byte[] block = new byte[256];
+    for (int address = 0; address < getSize(); address += block.length) {
+      if (in.readBoolean()) {
+        in.readFully(block);
+      } else {
+        Arrays.fill(block, (byte) 0);
+      }
+      getStorage().write(address, block);
+    }
+  }
+
   @Override
   public int getModeMax() {
     return 0;
@@ -28,23 +28,68 @@
  * This file is part of MSPSim.
  */
 package se.sics.mspsim.chip;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import se.sics.mspsim.core.Chip;
 import se.sics.mspsim.core.MSP430Core;
+import se.sics.mspsim.core.TimeEvent;
 
 /**
  * @author Niclas Finne
  */
 public abstract class Radio802154 extends Chip implements RFListener, RFSource {
 
+    /** Time to receive one byte at 250 kbit/s, in milliseconds */
+    public static final double BYTE_PERIOD = 0.032;
+
     protected RFListener rfListener;
     protected ChannelListener channelListener;
 
+    /* frames received from the air that have bytes left to deliver */
+    private final ArrayList<ReceivedFrame> receivedFrames = new ArrayList<>();
+    private boolean isDeliveringFrame;
+    private long frameEventTime;
+
+    private final TimeEvent frameEvent = new TimeEvent(0, "802.15.4 RX Frame") {
+        @Override
+        public void execute(long t) {
+            deliverReceivedFrames(Math.max(t, frameEventTime));
+        }
+    };
+
+    private final class ReceivedFrame {
+        private final byte[] data;
+        private final long startTime;
+        private int pos;
+
+        ReceivedFrame(byte[] data, long startTime) {
+            this.data = data;
+            this.startTime = startTime;
+        }
+
+        long getByteTime(int index) {
+            return startTime + cpu.convertMillisToTime(index * BYTE_PERIOD);
+        }
+    }
+
     protected Radio802154(String id, String name, MSP430Core cpu) {
         super(id, name, cpu);
     }
 
     public abstract boolean isReadyToReceive();
 
+    /**
+     * Returns the shortest time before the radio can send its first byte if the CPU
+     * starts a transmission now, or zero if the radio is transmitting or about to.
+     *
+     * @return time in milliseconds
+     */
+    public double getTransmitDelay() {
+        return 0;
+    }
+
     @Override
     public abstract void receivedByte(byte c);
 
@@ -55,6 +100,111 @@ public abstract class Radio802154 extends Chip implements RFListener, RFSource {
     public abstract int getOutputPowerIndicator();
     public abstract int getOutputPowerIndicatorMax();
 
+    /**
+     * Receives a whole frame from the air, starting now with one byte each BYTE_PERIOD.
+     * The bytes are given to receivedByte at their reception time, except bytes that
+     * getQuietBytes reports to have no visible effects, which are given when the CPU
+     * accesses the radio or at the next byte with visible effects.
+     *
+     * @param data the frame, including preamble and SFD
+     */
+    public void receivedFrame(byte[] data) {
+        if (data.length == 0) {
+            return;
+        }
+        updateReceivedFrames();
+        receivedFrames.add(new ReceivedFrame(data, cpu.getTime()));
+        updateReceivedFrames();
+    }
+
+    /**
+     * Returns the number of bytes from offset in data that are known to have no
+     * visible effects when received in the current state, if no other bytes are
+     * received and the radio is not accessed meanwhile. Chips that return more
+     * than zero must call updateReceivedFrames before the radio is accessed and
+     * after its state has changed.
+     */
+    protected int getQuietBytes(byte[] data, int offset) {
+        return 0;
+    }
+
+    /**
+     * Delivers the bytes of received frames that are due and schedules the
+     * delivery of the remaining bytes.
+     */
+    protected void updateReceivedFrames() {
+        if (!receivedFrames.isEmpty() && !isDeliveringFrame) {
+            deliverReceivedFrames(cpu.getTime());
+        }
+    }
+
+    private void deliverReceivedFrames(long time) {
+        isDeliveringFrame = true;
+        try {
+            ReceivedFrame frame;
+            while ((frame = getNextFrame()) != null && frame.getByteTime(frame.pos) <= time) {
+                byte data = frame.data[frame.pos++];
+                if (frame.pos == frame.data.length) {
+                    receivedFrames.remove(frame);
+                }
+                receivedByte(data);
+            }
+        } finally {
+            isDeliveringFrame = false;
+        }
+
+        ReceivedFrame frame = getNextFrame();
+        if (frame != null) {
+            int index = frame.pos;
+            if (receivedFrames.size() == 1) {
+                /* quiet bytes are delivered at the next access, and at the latest with the last byte */
+                index = Math.min(index + getQuietBytes(frame.data, index), frame.data.length - 1);
+            }
+            long eventTime = frame.getByteTime(index);
+            if (!frameEvent.isScheduled() || frameEventTime != eventTime) {
+                frameEventTime = eventTime;
+                cpu.scheduleTimeEvent(frameEvent, eventTime);
+            }
+        }
+    }
+
+    /* the frame with the earliest byte to deliver, overlapping frames are interleaved */
+    private ReceivedFrame getNextFrame() {
+        ReceivedFrame next = null;
+        for (ReceivedFrame frame : receivedFrames) {
+            if (next == null || frame.getByteTime(frame.pos) < next.getByteTime(next.pos)) {
+                next = frame;
+            }
+        }
+        return next;
+    }
+
+    /* Called by subclasses to save and restore the frames that are being received */
+    protected void saveReceivedFrames(DataOutput out) throws IOException {
+        out.writeInt(receivedFrames.size());
+        for (ReceivedFrame frame : receivedFrames) {
+            out.writeInt(frame.data.length);
+            out.write(frame.data);
+            out.writeLong(frame.startTime);
+            out.writeInt(frame.pos);
+        }
+        out.writeLong(frameEventTime);
+        cpu.saveEvent(out, frameEvent);
+    }
+
+    protected void restoreReceivedFrames(DataInput in) throws IOException {
+        receivedFrames.clear();
+        for (int i = in.readInt(); i > 0; i--) {
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            ReceivedFrame frame = new ReceivedFrame(data, in.readLong());
+            frame.pos = in.readInt();
+            receivedFrames.add(frame);
+        }
+        frameEventTime = in.readLong();
+        cpu.restoreEvent(in, frameEvent);
+    }
+
     public abstract int getRSSI();
     public abstract void setRSSI(int rssi);
 
@@ -41,6 +41,9 @@
 
 package se.sics.mspsim.chip;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.Chip;
 import se.sics.mspsim.core.IOPort;
 import se.sics.mspsim.core.MSP430Core;
@@ -284,6 +287,46 @@ public class SHT11 extends Chip {
   }
 
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveChipState(out);
+    out.writeInt(initPos);
+    out.writeInt(state);
+    out.writeBoolean(clockHi);
+    out.writeBoolean(dataHi);
+    out.writeInt(readData);
+    out.writeInt(bitCnt);
+    out.writeInt(temp);
+    out.writeInt(humid);
+    for (int data : output) {
+      out.writeInt(data);
+    }
+    out.writeInt(writePos);
+    out.writeInt(writeLen);
+    out.writeInt(writeData);
+    cpu.saveEvent(out, measureEvent);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreChipState(in);
+    initPos = in.readInt();
+    state = in.readInt();
+    clockHi = in.readBoolean();
+    dataHi = in.readBoolean();
+    readData = in.readInt();
+    bitCnt = in.readInt();
+    temp = in.readInt();
+    humid = in.readInt();
+    for (int i = 0; i < output.length; i++) {
+      output[i] = in.readInt();
+    }
+    writePos = in.readInt();
+    writeLen = in.readInt();
+    writeData = in.readInt();
+    cpu.restoreEvent(in, measureEvent);
+  }
+
   @Override
   public int getModeMax() {
     return 0;
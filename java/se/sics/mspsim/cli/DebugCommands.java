@@ -392,9 +392,9 @@ public class DebugCommands implements CommandBundle {
           public int executeCommand(CommandContext context) {
             int adr = context.getArgumentAsAddress(0);
             if (adr >= 0) {
-              int value = cpu.memory[adr];
+              int value = cpu.getMemoryByte(adr);
               if (adr >= 0x100 && adr + 1 < cpu.MAX_MEM) {
-                  value |= cpu.memory[adr + 1] << 8;
+                  value |= cpu.getMemoryByte(adr + 1) << 8;
               }
               context.out.println(context.getArgument(0) + " = $" + Utils.hex16(value));
               return 0;
@@ -452,6 +452,27 @@ public class DebugCommands implements CommandBundle {
           }
         });
 
+        ch.registerCommand("memusage", new BasicCommand("print the memory used by the CPU", "") {
+          @Override
+          public int executeCommand(CommandContext context) {
+            context.out.println("Resident memory: " + cpu.getResidentMemory() + " bytes, of which "
+                                + cpu.programMemory.getOwnedBytes() + " bytes of program memory not shared with other CPUs");
+            return 0;
+          }
+        });
+
+        ch.registerCommand("idleloops", new BasicCommand("print the CPU cycles of skipped idle loops", "") {
+          @Override
+          public int executeCommand(CommandContext context) {
+            if (!cpu.isSkipIdleLoops()) {
+              context.out.println("Idle loops are not skipped");
+            } else {
+              context.out.println("Skipped " + cpu.getIdleLoopSkippedCycles() + " of " + cpu.cpuCycles + " CPU cycles in idle loops");
+            }
+            return 0;
+          }
+        });
+
         ch.registerCommand("mem", new BasicCommand("dump memory", "<start address> <num_entries> [type] [hex|char|dis]") {
           @Override
           public int executeCommand(final CommandContext context) {
@@ -493,7 +514,7 @@ public class DebugCommands implements CommandBundle {
             DisAsm disAsm = cpu.getDisAsm();
             for (int i = 0; i < count; i++) {
                 if (mode == Utils.DIS_ASM) {
-                    DbgInstruction dbg = disAsm.disassemble(start, cpu.memory, cpu.reg, new DbgInstruction(),
+                    DbgInstruction dbg = disAsm.disassemble(start, cpu::getMemoryByte, cpu.reg, new DbgInstruction(),
                             0);
                     String fkn;
                     if ((fkn = dbg.getFunction()) != null) {
@@ -503,9 +524,9 @@ public class DebugCommands implements CommandBundle {
                     start += dbg.getSize();
                 } else {
                     int data;
-                    data = cpu.memory[start++];
+                    data = cpu.getMemoryByte(start++);
                     if (Utils.size(type) == 2) {
-                        data = data  + (cpu.memory[start++] << 8);
+                        data = data  + (cpu.getMemoryByte(start++) << 8);
                     }
                     context.out.print((mode != Utils.ASCII ? " " : "") +
                             Utils.toString(data, type, mode));
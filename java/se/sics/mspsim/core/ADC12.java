@@ -47,6 +47,9 @@
 
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 
 public class ADC12 extends IOUnit {
@@ -170,6 +173,62 @@ public class ADC12 extends IOUnit {
   }
 
   // write a value to the IO unit
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(adc12ctl0);
+    out.writeInt(adc12ctl1);
+    for (int i = 0; i < adc12mctl.length; i++) {
+      out.writeInt(adc12mctl[i]);
+      out.writeInt(adc12mem[i]);
+    }
+    out.writeInt(adc12Pos);
+    out.writeInt(shTime0);
+    out.writeInt(shTime1);
+    out.writeBoolean(adc12On);
+    out.writeBoolean(enableConversion);
+    out.writeBoolean(startConversion);
+    out.writeBoolean(isConverting);
+    out.writeInt(shSource);
+    out.writeInt(startMem);
+    out.writeInt(adcDiv);
+    out.writeInt(conSeq);
+    out.writeInt(adc12ie);
+    out.writeInt(adc12ifg);
+    out.writeInt(adc12iv);
+    out.writeInt(adcSSel);
+    out.writeInt(smp);
+    cpu.saveEvent(out, adcTrigger);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    adc12ctl0 = in.readInt();
+    adc12ctl1 = in.readInt();
+    for (int i = 0; i < adc12mctl.length; i++) {
+      adc12mctl[i] = in.readInt();
+      adc12mem[i] = in.readInt();
+    }
+    adc12Pos = in.readInt();
+    shTime0 = in.readInt();
+    shTime1 = in.readInt();
+    adc12On = in.readBoolean();
+    enableConversion = in.readBoolean();
+    startConversion = in.readBoolean();
+    isConverting = in.readBoolean();
+    shSource = in.readInt();
+    startMem = in.readInt();
+    adcDiv = in.readInt();
+    conSeq = in.readInt();
+    adc12ie = in.readInt();
+    adc12ifg = in.readInt();
+    adc12iv = in.readInt();
+    adcSSel = in.readInt();
+    smp = in.readInt();
+    cpu.restoreEvent(in, adcTrigger);
+  }
+
   @Override
   public void write(int address, int value, boolean word, long cycles) {
     switch (address) {
@@ -40,6 +40,9 @@
  */
 
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.util.Utils;
 
 public class BasicClockModule extends ClockSystem {
@@ -112,6 +115,40 @@ public class BasicClockModule extends ClockSystem {
     write(BCSCTL2, 0, false, cpu.cycles);
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(dcoFrequency);
+    out.writeInt(dcoModulator);
+    out.writeInt(resistorSel);
+    out.writeInt(calcDCOFrq);
+    out.writeInt(divAclk);
+    out.writeInt(lfxt1Mode);
+    out.writeInt(xt2Off);
+    out.writeInt(mclkSel);
+    out.writeInt(divMclk);
+    out.writeInt(smclSel);
+    out.writeInt(divSMclk);
+    out.writeInt(dcoResitorSel);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    dcoFrequency = in.readInt();
+    dcoModulator = in.readInt();
+    resistorSel = in.readInt();
+    calcDCOFrq = in.readInt();
+    divAclk = in.readInt();
+    lfxt1Mode = in.readInt();
+    xt2Off = in.readInt();
+    mclkSel = in.readInt();
+    divMclk = in.readInt();
+    smclSel = in.readInt();
+    divSMclk = in.readInt();
+    dcoResitorSel = in.readInt();
+  }
+
   // do nothing?
   @Override
   public int read(int address, boolean word, long cycles) {
@@ -35,6 +35,9 @@
  * Created : 17 jan 2008
  */
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.ArrayUtils;
 import se.sics.mspsim.util.DefaultEmulationLogger;
@@ -186,6 +189,38 @@ public abstract class Chip implements Loggable, EventSource {
       }
   }
 
+  /**
+   * Saves the state of the chip, to be restored with {@link #restore} into the
+   * same chip of a node with the same configuration. Listeners are not saved.
+   *
+   * @param out Output
+   * @throws IOException if the chip can not be saved or the state not written
+   */
+  public void save(DataOutput out) throws IOException {
+    throw new IOException(id + " can not be saved");
+  }
+
+  /**
+   * Restores the state written by {@link #save}, without notifying listeners.
+   *
+   * @param in Input
+   * @throws IOException if the chip can not be restored or the state not read
+   */
+  public void restore(DataInput in) throws IOException {
+    throw new IOException(id + " can not be restored");
+  }
+
+  /* Called by subclasses to save and restore the mode and state of the chip */
+  protected final void saveChipState(DataOutput out) throws IOException {
+    out.writeInt(mode);
+    out.writeInt(chipState);
+  }
+
+  protected final void restoreChipState(DataInput in) throws IOException {
+    mode = in.readInt();
+    chipState = in.readInt();
+  }
+
   /* Called by subclasses to inform about changes of configuration */
   protected void configurationChanged(int parameter, int oldValue, int newValue) {
       ConfigurationChangeListener[] listeners = ccListeners;
@@ -1,5 +1,8 @@
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.Utils;
 
@@ -220,6 +223,60 @@ public class DMA extends IOUnit {
     public void interruptServiced(int vector) {
     }
 
+    @Override
+    public void save(DataOutput out) throws IOException {
+        saveIOState(out);
+        out.writeInt(dmactl0);
+        out.writeInt(dmactl1);
+        for (Channel channel : channels) {
+            out.writeInt(channel.ctl);
+            out.writeInt(channel.sourceAddress);
+            out.writeInt(channel.destinationAddress);
+            out.writeInt(channel.size);
+            out.writeInt(channel.currentSourceAddress);
+            out.writeInt(channel.currentDestinationAddress);
+            out.writeInt(channel.storedSize);
+            out.writeInt(channel.srcIncr);
+            out.writeInt(channel.dstIncr);
+            out.writeBoolean(channel.dstByteMode);
+            out.writeBoolean(channel.srcByteMode);
+            out.writeInt(channel.transferMode);
+            out.writeBoolean(channel.enable);
+            out.writeBoolean(channel.dmaLevel);
+            out.writeBoolean(channel.dmaIE);
+            out.writeBoolean(channel.dmaIFG);
+        }
+    }
+
+    @Override
+    public void restore(DataInput in) throws IOException {
+        restoreIOState(in);
+        dmactl0 = in.readInt();
+        dmactl1 = in.readInt();
+        for (int i = 0; i < channels.length; i++) {
+            Channel channel = channels[i];
+            /* the triggers are selected by DMACTL0 */
+            int trigger = (dmactl0 >> (i * 4)) & 0xf;
+            channel.setTrigger(dmaTrigger[trigger], dmaTriggerIndex[trigger]);
+            channel.ctl = in.readInt();
+            channel.sourceAddress = in.readInt();
+            channel.destinationAddress = in.readInt();
+            channel.size = in.readInt();
+            channel.currentSourceAddress = in.readInt();
+            channel.currentDestinationAddress = in.readInt();
+            channel.storedSize = in.readInt();
+            channel.srcIncr = in.readInt();
+            channel.dstIncr = in.readInt();
+            channel.dstByteMode = in.readBoolean();
+            channel.srcByteMode = in.readBoolean();
+            channel.transferMode = in.readInt();
+            channel.enable = in.readBoolean();
+            channel.dmaLevel = in.readBoolean();
+            channel.dmaIE = in.readBoolean();
+            channel.dmaIFG = in.readBoolean();
+        }
+    }
+
     @Override
     public void write(int address, int value, boolean word, long cycles) {
         if (DEBUG) log("DMA write to: " + Utils.hex(address, 4) + ": " + value);
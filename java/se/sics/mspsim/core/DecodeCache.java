@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import static se.sics.mspsim.core.MSP430Constants.AM_INDEX;
+import static se.sics.mspsim.core.MSP430Constants.AM_IND_AUTOINC;
+import static se.sics.mspsim.core.MSP430Constants.AM_REG;
+import static se.sics.mspsim.core.MSP430Constants.CG1;
+import static se.sics.mspsim.core.MSP430Constants.CG2;
+import static se.sics.mspsim.core.MSP430Constants.CREG_VALUES;
+import static se.sics.mspsim.core.MSP430Constants.PC;
+
+import se.sics.mspsim.core.Memory.AccessMode;
+
+/**
+ * Instructions in program memory decoded once per address.
+ * <p>
+ * Jumps and double operand instructions without extension word are decoded
+ * with their operand words, addressing modes and cycle count, so the CPU
+ * does not have to fetch and decode them again. Other instructions are
+ * remembered as not decoded and left to the interpreter. The decoded
+ * instructions of an address must be invalidated when the program memory
+ * at any of its words is written.
+ */
+final class DecodeCache {
+
+    /** Marks an address that is executed by the interpreter. */
+    static final Instruction NOT_DECODED = new Instruction(0, 0, 0, 0, 0, 0, false, 0, 0, 0);
+
+    /** Source operand kinds. */
+    static final int SRC_CONSTANT = 0;
+    static final int SRC_REGISTER = 1;
+    static final int SRC_INDEX = 2;
+    static final int SRC_INDIRECT = 3;
+    static final int SRC_AUTOINC = 4;
+    static final int SRC_IMMEDIATE = 5;
+
+    /**
+     * A decoded instruction.
+     *
+     * @param instruction Instruction word
+     * @param size Size in bytes, including the operand words
+     * @param cycles CPU cycles used by the instruction
+     * @param srcKind Source operand kind, or -1 for jumps
+     * @param srcRegister Source register
+     * @param src Constant or immediate source value, or source index word
+     * @param byteMode True for byte instructions
+     * @param dstRegister Destination register
+     * @param dstWord Destination index or absolute address word
+     * @param jumpOffset Jump offset in bytes
+     */
+    record Instruction(int instruction, int size, int cycles, int srcKind, int srcRegister, int src,
+                       boolean byteMode, int dstRegister, int dstWord, int jumpOffset) {
+
+        boolean isJump() {
+            return srcKind < 0;
+        }
+
+        /** Returns true if the destination is a register rather than memory. */
+        boolean isDstRegMode() {
+            return ((instruction >> 7) & 1) == 0;
+        }
+
+        AccessMode mode() {
+            return byteMode ? AccessMode.BYTE : AccessMode.WORD;
+        }
+    }
+
+    private static final int PAGE_BITS = PageMemory.PAGE_BITS;
+
+    private final PageMemory memory;
+    private final Instruction[][] pages;
+
+    DecodeCache(PageMemory memory, int size) {
+        this.memory = memory;
+        this.pages = new Instruction[(size + (1 << PAGE_BITS) - 1) >> PAGE_BITS][];
+    }
+
+    /**
+     * Returns the decoded instruction at an even address, or null if the
+     * address has not been decoded since it was last invalidated.
+     */
+    Instruction get(int address) {
+        Instruction[] page = pages[address >> PAGE_BITS];
+        return page == null ? null : page[(address & ((1 << PAGE_BITS) - 1)) >> 1];
+    }
+
+    /** Decodes the instruction at an even address and remembers it. */
+    Instruction decode(int address) {
+        Instruction[] page = pages[address >> PAGE_BITS];
+        if (page == null) {
+            page = pages[address >> PAGE_BITS] = new Instruction[1 << (PAGE_BITS - 1)];
+        }
+        Instruction decoded = decodeInstruction(address);
+        page[(address & ((1 << PAGE_BITS) - 1)) >> 1] = decoded;
+        return decoded;
+    }
+
+    /**
+     * Forgets the decoded instructions that use any of the given bytes.
+     *
+     * @param address First written address
+     * @param bytes Number of written bytes
+     */
+    void invalidate(int address, int bytes) {
+        // An instruction with two operand words starts at most four bytes earlier.
+        int end = Math.min(address + bytes, pages.length << PAGE_BITS);
+        for (int a = Math.max(0, (address - 4) & ~1); a < end; a += 2) {
+            Instruction[] page = pages[a >> PAGE_BITS];
+            if (page != null) {
+                page[(a & ((1 << PAGE_BITS) - 1)) >> 1] = null;
+            }
+        }
+    }
+
+    private int readWord(int address) {
+        return (memory.get(address) & 0xff) | ((memory.get(address + 1) & 0xff) << 8);
+    }
+
+    private Instruction decodeInstruction(int address) {
+        int instruction = readWord(address);
+        int op = instruction >> 12;
+        if (op == 2 || op == 3) {
+            int jmpOffset = instruction & 0x3ff;
+            jmpOffset = (jmpOffset & 0x200) == 0 ?
+                2 * jmpOffset : -(2 * (0x200 - (jmpOffset & 0x1ff)));
+            return new Instruction(instruction, 2, 2, -1, 0, 0, false, 0, 0, jmpOffset);
+        }
+        if (op < 4) {
+            // MSP430X, extension words and single operand instructions
+            return NOT_DECODED;
+        }
+
+        int dstRegister = instruction & 0xf;
+        int srcRegister = (instruction >> 8) & 0xf;
+        int as = (instruction >> 4) & 3;
+        boolean dstRegMode = ((instruction >> 7) & 1) == 0;
+        boolean byteMode = (instruction & 0x40) != 0;
+        int size = 2;
+        int srcKind;
+        int src = 0;
+        int cycles;
+        if ((srcRegister == CG1 && as > AM_INDEX) || srcRegister == CG2) {
+            srcKind = SRC_CONSTANT;
+            src = CREG_VALUES[srcRegister - 2][as] & (byteMode ? 0xff : 0xffff);
+            cycles = dstRegMode ? 1 : 4;
+        } else if (as == AM_REG) {
+            srcKind = SRC_REGISTER;
+            cycles = (dstRegMode ? 1 : 4) + (dstRegister == PC ? 1 : 0);
+        } else if (as == AM_INDEX) {
+            srcKind = SRC_INDEX;
+            src = readWord(address + size);
+            size += 2;
+            cycles = dstRegMode ? 3 : 6;
+        } else if (as == AM_IND_AUTOINC) {
+            if (srcRegister == PC) {
+                srcKind = SRC_IMMEDIATE;
+                src = readWord(address + size);
+                if (byteMode) {
+                    src &= 0xff;
+                }
+                size += 2;
+            } else {
+                srcKind = SRC_AUTOINC;
+            }
+            cycles = (dstRegMode ? 2 : 5) + (dstRegister == PC ? 1 : 0);
+        } else {
+            srcKind = SRC_INDIRECT;
+            cycles = dstRegMode ? 2 : 5;
+        }
+        int dstWord = 0;
+        if (!dstRegMode) {
+            dstWord = readWord(address + size);
+            size += 2;
+        }
+        return new Instruction(instruction, size, cycles, srcKind, srcRegister, src,
+                               byteMode, dstRegister, dstWord, 0);
+    }
+}
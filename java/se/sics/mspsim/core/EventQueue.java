@@ -42,120 +42,143 @@
 package se.sics.mspsim.core;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 
+/**
+ * Binary heap of time events. Events with the same time are executed in
+ * reverse order of scheduling, as by the linked list this replaced.
+ */
 class EventQueue {
 
-  private TimeEvent first;
+  private TimeEvent[] heap = new TimeEvent[16];
+  private long order;
   public long nextTime;
   public int eventCount;
+  /** Number of add, remove and pop operations, for profiling. */
+  public long operations;
 
   public EventQueue() {
   }
 
   public void addEvent(TimeEvent event, long time) {
-    event.time = time;
-    addEvent(event);
+    addEvent(event, time, order++);
   }
 
-  private void addEvent(TimeEvent event) {
+  /* Adds an event with a given order, used when the events of a saved CPU are restored */
+  void addEvent(TimeEvent event, long time, long order) {
     if (event.scheduledIn != null) {
       event.remove();
     }
-    if (first == null) {
-      first = event;
-    } else {
-      TimeEvent pos = first;
-      TimeEvent lastPos = first;
-      while (pos != null && pos.time < event.time) {
-        lastPos = pos;
-        pos = pos.nextEvent;
-      }
-      event.nextEvent = pos;
-      // Here pos will be the first TE after event and lastPos the first before.
-      if (pos == first) {
-        // Before all other
-        first = event;
-      } else {
-        lastPos.nextEvent = event;
-      }
+    operations++;
+    event.time = time;
+    event.order = order;
+    if (eventCount == heap.length) {
+      heap = Arrays.copyOf(heap, eventCount * 2);
     }
-    nextTime = first.time;
+    siftUp(eventCount++, event);
+    nextTime = heap[0].time;
     event.scheduledIn = this;
-    eventCount++;
   }
 
-  // Not yet impl.
-  public boolean removeEvent(TimeEvent event) {
-    TimeEvent pos = first;
-    TimeEvent lastPos = first;
-    while (pos != null && pos != event) {
-      lastPos = pos;
-      pos = pos.nextEvent;
-    }
-    if (pos == null) return false;
-    // pos == event!
-    if (pos == first) {
-      // remove it from first pos.
-      first = pos.nextEvent;
-    } else {
-      // else link prev to next...
-      lastPos.nextEvent = pos.nextEvent;
-    }
-    // unlink
-    pos.nextEvent = null;
+  /* The order of the next added event */
+  long getOrder() {
+    return order;
+  }
 
-    if (first != null) {
-      nextTime = first.time;
-    } else {
-      nextTime = 0;
-    }
+  void setOrder(long order) {
+    this.order = order;
+  }
+
+  public boolean removeEvent(TimeEvent event) {
+    if (event.scheduledIn != this) return false;
+    operations++;
+    removeAt(event.heapIndex);
+    nextTime = eventCount > 0 ? heap[0].time : 0;
     event.scheduledIn = null;
-    eventCount--;
     return true;
   }
 
   public TimeEvent popFirst() {
-    TimeEvent tmp = first;
-    if (tmp != null) {
-      first = tmp.nextEvent;
-      // Unlink.
-      tmp.nextEvent = null;
-
+    TimeEvent tmp = null;
+    if (eventCount > 0) {
+      operations++;
+      tmp = heap[0];
+      removeAt(0);
       // No longer scheduled!
       tmp.scheduledIn = null;
-
-      eventCount--;
-    }
-
-    if (first != null) {
-      nextTime = first.time;
-    } else {
-      nextTime = 0;
     }
+    nextTime = eventCount > 0 ? heap[0].time : 0;
     return tmp;
   }
 
   public void removeAll() {
-    TimeEvent t = first;
-    while(t != null) {
-      TimeEvent clr = t;
-      t = t.nextEvent;
-      clr.nextEvent = null;
+    for (int i = 0; i < eventCount; i++) {
+      TimeEvent clr = heap[i];
+      heap[i] = null;
+      clr.heapIndex = -1;
       clr.time = 0;
       clr.scheduledIn = null;
     }
-    first = null;
     eventCount = 0;
   }
 
+  /* Earlier time first, and the latest scheduled first for the same time. */
+  private static boolean before(TimeEvent a, TimeEvent b) {
+    return a.time < b.time || a.time == b.time && a.order > b.order;
+  }
+
+  private void removeAt(int index) {
+    heap[index].heapIndex = -1;
+    TimeEvent last = heap[--eventCount];
+    heap[eventCount] = null;
+    if (index < eventCount) {
+      siftUp(index, last);
+      if (last.heapIndex == index) {
+        siftDown(index, last);
+      }
+    }
+  }
+
+  private void siftUp(int index, TimeEvent event) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      TimeEvent other = heap[parent];
+      if (!before(event, other)) break;
+      heap[index] = other;
+      other.heapIndex = index;
+      index = parent;
+    }
+    heap[index] = event;
+    event.heapIndex = index;
+  }
+
+  private void siftDown(int index, TimeEvent event) {
+    int half = eventCount >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      TimeEvent other = heap[child];
+      int right = child + 1;
+      if (right < eventCount && before(heap[right], other)) {
+        child = right;
+        other = heap[child];
+      }
+      if (!before(other, event)) break;
+      heap[index] = other;
+      other.heapIndex = index;
+      index = child;
+    }
+    heap[index] = event;
+    event.heapIndex = index;
+  }
+
   public void print(PrintStream out) {
-    TimeEvent t = first;
+    TimeEvent[] events = Arrays.copyOf(heap, eventCount);
+    Arrays.sort(events, (a, b) -> a == b ? 0 : before(a, b) ? -1 : 1);
     out.print("nxt: " + nextTime + " [");
-    while(t != null) {
-      out.print(t.getShort());
-      t = t.nextEvent;
-      if (t != null) out.print(", ");
+    for (int i = 0; i < events.length; i++) {
+      if (i > 0) out.print(", ");
+      out.print(events[i].getShort());
     }
     out.println("]");
   }
-} // LLEventQueue
+} // EventQueue
@@ -36,26 +36,26 @@ import se.sics.mspsim.core.EmulationLogger.WarningType;
 public class FRAMSegment implements Memory {
 
     private final MSP430Core core;
-    private final int[] memory;
+    private final PageMemory memory;
     private final FRAMController framController;
 
     public FRAMSegment(MSP430Core core, FRAMController framController) {
         this.core = core;
-        this.memory = core.memory;
+        this.memory = core.programMemory;
         this.framController = framController;
     }
 
     @Override
     public int read(int address, AccessMode mode, AccessType type) throws EmulationException {
-        int val = memory[address] & 0xff;
+        int val = memory.get(address) & 0xff;
         if (mode != AccessMode.BYTE) {
-            val |= (memory[address + 1] & 0xff) << 8;
+            val |= (memory.get(address + 1) & 0xff) << 8;
             if ((address & 1) != 0) {
                 core.printWarning(WarningType.MISALIGNED_READ, address);
             }
             if (mode == AccessMode.WORD20) {
-                val |= (memory[address + 2] & 0xff) << 16;
-                val |= (memory[address + 3] & 0xff) << 24;
+                val |= (memory.get(address + 2) & 0xff) << 16;
+                val |= (memory.get(address + 3) & 0xff) << 24;
                 val &= 0xfffff;
             } else {
                 val &= 0xffff;
@@ -79,17 +79,18 @@ public class FRAMSegment implements Memory {
             return;
         }
 
-        memory[dstAddress] = data & 0xff;
+        memory.set(dstAddress, data & 0xff);
         if (mode != AccessMode.BYTE) {
-            memory[dstAddress + 1] = (data >> 8) & 0xff;
+            memory.set(dstAddress + 1, (data >> 8) & 0xff);
             if ((dstAddress & 1) != 0) {
                 core.printWarning(WarningType.MISALIGNED_WRITE, dstAddress);
             }
             if (mode == AccessMode.WORD20) {
-                memory[dstAddress + 2] = (data >> 16) & 0xff;
-                memory[dstAddress + 3] = (data >> 24) & 0xff;
+                memory.set(dstAddress + 2, (data >> 16) & 0xff);
+                memory.set(dstAddress + 3, (data >> 24) & 0xff);
             }
         }
+        core.invalidateDecoded(dstAddress, mode.bytes);
 
         // Notify controller for energy tracking
         if (framController != null) {
@@ -99,12 +100,12 @@ public class FRAMSegment implements Memory {
 
     @Override
     public int get(int address, AccessMode mode) {
-        int val = memory[address] & 0xff;
+        int val = memory.get(address) & 0xff;
         if (mode != AccessMode.BYTE) {
-            val |= (memory[address + 1] & 0xff) << 8;
+            val |= (memory.get(address + 1) & 0xff) << 8;
             if (mode == AccessMode.WORD20) {
-                val |= (memory[address + 2] & 0xff) << 16;
-                val |= (memory[address + 3] & 0xff) << 24;
+                val |= (memory.get(address + 2) & 0xff) << 16;
+                val |= (memory.get(address + 3) & 0xff) << 24;
                 val &= 0xfffff;
             } else {
                 val &= 0xffff;
@@ -115,14 +116,15 @@ public class FRAMSegment implements Memory {
 
     @Override
     public void set(int address, int data, AccessMode mode) {
-        memory[address] = data & 0xff;
+        memory.set(address, data & 0xff);
         if (mode != AccessMode.BYTE) {
-            memory[address + 1] = (data >> 8) & 0xff;
+            memory.set(address + 1, (data >> 8) & 0xff);
             if (mode == AccessMode.WORD20) {
-                memory[address + 2] = (data >> 16) & 0xff;
-                memory[address + 3] = (data >> 24) & 0xff;
+                memory.set(address + 2, (data >> 16) & 0xff);
+                memory.set(address + 3, (data >> 24) & 0xff);
             }
         }
+        core.invalidateDecoded(address, mode.bytes);
     }
 
 }
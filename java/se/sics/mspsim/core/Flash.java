@@ -32,6 +32,9 @@
  */
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.core.Memory.AccessMode;
 import se.sics.mspsim.util.Utils;
@@ -125,6 +128,10 @@ public class Flash extends IOUnit {
    * Whether the infomem is locked or not
    */
   private boolean lockInfo = true;
+  /**
+   * Contents of the flash, the IO memory only holds the registers
+   */
+  private final PageMemory flashMemory;
 
   private final TimeEvent end_process = new TimeEvent(0) {
     @Override
@@ -176,6 +183,7 @@ public class Flash extends IOUnit {
   public Flash(MSP430Core cpu, int[] memory, FlashRange main_range,
       FlashRange info_range, int offset) {
     super("Flash", "Internal Flash", cpu, memory, offset);
+    this.flashMemory = cpu.programMemory;
     this.main_range = main_range;
     this.info_range = info_range;
     locked = true;
@@ -270,8 +278,9 @@ public class Flash extends IOUnit {
             Utils.hex(area_end, 4));
       }
       for (int i = area_start; i < area_end; i++) {
-        memory[i] = 0xff;
+        flashMemory.set(i, 0xff);
       }
+      cpu.invalidateDecoded(area_start, area_end - area_start);
       waitFlashProcess(SEGMENT_ERASE_TIME);
       break;
 
@@ -280,18 +289,20 @@ public class Flash extends IOUnit {
         return;
       }
       for (int i = main_range.start; i < main_range.end; i++) {
-        memory[i] = 0xff;
+        flashMemory.set(i, 0xff);
       }
+      cpu.invalidateDecoded(main_range.start, main_range.end - main_range.start);
       waitFlashProcess(MASS_ERASE_TIME);
       break;
 
     case ERASE_ALL:
       for (int i = main_range.start; i < main_range.end; i++) {
-        memory[i] = 0xff;
+        flashMemory.set(i, 0xff);
       }
       for (int i = info_range.start; i < main_range.end; i++) {
-        memory[i] = 0xff;
+        flashMemory.set(i, 0xff);
       }
+      cpu.invalidateDecoded(info_range.start, main_range.end - info_range.start);
       waitFlashProcess(MASS_ERASE_TIME);
       break;
     case WRITE_SINGLE:
@@ -315,15 +326,16 @@ public class Flash extends IOUnit {
         wait_time = WRITE_TIME;
       }
       /* Flash memory allows clearing bits only */
-      memory[address] &= data & 0xff;
+      flashMemory.set(address, flashMemory.get(address) & data & 0xff);
       if (dataMode != AccessMode.BYTE) {
-          memory[address + 1] &= (data >> 8) & 0xff;
+          flashMemory.set(address + 1, flashMemory.get(address + 1) & (data >> 8) & 0xff);
           if (dataMode == AccessMode.WORD20) {
               /* TODO should the write really write the full word? CHECK THIS */
-              memory[address + 2] &= (data >> 16) & 0xff;
-              memory[address + 3] &= (data >> 24) & 0xff;
+              flashMemory.set(address + 2, flashMemory.get(address + 2) & (data >> 16) & 0xff);
+              flashMemory.set(address + 3, flashMemory.get(address + 3) & (data >> 24) & 0xff);
           }
       }
+      cpu.invalidateDecoded(address, dataMode.bytes);
       if (DEBUG) {
         log("Writing $" + Utils.hex20(data) + " to $" + Utils.hex(address, 4) + " (" + dataMode.bytes + " bytes)");
       }
@@ -488,6 +500,39 @@ public class Flash extends IOUnit {
     waitFlashProcess(BLOCKWRITE_END_TIME);
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(mode);
+    out.writeInt(clockcfg);
+    out.writeInt(statusreg);
+    out.writeBoolean(locked);
+    out.writeBoolean(wait);
+    out.writeBoolean(blocked_cpu);
+    out.writeInt(currentWriteMode == null ? -1 : currentWriteMode.ordinal());
+    out.writeInt(blockwriteCount);
+    out.writeInt(infomemcfg);
+    out.writeBoolean(lockInfo);
+    cpu.saveEvent(out, end_process);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    mode = in.readInt();
+    clockcfg = in.readInt();
+    statusreg = in.readInt();
+    locked = in.readBoolean();
+    wait = in.readBoolean();
+    blocked_cpu = in.readBoolean();
+    int writeMode = in.readInt();
+    currentWriteMode = writeMode < 0 ? null : WriteMode.values()[writeMode];
+    blockwriteCount = in.readInt();
+    infomemcfg = in.readInt();
+    lockInfo = in.readBoolean();
+    cpu.restoreEvent(in, end_process);
+  }
+
   @Override
   public void write(int address, int value, boolean word, long cycles) {
     address = address - offset;
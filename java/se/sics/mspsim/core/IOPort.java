@@ -36,6 +36,9 @@
  */
 
 package  se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.Utils;
@@ -343,6 +346,53 @@ public class IOPort extends IOUnit {
     }
 
 
+    /* Pins change on events, writes and inputs, which count as side effects.
+     * Only reads of the interrupt vector clear flags */
+    @Override
+    public long getReadStableUntil(int address, long cycles) {
+        PortReg reg = portMap[address - offset];
+        return reg == PortReg.IV_L || reg == PortReg.IV_H ? -1 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void save(DataOutput output) throws IOException {
+        saveIOState(output);
+        for (PinState state : pinState) {
+            output.writeInt(state == null ? -1 : state.ordinal());
+        }
+        output.writeInt(in);
+        output.writeInt(out);
+        output.writeInt(dir);
+        output.writeInt(sel);
+        output.writeInt(sel2);
+        output.writeInt(ie);
+        output.writeInt(ifg);
+        output.writeInt(ies);
+        output.writeInt(ren);
+        output.writeInt(ds);
+        output.writeInt(iv);
+    }
+
+    @Override
+    public void restore(DataInput input) throws IOException {
+        restoreIOState(input);
+        for (int i = 0; i < pinState.length; i++) {
+            int state = input.readInt();
+            pinState[i] = state < 0 ? null : PinState.values()[state];
+        }
+        in = input.readInt();
+        out = input.readInt();
+        dir = input.readInt();
+        sel = input.readInt();
+        sel2 = input.readInt();
+        ie = input.readInt();
+        ifg = input.readInt();
+        ies = input.readInt();
+        ren = input.readInt();
+        ds = input.readInt();
+        iv = input.readInt();
+    }
+
     @Override
     public void write(int address, int data, boolean word, long cycles) {
         int iAddress = address - offset;
@@ -371,6 +421,8 @@ public class IOPort extends IOUnit {
     public void setPinState(int pin, PinState state) {
         if (pinState[pin] != state) {
             pinState[pin] = state;
+            /* a loop that polls the pin must not be skipped with the old value */
+            cpu.sideEffects++;
             int bit = 1 << pin;
             if (state == PinState.HI) {
                 in |= bit;
@@ -1,6 +1,7 @@
 package se.sics.mspsim.core;
 
 import java.util.Arrays;
+import java.util.Set;
 import se.sics.mspsim.util.Utils;
 
 public class IOSegment implements Memory {
@@ -28,13 +29,20 @@ public class IOSegment implements Memory {
         }
     }
 
+    /* adds the IO units in address order */
+    void addIOUnits(Set<IOUnit> units) {
+        units.addAll(Arrays.asList(mem));
+    }
+
     @Override
     public int read(int address, AccessMode mode, AccessType type) throws EmulationException {
         boolean word = mode != AccessMode.BYTE;
         // Only word reads at 0x1fe which is the highest address...
         int val = mem[address].read(address, word, core.cycles);
+        core.ioRead(mem[address].getReadStableUntil(address, core.cycles));
         if (mode == AccessMode.WORD20) {
             val |= mem[address + 2].read(address, word, core.cycles) << 16;
+            core.ioRead(mem[address + 2].getReadStableUntil(address, core.cycles));
         }
         return val;
     }
@@ -36,6 +36,9 @@
  */
 
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 
 public abstract class IOUnit implements InterruptHandler, Loggable {
@@ -106,12 +109,57 @@ public abstract class IOUnit implements InterruptHandler, Loggable {
   public void reset(int type) {
   }
 
+  /**
+   * Saves the state of the IO unit, to be restored with {@link #restore} into
+   * the same unit of a CPU with the same configuration. The registers that the
+   * unit keeps in the IO memory are saved with the CPU.
+   *
+   * @param out Output
+   * @throws IOException if the unit can not be saved or the state not written
+   */
+  public void save(DataOutput out) throws IOException {
+    throw new IOException(id + " can not be saved");
+  }
+
+  /**
+   * Restores the state written by {@link #save}, without notifying listeners.
+   *
+   * @param in Input
+   * @throws IOException if the unit can not be restored or the state not read
+   */
+  public void restore(DataInput in) throws IOException {
+    throw new IOException(id + " can not be restored");
+  }
+
+  /* Called by subclasses to save and restore the state reported to listeners */
+  protected final void saveIOState(DataOutput out) throws IOException {
+    out.writeInt(ioState);
+  }
+
+  protected final void restoreIOState(DataInput in) throws IOException {
+    ioState = in.readInt();
+  }
+
   // write a value to the IO unit
   public abstract void write(int address, int value, boolean word, long cycles);
 
   // read a value from the IO unit
   public abstract int read(int address, boolean word, long cycles);
 
+  /**
+   * Returns the cycle until which reads of an address return the same value,
+   * or -1 if reads have side effects. Values that only change on writes or
+   * events are stable until Long.MAX_VALUE. Lets the CPU skip loops that poll
+   * the address, see MSP430Core.setSkipIdleLoops.
+   *
+   * @param address Address that was read
+   * @param cycles Cycle count of the read
+   * @return Last cycle that reads return the same value, or -1
+   */
+  public long getReadStableUntil(int address, long cycles) {
+      return -1;
+  }
+
   @Override
   public String getID() {
       return id;
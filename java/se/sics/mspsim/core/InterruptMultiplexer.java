@@ -1,5 +1,9 @@
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class InterruptMultiplexer implements InterruptHandler {
 
     private final MSP430Core cpu;
@@ -10,6 +14,7 @@ public class InterruptMultiplexer implements InterruptHandler {
     public InterruptMultiplexer(MSP430Core cpu, int vector) {
         this.cpu = cpu;
         this.vector = vector;
+        cpu.addInterruptMultiplexer(this);
     }
 
     public void updateInterrupt(boolean value, int bit) {
@@ -18,6 +23,13 @@ public class InterruptMultiplexer implements InterruptHandler {
         cpu.flagInterrupt(vector, this, interruptBits > 0);
     }
 
+    void save(DataOutput out) throws IOException {
+        out.writeInt(interruptBits);
+    }
+
+    void restore(DataInput in) throws IOException {
+        interruptBits = in.readInt();
+    }
 
     @Override
     public void interruptServiced(int vector) {
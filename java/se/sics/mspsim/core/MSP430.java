@@ -36,6 +36,9 @@
  */
 
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
 import se.sics.mspsim.profiler.SimpleProfiler;
 import se.sics.mspsim.util.ArrayUtils;
@@ -44,9 +47,19 @@ import se.sics.mspsim.util.MapTable;
 
 public class MSP430 extends MSP430Core {
 
+  private ExecutionMonitor execMonitor;
+
   private int[] execCounter;
+  private final ExecutionMonitor execCountMonitor = pc -> execCounter[pc]++;
+
   private int[] trace;
   private int tracePos;
+  private final ExecutionMonitor traceMonitor = pc -> {
+    trace[tracePos++] = pc;
+    if (tracePos >= trace.length) {
+      tracePos = 0;
+    }
+  };
 
   private boolean debug;
   private boolean running;
@@ -63,6 +76,7 @@ public class MSP430 extends MSP430Core {
   private double lastCPUPercent;
 
   private final DisAsm disAsm;
+  private final ExecutionMonitor debugMonitor = this::disassemble;
 
   private SimEventListener[] simEventListeners;
 
@@ -71,7 +85,11 @@ public class MSP430 extends MSP430Core {
    *
    */
   public MSP430(MSP430Config config, int[] mem, ELF elf) {
-    super(config, mem);
+    this(config, new PageMemory(mem), elf);
+  }
+
+  public MSP430(MSP430Config config, PageMemory program, ELF elf) {
+    super(config, program);
     disAsm = new DisAsm();
     if (elf != null) {
       var map = elf.getMap();
@@ -113,25 +131,9 @@ public class MSP430 extends MSP430Core {
       }
 
       int pc = emulateOP(-1);
-      if (pc >= 0) {
-        if (execCounter != null) {
-          execCounter[pc]++;
-        }
-        if (trace != null) {
-            trace[tracePos++] = pc;
-            if (tracePos >= trace.length)
-                tracePos = 0;
-        }
-        // -------------------------------------------------------------------
-        // Debug information
-        // -------------------------------------------------------------------
-        if (debug) {
-            if (servicedInterrupt >= 0) {
-                disAsm.disassemble(pc, memory, reg, servicedInterrupt);
-            } else {
-                disAsm.disassemble(pc, memory, reg);
-            }
-        }
+      ExecutionMonitor monitor = execMonitor;
+      if (pc >= 0 && monitor != null) {
+        monitor.instructionExecuted(pc);
       }
 
       /* Just a test to see if it gets down to a reasonable speed */
@@ -164,25 +166,9 @@ public class MSP430 extends MSP430Core {
       int pc = emulateOP(-1);
       if (pc >= 0) {
         count--;
-        if (execCounter != null) {
-          execCounter[pc]++;
-        }
-        if (trace != null) {
-          trace[tracePos++] = pc;
-          if (tracePos >= trace.length) {
-            tracePos = 0;
-          }
-        }
-
-        // -------------------------------------------------------------------
-        // Debug information
-        // -------------------------------------------------------------------
-        if (debug) {
-            if (servicedInterrupt >= 0) {
-                disAsm.disassemble(pc, memory, reg, servicedInterrupt);
-            } else {
-                disAsm.disassemble(pc, memory, reg);
-            }
+        ExecutionMonitor monitor = execMonitor;
+        if (monitor != null) {
+          monitor.instructionExecuted(pc);
         }
       }
     }
@@ -206,6 +192,66 @@ public class MSP430 extends MSP430Core {
       microClockReady = false;
   }
 
+  /* set when the caller of stepMicros synchronizes with its surroundings */
+  private boolean isSyncing;
+  private long syncedMicros = -1;
+  private long stepStartCycles;
+  private long stepExecuteMicros;
+
+  /**
+   * Ends the current stepMicros call after the current instruction, so that the
+   * caller can interact with its surroundings at the time the CPU has reached.
+   * Repeated calls during the same stepMicros call return the same time.
+   *
+   * @return microseconds executed after the jump of the current stepMicros call
+   */
+  public long syncMicros() {
+    if (!isSyncing) {
+      isSyncing = true;
+      syncedMicros = Math.min(stepExecuteMicros, Math.max(0, ((cycles - stepStartCycles) * 1000000) / dcoFrq));
+    }
+    return syncedMicros;
+  }
+
+  /**
+   * @return microseconds executed by the last stepMicros call if it ended
+   * with syncMicros, otherwise -1
+   */
+  public long getSyncedMicros() {
+    return syncedMicros;
+  }
+
+  /**
+   * Saves the state of the CPU and the state of stepMicros. Should only be
+   * called between steps.
+   */
+  @Override
+  public void save(DataOutput out) throws IOException {
+    if (isRunning()) {
+      throw new IOException("CPU is running");
+    }
+    super.save(out);
+    out.writeLong(lastReturnedMicros);
+    out.writeLong(lastMicrosCycles);
+    out.writeBoolean(microClockReady);
+    out.writeLong(syncedMicros);
+    out.writeLong(stepStartCycles);
+    out.writeLong(stepExecuteMicros);
+    out.writeLong(maxCycles);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    super.restore(in);
+    lastReturnedMicros = in.readLong();
+    lastMicrosCycles = in.readLong();
+    microClockReady = in.readBoolean();
+    syncedMicros = in.readLong();
+    stepStartCycles = in.readLong();
+    stepExecuteMicros = in.readLong();
+    maxCycles = in.readLong();
+  }
+
   /*
    * Perform a single step (even if in LPM) but no longer than to maxCycles + 1 instr
    * Note: jumpMicros just jump the clock until that time
@@ -232,7 +278,7 @@ public class MSP430 extends MSP430Core {
     if (microClockReady) {
     /* check that we did not miss any events (by comparing with last return value) */
     maxCycles = lastMicrosCycles + (lastMicrosDelta * dcoFrq) / 1000000;
-    if (cpuOff) {
+    if (cpuOff || isIdleLoop() || isIdleLoopSleep()) {
       if(maxCycles > nextEventCycles) {
         /* back this time again... */
         lastMicrosDelta -= jumpMicros;
@@ -250,50 +296,41 @@ public class MSP430 extends MSP430Core {
     }
     microClockReady = true;
 
+    isSyncing = false;
+    syncedMicros = -1;
+    stepStartCycles = lastMicrosCycles + (lastMicrosDelta * dcoFrq) / 1000000;
+    stepExecuteMicros = executeMicros;
+    if (isIdleLoopSleep() && !isIdleLoop()) {
+      /* an input changed during the sleep, skip the iterations that saw the old value */
+      skipIdleLoop(stepStartCycles);
+    }
+
     /* run until this cycle time */
     maxCycles = lastMicrosCycles + ((lastMicrosDelta + executeMicros) * dcoFrq) / 1000000;
 
 
-    while (cycles < maxCycles || (cpuOff && (nextEventCycles < cycles))) {
+    /* Monitors attached during the step are called from the next step */
+    ExecutionMonitor monitor = execMonitor;
+    if (monitor == null) {
+      while (cycles < maxCycles || (cpuOff && (nextEventCycles < cycles))) {
+        emulateOP(maxCycles);
+        if (isSyncing || isStopping) {
+          return endStep(jumpMicros);
+        }
+      }
+    } else {
+      while (cycles < maxCycles || (cpuOff && (nextEventCycles < cycles))) {
         int pc = emulateOP(maxCycles);
         if (pc >= 0) {
-            if (execCounter != null) {
-                execCounter[pc]++;
-            }
-            if (trace != null) {
-              if (tracePos >= trace.length) {
-                tracePos = 0;
-              }
-              trace[tracePos++] = pc;
-            }
-            // -------------------------------------------------------------------
-            // Debug information
-            // -------------------------------------------------------------------
-            if (debug) {
-              if (servicedInterrupt >= 0) {
-                disAsm.disassemble(pc, memory, reg, servicedInterrupt);
-              } else {
-                disAsm.disassemble(pc, memory, reg);
-              }
-            }
+          monitor.instructionExecuted(pc);
         }
-
-        if (isStopping) {
-            isStopping = false;
-            if (cycles < maxCycles || (cpuOff && (nextEventCycles < cycles))) {
-                // Did not complete the execution cycle
-                lastMicrosDelta -= jumpMicros;
-            }
-            if (isBreaking) {
-                isBreaking = false;
-                throw new BreakpointException();
-            }
-            lastReturnedMicros = 0;
-            return 0;
+        if (isSyncing || isStopping) {
+          return endStep(jumpMicros);
         }
+      }
     }
 
-    if (cpuOff && !(interruptsEnabled && servicedInterrupt == -1 && interruptMax >= 0)) {
+    if ((cpuOff || isIdleLoop()) && !(interruptsEnabled && servicedInterrupt == -1 && interruptMax >= 0)) {
       lastReturnedMicros = (1000000 * (nextEventCycles - cycles)) / dcoFrq;
     } else {
       lastReturnedMicros = 0;
@@ -306,10 +343,60 @@ public class MSP430 extends MSP430Core {
     return lastReturnedMicros;
   }
 
+  /**
+   * @return true if the last stepMicros call returned a sleep because the CPU
+   * executes an idle loop, not because it is in a low power mode
+   */
+  public boolean isIdleLoopSleep() {
+    return lastReturnedMicros > 0 && !cpuOff;
+  }
+
+  /* ends a stepMicros call that was interrupted by syncMicros or stop */
+  private long endStep(long jumpMicros) {
+    if (isSyncing) {
+      isSyncing = false;
+      if (!microClockReady) {
+        /* DCO changed: the next call starts from the synchronized time */
+        maxCycles = cycles - (syncedMicros * dcoFrq) / 1000000;
+      }
+      lastReturnedMicros = 0;
+      return 0;
+    }
+
+    isStopping = false;
+    if (cycles < maxCycles || (cpuOff && (nextEventCycles < cycles))) {
+      // Did not complete the execution cycle
+      lastMicrosDelta -= jumpMicros;
+    }
+    if (isBreaking) {
+      isBreaking = false;
+      throw new BreakpointException();
+    }
+    lastReturnedMicros = 0;
+    return 0;
+  }
+
   public void stop() {
       isStopping = true;
   }
 
+  @Override
+  protected boolean canSkipIdleLoop() {
+    return execMonitor == null;
+  }
+
+  /**
+   * Adds a monitor that is called after each executed instruction. Execution
+   * monitors slow down every instruction and should only be attached while needed.
+   */
+  public synchronized void addExecutionMonitor(ExecutionMonitor mon) {
+    execMonitor = ExecutionMonitor.Proxy.INSTANCE.add(execMonitor, mon);
+  }
+
+  public synchronized void removeExecutionMonitor(ExecutionMonitor mon) {
+    execMonitor = ExecutionMonitor.Proxy.INSTANCE.remove(execMonitor, mon);
+  }
+
   public void triggBreakpoint() {
       isBreaking = true;
       stop();
@@ -325,23 +412,34 @@ public class MSP430 extends MSP430Core {
     return 0;
   }
 
+  /**
+   * Counts the executed instructions per address while enabled.
+   */
   public void setMonitorExec(boolean mon) {
     if (mon) {
       if (execCounter == null) {
         execCounter = new int[MAX_MEM];
+        addExecutionMonitor(execCountMonitor);
       }
-    } else {
+    } else if (execCounter != null) {
+      removeExecutionMonitor(execCountMonitor);
       execCounter = null;
     }
   }
 
   public void setTrace(int size) {
+      if (trace != null) {
+          removeExecutionMonitor(traceMonitor);
+      }
       if (size == 0) {
           trace = null;
       } else {
           trace = new int[size];
       }
       tracePos = 0;
+      if (trace != null) {
+          addExecutionMonitor(traceMonitor);
+      }
   }
 
   public int getBackTrace(int pos) {
@@ -381,7 +479,7 @@ public class MSP430 extends MSP430Core {
     lastCycles = cycles;
     lastCpuCycles = cpuCycles;
     if (DEBUGGING_LEVEL > 0) {
-      disAsm.disassemble(pc, memory, reg);
+      disAsm.disassemble(pc, this::getMemoryByte, reg);
     }
   }
 
@@ -397,7 +495,22 @@ public class MSP430 extends MSP430Core {
   }
 
   public void setDebug(boolean db) {
-    debug = db;
+    if (debug != db) {
+      debug = db;
+      if (db) {
+        addExecutionMonitor(debugMonitor);
+      } else {
+        removeExecutionMonitor(debugMonitor);
+      }
+    }
+  }
+
+  private void disassemble(int pc) {
+    if (servicedInterrupt >= 0) {
+      disAsm.disassemble(pc, this::getMemoryByte, reg, servicedInterrupt);
+    } else {
+      disAsm.disassemble(pc, this::getMemoryByte, reg);
+    }
   }
 
   public void setMap(MapTable map) {
@@ -37,10 +37,15 @@
 
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.core.Memory.AccessMode;
 import se.sics.mspsim.core.Memory.AccessType;
@@ -71,22 +76,51 @@ public class MSP430Core extends Chip implements MSP430Constants {
   private final RegisterMonitor[] regWriteMonitors = new RegisterMonitor[16];
   private final RegisterMonitor[] regReadMonitors = new RegisterMonitor[16];
 
+  /** IO and RAM, up to the last address of either. */
   public final int[] memory;
+  /** Flash, information memory or FRAM, and addresses above the IO and RAM. */
+  public final PageMemory programMemory;
   private final Flash flash;          // null if hasFRAM
   private final FRAMController framController;  // null if !hasFRAM
   boolean isFlashBusy;
   boolean isStopping;
 
   private final Memory[] memorySegments;
+  private final IOSegment ioSegment;
+  /** Segment of the flash or FRAM, before any watchpoints are added. */
+  private final Memory nvmSegment;
   Memory currentSegment;
+  /** Decoded instructions in program memory, null to always interpret. */
+  private DecodeCache decodeCache;
+
+  /**
+   * Counts the effects of execution other than register changes and memory
+   * reads, such as memory writes, IO reads, events and monitor notifications.
+   */
+  int sideEffects;
+  private boolean skipIdleLoops;
+  private boolean idleLoop;
+  /* The CPU state after the last taken backward jump */
+  private int idleLoopPC = -1;
+  private long idleLoopCycles;
+  private long idleLoopPeriod;
+  private int idleLoopSideEffects;
+  private int idleLoopInterrupt;
+  private final int[] idleLoopRegs = new int[16];
+  private long idleLoopSkippedCycles;
+  /* The least number of cycles that IO reads since the last taken backward jump stay the same */
+  private long readStableCycles = Long.MAX_VALUE;
 
   public long cycles;
   public long cpuCycles;
   MapTable map;
+  /** Called functions that are not in the map. */
+  private final HashMap<Integer, MapEntry> unknownFunctions = new HashMap<>();
   public final boolean MSP430XArch;
   public final MSP430Config config;
 
   private final ArrayList<IOUnit> ioUnits;
+  private final ArrayList<InterruptMultiplexer> interruptMultiplexers = new ArrayList<>();
   private final SFR sfr;
   private final Watchdog watchdog;
   private final ClockSystem bcs;
@@ -129,10 +163,27 @@ public class MSP430Core extends Chip implements MSP430Constants {
 
   private final ArrayList<Chip> chips = new ArrayList<>();
 
+  /* Scheduled events saved by saveEvent, and read by restoreEvent until the CPU is restored */
+  private int savedEvents;
+  private ArrayList<RestoredEvent> restoredEvents;
+
+  private record RestoredEvent(TimeEvent event, EventQueue queue) {}
+
   final ComponentRegistry registry;
   Profiler profiler;
 
   public MSP430Core(MSP430Config config, int[] mem) {
+    this(config, new PageMemory(mem));
+  }
+
+  /**
+   * Creates a CPU that uses the given program memory. Use a {@link PageMemory#copy()}
+   * to let several CPUs share the pages that are not written.
+   *
+   * @param config Chip configuration
+   * @param program Memory image, including the initial flash or FRAM
+   */
+  public MSP430Core(MSP430Config config, PageMemory program) {
     super("MSP430", "MSP430 Core", null);
     var registry = new ComponentRegistry(
             new ComponentEntry("cpu", this),
@@ -142,7 +193,17 @@ public class MSP430Core extends Chip implements MSP430Constants {
     MAX_MEM = config.maxMem;
     MSP430XArch = config.MSP430XArch;
 
-    memory = mem;
+    int lowSize = 0;
+    for (int address = 0; address < MAX_MEM; address += 0x100) {
+      if (config.isRAM(address) || config.isIO(address)) {
+        lowSize = address + 0x100;
+      }
+    }
+    memory = new int[lowSize];
+    for (int address = 0; address < lowSize; address++) {
+      memory[address] = program.get(address);
+    }
+    programMemory = program;
     memorySegments = new Memory[MAX_MEM >> 8];
 
     if (config.hasFRAM) {
@@ -171,6 +232,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
             if (address >= MAX_MEM) {
                 throw new EmulationException("Writing outside memory: 0x" + Utils.hex(address, 4));
             }
+            sideEffects++;
             memorySegments[address >> 8].write(address, data, mode);
         }
         @Override
@@ -185,6 +247,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
             if (address >= MAX_MEM) {
                 throw new EmulationException("Writing outside memory: 0x" + Utils.hex(address, 4));
             }
+            sideEffects++;
             memorySegments[address >> 8].set(address, data, mode);
         }
     };
@@ -202,6 +265,12 @@ public class MSP430Core extends Chip implements MSP430Constants {
             cpu.logw(WarningType.VOID_IO_READ, "*** IOUnit read from non-existent IO at $" + Utils.hex(address, 4));
             return 0;
         }
+        @Override
+        public void save(DataOutput out) {
+        }
+        @Override
+        public void restore(DataInput in) {
+        }
     };
 
     /* setup memory segments */
@@ -214,8 +283,9 @@ public class MSP430Core extends Chip implements MSP430Constants {
     } else {
         nvmSegment = new FlashSegment(this, flash);
     }
-    IOSegment ioSegment = new IOSegment(this, MAX_MEM_IO, voidIO);
+    ioSegment = new IOSegment(this, MAX_MEM_IO, voidIO);
     Memory noMemorySegment = new NoMemSegment(this);
+    this.nvmSegment = nvmSegment;
     for (int i = 0; i < maxSeg; i++) {
         if (config.isRAM(i << 8)) {
 //            System.out.println("Setting RAM segment at: " + Utils.hex16(i << 8));
@@ -330,6 +400,57 @@ public class MSP430Core extends Chip implements MSP430Constants {
     return registry;
   }
 
+  /**
+   * Enables or disables the decoding of instructions in program memory once
+   * per address. Decoded instructions are executed with the same result and
+   * cycle count as the interpreter, and are only used while no watchpoints
+   * or global memory monitors observe the fetch of the instruction.
+   *
+   * @param enabled True to decode instructions once
+   */
+  public void setDecodeCache(boolean enabled) {
+    if (!enabled) {
+      decodeCache = null;
+    } else if (decodeCache == null) {
+      decodeCache = new DecodeCache(programMemory, MAX_MEM);
+    }
+  }
+
+  public boolean isDecodeCacheEnabled() {
+    return decodeCache != null;
+  }
+
+  /**
+   * Enables or disables skipping idle loops. A loop is idle if one iteration
+   * ends in the same register state as it started, without writing memory,
+   * reading IO or any other side effect. The iterations of an idle loop that
+   * end before the next event are skipped by adding their cycles, in the same
+   * way as when the CPU is off.
+   *
+   * @param enabled True to skip idle loops
+   */
+  public void setSkipIdleLoops(boolean enabled) {
+    skipIdleLoops = enabled;
+    idleLoopPC = -1;
+    idleLoop = false;
+  }
+
+  public boolean isSkipIdleLoops() {
+    return skipIdleLoops;
+  }
+
+  /** Returns the number of CPU cycles of idle loop iterations that were skipped. */
+  public long getIdleLoopSkippedCycles() {
+    return idleLoopSkippedCycles;
+  }
+
+  /** Called when program memory is written, to decode the written instructions again. */
+  void invalidateDecoded(int address, int bytes) {
+    if (decodeCache != null) {
+      decodeCache.invalidate(address, bytes);
+    }
+  }
+
   public SFR getSFR() {
     return sfr;
   }
@@ -342,6 +463,10 @@ public class MSP430Core extends Chip implements MSP430Constants {
     chips.add(chip);
   }
 
+  void addInterruptMultiplexer(InterruptMultiplexer multiplexer) {
+    interruptMultiplexers.add(multiplexer);
+  }
+
   public Chip getChip(String name) {
     for(Chip chip : chips) {
       if (name.equalsIgnoreCase(chip.getID()) || name.equalsIgnoreCase(chip.getName())) {
@@ -402,7 +527,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
       if (memorySegments[seg] instanceof WatchedMemory watchedMemory) {
           wm = watchedMemory;
       } else {
-          wm = new WatchedMemory(address & 0xfff00, memorySegments[seg]);
+          wm = new WatchedMemory(this, address & 0xfff00, memorySegments[seg]);
           memorySegments[seg] = wm;
       }
       wm.addWatchPoint(address, mon);
@@ -460,6 +585,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
 
     RegisterMonitor rwm = regWriteMonitors[r];
     if (rwm != null) {
+        sideEffects++;
         // TODO Add register access mode
         rwm.notifyWriteBefore(r, value, AccessMode.WORD);
         reg[r] = value;
@@ -513,6 +639,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
     int value;
     RegisterMonitor rrm = regReadMonitors[r];
     if (rrm != null) {
+        sideEffects++;
         // TODO Register access mode
         rrm.notifyReadBefore(r, AccessMode.WORD);
         value = reg[r];
@@ -532,6 +659,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
     int value;
     RegisterMonitor rrm = regReadMonitors[r];
     if (rrm != null) {
+        sideEffects++;
         // TODO Register access mode
         rrm.notifyReadBefore(r, AccessMode.WORD);
         value = reg[r];
@@ -600,12 +728,18 @@ public class MSP430Core extends Chip implements MSP430Constants {
     return lastCyclesTime + (long) ((vTime - lastVTime) / currentDCOFactor);
   }
 
+  // Converts a duration in milliseconds to virtual time
+  public long convertMillisToTime(double msec) {
+    return (long) (msec / 1000 * bcs.getMaxDCOFrequency());
+  }
+
   // get elapsed time in seconds
   public double getTimeMillis() {
       return 1000.0 * getTime() / bcs.getMaxDCOFrequency();
   }
 
   private void executeEvents() {
+    sideEffects++;
     if (cycles >= nextVTimeEventCycles) {
       if (vTimeEventQueue.eventCount == 0) {
         nextVTimeEventCycles = cycles + 10000;
@@ -687,20 +821,274 @@ public class MSP430Core extends Chip implements MSP430Constants {
    */
   public long scheduleTimeEventMillis(TimeEvent event, double msec) {
       /*    System.out.println("MAX_DCO " + bcs.getMaxDCOFrequency());*/
-    long time = (long) (getTime() + msec / 1000 * bcs.getMaxDCOFrequency());
+    long time = getTime() + convertMillisToTime(msec);
 //    System.out.println("Scheduling at: " + time + " (" + msec + ") getTime: " + getTime());
     scheduleTimeEvent(event, time);
     return time;
   }
 
+  /**
+   * Returns the number of operations on the event queues of this CPU.
+   */
+  public long getEventQueueOperations() {
+    return cycleEventQueue.operations + vTimeEventQueue.operations;
+  }
+
   public void printEventQueues(PrintStream out) {
       out.println("Current cycles: " + cycles + "  virtual time:" + getTime());
+      out.println("Event queue operations: " + getEventQueueOperations());
       out.println("Cycle event queue: (next time: " + nextCycleEventCycles + ")");
       cycleEventQueue.print(out);
       out.println("Virtual time event queue: (next time: " + nextVTimeEventCycles + ")");
       vTimeEventQueue.print(out);
   }
 
+  /**
+   * Saves whether and when an event is scheduled, for the save of IO units and
+   * chips. The CPU is only saved if all its scheduled events are.
+   *
+   * @param out Output
+   * @param event Event of the unit or chip
+   * @throws IOException if the event can not be written
+   */
+  public void saveEvent(DataOutput out, TimeEvent event) throws IOException {
+    EventQueue queue = event.scheduledIn;
+    out.writeByte(queue == null ? 0 : queue == vTimeEventQueue ? 1 : 2);
+    out.writeLong(event.time);
+    out.writeLong(event.order);
+    if (queue != null) {
+      savedEvents++;
+    }
+  }
+
+  /**
+   * Restores an event written by {@link #saveEvent}. The event is scheduled when
+   * the whole CPU is restored, in the same order relative to other events as
+   * when it was saved.
+   *
+   * @param in Input
+   * @param event Event of the unit or chip
+   * @throws IOException if the event can not be read
+   */
+  public void restoreEvent(DataInput in, TimeEvent event) throws IOException {
+    if (restoredEvents == null) {
+      throw new IllegalStateException("CPU is not being restored");
+    }
+    int queue = in.readByte();
+    event.time = in.readLong();
+    event.order = in.readLong();
+    if (queue != 0) {
+      restoredEvents.add(new RestoredEvent(event, queue == 1 ? vTimeEventQueue : cycleEventQueue));
+    }
+  }
+
+  /* The IO units with state: the listed units and then the others in address order */
+  private ArrayList<IOUnit> getSavedIOUnits() {
+    var units = new LinkedHashSet<IOUnit>(ioUnits);
+    ioSegment.addIOUnits(units);
+    return new ArrayList<>(units);
+  }
+
+  /**
+   * Saves the state of the CPU, its registers and memory, its IO units and chips
+   * and their scheduled events, to be restored with {@link #restore} into a CPU of
+   * a node with the same configuration. Listeners, monitors and the profiler are
+   * not saved.
+   *
+   * @param out Output
+   * @throws IOException if a unit, chip or event can not be saved, or the state not written
+   */
+  @Override
+  public void save(DataOutput out) throws IOException {
+    var units = getSavedIOUnits();
+    var handlers = new ArrayList<InterruptHandler>(units);
+    handlers.addAll(interruptMultiplexers);
+    savedEvents = 0;
+    saveChipState(out);
+    for (int value : reg) {
+      out.writeInt(value);
+    }
+    out.writeInt(memory.length);
+    for (int value : memory) {
+      out.writeInt(value);
+    }
+    programMemory.save(out);
+    out.writeBoolean(isFlashBusy);
+    out.writeInt(sideEffects);
+    out.writeBoolean(idleLoop);
+    out.writeInt(idleLoopPC);
+    out.writeLong(idleLoopCycles);
+    out.writeLong(idleLoopPeriod);
+    out.writeInt(idleLoopSideEffects);
+    out.writeInt(idleLoopInterrupt);
+    for (int value : idleLoopRegs) {
+      out.writeInt(value);
+    }
+    out.writeLong(idleLoopSkippedCycles);
+    out.writeLong(readStableCycles);
+    out.writeLong(cycles);
+    out.writeLong(cpuCycles);
+    for (InterruptHandler source : interruptSource) {
+      out.writeInt(indexOfHandler(handlers, source));
+    }
+    out.writeInt(interruptMax);
+    out.writeInt(op);
+    out.writeInt(instruction);
+    out.writeInt(extWord);
+    out.writeInt(servicedInterrupt);
+    out.writeInt(indexOfHandler(handlers, servicedInterruptUnit));
+    out.writeBoolean(interruptsEnabled);
+    out.writeBoolean(cpuOff);
+    out.writeInt(dcoFrq);
+    out.writeInt(aclkFrq);
+    out.writeInt(smclkFrq);
+    out.writeLong(lastCyclesTime);
+    out.writeLong(lastVTime);
+    out.writeLong(lastMicrosDelta);
+    out.writeDouble(currentDCOFactor);
+    out.writeLong(nextEventCycles);
+    out.writeLong(nextVTimeEventCycles);
+    out.writeLong(nextCycleEventCycles);
+    out.writeLong(vTimeEventQueue.getOrder());
+    out.writeLong(cycleEventQueue.getOrder());
+
+    out.writeInt(units.size());
+    for (IOUnit unit : units) {
+      out.writeUTF(unit.getID());
+      unit.save(out);
+    }
+    for (InterruptMultiplexer multiplexer : interruptMultiplexers) {
+      multiplexer.save(out);
+    }
+    out.writeInt(chips.size());
+    for (Chip chip : chips) {
+      if (chip != this) {
+        out.writeUTF(chip.getID());
+        chip.save(out);
+      }
+    }
+    int scheduled = vTimeEventQueue.eventCount + cycleEventQueue.eventCount;
+    if (savedEvents != scheduled) {
+      throw new IOException((scheduled - savedEvents) + " scheduled events of the CPU can not be saved");
+    }
+  }
+
+  /**
+   * Restores the state written by {@link #save}, without notifying listeners.
+   * Events that are scheduled before the restore are removed.
+   *
+   * @param in Input
+   * @throws IOException if the state can not be read or the CPU has another configuration
+   */
+  @Override
+  public void restore(DataInput in) throws IOException {
+    var units = getSavedIOUnits();
+    var handlers = new ArrayList<InterruptHandler>(units);
+    handlers.addAll(interruptMultiplexers);
+    vTimeEventQueue.removeAll();
+    cycleEventQueue.removeAll();
+    restoredEvents = new ArrayList<>();
+    try {
+      restoreChipState(in);
+      for (int i = 0; i < reg.length; i++) {
+        reg[i] = in.readInt();
+      }
+      if (in.readInt() != memory.length) {
+        throw new IOException("Memory has a different size");
+      }
+      for (int i = 0; i < memory.length; i++) {
+        memory[i] = in.readInt();
+      }
+      programMemory.restore(in);
+      if (decodeCache != null) {
+        decodeCache = new DecodeCache(programMemory, MAX_MEM);
+      }
+      isFlashBusy = in.readBoolean();
+      sideEffects = in.readInt();
+      idleLoop = in.readBoolean();
+      idleLoopPC = in.readInt();
+      idleLoopCycles = in.readLong();
+      idleLoopPeriod = in.readLong();
+      idleLoopSideEffects = in.readInt();
+      idleLoopInterrupt = in.readInt();
+      for (int i = 0; i < idleLoopRegs.length; i++) {
+        idleLoopRegs[i] = in.readInt();
+      }
+      idleLoopSkippedCycles = in.readLong();
+      readStableCycles = in.readLong();
+      cycles = in.readLong();
+      cpuCycles = in.readLong();
+      for (int i = 0; i < interruptSource.length; i++) {
+        interruptSource[i] = getHandler(handlers, in.readInt());
+      }
+      interruptMax = in.readInt();
+      op = in.readInt();
+      instruction = in.readInt();
+      extWord = in.readInt();
+      servicedInterrupt = in.readInt();
+      servicedInterruptUnit = getHandler(handlers, in.readInt());
+      interruptsEnabled = in.readBoolean();
+      cpuOff = in.readBoolean();
+      dcoFrq = in.readInt();
+      aclkFrq = in.readInt();
+      smclkFrq = in.readInt();
+      lastCyclesTime = in.readLong();
+      lastVTime = in.readLong();
+      lastMicrosDelta = in.readLong();
+      currentDCOFactor = in.readDouble();
+      nextEventCycles = in.readLong();
+      nextVTimeEventCycles = in.readLong();
+      nextCycleEventCycles = in.readLong();
+      vTimeEventQueue.setOrder(in.readLong());
+      cycleEventQueue.setOrder(in.readLong());
+
+      if (in.readInt() != units.size()) {
+        throw new IOException("CPU has different IO units");
+      }
+      for (IOUnit unit : units) {
+        if (!unit.getID().equals(in.readUTF())) {
+          throw new IOException("CPU has different IO units");
+        }
+        unit.restore(in);
+      }
+      for (InterruptMultiplexer multiplexer : interruptMultiplexers) {
+        multiplexer.restore(in);
+      }
+      if (in.readInt() != chips.size()) {
+        throw new IOException("Node has different chips");
+      }
+      for (Chip chip : chips) {
+        if (chip != this) {
+          if (!chip.getID().equals(in.readUTF())) {
+            throw new IOException("Node has different chips");
+          }
+          chip.restore(in);
+        }
+      }
+      // Keep the saved order, which orders events at the same time.
+      for (RestoredEvent event : restoredEvents) {
+        event.queue.addEvent(event.event, event.event.time, event.event.order);
+      }
+    } finally {
+      restoredEvents = null;
+    }
+  }
+
+  private static int indexOfHandler(ArrayList<InterruptHandler> handlers, InterruptHandler handler) throws IOException {
+    int index = handlers.indexOf(handler);
+    if (handler != null && index < 0) {
+      throw new IOException("Interrupt handler " + handler.getName() + " can not be saved");
+    }
+    return index;
+  }
+
+  private static InterruptHandler getHandler(ArrayList<InterruptHandler> handlers, int index) throws IOException {
+    if (index >= handlers.size()) {
+      throw new IOException("CPU has different interrupt handlers");
+    }
+    return index < 0 ? null : handlers.get(index);
+  }
+
   // Should also return active units...
   public IOUnit getIOUnit(String name) {
     for (IOUnit ioUnit : ioUnits) {
@@ -746,6 +1134,8 @@ public class MSP430Core extends Chip implements MSP430Constants {
     servicedInterrupt = -1;
     interruptMax = -1;
     writeRegister(SR, 0);
+    idleLoopPC = -1;
+    idleLoop = false;
 
     cycleEventQueue.removeAll();
     vTimeEventQueue.removeAll();
@@ -831,12 +1221,14 @@ public class MSP430Core extends Chip implements MSP430Constants {
   void profileCall(int dst, int pc) {
       MapEntry function = map.getEntry(dst);
       if (function == null) {
-          function = getFunction(map, dst);
+          // The map can be shared with other CPUs, keep unknown functions separately.
+          function = unknownFunctions.computeIfAbsent(dst, this::getFunction);
       }
       profiler.profileCall(function, cpuCycles, pc);
   }
 
   void printWarning(EmulationLogger.WarningType type, int address) throws EmulationException {
+    sideEffects++;
     String message = switch (type) {
       case MISALIGNED_READ -> "**** Illegal read - misaligned word from $" +
               getAddressAsString(address) + " at $" + getAddressAsString(reg[PC]);
@@ -970,6 +1362,28 @@ public class MSP430Core extends Chip implements MSP430Constants {
     }
 
     int pcBefore = pc;
+    if (decodeCache != null && pc < MAX_MEM - 6 && !isFlashBusy
+        && memorySegments[pc >> 8] == nvmSegment && !(currentSegment instanceof GlobalWatchedMemory)) {
+      DecodeCache.Instruction decoded = decodeCache.get(pc);
+      if (decoded == null) {
+        decoded = decodeCache.decode(pc);
+      }
+      if (decoded != DecodeCache.NOT_DECODED
+          && memorySegments[(pc + decoded.size() - 1) >> 8] == nvmSegment) {
+        if (isStopping) {
+          return -2;
+        }
+        boolean backwardJump = emulateDecoded(decoded, pc);
+        while (cycles >= nextEventCycles) {
+          executeEvents();
+        }
+        if (backwardJump && skipIdleLoops) {
+          checkIdleLoop(maxCycles);
+        }
+        cpuCycles += cycles - startCycles;
+        return pcBefore;
+      }
+    }
     instruction = currentSegment.read(pc, AccessMode.WORD, AccessType.EXECUTE);
     if (isStopping) {
         // Signaled to stop the execution before performing the instruction
@@ -1033,6 +1447,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
 
     boolean write = false;
     boolean updateStatus = true;
+    boolean backwardJump = false;
 
     // When is PC increased  probably immediately (e.g. here)?
     pc += 2;
@@ -1739,6 +2154,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
       // Perform the Jump
       if (jump) {
         writeRegister(PC, pc + jmpOffset);
+        backwardJump = jmpOffset < 0;
       }
       updateStatus = false;
       break;
@@ -1940,6 +2356,8 @@ public class MSP430Core extends Chip implements MSP430Constants {
         //        }
       }
 
+      write = writesResult(op);
+      updateStatus = updatesStatus(op);
       /* TODO: test add the loop here! */
       while(repeats-- > 0) {
           sr = readRegister(SR);
@@ -1949,126 +2367,7 @@ public class MSP430Core extends Chip implements MSP430Constants {
               }
           }
 
-          int tmp;
-          int tmpAdd = 0;
-          switch (op) {
-          case MOV: // MOV
-              dst = src;
-              write = true;
-              updateStatus = false;
-
-              if (instruction == RETURN && profiler != null) {
-                  profiler.profileReturn(cpuCycles);
-              }
-
-              break;
-              // FIX THIS!!! - make SUB a separate operation so that
-              // it is clear that overflow flag is correct...
-          case SUB:
-              // Carry always 1 with SUB
-              tmpAdd = 1;
-          case SUBC:
-              // Both sub and subc does one complement (not) + 1 (or carry)
-              src = (src ^ 0xffff) & 0xffff;
-          case ADDC: // ADDC
-              if (op == ADDC || op == SUBC)
-                  tmpAdd = ((sr & CARRY) > 0) ? 1 : 0;
-          case ADD: // ADD
-              // Tmp gives zero if same sign! if sign is different after -> overf.
-              sr &= ~(OVERFLOW | CARRY);
-              int b = word ? 0x8000 : (wordx20 ? 0x80000 : 0x80);
-              tmp = (src ^ dst) & b;
-              // Includes carry if carry should be added...
-
-              dst = dst + src + tmpAdd;
-              int b2 = word ? 0xffff : (wordx20 ? 0xfffff : 0xff);
-              if (dst > b2) {
-                  sr |= CARRY;
-              }
-              // If tmp == 0 and currenly not the same sign for src & dst
-              if (tmp == 0 && ((src ^ dst) & b) != 0) {
-                  sr |= OVERFLOW;
-              }
-
-            writeRegister(SR, sr);
-              write = true;
-              break;
-          case CMP: // CMP
-              // Set CARRY if A >= B, and it's clear if A < B
-              b = mode.msb;
-              sr = (sr & ~(CARRY | OVERFLOW)) | (dst >= src ? CARRY : 0);
-
-              tmp = (dst - src);
-
-              if (((src ^ tmp) & b) == 0 && (((src ^ dst) & b) != 0)) {
-                  sr |= OVERFLOW;
-              }
-              writeRegister(SR, sr);
-              // Must set dst to the result to set the rest of the status register
-              dst = tmp;
-              break;
-          case DADD: // DADD
-              if (DEBUG)
-                  log("DADD: Decimal add executed - result error!!!");
-              // Decimal add... this is wrong... each nibble is 0-9...
-              // So this has to be reimplemented...
-              dst = dst + src + ((sr & CARRY) > 0 ? 1 : 0);
-              write = true;
-              break;
-          case BIT: // BIT
-              dst = src & dst;
-              // Clear overflow and carry!
-              sr = sr & ~(CARRY | OVERFLOW);
-              // Set carry if result is non-zero!
-              if (dst != 0) {
-                  sr |= CARRY;
-              }
-              writeRegister(SR, sr);
-              break;
-          case BIC: // BIC
-              // No status reg change
-              dst = ~src & dst;
-
-              write = true;
-              updateStatus = false;
-              break;
-          case BIS: // BIS
-              dst = src | dst;
-              write = true;
-              updateStatus = false;
-              break;
-          case XOR: // XOR
-              sr = sr & ~(CARRY | OVERFLOW);
-              b = mode.msb; //word ? 0x8000 : (wordx20 ? 0x80000 : 0x80);
-              if ((src & b) != 0 && (dst & b) != 0) {
-                  sr |= OVERFLOW;
-              }
-              dst = src ^ dst;
-              if (dst != 0) {
-                  sr |= CARRY;
-              }
-              write = true;
-              writeRegister(SR, sr);
-              break;
-          case AND: // AND
-              sr = sr & ~(CARRY | OVERFLOW);
-              dst = src & dst;
-              if (dst != 0) {
-                  sr |= CARRY;
-              }
-              write = true;
-              writeRegister(SR, sr);
-              break;
-          default:
-              String address = getAddressAsString(pc);
-              logw(WarningType.EMULATION_ERROR,
-                      "DoubleOperand not implemented: op = " + Integer.toHexString(op) + " at " + address);
-              if (EXCEPTION_ON_BAD_OPERATION) {
-                  EmulationException ex = new EmulationException("Bad operation: $" + Integer.toHexString(op) + " at $" + address);
-                  ex.initCause(new Throwable(String.valueOf(pc)));
-                  throw ex;
-              }
-          } /* after switch(op) */
+          dst = executeDoubleOperand(op, src, dst, sr, word, wordx20, mode);
           /* If we have the same register as dst and src then copy here to get input
            * in next loop
            */
@@ -2105,12 +2404,329 @@ public class MSP430Core extends Chip implements MSP430Constants {
       executeEvents();
     }
 
+    if (backwardJump && skipIdleLoops) {
+      checkIdleLoop(maxCycles);
+    }
+
     cpuCycles += cycles - startCycles;
 
     /* return the address that was executed */
     return pcBefore;
   }
 
+  /**
+   * Called after a taken backward jump. If the CPU state is the same as after
+   * the previous backward jump to the same address, and the loop had no side
+   * effects in between, the loop repeats until the next event or interrupt,
+   * or until an IO value that it reads changes. The cycles of the iterations
+   * that end before then, or before maxCycles, are added without executing them.
+   */
+  private void checkIdleLoop(long maxCycles) {
+    int pc = reg[PC];
+    boolean repeats = pc == idleLoopPC && sideEffects == idleLoopSideEffects
+        && servicedInterrupt == idleLoopInterrupt && Arrays.equals(reg, idleLoopRegs)
+        && profiler == null && !(currentSegment instanceof GlobalWatchedMemory) && canSkipIdleLoop();
+    idleLoop = false;
+    if (repeats) {
+      long period = cycles - idleLoopCycles;
+      idleLoopPeriod = period;
+      // The next iterations read the same IO values as the last one, such as
+      // a timer counter, until the first value changes.
+      long readIterations = (readStableCycles - 1) / period;
+      long eventIterations = (nextEventCycles - 1 - cycles) / period;
+      // Idle until the next event if the reads of all iterations until then are the same.
+      idleLoop = readStableCycles - period >= nextEventCycles - cycles;
+      long iterations = Math.min(readIterations, eventIterations);
+      if (maxCycles >= 0) {
+        iterations = Math.min(iterations, (maxCycles - 1 - cycles) / period);
+      }
+      if (iterations > 0) {
+        cycles += iterations * period;
+        idleLoopSkippedCycles += iterations * period;
+      }
+    }
+    idleLoopPC = pc;
+    idleLoopCycles = cycles;
+    idleLoopSideEffects = sideEffects;
+    idleLoopInterrupt = servicedInterrupt;
+    readStableCycles = Long.MAX_VALUE;
+    System.arraycopy(reg, 0, idleLoopRegs, 0, reg.length);
+  }
+
+  /**
+   * Called when the CPU continues after sleeping in an idle loop that an
+   * input, such as a pin, changed before the next event. The loop repeated
+   * with the old input until the given cycle, so the cycles of its whole
+   * iterations until then are added without executing them.
+   */
+  void skipIdleLoop(long untilCycles) {
+    long iterations = (untilCycles - cycles) / idleLoopPeriod;
+    if (iterations > 0) {
+      cycles += iterations * idleLoopPeriod;
+      cpuCycles += iterations * idleLoopPeriod;
+      idleLoopSkippedCycles += iterations * idleLoopPeriod;
+    }
+  }
+
+  /**
+   * Called by IOSegment after an IO read, with the cycle until which reads
+   * of the address return the same value, or -1 if the read had side effects.
+   */
+  void ioRead(long stableUntil) {
+    if (stableUntil < 0) {
+      sideEffects++;
+    } else {
+      readStableCycles = Math.min(readStableCycles, stableUntil - cycles);
+    }
+  }
+
+  /**
+   * Returns true if the instructions executed by the CPU can be skipped, that
+   * is, if nothing records the executed addresses.
+   */
+  protected boolean canSkipIdleLoop() {
+    return true;
+  }
+
+  /**
+   * Returns true if the CPU executes a loop that will not change any state
+   * before the next event.
+   */
+  protected boolean isIdleLoop() {
+    return idleLoop && sideEffects == idleLoopSideEffects;
+  }
+
+  /**
+   * Executes the operation of a double operand instruction, updates the carry
+   * and overflow flags and returns the result. The result is written to the
+   * destination if writesResult(op), and sets the zero and negative flags if
+   * updatesStatus(op).
+   */
+  private int executeDoubleOperand(int op, int src, int dst, int sr, boolean word, boolean wordx20,
+                                   AccessMode mode) throws EmulationException {
+      int tmp;
+      int tmpAdd = 0;
+      int b;
+      switch (op) {
+      case MOV: // MOV
+          if (instruction == RETURN && profiler != null) {
+              profiler.profileReturn(cpuCycles);
+          }
+          return src;
+          // FIX THIS!!! - make SUB a separate operation so that
+          // it is clear that overflow flag is correct...
+      case SUB:
+          // Carry always 1 with SUB
+          tmpAdd = 1;
+      case SUBC:
+          // Both sub and subc does one complement (not) + 1 (or carry)
+          src = (src ^ 0xffff) & 0xffff;
+      case ADDC: // ADDC
+          if (op == ADDC || op == SUBC)
+              tmpAdd = ((sr & CARRY) > 0) ? 1 : 0;
+      case ADD: // ADD
+          // Tmp gives zero if same sign! if sign is different after -> overf.
+          sr &= ~(OVERFLOW | CARRY);
+          b = word ? 0x8000 : (wordx20 ? 0x80000 : 0x80);
+          tmp = (src ^ dst) & b;
+          // Includes carry if carry should be added...
+
+          dst = dst + src + tmpAdd;
+          int b2 = word ? 0xffff : (wordx20 ? 0xfffff : 0xff);
+          if (dst > b2) {
+              sr |= CARRY;
+          }
+          // If tmp == 0 and currenly not the same sign for src & dst
+          if (tmp == 0 && ((src ^ dst) & b) != 0) {
+              sr |= OVERFLOW;
+          }
+          writeRegister(SR, sr);
+          return dst;
+      case CMP: // CMP
+          // Set CARRY if A >= B, and it's clear if A < B
+          b = mode.msb;
+          sr = (sr & ~(CARRY | OVERFLOW)) | (dst >= src ? CARRY : 0);
+
+          tmp = (dst - src);
+
+          if (((src ^ tmp) & b) == 0 && (((src ^ dst) & b) != 0)) {
+              sr |= OVERFLOW;
+          }
+          writeRegister(SR, sr);
+          // Must set dst to the result to set the rest of the status register
+          return tmp;
+      case DADD: // DADD
+          if (DEBUG)
+              log("DADD: Decimal add executed - result error!!!");
+          // Decimal add... this is wrong... each nibble is 0-9...
+          // So this has to be reimplemented...
+          return dst + src + ((sr & CARRY) > 0 ? 1 : 0);
+      case BIT: // BIT
+          dst = src & dst;
+          // Clear overflow and carry!
+          sr = sr & ~(CARRY | OVERFLOW);
+          // Set carry if result is non-zero!
+          if (dst != 0) {
+              sr |= CARRY;
+          }
+          writeRegister(SR, sr);
+          return dst;
+      case BIC: // BIC
+          // No status reg change
+          return ~src & dst;
+      case BIS: // BIS
+          return src | dst;
+      case XOR: // XOR
+          sr = sr & ~(CARRY | OVERFLOW);
+          b = mode.msb; //word ? 0x8000 : (wordx20 ? 0x80000 : 0x80);
+          if ((src & b) != 0 && (dst & b) != 0) {
+              sr |= OVERFLOW;
+          }
+          dst = src ^ dst;
+          if (dst != 0) {
+              sr |= CARRY;
+          }
+          writeRegister(SR, sr);
+          return dst;
+      case AND: // AND
+          sr = sr & ~(CARRY | OVERFLOW);
+          dst = src & dst;
+          if (dst != 0) {
+              sr |= CARRY;
+          }
+          writeRegister(SR, sr);
+          return dst;
+      default:
+          String address = getAddressAsString(reg[PC]);
+          logw(WarningType.EMULATION_ERROR,
+                  "DoubleOperand not implemented: op = " + Integer.toHexString(op) + " at " + address);
+          if (EXCEPTION_ON_BAD_OPERATION) {
+              EmulationException ex = new EmulationException("Bad operation: $" + Integer.toHexString(op) + " at $" + address);
+              ex.initCause(new Throwable(String.valueOf(reg[PC])));
+              throw ex;
+          }
+          return dst;
+      }
+  }
+
+  /** Returns true if a double operand instruction writes its result to the destination. */
+  private static boolean writesResult(int op) {
+    return op != CMP && op != BIT;
+  }
+
+  /** Returns true if the result of a double operand instruction sets the zero and negative flags. */
+  private static boolean updatesStatus(int op) {
+    return op != MOV && op != BIC && op != BIS;
+  }
+
+  /**
+   * Executes a decoded jump or double operand instruction without extension
+   * word, in the same order of register and memory accesses as emulateOP.
+   */
+  private boolean emulateDecoded(DecodeCache.Instruction decoded, int pc) throws EmulationException {
+    instruction = decoded.instruction();
+    extWord = 0;
+    op = instruction >> 12;
+    pc += 2;
+    writeRegister(PC, pc);
+    cycles += decoded.cycles();
+
+    int sr;
+    if (decoded.isJump()) {
+      sr = readRegister(SR);
+      boolean jump = switch (instruction & 0xfc00) {
+        case JNE -> (sr & ZERO) == 0;
+        case JEQ -> (sr & ZERO) > 0;
+        case JNC -> (sr & CARRY) == 0;
+        case JC -> (sr & CARRY) > 0;
+        case JN -> (sr & NEGATIVE) > 0;
+        case JGE -> (sr & NEGATIVE) > 0 == (sr & OVERFLOW) > 0;
+        case JL -> (sr & NEGATIVE) > 0 != (sr & OVERFLOW) > 0;
+        default -> true;
+      };
+      if (jump) {
+        writeRegister(PC, pc + decoded.jumpOffset());
+      }
+      return jump && decoded.jumpOffset() < 0;
+    }
+
+    AccessMode mode = decoded.mode();
+    boolean word = !decoded.byteMode();
+    int srcRegister = decoded.srcRegister();
+    int dstRegister = decoded.dstRegister();
+    boolean dstRegMode = decoded.isDstRegMode();
+    int srcAddress = -1;
+    int dstAddress = -1;
+    int src = 0;
+    int dst = -1;
+    switch (decoded.srcKind()) {
+      case DecodeCache.SRC_CONSTANT, DecodeCache.SRC_IMMEDIATE -> {
+        src = decoded.src();
+        if (decoded.srcKind() == DecodeCache.SRC_IMMEDIATE) {
+          pc += 2;
+          writeRegister(PC, pc);
+        }
+      }
+      case DecodeCache.SRC_REGISTER -> src = readRegister(srcRegister) & mode.mask;
+      case DecodeCache.SRC_INDEX -> {
+        int sval = readRegisterCG(srcRegister, AM_INDEX);
+        srcAddress = convertTwoComplement16(decoded.src()) + sval;
+        srcAddress &= sval <= 0xffff ? 0xffff : 0xfffff;
+        pc += 2;
+        writeRegister(PC, pc);
+      }
+      case DecodeCache.SRC_INDIRECT -> srcAddress = readRegister(srcRegister);
+      default -> {
+        srcAddress = readRegister(srcRegister);
+        incRegister(srcRegister, mode.bytes);
+      }
+    }
+
+    if (dstRegMode) {
+      if (op != MOV) {
+        dst = readRegister(dstRegister) & mode.mask;
+      }
+    } else {
+      // Read the register as emulateOP does, the address is already known.
+      pc = readRegister(PC);
+      if (dstRegister == SR) {
+        dstAddress = decoded.dstWord();
+      } else {
+        int rval = readRegister(dstRegister);
+        dstAddress = convertTwoComplement16(decoded.dstWord()) + rval;
+        dstAddress &= rval <= 0xffff ? 0xffff : 0xfffff;
+      }
+      if (op != MOV) {
+        dst = currentSegment.read(dstAddress, mode, AccessType.READ);
+      }
+      incRegister(PC, 2);
+    }
+
+    if (srcAddress != -1) {
+      src = currentSegment.read(srcAddress, mode, AccessType.READ);
+    }
+
+    dst = executeDoubleOperand(op, src, dst, readRegister(SR), word, false, mode);
+    boolean write = writesResult(op);
+    boolean updateStatus = updatesStatus(op);
+
+    dst &= mode.mask;
+    if (write) {
+      if (dstRegMode) {
+        writeRegister(dstRegister, dst);
+      } else {
+        currentSegment.write(dstAddress, dst, mode);
+      }
+    }
+    if (updateStatus) {
+      sr = readRegister(SR);
+      sr = (sr & ~(ZERO | NEGATIVE)) |
+        ((dst == 0) ? ZERO : 0) | ((dst & mode.msb) > 0 ? NEGATIVE : 0);
+      writeRegister(SR, sr);
+    }
+    return false;
+  }
+
   private static int convertTwoComplement16(int index) {
           if(index > 0x8000) {
                   return -(0x10000 - index);
@@ -2129,17 +2745,55 @@ public class MSP430Core extends Chip implements MSP430Constants {
     return MODE_MAX;
   }
 
-  MapEntry getFunction(MapTable map, int address) {
-    MapEntry function = new MapEntry(MapEntry.TYPE.function, address, 0,
+  MapEntry getFunction(int address) {
+    return new MapEntry(MapEntry.TYPE.function, address, 0,
         "fkn at $" + getAddressAsString(address), null, true);
-    map.setEntry(function);
-    return function;
   }
 
   public Memory getMemory() {
       return currentSegment;
   }
 
+  private boolean isProgramMemory(int address) {
+    return address >= memory.length || config.isFlash(address) || config.isInfoMem(address);
+  }
+
+  /**
+   * Returns a byte of memory without the side effects of reading it, such as
+   * reading IO registers.
+   *
+   * @param address Address
+   * @return Byte value, 0 - 255
+   */
+  public int getMemoryByte(int address) {
+    return isProgramMemory(address) ? programMemory.get(address) : memory[address] & 0xff;
+  }
+
+  /**
+   * Writes a byte of memory without the side effects of writing it, such as
+   * flash programming.
+   *
+   * @param address Address
+   * @param value Value, only the low 8 bits are written
+   */
+  public void setMemoryByte(int address, int value) {
+    if (isProgramMemory(address)) {
+      programMemory.set(address, value);
+      invalidateDecoded(address, 1);
+    } else {
+      memory[address] = value & 0xff;
+    }
+    sideEffects++;
+  }
+
+  /**
+   * Returns the number of bytes used by the memory of this CPU, not counting
+   * program memory pages that are shared with other CPUs.
+   */
+  public long getResidentMemory() {
+    return 4L * memory.length + programMemory.getOwnedBytes();
+  }
+
   public int getPC() {
     return reg[PC];
   }
@@ -2167,6 +2821,9 @@ public class MSP430Core extends Chip implements MSP430Constants {
          .append("  ACLK: ").append(aclkFrq).append(" Hz  SMCLK: ").append(smclkFrq).append(" Hz\n")
          .append(" Cycles: ").append(cycles).append("  CPU Cycles: ").append(cpuCycles)
          .append("  Time: ").append((long)getTimeMillis()).append(" msec\n");
+      if (skipIdleLoops) {
+          buf.append(" Idle loop cycles skipped: ").append(idleLoopSkippedCycles).append("\n");
+      }
       buf.append(" Interrupt enabled: ").append(interruptsEnabled).append(" HighestInterrupt: ").append(interruptMax);
       for (int i = 0; i < MAX_INTERRUPT; i++) {
           int value = currentSegment.get(0xfffe - i * 2, AccessMode.WORD);
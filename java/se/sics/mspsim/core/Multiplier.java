@@ -40,6 +40,9 @@
  */
 
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.Utils;
 
@@ -103,6 +106,38 @@ public class Multiplier extends IOUnit {
     };
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(mpy);
+    out.writeInt(mpys);
+    out.writeInt(op2);
+    out.writeInt(resLo);
+    out.writeInt(resHi);
+    out.writeInt(mac);
+    out.writeInt(macs);
+    out.writeInt(sumext);
+    out.writeInt(op1);
+    out.writeBoolean(signed);
+    out.writeBoolean(accumulating);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    mpy = in.readInt();
+    mpys = in.readInt();
+    op2 = in.readInt();
+    resLo = in.readInt();
+    resHi = in.readInt();
+    mac = in.readInt();
+    macs = in.readInt();
+    sumext = in.readInt();
+    op1 = in.readInt();
+    signed = in.readBoolean();
+    accumulating = in.readBoolean();
+  }
+
   @Override
   public void write(int address, int data, boolean word, long cycles) {
     if (DEBUG) {
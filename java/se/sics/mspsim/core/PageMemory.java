@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Byte memory in pages of 256 bytes, used for the flash or FRAM of a CPU.
+ * <p>
+ * A copy shares all pages with the memory it was copied from, and a page is
+ * only copied when it is first written. CPUs running the same firmware can so
+ * share the pages of the program image that are never written.
+ */
+public class PageMemory {
+
+    public static final int PAGE_BITS = 8;
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** Page shared by all memories for pages that have never been written. */
+    private static final byte[] ZERO_PAGE = new byte[PAGE_SIZE];
+
+    private final byte[][] pages;
+    /** Pages that are only used by this memory and can be written in place. */
+    private final BitSet owned = new BitSet();
+
+    /**
+     * Creates a memory from an image with one byte per int, as returned by
+     * {@link se.sics.mspsim.util.ELF#loadPrograms(int)}.
+     *
+     * @param image Memory image
+     */
+    public PageMemory(int[] image) {
+        pages = new byte[(image.length + PAGE_MASK) >> PAGE_BITS][];
+        for (int i = 0; i < pages.length; i++) {
+            int start = i << PAGE_BITS;
+            int end = Math.min(image.length, start + PAGE_SIZE);
+            byte[] page = null;
+            for (int address = start; address < end; address++) {
+                if (image[address] != 0) {
+                    if (page == null) {
+                        page = new byte[PAGE_SIZE];
+                    }
+                    page[address - start] = (byte) image[address];
+                }
+            }
+            if (page == null) {
+                pages[i] = ZERO_PAGE;
+            } else {
+                pages[i] = page;
+                owned.set(i);
+            }
+        }
+    }
+
+    private PageMemory(PageMemory memory) {
+        pages = memory.pages.clone();
+    }
+
+    /**
+     * Returns a copy of this memory that shares all pages with this memory until
+     * they are written. The pages of this memory are copied as well when written
+     * after this call.
+     *
+     * @return Copy of this memory
+     */
+    public PageMemory copy() {
+        owned.clear();
+        return new PageMemory(this);
+    }
+
+    /**
+     * Returns the unsigned byte at an address.
+     *
+     * @param address Address
+     * @return Byte value, 0 - 255
+     */
+    public int get(int address) {
+        return pages[address >> PAGE_BITS][address & PAGE_MASK] & 0xff;
+    }
+
+    /**
+     * Writes the low 8 bits of a value to an address.
+     *
+     * @param address Address
+     * @param value Value
+     */
+    public void set(int address, int value) {
+        int index = address >> PAGE_BITS;
+        byte[] page = pages[index];
+        if (!owned.get(index)) {
+            page = Arrays.copyOf(page, PAGE_SIZE);
+            pages[index] = page;
+            owned.set(index);
+        }
+        page[address & PAGE_MASK] = (byte) value;
+    }
+
+    /**
+     * Writes the contents of the memory, to be restored with {@link #restore}.
+     *
+     * @param out Output
+     * @throws IOException if the contents can not be written
+     */
+    public void save(DataOutput out) throws IOException {
+        out.writeInt(pages.length);
+        for (byte[] page : pages) {
+            out.writeBoolean(page != ZERO_PAGE);
+            if (page != ZERO_PAGE) {
+                out.write(page);
+            }
+        }
+    }
+
+    /**
+     * Restores the contents written by {@link #save} into a memory of the same
+     * size. Pages that already have the saved contents are kept, also when they
+     * are shared with other memories. The other pages are replaced by pages that
+     * only this memory uses, so shared pages are never written.
+     *
+     * @param in Input
+     * @throws IOException if the contents can not be read or the size differs
+     */
+    public void restore(DataInput in) throws IOException {
+        if (in.readInt() != pages.length) {
+            throw new IOException("Memory has a different size");
+        }
+        byte[] saved = new byte[PAGE_SIZE];
+        for (int i = 0; i < pages.length; i++) {
+            if (in.readBoolean()) {
+                in.readFully(saved);
+            } else {
+                Arrays.fill(saved, (byte) 0);
+            }
+            if (Arrays.equals(pages[i], saved)) {
+                continue;
+            }
+            if (Arrays.equals(saved, ZERO_PAGE)) {
+                pages[i] = ZERO_PAGE;
+                owned.clear(i);
+            } else if (owned.get(i)) {
+                System.arraycopy(saved, 0, pages[i], 0, PAGE_SIZE);
+            } else {
+                pages[i] = saved.clone();
+                owned.set(i);
+            }
+        }
+    }
+
+    /** Returns the size of the memory in bytes. */
+    public int size() {
+        return pages.length << PAGE_BITS;
+    }
+
+    /**
+     * Returns the number of bytes in pages that are only used by this memory.
+     * Pages that were shared when this memory was copied are counted by the
+     * memory that writes them first.
+     */
+    public int getOwnedBytes() {
+        return owned.cardinality() << PAGE_BITS;
+    }
+}
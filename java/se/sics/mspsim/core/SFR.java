@@ -41,6 +41,10 @@
 
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * SFR - emulation of special function registers
  */
@@ -87,6 +91,38 @@ public class SFR extends IOUnit {
     }
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(ie1);
+    out.writeInt(ie2);
+    out.writeInt(ifg1);
+    out.writeInt(ifg2);
+    out.writeInt(me1);
+    out.writeInt(me2);
+    for (int i = 0; i < irqTriggered.length; i++) {
+      out.writeBoolean(irqTriggered[i]);
+      out.writeBoolean(autoclear[i]);
+      out.writeInt(irqTriggeredPos[i]);
+    }
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    ie1 = in.readInt();
+    ie2 = in.readInt();
+    ifg1 = in.readInt();
+    ifg2 = in.readInt();
+    me1 = in.readInt();
+    me2 = in.readInt();
+    for (int i = 0; i < irqTriggered.length; i++) {
+      irqTriggered[i] = in.readBoolean();
+      autoclear[i] = in.readBoolean();
+      irqTriggeredPos[i] = in.readInt();
+    }
+  }
+
   /* reg = 0/1
    * bit = 0-7 (LSB-MSB)
    * module = the module that will be "called"
@@ -125,6 +161,12 @@ public class SFR extends IOUnit {
     };
   }
 
+  /* The flags change on events, writes and inputs, which count as side effects */
+  @Override
+  public long getReadStableUntil(int address, long cycles) {
+    return Long.MAX_VALUE;
+  }
+
   private void updateIE(int pos, int value) {
     int oldVal = pos == 0 ? ie1 : ie2;
     int change = oldVal ^ value;
@@ -203,6 +245,10 @@ public class SFR extends IOUnit {
     int change = value ^ after;
     if (index == 0) ifg1 = after;
     else ifg2 = after;
+    if (change != 0) {
+      /* a loop that polls the flags must not be skipped with the old value */
+      cpu.sideEffects++;
+    }
 
     updateIRQ(index, change);
   }
@@ -213,6 +259,10 @@ public class SFR extends IOUnit {
     int change = value ^ after;
     if (index == 0) ifg1 = after;
     else ifg2 = after;
+    if (change != 0) {
+      /* a loop that polls the flags must not be skipped with the old value */
+      cpu.sideEffects++;
+    }
     updateIRQ(index, change);
   }
 
@@ -42,8 +42,9 @@
 package se.sics.mspsim.core;
 
 public abstract class TimeEvent {
-  // For linking events...
-  TimeEvent nextEvent;
+  // Position in the event queue heap
+  int heapIndex = -1;
+  long order;
 
   // Keeps track of where this is scheduled
   EventQueue scheduledIn;
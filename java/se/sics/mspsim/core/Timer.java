@@ -36,6 +36,9 @@
  */
 
 package se.sics.mspsim.core;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.Utils;
@@ -595,6 +598,78 @@ public class Timer extends IOUnit {
     }
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeLong(nextTimerTrigger);
+    out.writeLong(counterStart);
+    out.writeLong(counterAcc);
+    out.writeInt(counter);
+    out.writeInt(counterPassed);
+    out.writeInt(inputDivider);
+    out.writeDouble(cyclesMultiplicator);
+    out.writeInt(clockSource);
+    out.writeInt(clockSpeed);
+    out.writeInt(mode);
+    out.writeInt(tctl);
+    out.writeBoolean(interruptEnable);
+    out.writeBoolean(interruptPending);
+    out.writeInt(lastTIV);
+    out.writeLong(triggerTime);
+    cpu.saveEvent(out, counterTrigger);
+    for (CCR reg : ccr) {
+      out.writeInt(reg.tcctl);
+      out.writeInt(reg.tccr);
+      out.writeInt(reg.expCompare);
+      out.writeInt(reg.expCapInterval);
+      out.writeLong(reg.expCaptureTime);
+      out.writeInt(reg.capMode);
+      out.writeBoolean(reg.captureOn);
+      out.writeInt(reg.inputSel);
+      out.writeInt(reg.inputSrc);
+      out.writeLong(reg.cyclesLeft);
+      out.writeBoolean(reg.sync);
+      out.writeInt(reg.outMode);
+      cpu.saveEvent(out, reg);
+    }
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    nextTimerTrigger = in.readLong();
+    counterStart = in.readLong();
+    counterAcc = in.readLong();
+    counter = in.readInt();
+    counterPassed = in.readInt();
+    inputDivider = in.readInt();
+    cyclesMultiplicator = in.readDouble();
+    clockSource = in.readInt();
+    clockSpeed = in.readInt();
+    mode = in.readInt();
+    tctl = in.readInt();
+    interruptEnable = in.readBoolean();
+    interruptPending = in.readBoolean();
+    lastTIV = in.readInt();
+    triggerTime = in.readLong();
+    cpu.restoreEvent(in, counterTrigger);
+    for (CCR reg : ccr) {
+      reg.tcctl = in.readInt();
+      reg.tccr = in.readInt();
+      reg.expCompare = in.readInt();
+      reg.expCapInterval = in.readInt();
+      reg.expCaptureTime = in.readLong();
+      reg.capMode = in.readInt();
+      reg.captureOn = in.readBoolean();
+      reg.inputSel = in.readInt();
+      reg.inputSrc = in.readInt();
+      reg.cyclesLeft = in.readLong();
+      reg.sync = in.readBoolean();
+      reg.outMode = in.readInt();
+      cpu.restoreEvent(in, reg);
+    }
+  }
+
   @Override
   public void write(int address, int data, boolean word, long cycles) {
     // This does not handle word/byte difference yet... assumes it gets
@@ -830,9 +905,8 @@ public class Timer extends IOUnit {
     resetCounter(cycles);
   }
 
-  private int updateCounter(long cycles) {
-    if (mode == STOP) return counter;
-
+  /* CPU cycles per counter tick */
+  private double getCounterDivider() {
     // Needs to be non-integer since smclk Frq can be lower
     // than aclk
     /* this should be cached and changed whenever clockSource change!!! */
@@ -841,7 +915,28 @@ public class Timer extends IOUnit {
       // Should later be divided with DCO clock?
       divider = 1.0 * cpu.smclkFrq / cpu.aclkFrq;
     }
-    divider = divider * inputDivider;
+    return divider * inputDivider;
+  }
+
+  /* The counter is a function of the cycle count, it keeps its value until the next tick */
+  @Override
+  public long getReadStableUntil(int address, long cycles) {
+    if (address == tiv || address - offset != TR) {
+      return -1;
+    }
+    if (mode == STOP) {
+      return Long.MAX_VALUE;
+    }
+    double divider = getCounterDivider();
+    long tick = (long) ((cycles - counterStart) / divider);
+    // The last cycle before the next tick, less one cycle for rounding.
+    return Math.max(cycles, counterStart + (long) ((tick + 1) * divider) - 2);
+  }
+
+  private int updateCounter(long cycles) {
+    if (mode == STOP) return counter;
+
+    double divider = getCounterDivider();
 
     // These calculations assume that we have a big counter that counts from
     // last reset and upwards (without any roundoff errors).
@@ -37,6 +37,9 @@
 
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 
 public class USART extends IOUnit implements SFRModule, DMATrigger, USARTSource {
@@ -221,6 +224,60 @@ public class USART extends IOUnit implements SFRModule, DMATrigger, USARTSource
   }
 
   // Only 8 bits / read!
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(clockSource);
+    out.writeInt(baudRate);
+    out.writeInt(tickPerByte);
+    out.writeLong(nextTXReady);
+    out.writeInt(nextTXByte);
+    out.writeInt(txShiftReg);
+    out.writeBoolean(transmitting);
+    out.writeInt(nextRXByte);
+    out.writeBoolean(receiving);
+    out.writeInt(uctl);
+    out.writeInt(utctl);
+    out.writeInt(urctl);
+    out.writeInt(umctl);
+    out.writeInt(ubr0);
+    out.writeInt(ubr1);
+    out.writeInt(urxbuf);
+    out.writeInt(utxbuf);
+    out.writeBoolean(txEnabled);
+    out.writeBoolean(rxEnabled);
+    out.writeBoolean(spiMode);
+    cpu.saveEvent(out, txTrigger);
+    cpu.saveEvent(out, rxTrigger);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    clockSource = in.readInt();
+    baudRate = in.readInt();
+    tickPerByte = in.readInt();
+    nextTXReady = in.readLong();
+    nextTXByte = in.readInt();
+    txShiftReg = in.readInt();
+    transmitting = in.readBoolean();
+    nextRXByte = in.readInt();
+    receiving = in.readBoolean();
+    uctl = in.readInt();
+    utctl = in.readInt();
+    urctl = in.readInt();
+    umctl = in.readInt();
+    ubr0 = in.readInt();
+    ubr1 = in.readInt();
+    urxbuf = in.readInt();
+    utxbuf = in.readInt();
+    txEnabled = in.readBoolean();
+    rxEnabled = in.readBoolean();
+    spiMode = in.readBoolean();
+    cpu.restoreEvent(in, txTrigger);
+    cpu.restoreEvent(in, rxTrigger);
+  }
+
   @Override
   public void write(int address, int data, boolean word, long cycles) {
     address = address - offset;
@@ -40,6 +40,9 @@
  */
 package se.sics.mspsim.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationLogger.WarningType;
 import se.sics.mspsim.util.Utils;
 
@@ -142,6 +145,30 @@ public class Watchdog extends IOUnit implements SFRModule {
           return wdtctl | 0x6900;
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveIOState(out);
+    out.writeInt(wdtctl);
+    out.writeBoolean(wdtOn);
+    out.writeInt(delay);
+    out.writeLong(targetTime);
+    out.writeInt(clockSource.ordinal());
+    out.writeBoolean(timerMode);
+    cpu.saveEvent(out, wdtTrigger);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreIOState(in);
+    wdtctl = in.readInt();
+    wdtOn = in.readBoolean();
+    delay = in.readInt();
+    targetTime = in.readLong();
+    clockSource = ClockSource.values()[in.readInt()];
+    timerMode = in.readBoolean();
+    cpu.restoreEvent(in, wdtTrigger);
+  }
+
   @Override
   public void write(int address, int value, boolean word, long cycles) {
     if (address == offset) {
@@ -2,11 +2,13 @@ package se.sics.mspsim.core;
 
 public class WatchedMemory implements Memory {
 
+    private final MSP430Core core;
     private final int start;
     private final Memory wrappedMemory;
     private final MemoryMonitor[] watchPoints = new MemoryMonitor[Memory.SEGMENT_SIZE];
 
-    WatchedMemory(int start, Memory wrapped) {
+    WatchedMemory(MSP430Core core, int start, Memory wrapped) {
+        this.core = core;
         this.start = start;
         this.wrappedMemory = wrapped;
     }
@@ -17,6 +19,7 @@ public class WatchedMemory implements Memory {
         int val;
         MemoryMonitor mon = watchPoints[a];
         if (mon != null) {
+            core.sideEffects++;
             mon.notifyReadBefore(address, mode, type);
             val = wrappedMemory.read(address, mode, type);
             mon.notifyReadAfter(address, mode, type);
@@ -31,6 +34,7 @@ public class WatchedMemory implements Memory {
         final int a = dstAddress - start;
         final MemoryMonitor mon = watchPoints[a];
         if (mon != null) {
+            core.sideEffects++;
             mon.notifyWriteBefore(dstAddress, dst, mode);
             wrappedMemory.write(dstAddress, dst, mode);
             mon.notifyWriteAfter(dstAddress, dst, mode);
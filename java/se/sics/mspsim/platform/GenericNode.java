@@ -241,9 +241,6 @@ public abstract class GenericNode extends Chip implements Runnable {
     registry.registerComponent("netcmd", new NetCommands());
     registry.registerComponent("windowManager", new JFrameWindowManager());
 
-    // Monitor execution
-    cpu.setMonitorExec(true);
-
     setupNode();
 
     registry.start();
@@ -1,4 +1,7 @@
 package se.sics.mspsim.platform.sky;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.chip.Button;
 import se.sics.mspsim.chip.ExternalFlash;
 import se.sics.mspsim.chip.Leds;
@@ -85,6 +88,22 @@ public abstract class MoteIVNode<FlashType extends ExternalFlash> extends CC2420
     }
   }
 
+  @Override
+  public void save(DataOutput out) throws IOException {
+    saveChipState(out);
+    out.writeBoolean(redLed);
+    out.writeBoolean(greenLed);
+    out.writeBoolean(blueLed);
+  }
+
+  @Override
+  public void restore(DataInput in) throws IOException {
+    restoreChipState(in);
+    redLed = in.readBoolean();
+    greenLed = in.readBoolean();
+    blueLed = in.readBoolean();
+  }
+
   @Override
   public int getModeMax() {
     return MODE_MAX;
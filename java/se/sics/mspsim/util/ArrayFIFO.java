@@ -1,5 +1,8 @@
 package se.sics.mspsim.util;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import se.sics.mspsim.core.EmulationException;
 
 public class ArrayFIFO {
@@ -43,6 +46,10 @@ public class ArrayFIFO {
         return len == size;
     }
 
+    public int capacity() {
+        return size;
+    }
+
     /* peek data as if it would be read, but leave it on the fifo */
     public int peek(int index) {
         int pos = readPos + index;
@@ -117,6 +124,21 @@ public class ArrayFIFO {
     }
 
 
+    /* saves the positions, the contents are saved with the memory */
+    public void save(DataOutput out) throws IOException {
+        out.writeInt(readPos);
+        out.writeInt(writePos);
+        out.writeInt(len);
+        out.writeInt(markWritePos);
+    }
+
+    public void restore(DataInput in) throws IOException {
+        readPos = in.readInt();
+        writePos = in.readInt();
+        len = in.readInt();
+        markWritePos = in.readInt();
+    }
+
     public String stateToString() {
         return name + " len: " + len + " rpos: " + readPos + " wpos: " + writePos;
     }
@@ -81,6 +81,7 @@ public class ELF {
   public ELFSection dbgStabStr;
 
   private ELFDebug debug;
+  private MapTable map;
 
   public ELF(byte[] data) throws ELFException {
     elfData = data;
@@ -336,7 +337,18 @@ public class ELF {
     return null;
   }
 
-  public MapTable getMap() {
+  /**
+   * Returns the symbol table of the program. The table is only created once, and is
+   * shared by all CPUs that run the program.
+   */
+  public synchronized MapTable getMap() {
+    if (map == null) {
+      map = readMap();
+    }
+    return map;
+  }
+
+  private MapTable readMap() {
     MapTable map = new MapTable();
     int sAddrHighest = -1;
     boolean foundEnd = false;
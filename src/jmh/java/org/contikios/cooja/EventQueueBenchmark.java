@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the event queue implementations on a mote-like workload: every executed
+ * event reschedules itself, and in {@link #reschedule()} the pending event of a
+ * random mote is also rescheduled, as a radio interrupt waking up a sleeping mote does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventQueueBenchmark {
+  private static final class Event extends TimeEvent {
+    @Override
+    public void execute(long t) {
+    }
+  }
+
+  @Param({"heap", "priority"})
+  public String type;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int motes;
+
+  private EventQueue queue;
+  private Event[] events;
+  private Random random;
+
+  @Setup
+  public void setUp() {
+    queue = EventQueue.create(type);
+    events = new Event[motes];
+    random = new Random(1);
+    for (int i = 0; i < motes; i++) {
+      events[i] = new Event();
+      queue.addEvent(events[i], random.nextInt(1000));
+    }
+  }
+
+  @Benchmark
+  public TimeEvent popAndAdd() {
+    var event = queue.popFirst();
+    queue.addEvent(event, event.queueTime + 1 + random.nextInt(1000));
+    return event;
+  }
+
+  @Benchmark
+  public TimeEvent reschedule() {
+    var event = popAndAdd();
+    var other = events[random.nextInt(motes)];
+    if (other.isScheduled()) {
+      other.remove();
+      queue.addEvent(other, event.queueTime + random.nextInt(100));
+    }
+    return other;
+  }
+}
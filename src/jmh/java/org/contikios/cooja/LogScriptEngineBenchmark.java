@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.motes.AbstractApplicationMote;
+import org.contikios.cooja.motes.DisturberMoteType;
+import org.contikios.cooja.radiomediums.SilentRadioMedium;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a test script over the log output of a mote that prints a line every
+ * millisecond, and ends with "done". The script waits for the last line with
+ * WAIT_UNTIL, which the simulation thread evaluates, or with YIELD in a loop,
+ * which hands over to the script thread for every line.
+ * <p>
+ * Every invocation loads a new simulation, which is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LogScriptEngineBenchmark {
+  private static final int LINES = 100000;
+
+  private static final Map<String, String> SCRIPTS = Map.of(
+      "WAIT_UNTIL", """
+          WAIT_UNTIL(msg.equals("done"));
+          log.testOK();
+          """,
+      "YIELD", """
+          while (!msg.equals("done")) {
+            YIELD();
+          }
+          log.testOK();
+          """);
+
+  @Param({"WAIT_UNTIL", "YIELD"})
+  public String script;
+
+  private Simulation sim;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws Exception {
+    sim = TestSimulations.createSimulation("Script benchmark", SilentRadioMedium.class.getName(), 1,
+        Files.createTempDirectory("cooja"), Map.of(), SCRIPTS.get(script));
+    var type = new DisturberMoteType();
+    type.configureAndInit(null, sim, false);
+    sim.addMoteType(type);
+    TestSimulations.callOnSimulationThread(sim, () -> {
+      var mote = (AbstractApplicationMote) type.generateMote(sim);
+      sim.addMote(mote);
+      sim.scheduleEvent(new MoteTimeEvent(mote) {
+        private int lines;
+
+        @Override
+        public void execute(long t) {
+          if (++lines < LINES) {
+            mote.log("line " + lines);
+            sim.scheduleEvent(this, t + Simulation.MILLISECOND);
+          } else {
+            mote.log("done");
+          }
+        }
+      }, Simulation.MILLISECOND);
+      return null;
+    });
+  }
+
+  @Benchmark
+  public Integer run() throws Exception {
+    return TestSimulations.runUntil(sim, (LINES + 1) * Simulation.MILLISECOND);
+  }
+}
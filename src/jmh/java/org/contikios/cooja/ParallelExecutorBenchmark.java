@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.radiomediums.UDGM;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a network of Sky motes for ten simulated seconds, on one thread or in parallel.
+ * The motes are placed in a row 30 meters apart, so every mote has two neighbors
+ * within range of UDGM. The X-MAC firmware transmits, and the radio medium has no
+ * lookahead during its transmissions. The blink firmware never transmits, which
+ * gives the longest windows of parallel execution.
+ * <p>
+ * Every invocation loads a new simulation, which is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelExecutorBenchmark {
+  private static final long STOP_TIME = 10 * Simulation.MILLISECOND * 1000;
+
+  @Param({"energest-demo", "blink"})
+  public String firmware;
+
+  @Param({"16", "64"})
+  public int motes;
+
+  /** Threads that execute motes, 1 for the sequential engine. */
+  @Param({"1", "4", "16"})
+  public int threads;
+
+  private Simulation sim;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws Exception {
+    sim = TestSimulations.createSimulation("Parallel benchmark", UDGM.class.getName(), 1,
+        Simulation.MILLISECOND * 1000, Files.createTempDirectory("cooja"),
+        Map.of("parallel", Integer.toString(threads)), "",
+        TestSimulations.createSkyMoteType(Path.of("firmware/sky/" + firmware + ".sky"), motes));
+  }
+
+  @Benchmark
+  public long run() throws Exception {
+    TestSimulations.runUntil(sim, STOP_TIME);
+    var executor = sim.getParallelExecutor();
+    return executor == null ? 0 : executor.getWindows();
+  }
+}
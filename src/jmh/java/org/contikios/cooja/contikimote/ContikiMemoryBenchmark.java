@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.contikimote;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.Simulation;
+import org.contikios.cooja.TestSimulations;
+import org.contikios.cooja.mote.memory.ArrayMemory;
+import org.contikios.cooja.mote.memory.MemoryLayout;
+import org.contikios.cooja.mote.memory.SectionMoteMemory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copies the memory of Cooja motes to and from the memory of the Contiki system,
+ * as the motes of a type do around every tick, with sections in native memory
+ * standing in for the library. Every tick writes a page of its own mote, and a
+ * page that all motes write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContikiMemoryBenchmark {
+  private static final int DATA_SIZE = 8 * 1024;
+
+  /** Number of motes that take turns to tick. */
+  @Param({"1", "16"})
+  public int motes;
+
+  @Param({"32768", "262144"})
+  public int bssSize;
+
+  private final Arena arena = Arena.ofShared();
+  private Simulation sim;
+  private ContikiMoteType type;
+  private MemorySegment bss;
+  private SectionMoteMemory[] memories;
+  private int tick;
+
+  @Setup
+  public void setUp() throws Exception {
+    sim = TestSimulations.createSimulation("Contiki memory benchmark",
+        "org.contikios.cooja.radiomediums.SilentRadioMedium", 1, Files.createTempDirectory("cooja"), Map.of(), "");
+    type = new ContikiMoteType(sim.getCooja());
+    var layout = new MemoryLayout(ByteOrder.nativeOrder(), MemoryLayout.ARCH_64BIT, 4);
+    var data = arena.allocate(DATA_SIZE);
+    bss = arena.allocate(bssSize);
+    var initial = new SectionMoteMemory(new HashMap<>());
+    initial.addMemorySection("data", new ArrayMemory(data.address(), layout, new byte[DATA_SIZE], null));
+    initial.addMemorySection("bss", new ArrayMemory(bss.address(), layout, new byte[bssSize], null));
+    type.getCoreMemory(initial);
+    memories = new SectionMoteMemory[motes];
+    for (int i = 0; i < motes; i++) {
+      memories[i] = initial.clone();
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    TestSimulations.runUntil(sim, 0);
+    arena.close();
+  }
+
+  @Benchmark
+  public int tick() {
+    int mote = tick++ % motes;
+    var memory = memories[mote];
+    type.setCoreMemory(memory);
+    bss.set(ValueLayout.JAVA_INT, (long) mote * SectionMoteMemory.PAGE_SIZE, tick);
+    bss.set(ValueLayout.JAVA_INT, bssSize - 4, tick);
+    type.getCoreMemory(memory);
+    return tick;
+  }
+}
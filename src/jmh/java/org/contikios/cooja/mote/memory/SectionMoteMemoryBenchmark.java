@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.mote.memory;
+
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.mote.memory.MemoryInterface.SegmentMonitor;
+import org.contikios.cooja.mote.memory.MemoryInterface.Symbol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copies the memory of a mote, and polls the memory for changes after a write
+ * through a symbol handle and after all pages changed, as the memory of a Cooja
+ * mote does after every tick.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SectionMoteMemoryBenchmark {
+  private static final long DATA_START = 0x10000;
+  private static final int DATA_SIZE = 8 * 1024;
+  private static final long BSS_START = 0x20000;
+  private static final int BSS_SIZE = 32 * 1024;
+  private static final int SEGMENT_SIZE = 32;
+
+  /** Number of monitored segments, spread over the bss section. */
+  @Param({"1", "16"})
+  public int monitors;
+
+  private SectionMoteMemory memory;
+  private SymbolHandle counter;
+  private int value;
+  private int changes;
+
+  @Setup
+  public void setUp() {
+    var symbols = new HashMap<String, Symbol>();
+    symbols.put("counter", new Symbol(Symbol.Type.VARIABLE, "counter", BSS_START, 4));
+    var layout = new MemoryLayout(ByteOrder.nativeOrder(), MemoryLayout.ARCH_64BIT, 4);
+    memory = new SectionMoteMemory(symbols);
+    memory.addMemorySection("data", new ArrayMemory(DATA_START, layout, new byte[DATA_SIZE], symbols));
+    memory.addMemorySection("bss", new ArrayMemory(BSS_START, layout, new byte[BSS_SIZE], symbols));
+    SegmentMonitor monitor = (mem, type, address) -> changes++;
+    for (int i = 0; i < monitors; i++) {
+      memory.addSegmentMonitor(SegmentMonitor.EventType.WRITE,
+          BSS_START + (long) i * (BSS_SIZE / monitors), SEGMENT_SIZE, monitor);
+    }
+    counter = memory.getSymbolHandle(symbols.get("counter"));
+  }
+
+  @Benchmark
+  public SectionMoteMemory copy() {
+    return memory.clone();
+  }
+
+  @Benchmark
+  public int pollWritten() {
+    counter.setInt(value++);
+    memory.pollForMemoryChanges();
+    return changes;
+  }
+
+  @Benchmark
+  public int pollAllChanged() {
+    memory.allPagesChanged();
+    memory.pollForMemoryChanges();
+    return changes;
+  }
+}
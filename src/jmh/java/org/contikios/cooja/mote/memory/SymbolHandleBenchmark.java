@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.mote.memory;
+
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.mote.memory.MemoryInterface.Symbol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares variable accesses by name with accesses through symbol handles, for
+ * the accesses the clock, radio, serial port and LED interfaces of a Cooja mote
+ * make on every tick when nothing happens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SymbolHandleBenchmark {
+  private static final String[] INT64 = {"simCurrentTime", "simRtimerCurrentTicks",
+      "simRtimerNextExpirationTime", "simEtimerNextExpirationTime"};
+  private static final String[] INT = {"simRtimerPending", "simProcessRunValue",
+      "simEtimerPending", "simRadioChannel", "simLoggedLength"};
+  private static final String[] BYTE = {"simRadioHWOn", "simPower", "simLoggedFlag",
+      "simLedsValue"};
+
+  private VarMemory mem;
+  private long tick;
+
+  private SymbolHandle simCurrentTime;
+  private SymbolHandle simRtimerCurrentTicks;
+  private SymbolHandle simRtimerPending;
+  private SymbolHandle simRtimerNextExpirationTime;
+  private SymbolHandle simProcessRunValue;
+  private SymbolHandle simEtimerPending;
+  private SymbolHandle simEtimerNextExpirationTime;
+  private SymbolHandle simRadioHWOn;
+  private SymbolHandle simPower;
+  private SymbolHandle simRadioChannel;
+  private SymbolHandle simLoggedFlag;
+  private SymbolHandle simLedsValue;
+
+  static SectionMoteMemory createMemory() {
+    var symbols = new HashMap<String, Symbol>();
+    long addr = 0x1000;
+    for (var names : new String[][] {INT64, INT, BYTE}) {
+      int size = names == INT64 ? 8 : names == INT ? 4 : 1;
+      for (var name : names) {
+        symbols.put(name, new Symbol(Symbol.Type.VARIABLE, name, addr, size));
+        addr += 8;
+      }
+    }
+    var layout = new MemoryLayout(ByteOrder.nativeOrder(), MemoryLayout.ARCH_64BIT, 4);
+    var memory = new SectionMoteMemory(symbols);
+    memory.addMemorySection("data", new ArrayMemory(0x1000, layout, new byte[4096], symbols));
+    memory.addMemorySection("bss", new ArrayMemory(0x2000, layout, new byte[4096], symbols));
+    return memory;
+  }
+
+  @Setup
+  public void setUp() {
+    mem = new VarMemory(createMemory());
+    simCurrentTime = mem.getHandle("simCurrentTime");
+    simRtimerCurrentTicks = mem.getHandle("simRtimerCurrentTicks");
+    simRtimerPending = mem.getHandle("simRtimerPending");
+    simRtimerNextExpirationTime = mem.getHandle("simRtimerNextExpirationTime");
+    simProcessRunValue = mem.getHandle("simProcessRunValue");
+    simEtimerPending = mem.getHandle("simEtimerPending");
+    simEtimerNextExpirationTime = mem.getHandle("simEtimerNextExpirationTime");
+    simRadioHWOn = mem.getHandle("simRadioHWOn");
+    simPower = mem.getHandle("simPower");
+    simRadioChannel = mem.getHandle("simRadioChannel");
+    simLoggedFlag = mem.getHandle("simLoggedFlag");
+    simLedsValue = mem.getHandle("simLedsValue");
+  }
+
+  @Benchmark
+  public long names() {
+    long t = tick++;
+    // Before the tick.
+    mem.setInt64ValueOf("simCurrentTime", t / 1000);
+    mem.setInt64ValueOf("simRtimerCurrentTicks", t);
+    // After the tick.
+    long sum = 0;
+    if (mem.getIntValueOf("simRtimerPending") != 0) {
+      sum += mem.getInt64ValueOf("simRtimerNextExpirationTime");
+    }
+    sum += mem.getIntValueOf("simProcessRunValue");
+    if (mem.getIntValueOf("simEtimerPending") != 0) {
+      sum += mem.getInt64ValueOf("simEtimerNextExpirationTime");
+    }
+    sum += mem.getByteValueOf("simRadioHWOn");
+    sum += mem.getByteValueOf("simPower");
+    sum += mem.getIntValueOf("simRadioChannel");
+    sum += mem.getByteValueOf("simLoggedFlag");
+    sum += mem.getByteValueOf("simLedsValue");
+    return sum;
+  }
+
+  @Benchmark
+  public long handles() {
+    long t = tick++;
+    simCurrentTime.setLong(t / 1000);
+    simRtimerCurrentTicks.setLong(t);
+    long sum = 0;
+    if (simRtimerPending.getInt() != 0) {
+      sum += simRtimerNextExpirationTime.getLong();
+    }
+    sum += simProcessRunValue.getInt();
+    if (simEtimerPending.getInt() != 0) {
+      sum += simEtimerNextExpirationTime.getLong();
+    }
+    sum += simRadioHWOn.getByte();
+    sum += simPower.getByte();
+    sum += simRadioChannel.getInt();
+    sum += simLoggedFlag.getByte();
+    sum += simLedsValue.getByte();
+    return sum;
+  }
+}
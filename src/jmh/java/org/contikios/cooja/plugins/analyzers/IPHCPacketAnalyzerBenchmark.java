@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.plugins.analyzers;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes IPHC compressed IPv6 headers as the radio logger does for every
+ * packet: a unicast UDP datagram with a compressed UDP header, and a link-local
+ * multicast ICMPv6 message with the next header inline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IPHCPacketAnalyzerBenchmark {
+  private static final byte[] SENDER = {0x02, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x01};
+  private static final byte[] RECEIVER = {0x02, 0x02, 0x00, 0x02, 0x00, 0x02, 0x00, 0x02};
+
+  @Param({"udp", "icmp"})
+  public String type;
+
+  private final IPHCPacketAnalyzer analyzer = new IPHCPacketAnalyzer();
+  private final StringBuilder brief = new StringBuilder();
+  private final StringBuilder verbose = new StringBuilder();
+  private byte[] data;
+
+  @Setup
+  public void setUp() {
+    byte[] header = switch (type) {
+      // TF elided, next header compressed, hop limit 64, both addresses from the link layer,
+      // then a UDP header with inline ports and checksum.
+      case "udp" -> new byte[] {0x7e, 0x33, (byte) 0xf0, 0x16, 0x33, 0x16, 0x34, 0x12, 0x34};
+      // TF elided, next header ICMPv6 inline, hop limit 255, source from the link layer,
+      // destination ff02::1a.
+      case "icmp" -> new byte[] {0x7b, 0x3b, 0x3a, 0x1a};
+      default -> throw new IllegalArgumentException("Unknown packet type: " + type);
+    };
+    data = new byte[header.length + 32];
+    System.arraycopy(header, 0, data, 0, header.length);
+  }
+
+  @Benchmark
+  public int analyzePacket() {
+    brief.setLength(0);
+    verbose.setLength(0);
+    var packet = new PacketAnalyzer.Packet(data, PacketAnalyzer.NETWORK_LEVEL, 0);
+    packet.llsender = SENDER;
+    packet.llreceiver = RECEIVER;
+    return analyzer.analyzePacket(packet, brief, verbose) + verbose.length();
+  }
+}
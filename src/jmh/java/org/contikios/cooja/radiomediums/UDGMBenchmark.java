@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.radiomediums;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.Simulation;
+import org.contikios.cooja.TestSimulations;
+import org.contikios.cooja.interfaces.Radio;
+import org.contikios.cooja.motes.DisturberMoteType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates the connection of a transmission from every radio of a simulation, with
+ * the motes placed at random in a square sized for the requested average number of
+ * neighbors. The connections are created on the simulation thread, as the radio
+ * medium draws random numbers, so every invocation measures one connection per radio.
+ * <p>
+ * The interference range is the transmission range, so no receiver is left
+ * interfered by one connection when the next one is created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UDGMBenchmark {
+  private static final double RANGE = 50;
+
+  @Param({"100", "1000"})
+  public int motes;
+
+  /** Average number of radios within range of a radio. */
+  @Param({"4", "16", "64"})
+  public int neighbors;
+
+  private Simulation sim;
+  private UDGM udgm;
+  private Radio[] radios;
+
+  @Setup
+  public void setUp() throws Exception {
+    sim = TestSimulations.createSimulation("UDGM benchmark", "org.contikios.cooja.radiomediums.UDGM", 1,
+        Files.createTempDirectory("cooja"), Map.of(), "");
+    udgm = (UDGM) sim.getRadioMedium();
+    udgm.setTxRange(RANGE);
+    udgm.setInterferenceRange(RANGE);
+    var type = new DisturberMoteType();
+    type.configureAndInit(null, sim, false);
+    sim.addMoteType(type);
+    double side = Math.sqrt(motes * Math.PI * RANGE * RANGE / neighbors);
+    var random = new Random(1);
+    TestSimulations.callOnSimulationThread(sim, () -> {
+      for (int i = 0; i < motes; i++) {
+        var mote = type.generateMote(sim);
+        mote.getInterfaces().getMoteID().setMoteID(i + 1);
+        mote.getInterfaces().getPosition().setCoordinates(random.nextDouble() * side, random.nextDouble() * side, 0);
+        sim.addMote(mote);
+      }
+      return null;
+    });
+    radios = TestSimulations.callOnSimulationThread(sim, () -> {
+      var result = new Radio[motes];
+      for (int i = 0; i < motes; i++) {
+        result[i] = sim.getMote(i).getInterfaces().getRadio();
+      }
+      return result;
+    });
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    TestSimulations.runUntil(sim, 0);
+  }
+
+  @Benchmark
+  public int createConnections() throws Exception {
+    return TestSimulations.callOnSimulationThread(sim, () -> {
+      int destinations = 0;
+      for (var radio : radios) {
+        destinations += udgm.createConnections(radio).getDestinations().length;
+      }
+      return destinations;
+    });
+  }
+}
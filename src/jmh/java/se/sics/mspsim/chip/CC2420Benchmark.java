@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.chip;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sics.mspsim.core.IOPort;
+import se.sics.mspsim.core.MSP430;
+import se.sics.mspsim.core.MSP430Benchmark;
+import se.sics.mspsim.core.USART;
+import se.sics.mspsim.util.CCITT_CRC;
+
+/**
+ * Receives broadcast data frames byte by byte in a CC2420, from the preamble
+ * to the checked CRC, and flushes the RX FIFO after each frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CC2420Benchmark {
+
+    /** Length of the MAC payload of the frames. */
+    @Param({"10", "50", "110"})
+    public int payload;
+
+    private MSP430 cpu;
+    private USART usart;
+    private CC2420 radio;
+    private byte[] frame;
+
+    private void run(CC2420.RadioState state) {
+        while (radio.getState() != state) {
+            cpu.emulateOP(-1);
+        }
+    }
+
+    private void strobe(int command) {
+        radio.setChipSelect(true);
+        radio.dataReceived(usart, command);
+        radio.setChipSelect(false);
+    }
+
+    @Setup
+    public void setUp() {
+        cpu = MSP430Benchmark.createCPU();
+        usart = cpu.getIOUnit(USART.class, "USART0");
+        radio = new CC2420(cpu);
+        // The pins of the Sky mote.
+        IOPort port1 = cpu.getIOUnit(IOPort.class, "P1");
+        IOPort port4 = cpu.getIOUnit(IOPort.class, "P4");
+        radio.setCCAPort(port1, 4);
+        radio.setFIFOPPort(port1, 0);
+        radio.setFIFOPort(port1, 3);
+        radio.setSFDPort(port4, 1);
+
+        radio.setVRegOn(true);
+        run(CC2420.RadioState.POWER_DOWN);
+        strobe(CC2420.REG_SXOSCON);
+        run(CC2420.RadioState.IDLE);
+        strobe(CC2420.REG_SRXON);
+        run(CC2420.RadioState.RX_SFD_SEARCH);
+
+        // Preamble, start of frame delimiter and length, then the frame.
+        int length = 9 + payload + 2;
+        frame = new byte[6 + length];
+        frame[4] = 0x7a;
+        frame[5] = (byte) length;
+        byte[] header = {0x41, (byte) 0x88, 1, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 2, 0};
+        System.arraycopy(header, 0, frame, 6, header.length);
+        for (int i = 0; i < payload; i++) {
+            frame[15 + i] = (byte) i;
+        }
+        CCITT_CRC crc = new CCITT_CRC();
+        crc.setCRC(0);
+        for (int i = 6; i < frame.length - 2; i++) {
+            crc.addBitrev(frame[i] & 0xff);
+        }
+        int fcs = crc.getCRCBitrev();
+        frame[frame.length - 2] = (byte) (fcs >> 8);
+        frame[frame.length - 1] = (byte) fcs;
+    }
+
+    @Benchmark
+    public CC2420.RadioState receiveFrame() {
+        for (byte b : frame) {
+            radio.receivedByte(b);
+        }
+        CC2420.RadioState state = radio.getState();
+        strobe(CC2420.REG_SFLUSHRX);
+        run(CC2420.RadioState.RX_SFD_SEARCH);
+        return state;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Emulates a fixed mix of MSP430 instructions: register, immediate, absolute,
+ * indirect and stack operands, byte and word sizes, a call and a jump.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MSP430Benchmark {
+
+    private static final int[] PROGRAM = {
+        0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+        0x4031, 0x3800,         // mov #0x3800, sp
+        // loop:
+        0x4034, 0x1234,         // mov #0x1234, r4
+        0x5405,                 // add r4, r5
+        0x4582, 0x1100,         // mov r5, &0x1100
+        0x4216, 0x1100,         // mov &0x1100, r6
+        0xe607,                 // xor r6, r7
+        0x5707,                 // rla r7
+        0x4468,                 // mov.b @r4, r8
+        0x1205,                 // push r5
+        0x4139,                 // pop r9
+        0x12b0, 0x402a,         // call #sub
+        0x9506,                 // cmp r5, r6
+        0x3ff0,                 // jmp loop
+        // sub:
+        0x1107,                 // rra r7
+        0x4130,                 // ret
+    };
+
+    private MSP430 cpu;
+
+    /**
+     * Creates an MSP430F1611 that runs the instruction mix of this benchmark
+     * from reset, with the reset already executed.
+     */
+    public static MSP430 createCPU() {
+        MSP430 cpu = TestPrograms.createCPU(PROGRAM);
+        cpu.reset();
+        // The reset is executed by the next emulated instruction.
+        cpu.emulateOP(-1);
+        return cpu;
+    }
+
+    @Setup
+    public void setUp() {
+        cpu = createCPU();
+    }
+
+    @Benchmark
+    public int emulateOP() {
+        return cpu.emulateOP(-1);
+    }
+}
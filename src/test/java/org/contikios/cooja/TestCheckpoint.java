@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.contikios.cooja.mspmote.MspMote;
+import org.contikios.cooja.radiomediums.UDGM;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Saves a checkpoint of Sky motes and continues from it, which must give the
+ * same log and the same final state as the run that was saved.
+ */
+class TestCheckpoint {
+  private static final String FIRMWARE = "firmware/sky/energest-demo.sky";
+  private static final String SCRIPT = """
+      while (true) {
+        log.log(time + " " + id + " " + msg + "\\n");
+        YIELD();
+      }""";
+  private static final long STOP_TIME = 10 * Simulation.MILLISECOND * 1000;
+
+  @TempDir
+  Path tempDir;
+
+  /** The start time, the log and radio events after a time, and the CPU state of each mote at the end. */
+  private record Result(long start, List<String> log, List<String> radio, List<int[]> registers, List<int[]> memory) {
+    Result after(long time) {
+      return new Result(time, after(log, time), after(radio, time), registers, memory);
+    }
+
+    private static List<String> after(List<String> lines, long time) {
+      return lines.stream().filter(line -> line.matches("\\d+ .*")
+          && Long.parseLong(line.substring(0, line.indexOf(' '))) > time).toList();
+    }
+  }
+
+  private Result run(String name, Map<String, String> opts, Path checkpoint, long saveTime) throws Exception {
+    var logDir = Files.createDirectories(tempDir.resolve(name));
+    var sim = TestSimulations.createSimulation("Checkpoint", UDGM.class.getName(), 1, Simulation.MILLISECOND * 1000,
+        logDir, opts, SCRIPT, TestSimulations.createSkyMoteType(Path.of(FIRMWARE), 4));
+    long start = sim.getSimulationTime();
+    var radio = new ArrayList<String>();
+    TestSimulations.callOnSimulationThread(sim, () -> {
+      // Lose transmissions at random, so the run depends on the random generator.
+      ((UDGM) sim.getRadioMedium()).SUCCESS_RATIO_TX = 0.5;
+      for (var mote : sim.getMotes()) {
+        mote.getInterfaces().getRadio().getRadioEventTriggers().addTrigger(this, (event, r) ->
+            radio.add(sim.getSimulationTime() + " " + mote.getID() + " " + event));
+      }
+      if (checkpoint != null) {
+        sim.scheduleEvent(new TimeEvent() {
+          @Override
+          public void execute(long t) {
+            sim.saveCheckpoint(checkpoint.toString());
+          }
+        }, saveTime);
+      }
+      return null;
+    });
+    assertNull(TestSimulations.runUntil(sim, STOP_TIME));
+    var registers = new ArrayList<int[]>();
+    var memory = new ArrayList<int[]>();
+    for (var mote : sim.getMotes()) {
+      var cpu = ((MspMote) mote).getCPU();
+      registers.add(cpu.reg.clone());
+      memory.add(cpu.memory.clone());
+    }
+    var log = Files.readString(logDir.resolve("COOJA.testlog")).lines().toList();
+    return new Result(start, log, radio, registers, memory);
+  }
+
+  private static void assertSameResult(Result expected, Result actual) {
+    assertEquals(expected.log, actual.log);
+    assertEquals(expected.radio, actual.radio);
+    for (int i = 0; i < expected.memory.size(); i++) {
+      assertArrayEquals(expected.registers.get(i), actual.registers.get(i), "Registers of mote " + (i + 1));
+      assertArrayEquals(expected.memory.get(i), actual.memory.get(i), "Memory of mote " + (i + 1));
+    }
+  }
+
+  /** Saves a checkpoint, continues from it and checks that the runs agree after the checkpoint. */
+  private Result saveAndContinue(long saveTime) throws Exception {
+    var checkpoint = tempDir.resolve("checkpoint-" + saveTime + ".gz");
+    var saved = run("save-" + saveTime, Map.of(), checkpoint, saveTime);
+    assertTrue(Files.exists(checkpoint));
+    var restored = run("restore-" + saveTime, Map.of("checkpoint", checkpoint.toString()), null, 0);
+    assertTrue(restored.start >= saveTime, "Restored at " + restored.start);
+    var expected = saved.after(restored.start);
+    assertFalse(expected.radio.isEmpty());
+    assertSameResult(expected, restored.after(restored.start));
+    return expected;
+  }
+
+  @Test
+  void testContinueBootingMotes() throws Exception {
+    // Some motes have booted at the checkpoint, the others boot and log after it.
+    var saved = saveAndContinue(700 * Simulation.MILLISECOND);
+    assertFalse(saved.log.isEmpty());
+    // Saving the checkpoint does not change the simulation.
+    var full = run("full", Map.of(), null, 0);
+    assertSameResult(full.after(saved.start), saved);
+  }
+
+  @Test
+  void testContinueAfterTransmissions() throws Exception {
+    // Transmissions before the checkpoint have drawn from the random generator.
+    saveAndContinue(7 * Simulation.MILLISECOND * 1000);
+  }
+}
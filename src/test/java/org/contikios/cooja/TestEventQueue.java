@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TestEventQueue {
+  private static final class Event extends TimeEvent {
+    final int id;
+
+    Event(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public void execute(long t) {
+    }
+  }
+
+  /** Applies the same random schedule, remove and pop operations to both queues. */
+  @Test
+  void testSameOrder() {
+    var heap = EventQueue.create("heap");
+    var pairs = EventQueue.create("priority");
+    var heapEvents = new ArrayList<Event>();
+    var pairEvents = new ArrayList<Event>();
+    for (int i = 0; i < 200; i++) {
+      heapEvents.add(new Event(i));
+      pairEvents.add(new Event(i));
+    }
+    var random = new Random(4711);
+    long now = 0;
+    for (int step = 0; step < 100000; step++) {
+      int i = random.nextInt(heapEvents.size());
+      var a = heapEvents.get(i);
+      var b = pairEvents.get(i);
+      switch (random.nextInt(4)) {
+        case 0, 1 -> {
+          if (!a.isScheduled()) {
+            // Few distinct times, so the insertion order decides many ties.
+            long time = now + random.nextInt(8);
+            heap.addEvent(a, time);
+            pairs.addEvent(b, time);
+          }
+        }
+        case 2 -> {
+          a.remove();
+          b.remove();
+        }
+        default -> {
+          var first = (Event) heap.popFirst();
+          var second = (Event) pairs.popFirst();
+          if (first == null) {
+            assertNull(second);
+          } else {
+            assertEquals(second.id, first.id);
+            assertEquals(second.queueTime, first.queueTime);
+            now = first.queueTime;
+          }
+        }
+      }
+    }
+    Event first;
+    while ((first = (Event) heap.popFirst()) != null) {
+      assertEquals(first.id, ((Event) pairs.popFirst()).id);
+    }
+    assertNull(pairs.popFirst());
+  }
+
+  @Test
+  void testAlreadyScheduled() {
+    var queue = EventQueue.create("heap");
+    var event = new Event(0);
+    queue.addEvent(event, 10);
+    assertThrows(IllegalStateException.class, () -> queue.addEvent(event, 20));
+    event.remove();
+    queue.addEvent(event, 5);
+    assertEquals(event, queue.popFirst());
+    assertEquals(5, event.queueTime);
+    assertNull(queue.popFirst());
+  }
+}
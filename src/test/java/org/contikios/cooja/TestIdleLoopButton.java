@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.contikios.cooja.mspmote.MspMote;
+import org.contikios.cooja.radiomediums.SilentRadioMedium;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.sics.mspsim.core.TestPrograms;
+
+/**
+ * Presses the button of a Sky mote that polls the button pin in a loop. With
+ * msp-skip-idle the press lands in a skipped iteration of the loop, and the
+ * loop must see it at the same time as when every iteration executes.
+ */
+class TestIdleLoopButton {
+  private static final String FIRMWARE = "firmware/sky/blink.sky";
+  /** Stores the counter of timer A at 0x1100 and 1 at 0x1102 when the button is pressed. */
+  private static final int[] PROGRAM = {
+    0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+    0x40b2, 0x0224, 0x0160, // mov #TASSEL_2|MC_2|TACLR, &TACTL
+    // loop:
+    0xb0f2, 0x0080, 0x0028, // bit.b #BIT7, &P2IN
+    0x27fc,                 // jz loop
+    0x4292, 0x0170, 0x1100, // mov &TAR, &0x1100
+    0x4392, 0x1102,         // mov #1, &0x1102
+    0x3fff,                 // jmp $
+  };
+  private static final long PRESS_TIME = 100 * Simulation.MILLISECOND;
+
+  @TempDir
+  Path tempDir;
+
+  private record Result(int[] registers, int counter, int pressed) {
+  }
+
+  private Result run(boolean skipIdleLoops) throws Exception {
+    var logDir = Files.createDirectories(tempDir.resolve("skip-" + skipIdleLoops));
+    var sim = TestSimulations.createSimulation("Button", SilentRadioMedium.class.getName(), 1, 0, logDir,
+        Map.of("msp-skip-idle", Boolean.toString(skipIdleLoops)), "",
+        TestSimulations.createSkyMoteType(Path.of(FIRMWARE), 1));
+    var mote = TestSimulations.callOnSimulationThread(sim, () -> (MspMote) sim.getMote(0));
+    var cpu = mote.getCPU();
+    TestSimulations.callOnSimulationThread(sim, () -> {
+      // The CPU resets at its first step and starts the program.
+      TestPrograms.loadProgram(cpu, PROGRAM);
+      sim.scheduleEvent(new TimeEvent() {
+        @Override
+        public void execute(long t) {
+          assertEquals(skipIdleLoops, cpu.isIdleLoopSleep(), "Sleeps in the loop at the press");
+          mote.getInterfaces().getButton().clickButton();
+        }
+      }, PRESS_TIME);
+      return null;
+    });
+    assertNull(TestSimulations.runUntil(sim, PRESS_TIME + 10 * Simulation.MILLISECOND));
+    if (skipIdleLoops) {
+      assertTrue(cpu.getIdleLoopSkippedCycles() > 0, "Skipped " + cpu.getIdleLoopSkippedCycles());
+    }
+    return new Result(cpu.reg.clone(), cpu.getMemoryByte(0x1100) | cpu.getMemoryByte(0x1101) << 8,
+        cpu.getMemoryByte(0x1102));
+  }
+
+  @Test
+  void testPressInSkippedLoop() throws Exception {
+    var expected = run(false);
+    assertEquals(1, expected.pressed);
+    var actual = run(true);
+    assertEquals(1, actual.pressed, "Press seen");
+    assertEquals(expected.counter, actual.counter, "Timer counter when the press is seen");
+    assertArrayEquals(expected.registers, actual.registers);
+  }
+}
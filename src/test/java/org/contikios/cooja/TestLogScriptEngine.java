@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.contikios.cooja.motes.AbstractApplicationMote;
+import org.contikios.cooja.motes.DisturberMoteType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs test scripts in their virtual script thread, against the log output of
+ * a mote at 1, 2 and 3 ms. The simulation thread evaluates the conditions of
+ * WAIT_UNTIL.
+ */
+public class TestLogScriptEngine {
+  private static final String WAIT_SCRIPT = """
+      log.log("thread " + java.lang.Thread.currentThread().getName() + "\\n");
+      WAIT_UNTIL(msg.equals("msg 2"));
+      log.log("got " + msg + " at " + time + "\\n");
+      YIELD();
+      log.log("next " + msg + "\\n");
+      log.testOK();
+      """;
+
+  /** Counts the evaluations of the condition and the threads that evaluate it. */
+  private static final String WAIT_THREAD_SCRIPT = """
+      var threads = new java.util.HashSet();
+      var checks = 0;
+      WAIT_UNTIL(threads.add(java.lang.Thread.currentThread().getName()) | ++checks > 0 && msg.equals("msg 3"));
+      log.log("checks " + checks + " in " + threads.size() + " threads\\n");
+      log.testOK();
+      """;
+
+  private static final String WAIT_ERROR_SCRIPT = """
+      WAIT_UNTIL(msg.equals("msg 2") ? null.x : false);
+      log.log("not reached\\n");
+      """;
+
+  private static final String TIMEOUT_SCRIPT = """
+      TIMEOUT(10, log.log("timeout after " + msg + "\\n"));
+      while (true) {
+        YIELD();
+      }
+      """;
+
+  private static final String SHUTDOWN_SCRIPT = """
+      try {
+        while (true) {
+          YIELD();
+        }
+      } finally {
+        log.log("shutdown " + SHUTDOWN + " after " + msg + "\\n");
+      }
+      """;
+
+  @TempDir
+  Path logDir;
+
+  private record Result(Integer returnValue, String log) {}
+
+  private Result run(String script) throws Exception {
+    var sim = TestSimulations.createSimulation("Script test",
+        "org.contikios.cooja.radiomediums.SilentRadioMedium", 1, logDir, Map.of(), script);
+    var type = new DisturberMoteType();
+    type.configureAndInit(null, sim, false);
+    sim.addMoteType(type);
+    TestSimulations.callOnSimulationThread(sim, () -> {
+      var mote = (AbstractApplicationMote) type.generateMote(sim);
+      sim.addMote(mote);
+      for (int i = 1; i <= 3; i++) {
+        var msg = "msg " + i;
+        sim.scheduleEvent(new MoteTimeEvent(mote) {
+          @Override
+          public void execute(long t) {
+            mote.log(msg);
+          }
+        }, i * Simulation.MILLISECOND);
+      }
+      return null;
+    });
+    var rv = TestSimulations.runUntil(sim, 20 * Simulation.MILLISECOND);
+    return new Result(rv, Files.readString(logDir.resolve("COOJA.testlog")));
+  }
+
+  @Test
+  public void testWaitUntil() throws Exception {
+    var result = run(WAIT_SCRIPT);
+    assertNull(result.returnValue);
+    assertTrue(result.log.contains("thread script\n"), result.log);
+    assertTrue(result.log.contains("got msg 2 at 2000\nnext msg 3\nTEST OK\n"), result.log);
+  }
+
+  @Test
+  public void testWaitUntilInSimulationThread() throws Exception {
+    // The script thread checks the condition first, the simulation thread for msg 2 and 3.
+    var result = run(WAIT_THREAD_SCRIPT);
+    assertNull(result.returnValue);
+    assertTrue(result.log.contains("checks 3 in 2 threads\nTEST OK\n"), result.log);
+  }
+
+  @Test
+  public void testWaitUntilError() throws Exception {
+    var result = run(WAIT_ERROR_SCRIPT);
+    assertEquals(1, result.returnValue);
+    assertTrue(result.log.contains("TEST FAILED\n"), result.log);
+    assertFalse(result.log.contains("not reached"), result.log);
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    var result = run(TIMEOUT_SCRIPT);
+    assertEquals(1, result.returnValue);
+    assertTrue(result.log.contains("timeout after msg 3\nTEST TIMEOUT\nTEST FAILED\n"), result.log);
+    assertTrue(result.log.endsWith("Test ended at simulation time: 10000\n"), result.log);
+  }
+
+  @Test
+  public void testShutdownWhileSuspended() throws Exception {
+    var result = run(SHUTDOWN_SCRIPT);
+    assertNull(result.returnValue);
+    assertTrue(result.log.contains("shutdown true after msg 3\n"), result.log);
+    assertFalse(result.log.contains("TEST"), result.log);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Map;
+import org.contikios.cooja.radiomediums.SilentRadioMedium;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the clock of a mote executing ahead of the simulation time is
+ * only read at sync points, not when the simulation time is read.
+ */
+class TestMoteQuantum {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testSyncPoints() throws Exception {
+    var sim = TestSimulations.createSimulation("Quantum", SilentRadioMedium.class.getName(), 1, tempDir,
+        Map.of("mote-quantum", "1000"), "");
+    try {
+      TestSimulations.callOnSimulationThread(sim, () -> {
+        long start = sim.getSimulationTime();
+        int[] reads = new int[1];
+        sim.setQuantumClock(() -> {
+          reads[0]++;
+          return start + 100;
+        });
+        assertEquals(start, sim.getSimulationTime(), "Time before sync");
+        assertEquals(0, reads[0], "Clock reads before sync");
+        sim.syncQuantum();
+        assertEquals(start + 100, sim.getSimulationTime(), "Time after sync");
+        sim.syncQuantum();
+        assertEquals(1, reads[0], "Clock reads after two syncs");
+
+        sim.setQuantumClock(() -> {
+          reads[0]++;
+          return start + 200;
+        });
+        sim.scheduleEvent(new TimeEvent() {
+          @Override
+          public void execute(long t) {
+          }
+        }, start + 300);
+        assertEquals(start + 200, sim.getSimulationTime(), "Time after scheduling an event");
+        assertEquals(2, reads[0], "Clock reads after scheduling an event");
+        sim.setQuantumClock(null);
+        return null;
+      });
+    } finally {
+      TestSimulations.runUntil(sim, 0);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.contikios.cooja.interfaces.Radio;
+import org.contikios.cooja.mspmote.MspMote;
+import org.contikios.cooja.plugins.PowerTracker;
+import org.contikios.cooja.radiomediums.UDGM;
+import org.contikios.cooja.serialsocket.SerialSocketServer;
+import org.contikios.cooja.util.EventTriggers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs Sky motes that send and receive with X-MAC sequentially and in parallel,
+ * which must give the same log, the same radio states and duty cycles, and the same
+ * final state.
+ */
+class TestParallelExecutor {
+  private static final String FIRMWARE = "firmware/sky/energest-demo.sky";
+  private static final String SCRIPT = """
+      while (true) {
+        log.log(time + " " + id + " " + msg + "\\n");
+        YIELD();
+      }""";
+  private static final long STOP_TIME = 10 * Simulation.MILLISECOND * 1000;
+
+  @TempDir
+  Path tempDir;
+
+  /** The log, the radio events, and the radio counters, duty cycles and CPU state of each mote at the end. */
+  private record Result(String log, long windows, List<String> radio, String dutyCycles, List<int[]> registers,
+                        List<int[]> memory) {
+  }
+
+  private Result run(int threads) throws Exception {
+    var logDir = Files.createDirectories(tempDir.resolve("threads-" + threads));
+    var opts = Map.of("parallel", Integer.toString(threads));
+    var sim = TestSimulations.createSimulation("Parallel", UDGM.class.getName(), 1, Simulation.MILLISECOND * 1000,
+        logDir, opts, SCRIPT, TestSimulations.createSkyMoteType(Path.of(FIRMWARE), 4));
+    var radio = new ArrayList<String>();
+    var powerTracker = TestSimulations.callOnSimulationThread(sim, () -> {
+      for (var mote : sim.getMotes()) {
+        mote.getInterfaces().getRadio().getRadioEventTriggers().addTrigger(this,
+            (EventTriggers.Capturing<Radio.RadioEvent, Radio>) (event, r) -> {
+              var state = sim.getSimulationTime() + " " + mote.getID() + " " + event + " on " + r.isRadioOn()
+                  + " channel " + r.getChannel();
+              return () -> radio.add(state);
+            });
+      }
+      return new PowerTracker(sim, null);
+    });
+    assertNull(TestSimulations.runUntil(sim, STOP_TIME));
+    var medium = (UDGM) sim.getRadioMedium();
+    radio.add("tx " + medium.COUNTER_TX + " rx " + medium.COUNTER_RX + " interfered " + medium.COUNTER_INTERFERED);
+    var registers = new ArrayList<int[]>();
+    var memory = new ArrayList<int[]>();
+    for (var mote : sim.getMotes()) {
+      var cpu = ((MspMote) mote).getCPU();
+      registers.add(cpu.reg.clone());
+      memory.add(cpu.memory.clone());
+    }
+    var executor = sim.getParallelExecutor();
+    return new Result(Files.readString(logDir.resolve("COOJA.testlog")), executor == null ? 0 : executor.getWindows(),
+        radio, powerTracker.radioStatistics(true, true, false), registers, memory);
+  }
+
+  /** Returns the serial output of mote 1 that a serial socket server forwards. */
+  private String runSerialSocket(int threads) throws Exception {
+    var logDir = Files.createDirectories(tempDir.resolve("socket-threads-" + threads));
+    var opts = Map.of("parallel", Integer.toString(threads));
+    var sim = TestSimulations.createSimulation("Parallel", UDGM.class.getName(), 1, Simulation.MILLISECOND * 1000,
+        logDir, opts, SCRIPT, TestSimulations.createSkyMoteType(Path.of(FIRMWARE), 4));
+    int port;
+    try (var socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    var connected = new CompletableFuture<Void>();
+    var server = TestSimulations.callOnSimulationThread(sim, () -> {
+      var plugin = new SerialSocketServer(sim.getMoteWithID(1), sim, sim.getCooja());
+      plugin.addServerListener(new SerialSocketServer.ServerListener() {
+        @Override
+        public void onServerStarted(int port) {
+        }
+
+        @Override
+        public void onClientConnected(Socket client) {
+          connected.complete(null);
+        }
+
+        @Override
+        public void onClientDisconnected() {
+        }
+
+        @Override
+        public void onServerStopped() {
+        }
+
+        @Override
+        public void onServerError(String msg) {
+          connected.completeExceptionally(new IllegalStateException(msg));
+        }
+      });
+      assertTrue(plugin.startServer(port));
+      return plugin;
+    });
+    var output = new ByteArrayOutputStream();
+    try (var client = new Socket("localhost", port)) {
+      connected.get(10, TimeUnit.SECONDS);
+      var reader = new Thread(() -> {
+        try {
+          client.getInputStream().transferTo(output);
+        } catch (IOException e) {
+          // Closed by the server.
+        }
+      });
+      reader.start();
+      assertNull(TestSimulations.runUntil(sim, STOP_TIME));
+      // Closing the plugin closes the connection, after the forwarded output.
+      server.closePlugin();
+      reader.join(10_000);
+    }
+    return output.toString(StandardCharsets.ISO_8859_1);
+  }
+
+  @Test
+  void testSameAsSequential() throws Exception {
+    var sequential = run(1);
+    var parallel = run(4);
+    assertTrue(sequential.log.lines().count() > 10, sequential.log);
+    assertTrue(sequential.radio.getLast().matches("tx [1-9].* rx [1-9].*"), sequential.radio.getLast());
+    assertTrue(parallel.windows > 0);
+
+    assertEquals(sequential.log, parallel.log);
+    assertEquals(sequential.radio, parallel.radio);
+    assertEquals(sequential.dutyCycles, parallel.dutyCycles);
+    for (int i = 0; i < sequential.memory.size(); i++) {
+      assertArrayEquals(sequential.registers.get(i), parallel.registers.get(i), "Registers of mote " + (i + 1));
+      assertArrayEquals(sequential.memory.get(i), parallel.memory.get(i), "Memory of mote " + (i + 1));
+    }
+  }
+
+  @Test
+  void testSerialSocketSameAsSequential() throws Exception {
+    // Motes print several bytes in every window, the socket must get all of them.
+    var sequential = runSerialSocket(1);
+    assertTrue(sequential.lines().count() > 2, sequential);
+    assertEquals(sequential, runSerialSocket(4));
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.radiomediums;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import javax.swing.JPanel;
+import org.contikios.cooja.Mote;
+import org.contikios.cooja.MoteInterfaceHandler;
+import org.contikios.cooja.MoteType;
+import org.contikios.cooja.RadioPacket;
+import org.contikios.cooja.Simulation;
+import org.contikios.cooja.TestSimulations;
+import org.contikios.cooja.interfaces.Position;
+import org.contikios.cooja.interfaces.Radio;
+import org.contikios.cooja.mote.memory.MemoryInterface;
+import org.jdom2.Element;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the signal strengths and interference after each radio event, as
+ * updated for the affected radios, with an update of all radios.
+ */
+class TestSignalStrengths {
+  private static final int RADIOS = 150;
+
+  /** Radio that is controlled by the test. */
+  private static final class TestRadio extends Radio {
+    private final TestMote mote;
+    private final Position position;
+    boolean on = true;
+    boolean transmitting;
+    boolean receiving;
+    boolean interfered;
+    int channel = 26;
+    int power = 31;
+    private double signalStrength;
+    private RadioEvent lastEvent = RadioEvent.UNKNOWN;
+
+    TestRadio(TestMote mote) {
+      this.mote = mote;
+      position = new Position(mote);
+    }
+
+    void event(RadioEvent event) {
+      lastEvent = event;
+      radioEventTriggers.trigger(event, this);
+    }
+
+    @Override
+    public void setReceivedPacket(RadioPacket packet) {
+    }
+
+    @Override
+    public RadioPacket getLastPacketTransmitted() {
+      return null;
+    }
+
+    @Override
+    public RadioPacket getLastPacketReceived() {
+      return null;
+    }
+
+    @Override
+    public void signalReceptionStart() {
+      if (on && !transmitting) {
+        receiving = true;
+      }
+    }
+
+    @Override
+    public void signalReceptionEnd() {
+      boolean ended = receiving || interfered;
+      receiving = false;
+      interfered = false;
+      if (ended) {
+        event(RadioEvent.RECEPTION_FINISHED);
+      }
+    }
+
+    @Override
+    public RadioEvent getLastEvent() {
+      return lastEvent;
+    }
+
+    @Override
+    public boolean isTransmitting() {
+      return transmitting;
+    }
+
+    @Override
+    public boolean isReceiving() {
+      return receiving;
+    }
+
+    @Override
+    public boolean isInterfered() {
+      return interfered;
+    }
+
+    @Override
+    public boolean isRadioOn() {
+      return on;
+    }
+
+    @Override
+    public void interfereAnyReception() {
+      if (on) {
+        interfered = true;
+      }
+    }
+
+    @Override
+    public double getCurrentOutputPower() {
+      return 0;
+    }
+
+    @Override
+    public int getCurrentOutputPowerIndicator() {
+      return power;
+    }
+
+    @Override
+    public int getOutputPowerIndicatorMax() {
+      return 31;
+    }
+
+    @Override
+    public double getCurrentSignalStrength() {
+      return signalStrength;
+    }
+
+    @Override
+    public void setCurrentSignalStrength(double signalStrength) {
+      this.signalStrength = signalStrength;
+    }
+
+    @Override
+    public int getChannel() {
+      return channel;
+    }
+
+    @Override
+    public Position getPosition() {
+      return position;
+    }
+
+    @Override
+    public Mote getMote() {
+      return mote;
+    }
+
+    @Override
+    public String toString() {
+      return "Radio " + mote.id;
+    }
+  }
+
+  /** Mote that only has an ID, for radios that are registered directly with a radio medium. */
+  private record TestMote(Simulation sim, int id) implements Mote {
+    @Override
+    public int getID() {
+      return id;
+    }
+
+    @Override
+    public MoteInterfaceHandler getInterfaces() {
+      return null;
+    }
+
+    @Override
+    public MemoryInterface getMemory() {
+      return null;
+    }
+
+    @Override
+    public MoteType getType() {
+      return null;
+    }
+
+    @Override
+    public Simulation getSimulation() {
+      return sim;
+    }
+
+    @Override
+    public Collection<Element> getConfigXML() {
+      return null;
+    }
+
+    @Override
+    public boolean setConfigXML(Simulation simulation, Collection<Element> configXML, boolean visAvailable) {
+      return false;
+    }
+
+    @Override
+    public void setProperty(String key, Object obj) {
+    }
+
+    @Override
+    public Object getProperty(String key) {
+      return null;
+    }
+  }
+
+  private static void compareWithFullUpdates(Function<Simulation, AbstractRadioMedium> createMedium) throws Exception {
+    var sim = TestSimulations.createSimulation("Signal strengths",
+        "org.contikios.cooja.radiomediums.SilentRadioMedium", 1, Files.createTempDirectory("cooja"), Map.of(), "");
+    try {
+      TestSimulations.callOnSimulationThread(sim, () -> {
+        compareWithFullUpdates(sim, createMedium.apply(sim));
+        return null;
+      });
+    } finally {
+      TestSimulations.runUntil(sim, 0);
+    }
+  }
+
+  private static void compareWithFullUpdates(Simulation sim, AbstractRadioMedium medium) {
+    var random = new Random(7);
+    var radios = new TestRadio[RADIOS];
+    for (int i = 0; i < RADIOS; i++) {
+      radios[i] = new TestRadio(new TestMote(sim, i + 1));
+      radios[i].getPosition().setCoordinates(random.nextDouble() * 300, random.nextDouble() * 300, 0);
+      medium.registerRadioInterface(radios[i], sim);
+    }
+    if (medium instanceof DirectedGraphMedium dgrm) {
+      for (int i = 0; i < RADIOS * 8; i++) {
+        var destination = new DGRMDestinationRadio(radios[random.nextInt(RADIOS)]);
+        destination.signal = -90 + random.nextInt(80);
+        destination.ratio = random.nextDouble();
+        destination.channel = random.nextInt(5) == 0 ? 25 : -1;
+        dgrm.addEdge(new DirectedGraphMedium.Edge(radios[random.nextInt(RADIOS)], destination));
+      }
+    }
+    long updates = 0;
+    long updatedRadios = 0;
+    var signalStrengths = new double[RADIOS];
+    var interfered = new boolean[RADIOS];
+    for (int step = 0; step < 20000; step++) {
+      var radio = radios[random.nextInt(RADIOS)];
+      int op = random.nextInt(10);
+      if (op < 4) {
+        if (radio.transmitting) {
+          radio.transmitting = false;
+          radio.event(Radio.RadioEvent.TRANSMISSION_FINISHED);
+        } else if (radio.on) {
+          radio.transmitting = true;
+          radio.event(Radio.RadioEvent.TRANSMISSION_STARTED);
+        }
+      } else if (op < 6) {
+        if (!radio.transmitting) {
+          radio.channel = 25 + random.nextInt(2);
+          radio.interfered = false;
+          radio.event(Radio.RadioEvent.CHANNEL_HOP);
+        }
+      } else if (op < 7) {
+        if (!radio.transmitting) {
+          radio.on = !radio.on;
+          radio.receiving = false;
+          radio.event(radio.on ? Radio.RadioEvent.HW_ON : Radio.RadioEvent.HW_OFF);
+        }
+      } else if (op < 8) {
+        radio.power = 10 + random.nextInt(22);
+        radio.event(Radio.RadioEvent.UNKNOWN);
+      } else if (radio.receiving || radio.interfered) {
+        radio.signalReceptionEnd();
+      }
+      updates = medium.COUNTER_SIGNAL_UPDATES;
+      updatedRadios = medium.COUNTER_SIGNAL_RADIOS;
+      for (int i = 0; i < RADIOS; i++) {
+        signalStrengths[i] = radios[i].getCurrentSignalStrength();
+        interfered[i] = radios[i].isInterfered();
+      }
+      medium.updateSignalStrengths();
+      for (int i = 0; i < RADIOS; i++) {
+        assertEquals(signalStrengths[i], radios[i].getCurrentSignalStrength(),
+            "Signal strength of " + radios[i] + " after step " + step);
+        assertEquals(interfered[i], radios[i].isInterfered(), "Interference of " + radios[i] + " after step " + step);
+      }
+      // Only count the updates of the radio events.
+      medium.COUNTER_SIGNAL_UPDATES = updates;
+      medium.COUNTER_SIGNAL_RADIOS = updatedRadios;
+    }
+    assertTrue(updatedRadios < updates * RADIOS / 4, "Updated " + updatedRadios + " radios in " + updates + " updates");
+  }
+
+  @Test
+  void testUDGM() throws Exception {
+    compareWithFullUpdates(UDGM::new);
+  }
+
+  @Test
+  void testDGRM() throws Exception {
+    compareWithFullUpdates(DirectedGraphMedium::new);
+  }
+
+  @Test
+  void testLogisticLoss() throws Exception {
+    compareWithFullUpdates(sim -> {
+      var medium = new LogisticLoss(sim);
+      // Noise is drawn for the updated radios, so it differs between updates.
+      medium.AWGN_SIGMA = 0;
+      return medium;
+    });
+  }
+
+  /** Radio medium that updates the signal strengths of all radios, as radio mediums before incremental updates. */
+  private static final class FullUpdateMedium extends UDGM {
+    int fullUpdates;
+
+    FullUpdateMedium(Simulation sim) {
+      super(sim);
+    }
+
+    @Override
+    protected void updateSignalStrengths() {
+      fullUpdates++;
+      super.updateSignalStrengths();
+    }
+  }
+
+  @Test
+  void testOverriddenFullUpdates() throws Exception {
+    var sim = TestSimulations.createSimulation("Signal strengths",
+        "org.contikios.cooja.radiomediums.SilentRadioMedium", 1, Files.createTempDirectory("cooja"), Map.of(), "");
+    try {
+      TestSimulations.callOnSimulationThread(sim, () -> {
+        var medium = new FullUpdateMedium(sim);
+        var radios = new TestRadio[2];
+        for (int i = 0; i < radios.length; i++) {
+          radios[i] = new TestRadio(new TestMote(sim, i + 1));
+          radios[i].getPosition().setCoordinates(i * 10, 0, 0);
+          medium.registerRadioInterface(radios[i], sim);
+        }
+        int updates = medium.fullUpdates;
+        radios[0].transmitting = true;
+        radios[0].event(Radio.RadioEvent.TRANSMISSION_STARTED);
+        assertEquals(updates + 1, medium.fullUpdates, "Full updates after transmission start");
+        assertEquals(AbstractRadioMedium.SS_STRONG, radios[0].getCurrentSignalStrength(), "Signal strength of transmitter");
+        radios[0].transmitting = false;
+        radios[0].event(Radio.RadioEvent.TRANSMISSION_FINISHED);
+        assertEquals(updates + 2, medium.fullUpdates, "Full updates after transmission end");
+        return null;
+      });
+    } finally {
+      TestSimulations.runUntil(sim, 0);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja.script;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TestLogFilter {
+  @Test
+  void testEmpty() {
+    var filter = new LogFilter();
+    assertTrue(filter.matches(1, "Hello"));
+    assertTrue(filter.matches(-1, ""));
+  }
+
+  @Test
+  void testPrefix() {
+    var filter = new LogFilter().prefix("Received", "Sent");
+    assertTrue(filter.matches(1, "Received 1"));
+    assertTrue(filter.matches(1, "Sent 2"));
+    assertFalse(filter.matches(1, "Not Received"));
+  }
+
+  @Test
+  void testContains() {
+    var filter = new LogFilter().contains("ack");
+    assertTrue(filter.matches(1, "got ack 3"));
+    assertFalse(filter.matches(1, "got nothing"));
+  }
+
+  @Test
+  void testRegex() {
+    var filter = new LogFilter().regex("seq=[0-9]+$");
+    assertTrue(filter.matches(1, "Received seq=17"));
+    assertFalse(filter.matches(1, "Received seq=17 again"));
+    // Any of the message conditions is enough.
+    filter.prefix("Sent");
+    assertTrue(filter.matches(1, "Sent seq=x"));
+  }
+
+  @Test
+  void testMotes() {
+    var filter = new LogFilter().motes(2, 5);
+    assertTrue(filter.matches(2, "Hello"));
+    assertTrue(filter.matches(5, "Hello"));
+    assertFalse(filter.matches(3, "Hello"));
+    assertFalse(filter.matches(-1, "Hello"));
+    // The message must match in addition to the mote.
+    filter.prefix("Received");
+    assertTrue(filter.matches(5, "Received"));
+    assertFalse(filter.matches(5, "Hello"));
+    assertFalse(filter.matches(3, "Received"));
+  }
+
+  @Test
+  void testInvalidMote() {
+    var filter = new LogFilter();
+    assertThrows(IllegalArgumentException.class, () -> filter.motes(1, -2));
+    // The valid IDs before the invalid one are not added.
+    assertTrue(filter.matches(3, "Hello"));
+  }
+
+  @Test
+  void testClear() {
+    var filter = new LogFilter().prefix("a").contains("b").regex("c").motes(1);
+    assertFalse(filter.matches(2, "d"));
+    filter.clear();
+    assertTrue(filter.matches(2, "d"));
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.chip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.sics.mspsim.core.IOPort;
+import se.sics.mspsim.core.MSP430;
+import se.sics.mspsim.core.StateChangeListener;
+import se.sics.mspsim.core.TestPrograms;
+import se.sics.mspsim.core.TimeEvent;
+import se.sics.mspsim.core.USARTListener;
+import se.sics.mspsim.core.USARTSource;
+
+class TestCC2420 {
+  /** Stops the watchdog and sleeps. */
+  private static final int[] PROGRAM = {
+    0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+    0xd032, 0x0010,         // bis #CPUOFF, sr
+    0x3fff,                 // jmp $
+  };
+
+  /** A Sky-like node with the radio pins on port 1 and 4, stepped one microsecond at a time. */
+  private static class Node implements USARTSource {
+    final MSP430 cpu;
+    final CC2420 radio;
+    final IOPort port1;
+    final IOPort port4;
+    final List<String> pinChanges = new ArrayList<>();
+    final List<Integer> fifoData = new ArrayList<>();
+    private long micros = -1;
+    private int pins;
+    private int spiData;
+
+    Node() {
+      cpu = TestPrograms.createCPU(PROGRAM);
+      port1 = cpu.getIOUnit(IOPort.class, "P1");
+      port4 = cpu.getIOUnit(IOPort.class, "P4");
+      radio = new CC2420(cpu);
+      radio.setFIFOPPort(port1, 0);
+      radio.setFIFOPort(port1, 3);
+      radio.setCCAPort(port1, 4);
+      radio.setSFDPort(port4, 1);
+      cpu.reset();
+
+      step(100);
+      radio.setVRegOn(true);
+      step(1000);
+      strobe(CC2420.REG_SXOSCON);
+      step(1000);
+      writeRegister(CC2420.REG_IOCFG0, 10);
+      strobe(CC2420.REG_SRXON);
+      step(1000);
+    }
+
+    void step(int count) {
+      for (int i = 0; i < count; i++) {
+        cpu.stepMicros(++micros == 0 ? 0 : 1, 1);
+        int newPins = (port1.getIn() & 0x19) | (port4.getIn() & 0x02) << 8;
+        if (newPins != pins) {
+          pins = newPins;
+          pinChanges.add(micros + ": " + Integer.toHexString(pins));
+        }
+      }
+    }
+
+    int spi(int... data) {
+      radio.setChipSelect(true);
+      for (int d : data) {
+        radio.dataReceived(this, d);
+      }
+      radio.setChipSelect(false);
+      return spiData;
+    }
+
+    void strobe(int register) {
+      spi(register);
+    }
+
+    void writeRegister(int register, int value) {
+      spi(register, value >> 8, value & 0xff);
+    }
+
+    void readFifo(int count) {
+      for (int i = 0; i < count; i++) {
+        fifoData.add(spi(CC2420.REG_RXFIFO | CC2420.FLAG_READ, 0));
+      }
+    }
+
+    /** Delivers each byte with its own event, as a byte level radio medium does. */
+    void receiveBytes(byte[] frame) {
+      radio.receivedByte(frame[0]);
+      for (int i = 1; i < frame.length; i++) {
+        byte data = frame[i];
+        cpu.scheduleTimeEventMillis(new TimeEvent(0) {
+          @Override
+          public void execute(long t) {
+            radio.receivedByte(data);
+          }
+        }, i * Radio802154.BYTE_PERIOD);
+      }
+    }
+
+    @Override
+    public void byteReceived(int b) {
+      spiData = b;
+    }
+
+    @Override
+    public boolean isReceiveFlagCleared() {
+      return true;
+    }
+
+    @Override
+    public void addUSARTListener(USARTListener listener) {
+    }
+
+    @Override
+    public void removeUSARTListener(USARTListener listener) {
+    }
+
+    @Override
+    public void addStateChangeListener(StateChangeListener listener) {
+    }
+
+    @Override
+    public void removeStateChangeListener(StateChangeListener listener) {
+    }
+  }
+
+  private static byte[] createFrame(int destination, int payloadLength) {
+    byte[] frame = new byte[5 + 1 + 9 + payloadLength + 2];
+    frame[4] = 0x7A;
+    frame[5] = (byte) (frame.length - 6);
+    byte[] header = {0x41, (byte) 0x88, 0x17, (byte) 0xff, (byte) 0xff,
+        (byte) destination, (byte) (destination >> 8), 0x01, 0x00};
+    System.arraycopy(header, 0, frame, 6, header.length);
+    for (int i = 0; i < payloadLength; i++) {
+      frame[15 + i] = (byte) i;
+    }
+    return frame;
+  }
+
+  /** Receives a broadcast frame, a frame to another node, and reads the FIFO while receiving. */
+  private static Node receive(boolean frames) {
+    var node = new Node();
+    byte[][] received = {createFrame(0xffff, 40), createFrame(0x1234, 20), createFrame(0xffff, 8)};
+    for (byte[] frame : received) {
+      if (frames) {
+        node.radio.receivedFrame(frame);
+      } else {
+        node.receiveBytes(frame);
+      }
+      node.step(700);
+      node.readFifo(6);
+      node.step(2000);
+      node.readFifo(frame[5] + 1 - 6);
+      node.step(500);
+    }
+    return node;
+  }
+
+  @Test
+  void testReceivedFrame() {
+    var reference = receive(false);
+    var node = receive(true);
+    assertTrue(reference.pinChanges.size() > 10, "Pin changes " + reference.pinChanges);
+    assertEquals(reference.pinChanges, node.pinChanges);
+    assertEquals(reference.fifoData, node.fifoData);
+    byte[] first = createFrame(0xffff, 40);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(first[5 + i] & 0xff, (int) reference.fifoData.get(i));
+    }
+    assertTrue(node.cpu.getEventQueueOperations() < reference.cpu.getEventQueueOperations());
+  }
+}
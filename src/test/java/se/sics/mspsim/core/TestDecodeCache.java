@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import se.sics.mspsim.config.MSP430f1611Config;
+import se.sics.mspsim.util.ELF;
+
+class TestDecodeCache {
+  private static final String FIRMWARE = "firmware/sky/cputest.sky";
+
+  private static MSP430 createCPU(ELF elf, StringBuilder output, boolean decodeCache) {
+    var config = new MSP430f1611Config();
+    var cpu = new MSP430(config, elf.loadPrograms(config.maxMem), elf);
+    ((USARTSource) cpu.getIOUnit("USART1")).addUSARTListener((source, data) -> output.append((char) data));
+    cpu.setDecodeCache(decodeCache);
+    cpu.reset();
+    return cpu;
+  }
+
+  /** Runs the CPU test firmware with and without decoded instructions, one instruction at a time. */
+  @Test
+  void testSameExecution() throws IOException {
+    var elf = ELF.readELF(FIRMWARE);
+    var interpreted = new StringBuilder();
+    var decoded = new StringBuilder();
+    var interpreter = createCPU(elf, interpreted, false);
+    var cached = createCPU(elf, decoded, true);
+    for (int i = 0; i < 5_000_000 && interpreted.indexOf("EXIT") < 0; i++) {
+      assertEquals(interpreter.emulateOP(-1), cached.emulateOP(-1), "PC of instruction " + i);
+      assertEquals(interpreter.cycles, cached.cycles, "Cycles after instruction " + i);
+      assertArrayEquals(interpreter.reg, cached.reg, "Registers after instruction " + i);
+    }
+    assertTrue(interpreted.indexOf("EXIT") >= 0, "Firmware did not finish");
+    assertFalse(interpreted.indexOf("FAIL") >= 0, interpreted.toString());
+    assertEquals(interpreted.toString(), decoded.toString());
+  }
+
+  /** Changes an instruction in flash after it has been decoded. */
+  @Test
+  void testInvalidate() {
+    int[] words = {
+      0x4034, 0x1234, // mov #0x1234, r4
+      0x3ffd,         // jmp $-4
+    };
+    var cpu = TestPrograms.createCPU(words);
+    cpu.setDecodeCache(true);
+    cpu.reset();
+    cpu.emulateOP(-1);
+    assertEquals(0x1234, cpu.reg[4]);
+    cpu.emulateOP(-1);
+    cpu.setMemoryByte(0x4002, 0x78);
+    cpu.setMemoryByte(0x4003, 0x56);
+    cpu.emulateOP(-1);
+    assertEquals(0x5678, cpu.reg[4]);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TestEventQueue {
+  private static final class Event extends TimeEvent {
+    final int id;
+
+    Event(int id) {
+      super(0, "event " + id);
+      this.id = id;
+    }
+
+    @Override
+    public void execute(long t) {
+    }
+  }
+
+  /**
+   * The sorted linked list the heap replaced: a new event is inserted before
+   * the events with the same time, so ties run latest scheduled first.
+   */
+  private static final class ListQueue {
+    private final ArrayList<Integer> ids = new ArrayList<>();
+    private final ArrayList<Long> times = new ArrayList<>();
+
+    void addEvent(int id, long time) {
+      removeEvent(id);
+      int pos = 0;
+      while (pos < times.size() && times.get(pos) < time) {
+        pos++;
+      }
+      ids.add(pos, id);
+      times.add(pos, time);
+    }
+
+    boolean removeEvent(int id) {
+      int pos = ids.indexOf(id);
+      if (pos < 0) {
+        return false;
+      }
+      ids.remove(pos);
+      times.remove(pos);
+      return true;
+    }
+
+    int popFirst() {
+      if (ids.isEmpty()) {
+        return -1;
+      }
+      times.remove(0);
+      return ids.remove(0);
+    }
+
+    long nextTime() {
+      return times.isEmpty() ? 0 : times.get(0);
+    }
+  }
+
+  /** Applies the same random schedule, reschedule, remove and pop operations to both queues. */
+  @Test
+  void testSameOrderAsList() {
+    var queue = new EventQueue();
+    var list = new ListQueue();
+    var events = new Event[100];
+    for (int i = 0; i < events.length; i++) {
+      events[i] = new Event(i);
+    }
+    var random = new Random(4711);
+    long now = 0;
+    for (int step = 0; step < 100000; step++) {
+      var event = events[random.nextInt(events.length)];
+      switch (random.nextInt(4)) {
+        case 0, 1 -> {
+          // Few distinct times so ties are common, and scheduled events are rescheduled.
+          long time = now + random.nextInt(8);
+          queue.addEvent(event, time);
+          list.addEvent(event.id, time);
+        }
+        case 2 -> assertEquals(list.removeEvent(event.id), event.remove(), "Remove " + event.id);
+        default -> {
+          var first = (Event) queue.popFirst();
+          int id = list.popFirst();
+          assertEquals(id, first == null ? -1 : first.id, "Pop at step " + step);
+          if (first != null) {
+            assertFalse(first.isScheduled());
+            now = first.getTime();
+          }
+        }
+      }
+      assertEquals(list.nextTime(), queue.nextTime, "Next time at step " + step);
+      assertEquals(list.ids.size(), queue.eventCount, "Event count at step " + step);
+    }
+  }
+
+  /** Events with the same time run in reverse order of scheduling. */
+  @Test
+  void testTieOrder() {
+    var queue = new EventQueue();
+    var a = new Event(0);
+    var b = new Event(1);
+    var c = new Event(2);
+    queue.addEvent(a, 10);
+    queue.addEvent(b, 10);
+    queue.addEvent(c, 10);
+    // Rescheduling moves the event first among the ties.
+    queue.addEvent(a, 10);
+    assertEquals(a, queue.popFirst());
+    assertEquals(c, queue.popFirst());
+    assertEquals(b, queue.popFirst());
+    assertNull(queue.popFirst());
+    assertEquals(0L, queue.nextTime);
+  }
+
+  @Test
+  void testRemoveScheduled() {
+    var queue = new EventQueue();
+    var events = new Event[5];
+    for (int i = 0; i < events.length; i++) {
+      events[i] = new Event(i);
+      queue.addEvent(events[i], 100 - i);
+    }
+    assertEquals(96L, queue.nextTime);
+    assertTrue(events[4].remove());
+    assertFalse(events[4].remove());
+    assertFalse(events[4].isScheduled());
+    assertEquals(97L, queue.nextTime);
+    assertTrue(events[2].remove());
+    assertEquals(3, queue.eventCount);
+    assertEquals(events[3], queue.popFirst());
+    assertEquals(events[1], queue.popFirst());
+    assertEquals(events[0], queue.popFirst());
+    assertEquals(0, queue.eventCount);
+    queue.removeAll();
+    assertFalse(events[0].isScheduled());
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TestIdleLoop {
+  /** Counts timer interrupts at 0x1102, polling a flag at 0x1100 that is set by the interrupt. */
+  private static final int[] PROGRAM = {
+    0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+    0x4031, 0x3900,         // mov #0x3900, sp
+    0x40b2, 0x0010, 0x0162, // mov #CCIE, &TACCTL0
+    0x40b2, 0x03e8, 0x0172, // mov #1000, &TACCR0
+    0x40b2, 0x0224, 0x0160, // mov #TASSEL_2|MC_2|TACLR, &TACTL
+    0xd232,                 // eint
+    // loop:
+    0x9382, 0x1100,         // cmp #0, &0x1100
+    0x27fd,                 // jeq loop
+    0x4382, 0x1100,         // mov #0, &0x1100
+    0x5392, 0x1102,         // inc &0x1102
+    0x3ff8,                 // jmp loop
+    // timer:
+    0x4392, 0x1100,         // mov #1, &0x1100
+    0x50b2, 0x03e8, 0x0172, // add #1000, &TACCR0
+    0x1300,                 // reti
+  };
+
+  /** Counts periods of 100 ticks of timer A at 0x1102, polling the counter clocked by ACLK. */
+  private static final int[] TIMER_PROGRAM = {
+    0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+    0x4031, 0x3900,         // mov #0x3900, sp
+    0x40b2, 0x0124, 0x0160, // mov #TASSEL_1|MC_2|TACLR, &TACTL
+    // loop:
+    0x421f, 0x0170,         // mov &TAR, r15
+    0x503f, 0x0064,         // add #100, r15
+    // wait:
+    0x921f, 0x0170,         // cmp &TAR, r15
+    0x23fd,                 // jne wait
+    0x5392, 0x1102,         // inc &0x1102
+    0x3ff6,                 // jmp loop
+  };
+
+  /** Increments 0x1102 when pin 0 of port 1 goes high, polling the pin. */
+  private static final int[] PORT_PROGRAM = {
+    0x40b2, 0x5a80, 0x0120, // mov #WDTPW|WDTHOLD, &WDTCTL
+    0x4031, 0x3900,         // mov #0x3900, sp
+    // wait:
+    0xb3d2, 0x0020,         // bit.b #1, &P1IN
+    0x27fd,                 // jeq wait
+    0x5392, 0x1102,         // inc &0x1102
+    0x3fff,                 // jmp $
+  };
+
+  private static MSP430 createCPU(int[] program, boolean skipIdleLoops) {
+    var cpu = TestPrograms.createCPU(program);
+    cpu.setSkipIdleLoops(skipIdleLoops);
+    cpu.reset();
+    return cpu;
+  }
+
+  private static MSP430 createCPU(boolean skipIdleLoops, boolean decodeCache) {
+    // Timer A0 interrupt at the timer label.
+    var cpu = TestPrograms.createCPU(PROGRAM, 0xffec, 0x402e);
+    cpu.setSkipIdleLoops(skipIdleLoops);
+    cpu.setDecodeCache(decodeCache);
+    cpu.reset();
+    return cpu;
+  }
+
+  /**
+   * Steps one CPU every microsecond, and the other as long as it asks to sleep,
+   * after both executed the first microsecond.
+   */
+  private static void assertSameSteps(MSP430 reference, MSP430 cpu, long sleep, int steps) {
+    long referenceTime = 0;
+    long time = 0;
+    for (int i = 0; i < steps; i++) {
+      long jump = sleep + 1;
+      time += jump;
+      sleep = cpu.stepMicros(jump, 1);
+      while (referenceTime < time) {
+        reference.stepMicros(1, 1);
+        referenceTime++;
+      }
+      assertEquals(reference.cycles, cpu.cycles, "Cycles at " + time + " us");
+      assertArrayEquals(reference.reg, cpu.reg, "Registers at " + time + " us");
+    }
+  }
+
+  @Test
+  void testSleepUntilEvent() {
+    for (boolean decodeCache : new boolean[] {false, true}) {
+      var reference = createCPU(false, false);
+      var cpu = createCPU(true, decodeCache);
+      reference.stepMicros(0, 1);
+      assertSameSteps(reference, cpu, cpu.stepMicros(0, 1), 1000);
+      assertEquals(reference.getMemoryByte(0x1102), cpu.getMemoryByte(0x1102));
+      assertTrue(cpu.getIdleLoopSkippedCycles() > cpu.cycles / 2, "Skipped " + cpu.getIdleLoopSkippedCycles());
+    }
+  }
+
+  /** Steps both CPUs one millisecond at a time. */
+  @Test
+  void testLongSteps() {
+    var reference = createCPU(false, false);
+    var cpu = createCPU(true, false);
+    for (int i = 0; i < 200; i++) {
+      reference.stepMicros(i == 0 ? 0 : 1000, 1000);
+      cpu.stepMicros(i == 0 ? 0 : 1000, 1000);
+      assertEquals(reference.cycles, cpu.cycles, "Cycles after step " + i);
+      assertArrayEquals(reference.reg, cpu.reg, "Registers after step " + i);
+    }
+    assertEquals(reference.getMemoryByte(0x1102), cpu.getMemoryByte(0x1102));
+    assertTrue(cpu.getIdleLoopSkippedCycles() > 0);
+  }
+
+  /** Skips the iterations of a loop polling the timer counter until the counter changes. */
+  @Test
+  void testPollTimerCounter() {
+    var reference = createCPU(TIMER_PROGRAM, false);
+    var cpu = createCPU(TIMER_PROGRAM, true);
+    for (int i = 0; i < 200; i++) {
+      reference.stepMicros(i == 0 ? 0 : 1000, 1000);
+      cpu.stepMicros(i == 0 ? 0 : 1000, 1000);
+      assertEquals(reference.cycles, cpu.cycles, "Cycles after step " + i);
+      assertArrayEquals(reference.reg, cpu.reg, "Registers after step " + i);
+    }
+    assertTrue(cpu.getMemoryByte(0x1102) > 10, "Counted " + cpu.getMemoryByte(0x1102));
+    assertEquals(reference.getMemoryByte(0x1102), cpu.getMemoryByte(0x1102));
+    assertTrue(cpu.getIdleLoopSkippedCycles() > cpu.cycles / 2, "Skipped " + cpu.getIdleLoopSkippedCycles());
+  }
+
+  /** Sleeps while polling a port pin, until the event that sets the pin. */
+  @Test
+  void testPollPort() {
+    var reference = createCPU(PORT_PROGRAM, false);
+    var cpu = createCPU(PORT_PROGRAM, true);
+    reference.stepMicros(0, 1);
+    long sleep = cpu.stepMicros(0, 1);
+    // Scheduled after the first step, which resets the CPUs.
+    for (var c : new MSP430[] {reference, cpu}) {
+      var port = c.getIOUnit(IOPort.class, "P1");
+      c.scheduleCycleEvent(new TimeEvent(0) {
+        @Override
+        public void execute(long t) {
+          port.setPinState(0, IOPort.PinState.HI);
+        }
+      }, 100000);
+    }
+    assertSameSteps(reference, cpu, sleep, 100);
+    assertEquals(1, reference.getMemoryByte(0x1102));
+    assertEquals(1, cpu.getMemoryByte(0x1102));
+    assertTrue(cpu.getIdleLoopSkippedCycles() > 90000, "Skipped " + cpu.getIdleLoopSkippedCycles());
+  }
+
+  /**
+   * Sets a pin that a sleeping loop polls without an event, as Cooja does for
+   * a button. The loop sees the pin at the next iteration if the CPU first
+   * executes until the change, and does not fail if it does not.
+   */
+  @Test
+  void testPinChangeDuringSleep() {
+    var reference = createCPU(PORT_PROGRAM, false);
+    var cpu = createCPU(PORT_PROGRAM, true);
+    var late = createCPU(PORT_PROGRAM, true);
+    reference.stepMicros(0, 1);
+    long sleep = cpu.stepMicros(0, 1);
+    late.stepMicros(0, 1);
+    for (var c : new MSP430[] {reference, cpu, late}) {
+      c.scheduleCycleEvent(new TimeEvent(0) {
+        @Override
+        public void execute(long t) {
+        }
+      }, 1000000);
+    }
+    long press = 1000;
+    for (int i = 0; i < press; i++) {
+      reference.stepMicros(1, 1);
+    }
+    long time = 0;
+    while (time + sleep + 1 < press) {
+      long jump = sleep + 1;
+      time += jump;
+      sleep = cpu.stepMicros(jump, 1);
+      late.stepMicros(jump, 1);
+    }
+    assertTrue(cpu.isIdleLoopSleep());
+    assertTrue(cpu.stepMicros(press - time, 1) > 0, "Sleeps until the event");
+    assertEquals(reference.cycles, cpu.cycles);
+    assertEquals(0, reference.getMemoryByte(0x1102));
+    long skipped = cpu.getIdleLoopSkippedCycles();
+    for (var c : new MSP430[] {reference, cpu, late}) {
+      c.getIOUnit(IOPort.class, "P1").setPinState(0, IOPort.PinState.HI);
+    }
+    assertFalse(cpu.isIdleLoop());
+    assertEquals(0, cpu.stepMicros(0, 1), "Executes after the change");
+    assertSameSteps(reference, cpu, 0, 100);
+    assertEquals(1, reference.getMemoryByte(0x1102));
+    assertEquals(1, cpu.getMemoryByte(0x1102));
+
+    // Without executing until the change, the iterations until the step are
+    // skipped, all but one of those that were skipped until the change.
+    assertEquals(0, late.stepMicros(press - time, 1));
+    assertTrue(late.getIdleLoopSkippedCycles() > skipped - 10, "Skipped " + late.getIdleLoopSkippedCycles());
+    assertEquals(1, late.getMemoryByte(0x1102));
+  }
+}
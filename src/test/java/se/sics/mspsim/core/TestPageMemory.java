@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class TestPageMemory {
+  /** Image of three pages: one with program bytes and two that are zero. */
+  private static int[] createImage() {
+    var image = new int[3 * PageMemory.PAGE_SIZE];
+    for (int i = 0; i < PageMemory.PAGE_SIZE; i++) {
+      image[i] = i;
+    }
+    return image;
+  }
+
+  /** Writes to copies and to the original after copying, and reads every address of all memories. */
+  @Test
+  void testCopyOnWrite() {
+    var original = new PageMemory(createImage());
+    assertEquals(PageMemory.PAGE_SIZE, original.getOwnedBytes());
+    var first = original.copy();
+    var second = original.copy();
+    assertEquals(0, original.getOwnedBytes());
+    assertEquals(0, first.getOwnedBytes());
+
+    // A program page, and a zero page in each copy.
+    int zero = PageMemory.PAGE_SIZE + 7;
+    first.set(5, 0xaa);
+    first.set(zero, 0xbb);
+    second.set(zero, 0xcc);
+    second.set(2 * PageMemory.PAGE_SIZE, 0xdd);
+    original.set(6, 0xee);
+    assertEquals(2 * PageMemory.PAGE_SIZE, first.getOwnedBytes());
+    assertEquals(2 * PageMemory.PAGE_SIZE, second.getOwnedBytes());
+    assertEquals(PageMemory.PAGE_SIZE, original.getOwnedBytes());
+
+    var image = createImage();
+    var fresh = new PageMemory(image);
+    for (int address = 0; address < original.size(); address++) {
+      int expected = image[address];
+      assertEquals(expected, fresh.get(address), "New memory at " + address);
+      assertEquals(address == 5 ? 0xaa : address == zero ? 0xbb : expected, first.get(address), "First at " + address);
+      assertEquals(address == zero ? 0xcc : address == 2 * PageMemory.PAGE_SIZE ? 0xdd : expected, second.get(address),
+          "Second at " + address);
+      assertEquals(address == 6 ? 0xee : expected, original.get(address), "Original at " + address);
+    }
+  }
+
+  /** Writes to a copy of a copy, and to pages that the copies already wrote. */
+  @Test
+  void testCopyOfCopy() {
+    var original = new PageMemory(createImage());
+    var copy = original.copy();
+    copy.set(PageMemory.PAGE_SIZE, 1);
+    var nested = copy.copy();
+    nested.set(PageMemory.PAGE_SIZE, 2);
+    copy.set(PageMemory.PAGE_SIZE + 1, 3);
+    nested.set(1, 4);
+
+    assertEquals(1, copy.get(PageMemory.PAGE_SIZE));
+    assertEquals(3, copy.get(PageMemory.PAGE_SIZE + 1));
+    assertEquals(1, copy.get(1));
+    assertEquals(2, nested.get(PageMemory.PAGE_SIZE));
+    assertEquals(0, nested.get(PageMemory.PAGE_SIZE + 1));
+    assertEquals(4, nested.get(1));
+    assertEquals(0, original.get(PageMemory.PAGE_SIZE));
+    assertEquals(0, original.get(PageMemory.PAGE_SIZE + 1));
+    assertEquals(1, original.get(1));
+    assertEquals(0, new PageMemory(new int[PageMemory.PAGE_SIZE]).get(0));
+  }
+
+  /**
+   * Restores a saved memory into a copy that shares its pages, which must not
+   * change the memories it shares pages with.
+   */
+  @Test
+  void testRestoreSharedPages() throws IOException {
+    var image = createImage();
+    var type = new PageMemory(image);
+    var saved = type.copy();
+    saved.set(3, 0x11);
+    saved.set(PageMemory.PAGE_SIZE, 0x22);
+    var bytes = new ByteArrayOutputStream();
+    saved.save(new DataOutputStream(bytes));
+
+    var other = type.copy();
+    var restored = type.copy();
+    restored.set(2 * PageMemory.PAGE_SIZE, 0x33);
+    restored.restore(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    // The unchanged program page is still shared, the two written pages are not.
+    assertEquals(2 * PageMemory.PAGE_SIZE, restored.getOwnedBytes());
+    restored.set(4, 0x44);
+    restored.set(PageMemory.PAGE_SIZE + 1, 0x55);
+
+    var fresh = new PageMemory(image);
+    for (int address = 0; address < type.size(); address++) {
+      int expected = image[address];
+      assertEquals(expected, type.get(address), "Type at " + address);
+      assertEquals(expected, other.get(address), "Other at " + address);
+      assertEquals(expected, fresh.get(address), "New memory at " + address);
+      int written = switch (address) {
+        case 4 -> 0x44;
+        case PageMemory.PAGE_SIZE + 1 -> 0x55;
+        default -> saved.get(address);
+      };
+      assertEquals(written, restored.get(address), "Restored at " + address);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.contikios.cooja;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import org.contikios.cooja.interfaces.Position;
+import org.contikios.cooja.mspmote.SkyMoteType;
+import org.contikios.cooja.mspmote.interfaces.MspMoteID;
+import org.contikios.cooja.plugins.ScriptRunner;
+import org.jdom2.Element;
+
+/**
+ * Headless simulations for tests and benchmarks of Cooja.
+ */
+public final class TestSimulations {
+  private TestSimulations() {
+  }
+
+  /**
+   * Creates a headless simulation without motes, as loading a simulation config
+   * with only a script does. The script controls the simulation and writes
+   * its log to COOJA.testlog in the log directory.
+   *
+   * @param title Simulation title
+   * @param radioMediumClass Radio medium class name
+   * @param seed Random seed
+   * @param logDir Log directory
+   * @param opts Simulation options
+   * @param script Test script
+   * @return Simulation
+   */
+  public static Simulation createSimulation(String title, String radioMediumClass, long seed, Path logDir,
+                                            Map<String, String> opts, String script) throws Exception {
+    return createSimulation(title, radioMediumClass, seed, 0, logDir, opts, script);
+  }
+
+  /**
+   * Creates a headless simulation, as loading a simulation config with a script
+   * and the given mote types and motes does.
+   *
+   * @param title Simulation title
+   * @param radioMediumClass Radio medium class name
+   * @param seed Random seed
+   * @param moteStartDelay Longest random startup delay of motes (microseconds)
+   * @param logDir Log directory
+   * @param opts Simulation options
+   * @param script Test script
+   * @param config Simulation config elements, such as mote types with their motes
+   * @return Simulation
+   */
+  public static Simulation createSimulation(String title, String radioMediumClass, long seed, long moteStartDelay,
+                                            Path logDir, Map<String, String> opts, String script,
+                                            Element... config) throws Exception {
+    Cooja.configuration = new Cooja.Config(null, false, null, null, "--language=es6", logDir.toString(),
+        null, null, 1);
+    Cooja.resetExternalToolsSettings();
+    var plugin = new Element("plugin").setText(ScriptRunner.class.getName())
+        .addContent(new Element("plugin_config").addContent(new Element("script").setText(script)));
+    var root = new Element("simconf")
+        .addContent(new Element("simulation").addContent(List.of(config)).addContent(new Element("radiomedium")))
+        .addContent(plugin);
+    // The seed is that of the config, not one given on the command line.
+    var cfg = new Simulation.SimConfig(null, null, false, false, logDir.toString(), opts);
+    return new Simulation(cfg, Cooja.makeCooja(), title, false, seed, radioMediumClass, moteStartDelay, false, root);
+  }
+
+  /**
+   * Creates the config of a Sky mote type with motes in a row, 30 meters apart
+   * and with IDs from 1.
+   *
+   * @param firmware Firmware file
+   * @param motes Number of motes
+   * @return Mote type config element
+   */
+  public static Element createSkyMoteType(Path firmware, int motes) {
+    var moteType = new Element("motetype").setText(SkyMoteType.class.getName())
+        .addContent(new Element("identifier").setText("sky1"))
+        .addContent(new Element("firmware").setText(firmware.toAbsolutePath().toString()));
+    for (int i = 0; i < motes; i++) {
+      moteType.addContent(new Element("mote")
+          .addContent(new Element("interface_config").setText(Position.class.getName())
+              .addContent(new Element("pos").setAttribute("x", Integer.toString(30 * i)).setAttribute("y", "0")))
+          .addContent(new Element("interface_config").setText(MspMoteID.class.getName())
+              .addContent(new Element("id").setText(Integer.toString(i + 1)))));
+    }
+    return moteType;
+  }
+
+  /**
+   * Calls a task on the simulation thread and waits for its result.
+   *
+   * @param sim Simulation
+   * @param task Task
+   * @return Result of the task
+   */
+  public static <T> T callOnSimulationThread(Simulation sim, Callable<T> task) throws Exception {
+    var result = new CompletableFuture<T>();
+    sim.invokeSimulationThread(() -> {
+      try {
+        result.complete(task.call());
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    });
+    return result.get();
+  }
+
+  /**
+   * Runs the simulation until the given time and quits the simulation thread,
+   * as a headless simulation does when it stops.
+   *
+   * @param sim Simulation
+   * @param stopTime Simulation time to stop at
+   * @return Return value of the simulation, null when it stopped without errors
+   */
+  public static Integer runUntil(Simulation sim, long stopTime) throws Exception {
+    callOnSimulationThread(sim, () -> {
+      sim.scheduleEvent(new TimeEvent() {
+        @Override
+        public void execute(long t) {
+          sim.stopSimulation(null);
+        }
+      }, Math.max(stopTime, sim.getSimulationTime()));
+      return null;
+    });
+    return sim.startSimulation(true);
+  }
+}
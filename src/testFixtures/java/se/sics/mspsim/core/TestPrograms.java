@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, RISE Research Institutes of Sweden AB.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDER AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package se.sics.mspsim.core;
+
+import se.sics.mspsim.config.MSP430f1611Config;
+
+/**
+ * Small hand-assembled programs for tests and benchmarks of MSPSim.
+ */
+public final class TestPrograms {
+  /** Address that programs are loaded at, and that the reset vector points to. */
+  public static final int PROGRAM_START = 0x4000;
+
+  private TestPrograms() {
+  }
+
+  /**
+   * Creates an MSP430F1611 with a program in flash. The CPU is not reset.
+   *
+   * @param program Instruction words, stored little-endian from {@link #PROGRAM_START}
+   * @param vectors Pairs of interrupt vector address and handler address
+   * @return CPU
+   */
+  public static MSP430 createCPU(int[] program, int... vectors) {
+    if (vectors.length % 2 != 0) {
+      throw new IllegalArgumentException("Vectors must be pairs of vector and handler address");
+    }
+    var config = new MSP430f1611Config();
+    int[] memory = new int[config.maxMem];
+    for (int i = 0; i < program.length; i++) {
+      memory[PROGRAM_START + 2 * i] = program[i] & 0xff;
+      memory[PROGRAM_START + 2 * i + 1] = program[i] >> 8;
+    }
+    setWord(memory, 0xfffe, PROGRAM_START);
+    for (int i = 0; i < vectors.length; i += 2) {
+      setWord(memory, vectors[i], vectors[i + 1]);
+    }
+    return new MSP430(config, memory, null);
+  }
+
+  /**
+   * Loads a program into the flash of a CPU that is already created, such as
+   * the CPU of a mote, and points the reset vector to it. The CPU starts the
+   * program at its next reset.
+   *
+   * @param cpu CPU
+   * @param program Instruction words, stored little-endian from {@link #PROGRAM_START}
+   */
+  public static void loadProgram(MSP430Core cpu, int[] program) {
+    for (int i = 0; i < program.length; i++) {
+      cpu.setMemoryByte(PROGRAM_START + 2 * i, program[i] & 0xff);
+      cpu.setMemoryByte(PROGRAM_START + 2 * i + 1, program[i] >> 8);
+    }
+    cpu.setMemoryByte(0xfffe, PROGRAM_START & 0xff);
+    cpu.setMemoryByte(0xffff, PROGRAM_START >> 8);
+  }
+
+  private static void setWord(int[] memory, int address, int value) {
+    memory[address] = value & 0xff;
+    memory[address + 1] = value >> 8;
+  }
+}